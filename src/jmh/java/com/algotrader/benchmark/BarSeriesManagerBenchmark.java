@@ -0,0 +1,62 @@
+package com.algotrader.benchmark;
+
+import com.algotrader.domain.model.Tick;
+import com.algotrader.indicator.BarSeriesManager;
+import com.algotrader.indicator.InstrumentIndicatorConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link BarSeriesManager#processTick}: tick accumulation into the pending bar
+ * plus the periodic bar completion into the ta4j series (1-minute bars, 500-bar cap).
+ *
+ * <p>Fixture ticks are 250ms apart, so roughly one invocation in 240 completes a bar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BarSeriesManagerBenchmark {
+
+    private BarSeriesManager barSeriesManager;
+    private List<Tick> ticks;
+    private int cursor;
+    private Duration timeShift = Duration.ZERO;
+
+    @Setup
+    public void setUp() {
+        InstrumentIndicatorConfig config = new InstrumentIndicatorConfig();
+        config.setInstrumentToken(256265L);
+        config.setTradingSymbol("NIFTY 50");
+        config.setBarDuration(Duration.ofMinutes(1));
+        config.setMaxBars(500);
+        barSeriesManager = new BarSeriesManager(config);
+        ticks = TickFixtures.ticks(8192);
+    }
+
+    @Benchmark
+    public boolean processTick() {
+        Tick tick = ticks.get(cursor);
+        if (++cursor == ticks.size()) {
+            // Keep time moving forward across fixture wrap-arounds
+            cursor = 0;
+            timeShift = timeShift.plus(Duration.between(
+                    ticks.get(0).getTimestamp(), ticks.get(ticks.size() - 1).getTimestamp()));
+        }
+        return barSeriesManager.processTick(
+                tick.getLastPrice(), tick.getVolume(), tick.getTimestamp().plus(timeShift));
+    }
+}
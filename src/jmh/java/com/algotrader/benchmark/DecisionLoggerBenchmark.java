@@ -0,0 +1,74 @@
+package com.algotrader.benchmark;
+
+import com.algotrader.domain.enums.DecisionOutcome;
+import com.algotrader.domain.enums.DecisionSeverity;
+import com.algotrader.domain.enums.DecisionSource;
+import com.algotrader.domain.enums.DecisionType;
+import com.algotrader.domain.model.DecisionRecord;
+import com.algotrader.observability.DecisionArchiveService;
+import com.algotrader.observability.DecisionLogger;
+import com.algotrader.strategy.base.MarketSnapshot;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link DecisionLogger#log}: record construction, ring buffer insert/evict,
+ * event publication (no-op publisher) and archive queueing.
+ *
+ * <p>DEBUG records are dropped by the archive service unless persist-debug is on, which
+ * matches production for routine "no action" evaluations, so the archive queue stays bounded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecisionLoggerBenchmark {
+
+    private DecisionLogger decisionLogger;
+    private Map<String, Object> context;
+    private MarketSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        // Repository is only touched by the scheduled flush, which does not run here
+        decisionLogger = new DecisionLogger(event -> {}, new DecisionArchiveService(null));
+        context = Map.of("spotPrice", "22015.35", "atmIV", "N/A", "decision", false);
+        snapshot = MarketSnapshot.builder()
+                .spotPrice(BigDecimal.valueOf(22015.35))
+                .atmIV(BigDecimal.valueOf(13.8))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public DecisionRecord logRoutineEvaluation() {
+        return decisionLogger.log(
+                DecisionSource.STRATEGY_ENGINE,
+                "STR-BENCH",
+                DecisionType.STRATEGY_ENTRY_EVALUATED,
+                DecisionOutcome.SKIPPED,
+                "Entry conditions not met",
+                context,
+                DecisionSeverity.DEBUG);
+    }
+
+    @Benchmark
+    public void logStrategyEvaluation() {
+        decisionLogger.logStrategyEvaluation(
+                "STR-BENCH", DecisionType.STRATEGY_ENTRY_EVALUATED, false, "Entry conditions not met", snapshot);
+    }
+}
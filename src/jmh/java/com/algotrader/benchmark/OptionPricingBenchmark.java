@@ -0,0 +1,101 @@
+package com.algotrader.benchmark;
+
+import com.algotrader.core.processor.GreeksCalculator;
+import com.algotrader.core.processor.IVCalculator;
+import com.algotrader.domain.model.Greeks;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link IVCalculator#solve} and {@link GreeksCalculator} over a synthetic NIFTY
+ * option chain (ATM +/- 10 strikes, CE and PE) priced at 14% IV with a week to expiry.
+ *
+ * <p>Each invocation walks to the next chain entry so that solver convergence paths vary
+ * (ATM converges in a few Newton steps, wings fall back to bisection more often).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptionPricingBenchmark {
+
+    private static final double SPOT = 22_000.0;
+    private static final double RATE = 0.07;
+    private static final double SIGMA = 0.14;
+    private static final double T = 7.0 / 365.0;
+
+    private IVCalculator ivCalculator;
+    private GreeksCalculator greeksCalculator;
+
+    private double[] strikes;
+    private double[] prices;
+    private boolean[] calls;
+    private BigDecimal[] strikeValues;
+    private BigDecimal[] priceValues;
+    private BigDecimal spot;
+    private BigDecimal sigma;
+    private LocalDate expiry;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        ivCalculator = new IVCalculator();
+        greeksCalculator = new GreeksCalculator(ivCalculator);
+
+        int count = 42;
+        strikes = new double[count];
+        prices = new double[count];
+        calls = new boolean[count];
+        strikeValues = new BigDecimal[count];
+        priceValues = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            double strike = SPOT + (i / 2 - 10) * 50.0;
+            boolean call = i % 2 == 0;
+            strikes[i] = strike;
+            calls[i] = call;
+            prices[i] = ivCalculator.blackScholesPrice(SPOT, strike, T, RATE, 0.0, SIGMA, call);
+            strikeValues[i] = BigDecimal.valueOf(strike);
+            priceValues[i] = BigDecimal.valueOf(Math.max(prices[i], 0.05));
+        }
+        spot = BigDecimal.valueOf(SPOT);
+        sigma = BigDecimal.valueOf(SIGMA);
+        expiry = LocalDate.now().plusDays(7);
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) % strikes.length;
+        return i;
+    }
+
+    @Benchmark
+    public double ivSolve() {
+        int i = next();
+        return ivCalculator.solve(SPOT, strikes[i], T, RATE, 0.0, prices[i], calls[i]);
+    }
+
+    @Benchmark
+    public Greeks greeksWithIvSolve() {
+        int i = next();
+        return greeksCalculator.calculate(spot, strikeValues[i], expiry, priceValues[i], calls[i]);
+    }
+
+    @Benchmark
+    public Greeks greeksFromKnownIv() {
+        int i = next();
+        return greeksCalculator.calculateDirect(spot, strikeValues[i], expiry, sigma, calls[i], 0.0);
+    }
+}
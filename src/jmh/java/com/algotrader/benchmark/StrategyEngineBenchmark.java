@@ -0,0 +1,143 @@
+package com.algotrader.benchmark;
+
+import com.algotrader.core.engine.StrategyEngine;
+import com.algotrader.core.engine.StrategyEvaluationShards;
+import com.algotrader.core.processor.GreeksCalculator;
+import com.algotrader.core.processor.IVCalculator;
+import com.algotrader.core.processor.MarketStateService;
+import com.algotrader.domain.enums.StrategyType;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.EventPublisherHelper;
+import com.algotrader.event.TickEvent;
+import com.algotrader.observability.TickLatencyTracker;
+import com.algotrader.oms.OrderRequest;
+import com.algotrader.service.InstrumentService;
+import com.algotrader.strategy.base.BaseStrategy;
+import com.algotrader.strategy.base.BaseStrategyConfig;
+import com.algotrader.strategy.base.MarketSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link StrategyEngine#onTick} dispatch across N armed strategies.
+ *
+ * <p>Strategies use a zero monitoring interval and never enter, so every tick runs the full
+ * BaseStrategy evaluation path (interval/stale guards, entry evaluation, decision logging)
+ * without placing orders. Decision events go to a no-op publisher, so the measured cost is
+ * the engine and strategy overhead, not downstream listeners. Sharding is disabled so that
+ * evaluation runs on the benchmark thread and is included in the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyEngineBenchmark {
+
+    @Param({"1", "10", "40"})
+    public int strategyCount;
+
+    private StrategyEngine strategyEngine;
+    private List<TickEvent> events;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        EventPublisherHelper eventPublisherHelper = new EventPublisherHelper(event -> {});
+        // Repositories and executors are only used by deploy/close paths, not by tick dispatch.
+        // Instruments are not loaded, so no underlying is tracked and ticks take the
+        // tick-built snapshot path.
+        MarketStateService marketStateService = new MarketStateService(
+                new InstrumentService(null, null, null), new GreeksCalculator(new IVCalculator()), null);
+        strategyEngine = new StrategyEngine(
+                null,
+                eventPublisherHelper,
+                null,
+                null,
+                null,
+                null,
+                null,
+                new TickLatencyTracker(new SimpleMeterRegistry()),
+                new StrategyEvaluationShards(0, 256),
+                marketStateService);
+
+        BaseStrategyConfig config = BaseStrategyConfig.builder()
+                .underlying("NIFTY")
+                .lots(1)
+                .strikeInterval(BigDecimal.valueOf(50))
+                .build();
+        for (int i = 0; i < strategyCount; i++) {
+            BaseStrategy strategy = new IdleStrategy("STR-BENCH-" + i, config);
+            strategyEngine.registerRestoredStrategy(strategy);
+            strategy.arm();
+        }
+
+        events = new ArrayList<>();
+        for (Tick tick : TickFixtures.ticks(4096)) {
+            events.add(new TickEvent(this, tick));
+        }
+    }
+
+    @Benchmark
+    public void onTick() {
+        strategyEngine.onTick(events.get(cursor));
+        cursor = (cursor + 1) % events.size();
+    }
+
+    /** Armed strategy that evaluates on every tick and never enters. */
+    static class IdleStrategy extends BaseStrategy {
+
+        IdleStrategy(String id, BaseStrategyConfig config) {
+            super(id, id, config);
+        }
+
+        @Override
+        protected boolean shouldEnter(MarketSnapshot snapshot) {
+            return false;
+        }
+
+        @Override
+        protected List<OrderRequest> buildEntryOrders(MarketSnapshot snapshot) {
+            return List.of();
+        }
+
+        @Override
+        protected boolean shouldExit(MarketSnapshot snapshot) {
+            return false;
+        }
+
+        @Override
+        protected void adjust(MarketSnapshot snapshot) {}
+
+        @Override
+        public StrategyType getType() {
+            return StrategyType.CUSTOM;
+        }
+
+        @Override
+        public List<StrategyType> supportedMorphs() {
+            return List.of();
+        }
+
+        @Override
+        public Duration getMonitoringInterval() {
+            return Duration.ZERO;
+        }
+    }
+}
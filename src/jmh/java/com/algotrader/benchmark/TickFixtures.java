@@ -0,0 +1,206 @@
+package com.algotrader.benchmark;
+
+import com.algotrader.domain.model.RecordedTick;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.simulator.TickFileFormat;
+import com.zerodhatech.models.Depth;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Deterministic tick fixtures for the JMH benchmarks.
+ *
+ * <p>Fixtures are synthesized from a recorded tick file (the 88-byte format written by
+ * {@link com.algotrader.simulator.TickRecorder}) when {@code -Dbenchmark.tickFile} points at one.
+ * The file is scanned once to derive, per instrument, the last traded price and the standard
+ * deviation of tick-to-tick log returns; the benchmark stream is then a seeded random walk with
+ * those parameters. This keeps realistic price levels and volatility without shipping market
+ * data in the repo, and keeps runs comparable across commits (same seed, same stream).
+ *
+ * <p>Without a tick file, a built-in NIFTY/BANKNIFTY profile with a handful of option tokens
+ * is used.
+ */
+public final class TickFixtures {
+
+    public static final String TICK_FILE_PROPERTY = "benchmark.tickFile";
+
+    private static final long SEED = 20240101L;
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    /** Default profile: token -> {price, per-tick log-return stdev}. */
+    private static final Map<Long, double[]> DEFAULT_PROFILE = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_PROFILE.put(256265L, new double[] {22000.0, 0.00008}); // NIFTY 50
+        DEFAULT_PROFILE.put(260105L, new double[] {48000.0, 0.00010}); // NIFTY BANK
+        DEFAULT_PROFILE.put(10001L, new double[] {145.0, 0.0020}); // ATM CE
+        DEFAULT_PROFILE.put(10002L, new double[] {138.0, 0.0020}); // ATM PE
+        DEFAULT_PROFILE.put(10003L, new double[] {42.0, 0.0035}); // OTM CE
+        DEFAULT_PROFILE.put(10004L, new double[] {39.0, 0.0035}); // OTM PE
+    }
+
+    private TickFixtures() {}
+
+    /**
+     * Generates {@code count} recorded ticks, round-robin across the profiled instruments.
+     */
+    public static List<RecordedTick> recordedTicks(int count) {
+        Map<Long, double[]> profile = loadProfile();
+        Map<Long, Double> prices = new HashMap<>();
+        profile.forEach((token, params) -> prices.put(token, params[0]));
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        Long[] tokens = profile.keySet().toArray(new Long[0]);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 15, 9, 15);
+        List<RecordedTick> ticks = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            long token = tokens[i % tokens.length];
+            double[] params = profile.get(token);
+            double price = prices.get(token) * Math.exp(random.nextGaussian() * params[1]);
+            prices.put(token, price);
+
+            BigDecimal last = BigDecimal.valueOf(roundToTick(price));
+            ticks.add(RecordedTick.builder()
+                    .timestamp(start.plusNanos(i * 250_000_000L))
+                    .instrumentToken(token)
+                    .lastPrice(last)
+                    .open(BigDecimal.valueOf(roundToTick(params[0])))
+                    .high(last.max(BigDecimal.valueOf(roundToTick(params[0]))))
+                    .low(last.min(BigDecimal.valueOf(roundToTick(params[0]))))
+                    .close(BigDecimal.valueOf(roundToTick(params[0])))
+                    .volume(1_000L + i)
+                    .oi(BigDecimal.valueOf(5_000_000L))
+                    .oiChange(BigDecimal.ZERO)
+                    .receivedAtNanos(i * 250_000_000L)
+                    .build());
+        }
+        return ticks;
+    }
+
+    /** Domain ticks, as published in TickEvents. */
+    public static List<Tick> ticks(int count) {
+        List<Tick> ticks = new ArrayList<>(count);
+        for (RecordedTick recorded : recordedTicks(count)) {
+            ticks.add(Tick.builder()
+                    .instrumentToken(recorded.getInstrumentToken())
+                    .lastPrice(recorded.getLastPrice())
+                    .open(recorded.getOpen())
+                    .high(recorded.getHigh())
+                    .low(recorded.getLow())
+                    .close(recorded.getClose())
+                    .volume(recorded.getVolume())
+                    .oi(recorded.getOi())
+                    .oiChange(recorded.getOiChange())
+                    .timestamp(recorded.getTimestamp())
+                    .build());
+        }
+        return ticks;
+    }
+
+    /** Kite SDK ticks in FULL mode (five depth levels per side), as delivered by KiteTicker. */
+    public static List<com.zerodhatech.models.Tick> kiteTicks(int count) {
+        List<com.zerodhatech.models.Tick> ticks = new ArrayList<>(count);
+        for (RecordedTick recorded : recordedTicks(count)) {
+            double last = recorded.getLastPrice().doubleValue();
+            com.zerodhatech.models.Tick kiteTick = new com.zerodhatech.models.Tick();
+            kiteTick.setMode("full");
+            kiteTick.setTradable(true);
+            kiteTick.setInstrumentToken(recorded.getInstrumentToken());
+            kiteTick.setLastTradedPrice(last);
+            kiteTick.setOpenPrice(recorded.getOpen().doubleValue());
+            kiteTick.setHighPrice(recorded.getHigh().doubleValue());
+            kiteTick.setLowPrice(recorded.getLow().doubleValue());
+            kiteTick.setClosePrice(recorded.getClose().doubleValue());
+            kiteTick.setVolumeTradedToday(recorded.getVolume());
+            kiteTick.setTotalBuyQuantity(125_000);
+            kiteTick.setTotalSellQuantity(118_000);
+            kiteTick.setOi(recorded.getOi().doubleValue());
+            kiteTick.setTickTimestamp(
+                    Date.from(recorded.getTimestamp().atZone(IST).toInstant()));
+
+            Map<String, ArrayList<Depth>> depth = new HashMap<>();
+            depth.put("buy", depthLevels(last, -0.05));
+            depth.put("sell", depthLevels(last, 0.05));
+            kiteTick.setMarketDepth(depth);
+            ticks.add(kiteTick);
+        }
+        return ticks;
+    }
+
+    private static ArrayList<Depth> depthLevels(double last, double step) {
+        ArrayList<Depth> levels = new ArrayList<>(5);
+        for (int level = 1; level <= 5; level++) {
+            Depth depth = new Depth();
+            depth.setPrice(roundToTick(last + step * level));
+            depth.setQuantity(75 * level);
+            depth.setOrders(level);
+            levels.add(depth);
+        }
+        return levels;
+    }
+
+    /**
+     * Derives the per-instrument profile from the recorded tick file, falling back to
+     * {@link #DEFAULT_PROFILE} when no file is configured or it holds no usable ticks.
+     */
+    private static Map<Long, double[]> loadProfile() {
+        String tickFile = System.getProperty(TICK_FILE_PROPERTY);
+        if (tickFile == null || tickFile.isBlank()) {
+            return DEFAULT_PROFILE;
+        }
+
+        Path path = Path.of(tickFile);
+        Map<Long, double[]> stats = new LinkedHashMap<>(); // token -> {lastPrice, n, sum, sumSq}
+        try (InputStream raw = Files.newInputStream(path);
+                InputStream in = tickFile.endsWith(".gz") ? new GZIPInputStream(raw) : raw;
+                DataInputStream dis = new DataInputStream(new BufferedInputStream(in))) {
+            TickFileFormat.FileHeader header = TickFileFormat.readHeader(dis);
+            for (int i = 0; i < header.tickCount(); i++) {
+                RecordedTick tick = TickFileFormat.readTick(dis);
+                double price = tick.getLastPrice().doubleValue();
+                if (price <= 0) {
+                    continue;
+                }
+                double[] s = stats.computeIfAbsent(tick.getInstrumentToken(), t -> new double[] {price, 0, 0, 0});
+                double logReturn = Math.log(price / s[0]);
+                s[0] = price;
+                s[1]++;
+                s[2] += logReturn;
+                s[3] += logReturn * logReturn;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read benchmark tick file " + path, e);
+        }
+
+        Map<Long, double[]> profile = new LinkedHashMap<>();
+        stats.forEach((token, s) -> {
+            double n = Math.max(s[1], 1);
+            double mean = s[2] / n;
+            double stdev = Math.sqrt(Math.max(s[3] / n - mean * mean, 0));
+            profile.put(token, new double[] {s[0], stdev > 0 ? stdev : 0.0001});
+        });
+        return profile.isEmpty() ? DEFAULT_PROFILE : profile;
+    }
+
+    /** Rounds to the NSE tick size of 0.05. */
+    private static double roundToTick(double value) {
+        return Math.round(value * 20.0) / 20.0;
+    }
+}
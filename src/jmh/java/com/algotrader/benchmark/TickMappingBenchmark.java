@@ -0,0 +1,50 @@
+package com.algotrader.benchmark;
+
+import com.algotrader.broker.KiteMarketDataService;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.observability.TickLatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link KiteMarketDataService#mapToTick}: Kite SDK tick (FULL mode, five depth
+ * levels per side) to domain {@link Tick}, including BigDecimal conversion and IST timestamps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickMappingBenchmark {
+
+    private KiteMarketDataService kiteMarketDataService;
+    private List<com.zerodhatech.models.Tick> kiteTicks;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        // Only mapToTick is exercised -- no ticker, config or publisher is needed
+        kiteMarketDataService =
+                new KiteMarketDataService(null, event -> {}, null, new TickLatencyTracker(new SimpleMeterRegistry()));
+        kiteTicks = TickFixtures.kiteTicks(4096);
+    }
+
+    @Benchmark
+    public Tick mapToTick() {
+        com.zerodhatech.models.Tick kiteTick = kiteTicks.get(cursor);
+        cursor = (cursor + 1) % kiteTicks.size();
+        return kiteMarketDataService.mapToTick(kiteTick);
+    }
+}
@@ -0,0 +1,78 @@
+package com.algotrader.benchmark;
+
+import com.algotrader.config.TickRecorderConfig;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.TickEvent;
+import com.algotrader.simulator.TickRecorder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link TickRecorder#onTick}: RecordedTick conversion, buffering, and the
+ * size-triggered flush to the binary tick file (88 bytes per tick plus header rewrite).
+ *
+ * <p>Writes go to a temporary directory that is deleted after each trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickRecorderBenchmark {
+
+    private Path recordingDirectory;
+    private TickRecorder tickRecorder;
+    private List<TickEvent> events;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        recordingDirectory = Files.createTempDirectory("jmh-ticks");
+        TickRecorderConfig config = new TickRecorderConfig();
+        config.setRecordingDirectory(recordingDirectory.toString());
+        config.setBufferFlushSize(5000);
+        config.setCompressAfterClose(false);
+
+        tickRecorder = new TickRecorder(config);
+        tickRecorder.startRecording();
+
+        events = new ArrayList<>();
+        for (Tick tick : TickFixtures.ticks(8192)) {
+            events.add(new TickEvent(this, tick));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tickRecorder.stopRecording();
+        try (Stream<Path> files = Files.walk(recordingDirectory)) {
+            files.sorted(Comparator.reverseOrder())
+                    .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void onTick() {
+        tickRecorder.onTick(events.get(cursor));
+        cursor = (cursor + 1) % events.size();
+    }
+}
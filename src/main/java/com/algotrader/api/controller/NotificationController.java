@@ -6,6 +6,7 @@ import com.algotrader.domain.model.NotificationPreference;
 import com.algotrader.entity.NotificationPreferenceEntity;
 import com.algotrader.mapper.NotificationPreferenceMapper;
 import com.algotrader.notification.Alert;
+import com.algotrader.notification.AlertSeverityRouter;
 import com.algotrader.notification.NotificationService;
 import com.algotrader.repository.jpa.NotificationPreferenceJpaRepository;
 import java.util.List;
@@ -33,14 +34,17 @@ public class NotificationController {
     private final NotificationPreferenceJpaRepository notificationPreferenceJpaRepository;
     private final NotificationPreferenceMapper notificationPreferenceMapper;
     private final NotificationService notificationService;
+    private final AlertSeverityRouter alertSeverityRouter;
 
     public NotificationController(
             NotificationPreferenceJpaRepository notificationPreferenceJpaRepository,
             NotificationPreferenceMapper notificationPreferenceMapper,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            AlertSeverityRouter alertSeverityRouter) {
         this.notificationPreferenceJpaRepository = notificationPreferenceJpaRepository;
         this.notificationPreferenceMapper = notificationPreferenceMapper;
         this.notificationService = notificationService;
+        this.alertSeverityRouter = alertSeverityRouter;
     }
 
     @GetMapping("/preferences")
@@ -53,6 +57,7 @@ public class NotificationController {
     public NotificationPreference updatePreference(@RequestBody NotificationPreference preference) {
         NotificationPreferenceEntity entity = notificationPreferenceMapper.toEntity(preference);
         NotificationPreferenceEntity saved = notificationPreferenceJpaRepository.save(entity);
+        alertSeverityRouter.invalidate();
         return notificationPreferenceMapper.toDomain(saved);
     }
 
@@ -19,7 +19,6 @@ import com.algotrader.domain.model.AdjustmentRule;
 import com.algotrader.domain.model.MorphRequest;
 import com.algotrader.domain.model.MorphResult;
 import com.algotrader.domain.model.NewLegDefinition;
-import com.algotrader.domain.model.Position;
 import com.algotrader.domain.model.SimpleMorphPlan;
 import com.algotrader.entity.StrategyLegEntity;
 import com.algotrader.mapper.AdjustmentRuleMapper;
@@ -630,12 +629,9 @@ public class StrategyController {
     }
 
     /**
-     * Computes total unrealized P&L from all strategy positions.
+     * Returns total unrealized P&L from the strategy's maintained position totals.
      */
     private BigDecimal computeTotalPnl(BaseStrategy strategy) {
-        return strategy.getPositions().stream()
-                .map(Position::getUnrealizedPnl)
-                .filter(pnl -> pnl != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return strategy.getPositionTotals().unrealizedPnl();
     }
 }
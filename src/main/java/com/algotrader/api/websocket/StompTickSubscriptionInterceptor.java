@@ -2,8 +2,10 @@ package com.algotrader.api.websocket;
 
 import com.algotrader.broker.InstrumentSubscriptionManager;
 import com.algotrader.broker.KiteMarketDataService;
+import com.algotrader.domain.enums.FeedMode;
 import com.algotrader.domain.enums.SubscriptionPriority;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
@@ -24,6 +26,11 @@ import org.springframework.stereotype.Component;
  * {@link InstrumentSubscriptionManager} (MANUAL priority), and tells
  * {@link KiteMarketDataService} to subscribe the token with Kite's WebSocket.
  *
+ * <p>Clients declare the data level they need with an optional {@code feed-mode} header
+ * ({@code ltp}, {@code quote} or {@code full}; default {@code full}, since the relayed tick
+ * carries OI). Chart widgets and far strikes can ask for {@code ltp}, and the token's ticker
+ * mode follows the highest level any subscriber still needs.
+ *
  * <p>On UNSUBSCRIBE, it looks up the token from the stored session→subscription mapping
  * and unsubscribes if no other subscriber needs it. On DISCONNECT (graceful), it
  * cleans up all subscriptions for that session.
@@ -36,6 +43,7 @@ public class StompTickSubscriptionInterceptor implements ChannelInterceptor {
 
     private static final Logger log = LoggerFactory.getLogger(StompTickSubscriptionInterceptor.class);
     private static final String TICK_TOPIC_PREFIX = "/topic/ticks/";
+    private static final String FEED_MODE_HEADER = "feed-mode";
 
     private final InstrumentSubscriptionManager instrumentSubscriptionManager;
     private final KiteMarketDataService kiteMarketDataService;
@@ -104,12 +112,17 @@ public class StompTickSubscriptionInterceptor implements ChannelInterceptor {
                 .put(subscriptionId, token);
 
         String subscriberKey = subscriberKey(sessionId);
-        List<Long> newTokens =
-                instrumentSubscriptionManager.subscribe(subscriberKey, List.of(token), SubscriptionPriority.MANUAL);
+        FeedMode feedMode = parseFeedMode(accessor.getFirstNativeHeader(FEED_MODE_HEADER));
+        List<Long> newTokens = instrumentSubscriptionManager.subscribe(
+                subscriberKey, List.of(token), SubscriptionPriority.MANUAL, feedMode);
 
+        unsubscribeEvicted();
         if (!newTokens.isEmpty()) {
             kiteMarketDataService.subscribe(newTokens);
-            log.info("STOMP SUBSCRIBE: session={}, token={} → Kite subscribed", sessionId, token);
+        }
+        applyModeChanges();
+        if (!newTokens.isEmpty()) {
+            log.info("STOMP SUBSCRIBE: session={}, token={}, mode={} → Kite subscribed", sessionId, token, feedMode);
         } else {
             log.debug("STOMP SUBSCRIBE: session={}, token={} → already active", sessionId, token);
         }
@@ -144,6 +157,7 @@ public class StompTickSubscriptionInterceptor implements ChannelInterceptor {
         String subscriberKey = subscriberKey(sessionId);
         List<Long> removedTokens = instrumentSubscriptionManager.unsubscribe(subscriberKey, List.of(token));
 
+        applyModeChanges();
         if (!removedTokens.isEmpty()) {
             kiteMarketDataService.unsubscribe(removedTokens);
             log.info("STOMP UNSUBSCRIBE: session={}, token={} → Kite unsubscribed", sessionId, token);
@@ -166,6 +180,7 @@ public class StompTickSubscriptionInterceptor implements ChannelInterceptor {
 
         String subscriberKey = subscriberKey(sessionId);
         List<Long> removedTokens = instrumentSubscriptionManager.unsubscribeAll(subscriberKey);
+        applyModeChanges();
 
         if (!removedTokens.isEmpty()) {
             kiteMarketDataService.unsubscribe(removedTokens);
@@ -177,6 +192,34 @@ public class StompTickSubscriptionInterceptor implements ChannelInterceptor {
         }
     }
 
+    /** Removes tokens the subscription manager evicted to make room from the WebSocket. */
+    private void unsubscribeEvicted() {
+        List<Long> evicted = instrumentSubscriptionManager.drainEvictedTokens();
+        if (!evicted.isEmpty()) {
+            kiteMarketDataService.unsubscribe(evicted);
+        }
+    }
+
+    /** Applies ticker mode upgrades/downgrades for tokens whose subscribers changed. */
+    private void applyModeChanges() {
+        instrumentSubscriptionManager
+                .drainModeChanges()
+                .forEach((mode, tokens) -> kiteMarketDataService.setMode(tokens, mode));
+    }
+
+    /** Parses the feed-mode header; absent or unknown values mean FULL. */
+    private FeedMode parseFeedMode(String header) {
+        if (header == null || header.isBlank()) {
+            return FeedMode.FULL;
+        }
+        try {
+            return FeedMode.valueOf(header.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown STOMP feed-mode header '{}', using FULL", header);
+            return FeedMode.FULL;
+        }
+    }
+
     /** Extracts the instrument token from /topic/ticks/{token}. */
     private Long parseToken(String destination) {
         try {
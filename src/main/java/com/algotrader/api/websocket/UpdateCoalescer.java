@@ -0,0 +1,55 @@
+package com.algotrader.api.websocket;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pending {@code /topic/updates} messages between flushes, merged per entity.
+ *
+ * <p>Each update is stamped with a sequence number ({@code seq} in its payload) that increases
+ * across all updates on the topic. An update for an entity already pending (same type and id,
+ * e.g. an order going PLACED -> OPEN -> FILLED within one window) replaces the earlier one:
+ * the last state wins and moves to the end, so a drained batch is in sequence order and never
+ * holds two states for one entity. Updates without an entity id (risk and system events) are
+ * never merged.
+ *
+ * <p>Not thread-safe; {@link UpdatesHandler} serializes access.
+ */
+final class UpdateCoalescer {
+
+    private Map<String, WebSocketMessage> pending = new LinkedHashMap<>();
+    private long sequence;
+
+    /**
+     * Adds an update, replacing any pending update for the same entity.
+     *
+     * @param entityId id of the entity the payload describes, or null if it should not be merged
+     * @return true if this is the first pending update (the caller should schedule a flush)
+     */
+    boolean offer(String type, String entityId, Map<String, Object> payload) {
+        long seq = ++sequence;
+        payload.put("seq", seq);
+        // Unkeyed updates get a key no other update can share
+        String key = entityId != null ? type + ':' + entityId : "#" + seq;
+        boolean first = pending.isEmpty();
+        pending.remove(key);
+        pending.put(key, WebSocketMessage.of(type, payload));
+        return first;
+    }
+
+    /** Removes and returns the pending updates in sequence order. */
+    List<WebSocketMessage> drain() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<WebSocketMessage> batch = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    int size() {
+        return pending.size();
+    }
+}
@@ -7,10 +7,17 @@ import com.algotrader.event.PositionEvent;
 import com.algotrader.event.RiskEvent;
 import com.algotrader.event.StrategyEvent;
 import com.algotrader.event.SystemEvent;
+import jakarta.annotation.PreDestroy;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
@@ -33,16 +40,55 @@ import org.springframework.stereotype.Component;
  *
  * <p>All handlers run async on the eventExecutor to avoid blocking the
  * internal event processing pipeline.
+ *
+ * <p><b>Coalescing:</b> a multi-leg fill burst produces dozens of order and position events
+ * within milliseconds. Instead of one STOMP frame (and one JSON serialization, and one client
+ * re-render) per event, updates are collected for
+ * {@code algotrader.websocket.updates.coalesce-window-ms} after the first one and sent as a single
+ * {@code { type: "BATCH", data: [ {type, data}, ... ] }} frame. Within a window an order, position or strategy keeps only its latest state; every
+ * payload carries a topic-wide {@code seq} so clients can discard anything older than what they
+ * have. Batches go out from one flusher thread, so updates for an entity arrive in order.
+ * A window of 0 disables coalescing and sends each event as its own frame.
  */
 @Component
 public class UpdatesHandler {
 
     private static final Logger log = LoggerFactory.getLogger(UpdatesHandler.class);
 
+    private static final String DESTINATION = "/topic/updates";
+
     private final SimpMessagingTemplate simpMessagingTemplate;
+    private final long coalesceWindowMs;
+
+    /** Guarded by itself. */
+    private final UpdateCoalescer coalescer = new UpdateCoalescer();
+
+    /** Keeps batches in order when a manual flush overlaps a scheduled one. */
+    private final Object flushLock = new Object();
 
-    public UpdatesHandler(SimpMessagingTemplate simpMessagingTemplate) {
+    private final ScheduledExecutorService flusher;
+
+    public UpdatesHandler(
+            SimpMessagingTemplate simpMessagingTemplate,
+            @Value("${algotrader.websocket.updates.coalesce-window-ms:50}") long coalesceWindowMs) {
         this.simpMessagingTemplate = simpMessagingTemplate;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.flusher = coalesceWindowMs > 0
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "updates-flush");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /** Sends whatever is still pending and stops the flusher. */
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
     }
 
     @Async("eventExecutor")
@@ -67,7 +113,7 @@ public class UpdatesHandler {
         payload.put("strategyId", order.getStrategyId());
         payload.put("correlationId", order.getCorrelationId());
 
-        sendUpdate("ORDER", payload);
+        sendUpdate("ORDER", order.getId(), payload);
     }
 
     @Async("eventExecutor")
@@ -85,7 +131,7 @@ public class UpdatesHandler {
         payload.put("lastPrice", position.getLastPrice());
         payload.put("unrealizedPnl", position.getUnrealizedPnl());
         payload.put("realizedPnl", position.getRealizedPnl());
-        sendUpdate("POSITION", payload);
+        sendUpdate("POSITION", position.getId(), payload);
     }
 
     @Async("eventExecutor")
@@ -97,7 +143,7 @@ public class UpdatesHandler {
         payload.put("message", riskEvent.getMessage());
         payload.put("details", riskEvent.getDetails());
 
-        sendUpdate("RISK", payload);
+        sendUpdate("RISK", null, payload);
     }
 
     @Async("eventExecutor")
@@ -124,7 +170,7 @@ public class UpdatesHandler {
                         ? strategyEvent.getPreviousStatus().name()
                         : null);
 
-        sendUpdate("STRATEGY", payload);
+        sendUpdate("STRATEGY", strategyEvent.getStrategy().getId(), payload);
     }
 
     @Async("eventExecutor")
@@ -135,12 +181,52 @@ public class UpdatesHandler {
         payload.put("message", systemEvent.getMessage());
         payload.put("details", systemEvent.getDetails());
 
-        sendUpdate("SYSTEM", payload);
+        sendUpdate("SYSTEM", null, payload);
+    }
+
+    /**
+     * Sends every pending update as one BATCH frame. Runs on the flusher thread at the end of
+     * each window; safe to call from any thread.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<WebSocketMessage> batch;
+            synchronized (coalescer) {
+                batch = coalescer.drain();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                simpMessagingTemplate.convertAndSend(DESTINATION, WebSocketMessage.of("BATCH", batch));
+            } catch (Exception e) {
+                log.error("Failed to send batch of {} updates via WebSocket: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void sendUpdate(String type, String entityId, Map<String, Object> payload) {
+        if (flusher == null) {
+            send(type, payload);
+            return;
+        }
+        boolean first;
+        synchronized (coalescer) {
+            first = coalescer.offer(type, entityId, payload);
+        }
+        if (first) {
+            try {
+                flusher.schedule(this::flush, coalesceWindowMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down: deliver now rather than drop
+                flush();
+            }
+        }
     }
 
-    private void sendUpdate(String type, Object data) {
+    private void send(String type, Object data) {
         try {
-            simpMessagingTemplate.convertAndSend("/topic/updates", WebSocketMessage.of(type, data));
+            simpMessagingTemplate.convertAndSend(DESTINATION, WebSocketMessage.of(type, data));
         } catch (Exception e) {
             log.error("Failed to send {} update via WebSocket: {}", type, e.getMessage());
         }
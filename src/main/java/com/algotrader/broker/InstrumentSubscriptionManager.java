@@ -1,9 +1,15 @@
 package com.algotrader.broker;
 
+import com.algotrader.domain.enums.FeedMode;
 import com.algotrader.domain.enums.SubscriptionPriority;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -25,9 +31,25 @@ import org.springframework.stereotype.Component;
  * instrument token — the token is only unsubscribed from the WebSocket when all
  * subscribers release it.
  *
+ * <p>State is indexed both ways so no operation scans other subscribers' entries:
+ * <ul>
+ *   <li>per token: its subscribers and their priorities (the reference count is the map size)</li>
+ *   <li>per subscriber: its token set, so {@link #unsubscribeAll(String)} touches only its own tokens</li>
+ *   <li>per effective priority (the highest priority among a token's subscribers): an
+ *       insertion-ordered set of tokens, so eviction takes the oldest lowest-priority token in O(1)</li>
+ * </ul>
+ * A token is evicted as a whole, dropping all its (lower-priority) subscribers, so every
+ * eviction frees exactly one slot and a token any higher-priority subscriber holds is never touched.
+ *
+ * <p>Each subscriber also declares the {@link FeedMode} it needs (LTP, quote or full). A
+ * token's ticker mode is the highest mode among its current subscribers, so it is upgraded
+ * when a subscriber needing depth arrives and downgraded when the last one leaves. Changes
+ * are collected for the caller via {@link #drainModeChanges()}.
+ *
  * <p>This manager does NOT directly call the KiteTicker. Instead, it returns
  * lists of tokens to subscribe/unsubscribe, which the caller (KiteMarketDataService)
- * applies to the ticker.
+ * applies to the ticker. Tokens evicted to make room are collected for the caller
+ * via {@link #drainEvictedTokens()}.
  */
 @Component
 public class InstrumentSubscriptionManager {
@@ -37,71 +59,99 @@ public class InstrumentSubscriptionManager {
     /** Kite WebSocket limit: max instruments per connection. */
     static final int MAX_INSTRUMENTS = 3000;
 
-    /**
-     * Maps each subscription entry (subscriberKey + token) to its priority.
-     * Key: "subscriberKey:instrumentToken", Value: priority.
-     */
-    private final Map<String, SubscriptionEntry> subscriptions = new ConcurrentHashMap<>();
+    /** Subscribers (and their priority) per active token. Concurrent so the key view can be read unlocked. */
+    private final Map<Long, TokenSubscription> tokens = new ConcurrentHashMap<>();
+
+    /** Tokens held by each subscriber key. */
+    private final Map<String, Set<Long>> tokensBySubscriber = new HashMap<>();
+
+    /** Active tokens grouped by effective priority, oldest first within a priority. */
+    private final EnumMap<SubscriptionPriority, LinkedHashSet<Long>> tokensByPriority =
+            new EnumMap<>(SubscriptionPriority.class);
+
+    /** Tokens evicted since the last drain; still subscribed on the WebSocket until the caller removes them. */
+    private final List<Long> evictedTokens = new ArrayList<>();
+
+    /** Tokens whose effective feed mode changed (or that are new) since the last drain. */
+    private final Map<Long, FeedMode> modeChanges = new LinkedHashMap<>();
+
+    public InstrumentSubscriptionManager() {
+        for (SubscriptionPriority priority : SubscriptionPriority.values()) {
+            tokensByPriority.put(priority, new LinkedHashSet<>());
+        }
+    }
 
     /**
-     * Tracks all currently active instrument tokens (union of all subscribers).
-     * Used for quick membership checks and count enforcement.
+     * Adds instrument tokens for a subscriber that needs full market data (depth and OI).
+     *
+     * @see #subscribe(String, List, SubscriptionPriority, FeedMode)
      */
-    private final Set<Long> activeTokens = ConcurrentHashMap.newKeySet();
+    public List<Long> subscribe(String subscriberKey, List<Long> requestedTokens, SubscriptionPriority priority) {
+        return subscribe(subscriberKey, requestedTokens, priority, FeedMode.FULL);
+    }
 
     /**
      * Adds instrument tokens for a subscriber. Returns tokens that need to be
      * newly subscribed on the WebSocket (tokens not already active).
      *
-     * <p>If adding these tokens would exceed the limit, attempts to evict
-     * lower-priority subscriptions. Returns empty list if eviction cannot free
-     * enough capacity.
+     * <p>If adding these tokens would exceed the limit, evicts lower-priority tokens.
+     * Returns empty list, without evicting anything, if eviction cannot free enough capacity.
      *
      * @param subscriberKey unique key for the subscriber (e.g., "strategy:my-strat-1")
-     * @param tokens instrument tokens to subscribe
+     * @param requestedTokens instrument tokens to subscribe
      * @param priority subscription priority level
+     * @param feedMode market data level this subscriber needs
      * @return tokens that need to be newly subscribed on the WebSocket
      */
-    public List<Long> subscribe(String subscriberKey, List<Long> tokens, SubscriptionPriority priority) {
-        List<Long> newTokens =
-                tokens.stream().filter(t -> !activeTokens.contains(t)).toList();
-
-        int needed = newTokens.size();
-        int available = MAX_INSTRUMENTS - activeTokens.size();
+    public synchronized List<Long> subscribe(
+            String subscriberKey, List<Long> requestedTokens, SubscriptionPriority priority, FeedMode feedMode) {
+        List<Long> newTokens = new ArrayList<>();
+        Set<Long> requested = new LinkedHashSet<>(requestedTokens);
+        int requestedEvictable = 0;
+        for (Long token : requested) {
+            TokenSubscription subscription = tokens.get(token);
+            if (subscription == null) {
+                newTokens.add(token);
+            } else if (subscription.effectivePriority.ordinal() < priority.ordinal()) {
+                requestedEvictable++;
+            }
+        }
 
-        if (needed > available) {
-            int toEvict = needed - available;
-            List<Long> evicted = evictLowerPriority(priority, toEvict);
-            if (evicted.size() < toEvict) {
+        int needed = newTokens.size() - (MAX_INSTRUMENTS - tokens.size());
+        if (needed > 0) {
+            int evictable = evictableBelow(priority) - requestedEvictable;
+            if (evictable < needed) {
                 log.warn(
-                        "Cannot subscribe {} tokens for {}: need {} slots, only freed {}. Limit: {}",
-                        tokens.size(),
+                        "Cannot subscribe {} tokens for {}: need {} slots, only {} evictable. Limit: {}",
+                        requestedTokens.size(),
                         subscriberKey,
-                        toEvict,
-                        evicted.size(),
+                        needed,
+                        evictable,
                         MAX_INSTRUMENTS);
                 return Collections.emptyList();
             }
+            evictLowerPriority(priority, needed, requested);
             log.info(
                     "Evicted {} lower-priority subscriptions to make room for {} (priority: {})",
-                    evicted.size(),
+                    needed,
                     subscriberKey,
                     priority);
         }
 
-        // Register all tokens for this subscriber
-        for (Long token : tokens) {
-            String entryKey = entryKey(subscriberKey, token);
-            subscriptions.put(entryKey, new SubscriptionEntry(subscriberKey, token, priority));
-            activeTokens.add(token);
+        Set<Long> subscriberTokens = tokensBySubscriber.computeIfAbsent(subscriberKey, k -> new HashSet<>());
+        for (Long token : requested) {
+            TokenSubscription subscription = tokens.computeIfAbsent(token, t -> new TokenSubscription());
+            subscription.subscribers.put(subscriberKey, new Hold(priority, feedMode));
+            subscriberTokens.add(token);
+            reindex(token, subscription);
         }
 
         log.info(
                 "Subscribed {} tokens for {} (priority: {}, total active: {})",
-                tokens.size(),
+                requestedTokens.size(),
                 subscriberKey,
                 priority,
-                activeTokens.size());
+                tokens.size());
 
         return newTokens;
     }
@@ -111,29 +161,31 @@ public class InstrumentSubscriptionManager {
      * unsubscribed from the WebSocket (tokens no longer needed by any subscriber).
      *
      * @param subscriberKey unique key for the subscriber
-     * @param tokens instrument tokens to release
+     * @param releasedTokens instrument tokens to release
      * @return tokens that should be unsubscribed from the WebSocket
      */
-    public List<Long> unsubscribe(String subscriberKey, List<Long> tokens) {
+    public synchronized List<Long> unsubscribe(String subscriberKey, List<Long> releasedTokens) {
         List<Long> toUnsubscribe = new ArrayList<>();
+        Set<Long> subscriberTokens = tokensBySubscriber.get(subscriberKey);
 
-        for (Long token : tokens) {
-            subscriptions.remove(entryKey(subscriberKey, token));
-
-            // Only unsubscribe from WebSocket if no other subscriber needs this token
-            boolean stillNeeded = subscriptions.values().stream().anyMatch(e -> e.token.equals(token));
-            if (!stillNeeded) {
-                activeTokens.remove(token);
+        for (Long token : releasedTokens) {
+            if (subscriberTokens != null) {
+                subscriberTokens.remove(token);
+            }
+            if (release(subscriberKey, token)) {
                 toUnsubscribe.add(token);
             }
         }
+        if (subscriberTokens != null && subscriberTokens.isEmpty()) {
+            tokensBySubscriber.remove(subscriberKey);
+        }
 
         log.info(
                 "Unsubscribed {} tokens for {} ({} removed from WebSocket, total active: {})",
-                tokens.size(),
+                releasedTokens.size(),
                 subscriberKey,
                 toUnsubscribe.size(),
-                activeTokens.size());
+                tokens.size());
 
         return toUnsubscribe;
     }
@@ -145,76 +197,168 @@ public class InstrumentSubscriptionManager {
      * @param subscriberKey unique key for the subscriber
      * @return tokens that should be unsubscribed from the WebSocket
      */
-    public List<Long> unsubscribeAll(String subscriberKey) {
-        List<Long> subscriberTokens = subscriptions.values().stream()
-                .filter(e -> subscriberKey.equals(e.subscriberKey))
-                .map(e -> e.token)
-                .toList();
+    public synchronized List<Long> unsubscribeAll(String subscriberKey) {
+        Set<Long> subscriberTokens = tokensBySubscriber.get(subscriberKey);
+        if (subscriberTokens == null) {
+            return Collections.emptyList();
+        }
+        return unsubscribe(subscriberKey, new ArrayList<>(subscriberTokens));
+    }
 
-        return unsubscribe(subscriberKey, subscriberTokens);
+    /**
+     * Returns and clears the feed mode changes since the last call, grouped by the new mode.
+     * Includes newly subscribed tokens; the caller applies each group with one setMode call.
+     */
+    public synchronized Map<FeedMode, List<Long>> drainModeChanges() {
+        if (modeChanges.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<FeedMode, List<Long>> drained = new EnumMap<>(FeedMode.class);
+        modeChanges.forEach((token, mode) ->
+                drained.computeIfAbsent(mode, m -> new ArrayList<>()).add(token));
+        modeChanges.clear();
+        return drained;
+    }
+
+    /**
+     * Returns and clears the tokens evicted by {@link #subscribe} since the last call.
+     * The caller must unsubscribe these from the WebSocket.
+     */
+    public synchronized List<Long> drainEvictedTokens() {
+        if (evictedTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> drained = new ArrayList<>(evictedTokens);
+        evictedTokens.clear();
+        return drained;
     }
 
     /** Returns all currently active instrument tokens. */
     public Set<Long> getActiveTokens() {
-        return Collections.unmodifiableSet(activeTokens);
+        return Collections.unmodifiableSet(tokens.keySet());
     }
 
     /** Returns the number of currently subscribed instruments. */
     public int getActiveCount() {
-        return activeTokens.size();
+        return tokens.size();
     }
 
     /** Returns true if the given token is currently subscribed. */
     public boolean isSubscribed(Long token) {
-        return activeTokens.contains(token);
+        return tokens.containsKey(token);
+    }
+
+    /** Ticker mode the token needs (highest among its subscribers), or null if not subscribed. */
+    public FeedMode getFeedMode(Long token) {
+        TokenSubscription subscription = tokens.get(token);
+        return subscription != null ? subscription.effectiveFeedMode : null;
+    }
+
+    /** Number of subscribers currently holding the token (0 if not subscribed). */
+    public int getReferenceCount(Long token) {
+        TokenSubscription subscription = tokens.get(token);
+        return subscription != null ? subscription.subscribers.size() : 0;
     }
 
     /**
-     * Evicts lower-priority subscriptions to free capacity.
-     * Evicts MANUAL first, then CONDITION. Never evicts STRATEGY.
+     * Drops one subscriber's hold on a token.
      *
-     * @param incomingPriority the priority of the new subscription request
-     * @param count number of slots to free
-     * @return tokens that were evicted and should be unsubscribed
+     * @return true if that was the last subscriber and the token is no longer active
      */
-    private List<Long> evictLowerPriority(SubscriptionPriority incomingPriority, int count) {
-        // Find entries with lower priority, sorted lowest-priority first
-        List<SubscriptionEntry> candidates = subscriptions.values().stream()
-                .filter(e -> e.priority.ordinal() < incomingPriority.ordinal())
-                .sorted(Comparator.comparingInt(e -> e.priority.ordinal()))
-                .toList();
-
-        List<Long> evicted = new ArrayList<>();
-        Set<String> evictedKeys = ConcurrentHashMap.newKeySet();
-
-        for (SubscriptionEntry candidate : candidates) {
-            if (evicted.size() >= count) {
-                break;
-            }
+    private boolean release(String subscriberKey, Long token) {
+        TokenSubscription subscription = tokens.get(token);
+        if (subscription == null || subscription.subscribers.remove(subscriberKey) == null) {
+            return false;
+        }
+        if (subscription.subscribers.isEmpty()) {
+            tokens.remove(token);
+            tokensByPriority.get(subscription.effectivePriority).remove(token);
+            modeChanges.remove(token);
+            return true;
+        }
+        reindex(token, subscription);
+        return false;
+    }
 
-            String entryKey = entryKey(candidate.subscriberKey, candidate.token);
-            if (evictedKeys.contains(entryKey)) {
-                continue;
+    /**
+     * Moves a token to the priority bucket matching its highest remaining subscriber priority
+     * and records a mode change if its highest requested feed mode moved.
+     */
+    private void reindex(Long token, TokenSubscription subscription) {
+        SubscriptionPriority effective = SubscriptionPriority.MANUAL;
+        FeedMode feedMode = FeedMode.LTP;
+        for (Hold hold : subscription.subscribers.values()) {
+            if (hold.priority().ordinal() > effective.ordinal()) {
+                effective = hold.priority();
             }
+            if (hold.feedMode().ordinal() > feedMode.ordinal()) {
+                feedMode = hold.feedMode();
+            }
+        }
+        if (feedMode != subscription.effectiveFeedMode) {
+            subscription.effectiveFeedMode = feedMode;
+            modeChanges.put(token, feedMode);
+        }
+        if (effective != subscription.effectivePriority) {
+            if (subscription.effectivePriority != null) {
+                tokensByPriority.get(subscription.effectivePriority).remove(token);
+            }
+            tokensByPriority.get(effective).add(token);
+            subscription.effectivePriority = effective;
+        }
+    }
 
-            subscriptions.remove(entryKey);
-            evictedKeys.add(entryKey);
-
-            // Only count as evicted if no other subscriber needs this token
-            boolean stillNeeded = subscriptions.values().stream().anyMatch(e -> e.token.equals(candidate.token));
-            if (!stillNeeded) {
-                activeTokens.remove(candidate.token);
-                evicted.add(candidate.token);
+    private int evictableBelow(SubscriptionPriority incomingPriority) {
+        int count = 0;
+        for (SubscriptionPriority priority : SubscriptionPriority.values()) {
+            if (priority.ordinal() < incomingPriority.ordinal()) {
+                count += tokensByPriority.get(priority).size();
             }
         }
+        return count;
+    }
 
-        return evicted;
+    /**
+     * Evicts whole tokens whose effective priority is below the incoming one, lowest priority
+     * and oldest first, skipping tokens the incoming request itself asks for. Never evicts STRATEGY.
+     */
+    private void evictLowerPriority(SubscriptionPriority incomingPriority, int count, Set<Long> requested) {
+        int evicted = 0;
+        for (SubscriptionPriority priority : SubscriptionPriority.values()) {
+            if (priority.ordinal() >= incomingPriority.ordinal()) {
+                break;
+            }
+            Iterator<Long> candidates = tokensByPriority.get(priority).iterator();
+            while (evicted < count && candidates.hasNext()) {
+                Long token = candidates.next();
+                if (requested.contains(token)) {
+                    continue;
+                }
+                candidates.remove();
+                TokenSubscription subscription = tokens.remove(token);
+                for (String subscriberKey : subscription.subscribers.keySet()) {
+                    Set<Long> subscriberTokens = tokensBySubscriber.get(subscriberKey);
+                    if (subscriberTokens != null) {
+                        subscriberTokens.remove(token);
+                        if (subscriberTokens.isEmpty()) {
+                            tokensBySubscriber.remove(subscriberKey);
+                        }
+                    }
+                }
+                evictedTokens.add(token);
+                modeChanges.remove(token);
+                evicted++;
+            }
+        }
     }
 
-    private String entryKey(String subscriberKey, Long token) {
-        return subscriberKey + ":" + token;
+    /** Subscribers of one active token, with the priority and feed mode each requested. */
+    private static final class TokenSubscription {
+        final Map<String, Hold> subscribers = new HashMap<>(4);
+        SubscriptionPriority effectivePriority;
+        FeedMode effectiveFeedMode;
     }
 
-    /** Internal record tracking a single subscription entry. */
-    record SubscriptionEntry(String subscriberKey, Long token, SubscriptionPriority priority) {}
+    /** One subscriber's hold on a token. */
+    private record Hold(SubscriptionPriority priority, FeedMode feedMode) {}
 }
@@ -1,9 +1,12 @@
 package com.algotrader.broker;
 
 import com.algotrader.config.KiteConfig;
+import com.algotrader.domain.enums.FeedMode;
 import com.algotrader.domain.model.DepthItem;
 import com.algotrader.domain.model.Tick;
 import com.algotrader.event.TickEvent;
+import com.algotrader.observability.LatencyStage;
+import com.algotrader.observability.TickLatencyTracker;
 import com.zerodhatech.models.Depth;
 import com.zerodhatech.ticker.KiteTicker;
 import com.zerodhatech.ticker.OnConnect;
@@ -11,15 +14,23 @@ import com.zerodhatech.ticker.OnDisconnect;
 import com.zerodhatech.ticker.OnError;
 import com.zerodhatech.ticker.OnOrderUpdate;
 import com.zerodhatech.ticker.OnTicks;
+import jakarta.annotation.PreDestroy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +55,10 @@ import org.springframework.stereotype.Service;
  *   <li>{@link #disconnect()} — graceful shutdown</li>
  * </ul>
  *
+ * <p>Subscribe, unsubscribe and mode changes update the local subscription state immediately
+ * and reach the ticker in batches: the first change in a burst schedules a flush
+ * {@code SUBSCRIPTION_FLUSH_DELAY_MS} later that sends everything accumulated meanwhile.
+ *
  * <p>Reconnection backoff: 1s initial, doubling up to 30s max. After {@code MAX_RECONNECT_RETRIES}
  * consecutive failures, the service enters DEGRADED state and stops retrying.
  */
@@ -61,9 +76,13 @@ public class KiteMarketDataService {
     /** Maximum reconnection attempts before entering DEGRADED state. */
     static final int MAX_RECONNECT_RETRIES = 10;
 
+    /** Window after the first subscription change in a burst before the batched ticker calls go out. */
+    static final long SUBSCRIPTION_FLUSH_DELAY_MS = 20;
+
     private final KiteConfig kiteConfig;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final KiteOrderUpdateHandler kiteOrderUpdateHandler;
+    private final TickLatencyTracker tickLatencyTracker;
 
     /** Tracks all instrument tokens currently subscribed on the WebSocket. */
     private final Set<Long> subscribedTokens = ConcurrentHashMap.newKeySet();
@@ -78,13 +97,34 @@ public class KiteMarketDataService {
     /** Consecutive reconnection failure count (reset on successful connect). */
     private final AtomicInteger reconnectAttempts = new AtomicInteger(0);
 
+    /**
+     * Subscription changes not yet sent to the ticker, guarded by {@code this}. A burst of
+     * subscribe/unsubscribe/setMode calls (e.g., a UI session opening or closing hundreds of
+     * tokens one frame at a time) collapses into one unsubscribe, one subscribe and one
+     * setMode per mode.
+     */
+    private final Set<Long> pendingSubscribe = new LinkedHashSet<>();
+
+    private final Set<Long> pendingUnsubscribe = new LinkedHashSet<>();
+    private final Set<Long> pendingModeChange = new LinkedHashSet<>();
+    private boolean flushScheduled;
+
+    /** Sends batched subscription changes. Single thread is sufficient. */
+    private final ScheduledExecutorService subscriptionFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ticker-subscription-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public KiteMarketDataService(
             KiteConfig kiteConfig,
             ApplicationEventPublisher applicationEventPublisher,
-            KiteOrderUpdateHandler kiteOrderUpdateHandler) {
+            KiteOrderUpdateHandler kiteOrderUpdateHandler,
+            TickLatencyTracker tickLatencyTracker) {
         this.kiteConfig = kiteConfig;
         this.applicationEventPublisher = applicationEventPublisher;
         this.kiteOrderUpdateHandler = kiteOrderUpdateHandler;
+        this.tickLatencyTracker = tickLatencyTracker;
     }
 
     /**
@@ -156,8 +196,11 @@ public class KiteMarketDataService {
     }
 
     /**
-     * Subscribes instrument tokens to the WebSocket in FULL mode (default).
-     * If the ticker is not connected, tokens are queued and subscribed on connect.
+     * Subscribes instrument tokens to the WebSocket in FULL mode (default). Callers that know
+     * a lower level suffices follow up with {@link #setMode(List, FeedMode)}; both land in the
+     * same batch so the token is never streamed at FULL in between.
+     * The ticker call is batched with other changes in the same burst; if the ticker is not
+     * connected, tokens are subscribed on connect.
      *
      * @param instrumentTokens tokens to subscribe
      */
@@ -165,16 +208,15 @@ public class KiteMarketDataService {
         subscribedTokens.addAll(instrumentTokens);
         instrumentTokens.forEach(t -> tokenModes.put(t, KiteTicker.modeFull));
 
-        if (kiteTicker != null && connected) {
-            ArrayList<Long> tokens = new ArrayList<>(instrumentTokens);
-            kiteTicker.subscribe(tokens);
-            kiteTicker.setMode(tokens, KiteTicker.modeFull);
-            log.info("Subscribed {} instruments (total: {})", instrumentTokens.size(), subscribedTokens.size());
+        synchronized (this) {
+            instrumentTokens.forEach(pendingUnsubscribe::remove);
+            pendingSubscribe.addAll(instrumentTokens);
+            scheduleFlush();
         }
     }
 
     /**
-     * Unsubscribes instrument tokens from the WebSocket.
+     * Unsubscribes instrument tokens from the WebSocket (batched like {@link #subscribe}).
      *
      * @param instrumentTokens tokens to unsubscribe
      */
@@ -182,25 +224,93 @@ public class KiteMarketDataService {
         subscribedTokens.removeAll(instrumentTokens);
         instrumentTokens.forEach(tokenModes::remove);
 
-        if (kiteTicker != null && connected) {
-            kiteTicker.unsubscribe(new ArrayList<>(instrumentTokens));
-            log.info("Unsubscribed {} instruments (total: {})", instrumentTokens.size(), subscribedTokens.size());
+        synchronized (this) {
+            instrumentTokens.forEach(pendingSubscribe::remove);
+            instrumentTokens.forEach(pendingModeChange::remove);
+            pendingUnsubscribe.addAll(instrumentTokens);
+            scheduleFlush();
         }
     }
 
     /**
-     * Changes the tick mode for specific instruments.
+     * Changes the tick mode for specific instruments (batched like {@link #subscribe}).
      *
      * @param instrumentTokens tokens to change mode for
      * @param mode one of KiteTicker.modeLTP, KiteTicker.modeQuote, KiteTicker.modeFull
      */
     public void setMode(List<Long> instrumentTokens, String mode) {
         instrumentTokens.forEach(t -> tokenModes.put(t, mode));
-        if (kiteTicker != null && connected) {
-            kiteTicker.setMode(new ArrayList<>(instrumentTokens), mode);
+
+        synchronized (this) {
+            pendingModeChange.addAll(instrumentTokens);
+            scheduleFlush();
         }
     }
 
+    /**
+     * Changes the tick mode for specific instruments to the Kite mode matching the feed mode.
+     *
+     * @param instrumentTokens tokens to change mode for
+     * @param feedMode data level to stream
+     */
+    public void setMode(List<Long> instrumentTokens, FeedMode feedMode) {
+        setMode(instrumentTokens, kiteMode(feedMode));
+    }
+
+    /** Maps a feed mode onto the KiteTicker mode string. */
+    static String kiteMode(FeedMode feedMode) {
+        return switch (feedMode) {
+            case LTP -> KiteTicker.modeLTP;
+            case QUOTE -> KiteTicker.modeQuote;
+            case FULL -> KiteTicker.modeFull;
+        };
+    }
+
+    /**
+     * Sends all pending subscription changes to the ticker now: one unsubscribe, one subscribe
+     * and one setMode per distinct mode. Runs on the flush thread at the end of each burst.
+     * Changes made while disconnected are dropped here since {@link #resubscribe()} replays
+     * the full subscription state on connect.
+     */
+    void flushSubscriptionChanges() {
+        ArrayList<Long> toSubscribe;
+        ArrayList<Long> toUnsubscribe;
+        Set<Long> modeChanged;
+        synchronized (this) {
+            flushScheduled = false;
+            toSubscribe = new ArrayList<>(pendingSubscribe);
+            toUnsubscribe = new ArrayList<>(pendingUnsubscribe);
+            modeChanged = new LinkedHashSet<>(pendingSubscribe);
+            modeChanged.addAll(pendingModeChange);
+            pendingSubscribe.clear();
+            pendingUnsubscribe.clear();
+            pendingModeChange.clear();
+        }
+
+        KiteTicker ticker = kiteTicker;
+        if (ticker == null || !connected) {
+            return;
+        }
+        try {
+            if (!toUnsubscribe.isEmpty()) {
+                ticker.unsubscribe(toUnsubscribe);
+                log.info("Unsubscribed {} instruments (total: {})", toUnsubscribe.size(), subscribedTokens.size());
+            }
+            if (!toSubscribe.isEmpty()) {
+                ticker.subscribe(toSubscribe);
+                log.info("Subscribed {} instruments (total: {})", toSubscribe.size(), subscribedTokens.size());
+            }
+            applyModes(ticker, modeChanged);
+        } catch (Exception e) {
+            log.error("Failed to apply batched subscription changes to ticker", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptionFlusher.shutdownNow();
+    }
+
     public boolean isConnected() {
         return connected;
     }
@@ -310,11 +420,38 @@ public class KiteMarketDataService {
         if (!subscribedTokens.isEmpty() && kiteTicker != null && connected) {
             ArrayList<Long> tokens = new ArrayList<>(subscribedTokens);
             kiteTicker.subscribe(tokens);
-            kiteTicker.setMode(tokens, KiteTicker.modeFull);
+            applyModes(kiteTicker, tokens);
             log.info("Resubscribed {} instruments", tokens.size());
         }
     }
 
+    /** Issues one setMode call per distinct mode among the still-subscribed tokens. */
+    private void applyModes(KiteTicker ticker, Collection<Long> tokens) {
+        Map<String, ArrayList<Long>> byMode = new HashMap<>();
+        for (Long token : tokens) {
+            String mode = tokenModes.get(token);
+            if (mode != null) {
+                byMode.computeIfAbsent(mode, m -> new ArrayList<>()).add(token);
+            }
+        }
+        byMode.forEach((mode, modeTokens) -> ticker.setMode(modeTokens, mode));
+    }
+
+    /** Schedules a flush at the end of the current burst if one is not already pending. Caller holds {@code this}. */
+    private void scheduleFlush() {
+        if (flushScheduled) {
+            return;
+        }
+        flushScheduled = true;
+        try {
+            subscriptionFlusher.schedule(
+                    this::flushSubscriptionChanges, SUBSCRIPTION_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            flushScheduled = false;
+            log.debug("Subscription flusher shut down, change will apply on next resubscribe");
+        }
+    }
+
     /**
      * Callback for incoming order status updates from Kite WebSocket.
      * Delegates to {@link KiteOrderUpdateHandler} for safe processing of fills and rejections.
@@ -337,11 +474,21 @@ public class KiteMarketDataService {
     /**
      * Callback for incoming ticks. Maps each Kite SDK Tick to our domain model
      * and publishes a TickEvent for downstream processing.
+     *
+     * <p>All ticks in a batch share the batch receipt time, so time spent waiting behind
+     * earlier ticks of the same batch shows up in the end-to-end latency. Mapping and the
+     * synchronous listener chain are recorded as separate stages.
      */
     private void onTicks(ArrayList<com.zerodhatech.models.Tick> ticks) {
+        long receivedAt = System.nanoTime();
         for (com.zerodhatech.models.Tick kiteTick : ticks) {
+            long mapStart = System.nanoTime();
             Tick tick = mapToTick(kiteTick);
-            applicationEventPublisher.publishEvent(new TickEvent(this, tick));
+            long publishStart = System.nanoTime();
+            tickLatencyTracker.record(LatencyStage.TICK_MAPPING, publishStart - mapStart);
+
+            applicationEventPublisher.publishEvent(new TickEvent(this, tick, receivedAt));
+            tickLatencyTracker.recordSince(LatencyStage.LISTENER_CHAIN, publishStart);
         }
     }
 
@@ -354,8 +501,10 @@ public class KiteMarketDataService {
      *   <li>java.util.Date timestamps -> LocalDateTime (IST timezone)</li>
      *   <li>Depth map -> List&lt;DepthItem&gt; (buy/sell separately)</li>
      * </ul>
+     *
+     * <p>Public so the JMH benchmarks in {@code src/jmh/java} can measure it in isolation.
      */
-    private Tick mapToTick(com.zerodhatech.models.Tick kiteTick) {
+    public Tick mapToTick(com.zerodhatech.models.Tick kiteTick) {
         return Tick.builder()
                 .instrumentToken(kiteTick.getInstrumentToken())
                 .lastPrice(BigDecimal.valueOf(kiteTick.getLastTradedPrice()))
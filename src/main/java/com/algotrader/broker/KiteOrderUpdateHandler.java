@@ -27,7 +27,7 @@ import org.springframework.stereotype.Service;
  *       status changes are logged and ignored</li>
  *   <li>Idempotent: compares filledQuantity against stored order to detect actual fills</li>
  *   <li>Never transitions a terminal order (COMPLETE/REJECTED/CANCELLED) backwards</li>
- *   <li>Triggers immediate position reconciliation on full fills only</li>
+ *   <li>Records full and partial fills in the position reconciliation ledger</li>
  * </ul>
  */
 @Service
@@ -147,7 +147,7 @@ public class KiteOrderUpdateHandler {
      * Handles a COMPLETE status update (fully filled order).
      *
      * <p>Checks if filledQuantity actually increased to guard against duplicate events.
-     * Triggers position reconciliation to sync local positions with broker.
+     * Records the fill for incremental position reconciliation.
      */
     private void handleComplete(Order existingOrder, com.zerodhatech.models.Order kiteOrder, int newFilledQty) {
         int previousFilledQty = existingOrder.getFilledQuantity();
@@ -182,15 +182,15 @@ public class KiteOrderUpdateHandler {
                 kiteOrder.averagePrice,
                 previousFilledQty);
 
-        // Trigger immediate position reconciliation so positions appear in Redis within seconds
-        triggerPositionSync();
+        // Record the fill so the next incremental reconciliation syncs this instrument
+        recordFillForReconciliation(existingOrder, newFilledQty - previousFilledQty);
     }
 
     /**
      * Handles a partial fill: any non-terminal status update where filledQuantity increased.
      *
-     * <p>Does NOT trigger position reconciliation (waits for COMPLETE to avoid
-     * excessive Kite API calls during rapid partial fills).
+     * <p>Records the fill in the reconciliation ledger like a full fill; the incremental
+     * reconciliation batches rapid partial fills into one broker call.
      */
     private void handlePartialFill(Order existingOrder, com.zerodhatech.models.Order kiteOrder, int newFilledQty) {
         int previousFilledQty = existingOrder.getFilledQuantity();
@@ -224,17 +224,19 @@ public class KiteOrderUpdateHandler {
                 newFilledQty,
                 existingOrder.getQuantity(),
                 kiteOrder.averagePrice);
+
+        recordFillForReconciliation(existingOrder, newFilledQty - previousFilledQty);
     }
 
     /**
-     * Triggers position reconciliation to sync local positions with broker state.
+     * Records a fill in the position reconciliation ledger.
      * Wrapped in try/catch so reconciliation failure never disrupts order update processing.
      */
-    private void triggerPositionSync() {
+    private void recordFillForReconciliation(Order order, int filledQuantityDelta) {
         try {
-            positionReconciliationService.reconcile("ORDER_FILL");
+            positionReconciliationService.onFill(order, filledQuantityDelta);
         } catch (Exception e) {
-            log.error("Failed to trigger position reconciliation after fill", e);
+            log.error("Failed to record fill for position reconciliation", e);
         }
     }
 
@@ -45,6 +45,7 @@ public class KitePositionMapper {
                 .instrumentToken(parseInstrumentToken(kitePosition.instrumentToken))
                 .tradingSymbol(kitePosition.tradingSymbol)
                 .exchange(kitePosition.exchange)
+                .product(kitePosition.product)
                 .quantity(kitePosition.netQuantity)
                 .averagePrice(BigDecimal.valueOf(kitePosition.averagePrice))
                 .lastPrice(toNullableBigDecimal(kitePosition.lastPrice))
@@ -0,0 +1,193 @@
+package com.algotrader.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable lookup tables for the holiday list, compiled once so calendar queries are O(1).
+ *
+ * <p>Covers whole years from the year before the earliest configured holiday (or the current
+ * year) to the year after the latest. Each day in that span is an index from the first day:
+ * <ul>
+ *   <li>{@code holidays} / {@code muhurat} bitsets give the raw per-day flags</li>
+ *   <li>{@code tradingBefore[i]} counts trading days before index i, so a range count is two reads</li>
+ *   <li>{@code nextTrading[i]} / {@code previousTrading[i]} give the nearest trading day strictly
+ *       after / before index i, or -1 when it lies outside the span</li>
+ * </ul>
+ *
+ * <p>Outside the span no holidays exist by construction, so the weekend rule alone is exact
+ * there; those lookups fall back to a short day-by-day walk.
+ */
+final class CompiledTradingCalendar {
+
+    private final List<HolidayCalendarConfig.Holiday> source;
+    private final long firstEpochDay;
+    private final int days;
+    private final BitSet holidays;
+    private final BitSet muhurat;
+    private final int[] tradingBefore;
+    private final int[] nextTrading;
+    private final int[] previousTrading;
+
+    private CompiledTradingCalendar(List<HolidayCalendarConfig.Holiday> source, LocalDate first, LocalDate last) {
+        this.source = source;
+        this.firstEpochDay = first.toEpochDay();
+        this.days = (int) (last.toEpochDay() - firstEpochDay) + 1;
+        this.holidays = new BitSet(days);
+        this.muhurat = new BitSet(days);
+        this.tradingBefore = new int[days + 1];
+        this.nextTrading = new int[days];
+        this.previousTrading = new int[days];
+    }
+
+    /** Compiles the given holiday list, covering at least the year of {@code today}. */
+    static CompiledTradingCalendar compile(List<HolidayCalendarConfig.Holiday> holidayList, LocalDate today) {
+        int firstYear = today.getYear();
+        int lastYear = today.getYear();
+        for (HolidayCalendarConfig.Holiday holiday : holidayList) {
+            if (holiday.getDate() != null) {
+                firstYear = Math.min(firstYear, holiday.getDate().getYear());
+                lastYear = Math.max(lastYear, holiday.getDate().getYear());
+            }
+        }
+
+        CompiledTradingCalendar calendar = new CompiledTradingCalendar(
+                holidayList, LocalDate.of(firstYear - 1, 1, 1), LocalDate.of(lastYear + 1, 12, 31));
+        calendar.build(holidayList);
+        return calendar;
+    }
+
+    private void build(List<HolidayCalendarConfig.Holiday> holidayList) {
+        for (int i = 0; i < days; i++) {
+            if (isWeekend(LocalDate.ofEpochDay(firstEpochDay + i))) {
+                holidays.set(i);
+            }
+        }
+        for (HolidayCalendarConfig.Holiday holiday : holidayList) {
+            if (holiday.getDate() == null) {
+                continue;
+            }
+            int index = (int) (holiday.getDate().toEpochDay() - firstEpochDay);
+            if (holiday.getType() == HolidayType.FULL_HOLIDAY) {
+                holidays.set(index);
+            } else if (holiday.getType() == HolidayType.MUHURAT_TRADING) {
+                muhurat.set(index);
+            }
+        }
+
+        for (int i = 0; i < days; i++) {
+            tradingBefore[i + 1] = tradingBefore[i] + (isTradingIndex(i) ? 1 : 0);
+        }
+
+        int next = -1;
+        for (int i = days - 1; i >= 0; i--) {
+            nextTrading[i] = next;
+            if (isTradingIndex(i)) {
+                next = i;
+            }
+        }
+        int previous = -1;
+        for (int i = 0; i < days; i++) {
+            previousTrading[i] = previous;
+            if (isTradingIndex(i)) {
+                previous = i;
+            }
+        }
+    }
+
+    /** True if this calendar was compiled from exactly this list instance. */
+    boolean isCompiledFrom(List<HolidayCalendarConfig.Holiday> holidayList) {
+        return source == holidayList;
+    }
+
+    /** Weekend or full holiday. */
+    boolean isHoliday(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 ? holidays.get(index) : isWeekend(date);
+    }
+
+    boolean isMuhuratTrading(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 && muhurat.get(index);
+    }
+
+    boolean isTradingDay(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 ? isTradingIndex(index) : !isWeekend(date);
+    }
+
+    /** First trading day strictly after {@code from}. */
+    LocalDate nextTradingDay(LocalDate from) {
+        int index = indexOf(from);
+        if (index >= 0 && nextTrading[index] >= 0) {
+            return LocalDate.ofEpochDay(firstEpochDay + nextTrading[index]);
+        }
+        LocalDate next = from.plusDays(1);
+        while (!isTradingDay(next)) {
+            next = next.plusDays(1);
+        }
+        return next;
+    }
+
+    /** Last trading day strictly before {@code from}. */
+    LocalDate previousTradingDay(LocalDate from) {
+        int index = indexOf(from);
+        if (index >= 0 && previousTrading[index] >= 0) {
+            return LocalDate.ofEpochDay(firstEpochDay + previousTrading[index]);
+        }
+        LocalDate previous = from.minusDays(1);
+        while (!isTradingDay(previous)) {
+            previous = previous.minusDays(1);
+        }
+        return previous;
+    }
+
+    /** Number of trading days in (from, to]; zero when {@code to} is not after {@code from}. */
+    int tradingDaysBetween(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            return 0;
+        }
+        return tradingDaysUpTo(to) - tradingDaysUpTo(from);
+    }
+
+    /** Trading days from the start of the span through {@code date} (inclusive). */
+    private int tradingDaysUpTo(LocalDate date) {
+        long offset = date.toEpochDay() - firstEpochDay;
+        if (offset < 0) {
+            return -weekdaysBetween(date.toEpochDay() + 1, firstEpochDay);
+        }
+        if (offset < days) {
+            return tradingBefore[(int) offset + 1];
+        }
+        return tradingBefore[days] + weekdaysBetween(firstEpochDay + days, date.toEpochDay() + 1);
+    }
+
+    private boolean isTradingIndex(int index) {
+        return !holidays.get(index) || muhurat.get(index);
+    }
+
+    private int indexOf(LocalDate date) {
+        long offset = date.toEpochDay() - firstEpochDay;
+        return offset >= 0 && offset < days ? (int) offset : -1;
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        DayOfWeek dow = date.getDayOfWeek();
+        return dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY;
+    }
+
+    /** Mon-Fri days in [startEpochDay, endEpochDay). */
+    private static int weekdaysBetween(long startEpochDay, long endEpochDay) {
+        int count = 0;
+        long fullWeeks = (endEpochDay - startEpochDay) / 7;
+        count += (int) (fullWeeks * 5);
+        for (long day = startEpochDay + fullWeeks * 7; day < endEpochDay; day++) {
+            if (!isWeekend(LocalDate.ofEpochDay(day))) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -132,24 +132,15 @@ public class ExpiryCalendarService {
 
     /**
      * Calculates the number of trading days from a given date to the expiry date.
-     * Trading days exclude weekends and holidays.
+     * Trading days exclude weekends and holidays. Answered from the compiled calendar's
+     * prefix sums, so this is O(1) on the Greeks time-to-expiry path.
      */
     public int getTradingDaysToExpiry(LocalDate expiry) {
         return getTradingDaysToExpiry(LocalDate.now(), expiry);
     }
 
     public int getTradingDaysToExpiry(LocalDate from, LocalDate expiry) {
-        LocalDate current = from;
-        int tradingDays = 0;
-
-        while (current.isBefore(expiry)) {
-            current = current.plusDays(1);
-            if (tradingCalendarService.isTradingDay(current)) {
-                tradingDays++;
-            }
-        }
-
-        return tradingDays;
+        return tradingCalendarService.getTradingDaysBetween(from, expiry);
     }
 
     /** Returns true if today is a weekly expiry day. */
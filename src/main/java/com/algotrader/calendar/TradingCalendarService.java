@@ -2,52 +2,95 @@ package com.algotrader.calendar;
 
 import com.algotrader.domain.enums.MarketPhase;
 import com.algotrader.event.MarketStatusEvent;
-import java.time.DayOfWeek;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 /**
  * Central service for market hours awareness, holiday detection, and phase transitions.
  *
- * <p>Polls every 5 seconds to detect market phase changes and publishes
- * {@link MarketStatusEvent} on transitions. Other components listen to these events
- * to adapt behavior (e.g., strategies only trade during NORMAL phase, risk counters
- * reset on CLOSED->PRE_OPEN, instruments refresh on market open).
+ * <p>Publishes {@link MarketStatusEvent} on market phase transitions. Other components listen
+ * to these events to adapt behavior (e.g., strategies only trade during NORMAL phase, risk
+ * counters reset on CLOSED->PRE_OPEN, instruments refresh on market open). Rather than polling,
+ * the phase is re-evaluated once at startup and then at the exact next phase boundary (or
+ * midnight, when the holiday status can change), rescheduling itself each time.
  *
  * <p>Holiday data is loaded from YAML configuration via {@link HolidayCalendarConfig}.
- * The calendar is updated annually based on the NSE published holiday schedule.
+ * The calendar is updated annually based on the NSE published holiday schedule. The holiday
+ * list is compiled into {@link CompiledTradingCalendar} lookup tables, so holiday checks,
+ * next/previous trading day and trading-day counts are O(1) on the strategy and Greeks
+ * paths. The tables are recompiled if the configured holiday list is replaced.
  */
 @Service
 public class TradingCalendarService {
 
     private static final Logger log = LoggerFactory.getLogger(TradingCalendarService.class);
 
+    /** Times of day at which calculatePhase can change its answer, in order. */
+    private static final List<LocalTime> PHASE_BOUNDARIES = List.of(
+            MarketPhase.PRE_OPEN.getStartTime(),
+            MarketPhase.PRE_OPEN_ORDER_MATCHING.getStartTime(),
+            MarketPhase.NORMAL.getStartTime(),
+            MarketPhase.CLOSING.getStartTime(),
+            MarketPhase.POST_CLOSE.getStartTime(),
+            MarketPhase.POST_CLOSE.getEndTime());
+
     private final HolidayCalendarConfig holidayCalendarConfig;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final AtomicReference<MarketPhase> currentPhase = new AtomicReference<>(MarketPhase.CLOSED);
 
+    /** Fires phase re-evaluation at exact boundary times. Single thread is sufficient. */
+    private final ScheduledExecutorService phaseScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "market-phase-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile CompiledTradingCalendar compiledCalendar;
+
     public TradingCalendarService(
             HolidayCalendarConfig holidayCalendarConfig, ApplicationEventPublisher applicationEventPublisher) {
         this.holidayCalendarConfig = holidayCalendarConfig;
         this.applicationEventPublisher = applicationEventPublisher;
     }
 
+    /** Evaluates the current phase once the application is up and starts the boundary timer. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        updateMarketPhase();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        phaseScheduler.shutdownNow();
+    }
+
     /**
-     * Checks for market phase transitions every 5 seconds.
-     * Publishes a MarketStatusEvent when the phase changes.
+     * Re-evaluates the market phase now, publishing a MarketStatusEvent if it changed, and
+     * schedules the next evaluation at the following phase boundary.
      */
-    @Scheduled(fixedRate = 5000)
     public void updateMarketPhase() {
-        LocalDate today = LocalDate.now();
-        LocalTime now = LocalTime.now();
-        updateMarketPhase(today, now);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            updateMarketPhase(now.toLocalDate(), now.toLocalTime());
+        } catch (RuntimeException e) {
+            log.error("Market phase update failed", e);
+        }
+        scheduleNextPhaseUpdate(now);
     }
 
     /**
@@ -96,18 +139,12 @@ public class TradingCalendarService {
      * Weekends (Saturday/Sunday) are always holidays.
      */
     public boolean isHoliday(LocalDate date) {
-        DayOfWeek dow = date.getDayOfWeek();
-        if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) {
-            return true;
-        }
-        return holidayCalendarConfig.getHolidays().stream()
-                .anyMatch(h -> h.getDate().equals(date) && h.getType() == HolidayType.FULL_HOLIDAY);
+        return calendar().isHoliday(date);
     }
 
     /** Returns true if the date has a Muhurat trading session (Diwali). */
     public boolean isMuhuratTrading(LocalDate date) {
-        return holidayCalendarConfig.getHolidays().stream()
-                .anyMatch(h -> h.getDate().equals(date) && h.getType() == HolidayType.MUHURAT_TRADING);
+        return calendar().isMuhuratTrading(date);
     }
 
     /**
@@ -115,25 +152,25 @@ public class TradingCalendarService {
      * A day is a trading day if it's not a holiday, OR if it has Muhurat trading.
      */
     public boolean isTradingDay(LocalDate date) {
-        return !isHoliday(date) || isMuhuratTrading(date);
+        return calendar().isTradingDay(date);
     }
 
     /** Returns the next trading day after the given date. */
     public LocalDate getNextTradingDay(LocalDate from) {
-        LocalDate next = from.plusDays(1);
-        while (!isTradingDay(next)) {
-            next = next.plusDays(1);
-        }
-        return next;
+        return calendar().nextTradingDay(from);
     }
 
     /** Returns the previous trading day before the given date. */
     public LocalDate getPreviousTradingDay(LocalDate from) {
-        LocalDate prev = from.minusDays(1);
-        while (!isTradingDay(prev)) {
-            prev = prev.minusDays(1);
-        }
-        return prev;
+        return calendar().previousTradingDay(from);
+    }
+
+    /**
+     * Returns the number of trading days after {@code from} up to and including {@code to}.
+     * Zero if {@code to} is not after {@code from}.
+     */
+    public int getTradingDaysBetween(LocalDate from, LocalDate to) {
+        return calendar().tradingDaysBetween(from, to);
     }
 
     /** Returns minutes until the NORMAL session ends (15:30). Zero if already past. */
@@ -150,10 +187,6 @@ public class TradingCalendarService {
      * Determines the market phase for a given date and time.
      */
     public MarketPhase calculatePhase(LocalDate date, LocalTime time) {
-        DayOfWeek dow = date.getDayOfWeek();
-        if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) {
-            return MarketPhase.CLOSED;
-        }
         if (isHoliday(date)) {
             return MarketPhase.CLOSED;
         }
@@ -180,6 +213,41 @@ public class TradingCalendarService {
         return MarketPhase.CLOSED;
     }
 
+    /**
+     * Returns the next instant after {@code now} at which the phase can change: the next
+     * session boundary today, otherwise the following midnight.
+     */
+    public static LocalDateTime nextPhaseBoundary(LocalDateTime now) {
+        LocalTime time = now.toLocalTime();
+        for (LocalTime boundary : PHASE_BOUNDARIES) {
+            if (boundary.isAfter(time)) {
+                return now.toLocalDate().atTime(boundary);
+            }
+        }
+        return now.toLocalDate().plusDays(1).atStartOfDay();
+    }
+
+    private void scheduleNextPhaseUpdate(LocalDateTime now) {
+        long delayNanos = Duration.between(now, nextPhaseBoundary(now)).toNanos();
+        try {
+            phaseScheduler.schedule(() -> updateMarketPhase(), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Phase scheduler shut down, not rescheduling");
+        }
+    }
+
+    /** Returns the compiled holiday tables, recompiling if the configured list was replaced. */
+    private CompiledTradingCalendar calendar() {
+        List<HolidayCalendarConfig.Holiday> holidays = holidayCalendarConfig.getHolidays();
+        CompiledTradingCalendar compiled = compiledCalendar;
+        if (compiled == null || !compiled.isCompiledFrom(holidays)) {
+            compiled = CompiledTradingCalendar.compile(holidays, LocalDate.now());
+            compiledCalendar = compiled;
+            log.debug("Compiled trading calendar from {} holiday entries", holidays.size());
+        }
+        return compiled;
+    }
+
     private void publishPhaseTransition(MarketPhase previous, MarketPhase current) {
         applicationEventPublisher.publishEvent(new MarketStatusEvent(this, previous, current));
     }
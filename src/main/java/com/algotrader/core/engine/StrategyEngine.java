@@ -1,5 +1,6 @@
 package com.algotrader.core.engine;
 
+import com.algotrader.core.processor.MarketStateService;
 import com.algotrader.domain.enums.ActionType;
 import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.StrategyStatus;
@@ -14,6 +15,8 @@ import com.algotrader.event.PositionEvent;
 import com.algotrader.event.TickEvent;
 import com.algotrader.exception.ResourceNotFoundException;
 import com.algotrader.mapper.JsonHelper;
+import com.algotrader.observability.LatencyStage;
+import com.algotrader.observability.TickLatencyTracker;
 import com.algotrader.oms.JournaledMultiLegExecutor;
 import com.algotrader.oms.OrderRequest;
 import com.algotrader.repository.jpa.StrategyJpaRepository;
@@ -52,15 +55,18 @@ import org.springframework.stereotype.Service;
  *   <li><b>Lifecycle:</b> Arm, pause, resume, close individual strategies; pauseAll
  *       for emergency freeze without closing positions</li>
  *   <li><b>Tick routing:</b> Listens for TickEvents and routes market snapshots to
- *       ARMED/ACTIVE strategies matching the ticked underlying</li>
+ *       ARMED/ACTIVE strategies matching the ticked underlying. Snapshots come from the
+ *       shared per-underlying state in {@link MarketStateService}</li>
  *   <li><b>Position sync:</b> Listens for PositionEvents and routes to linked
  *       strategies via the positionToStrategies reverse index</li>
  *   <li><b>Force adjustment:</b> Allows manual adjustment bypass (cooldown skipped)</li>
  * </ul>
  *
  * <p><b>Concurrency model:</b> ConcurrentHashMap for the strategy registry.
- * Per-strategy ReadWriteLock protects lifecycle transitions (write lock) while
- * allowing concurrent tick evaluations (read lock via tryLock). Atomic
+ * Tick evaluation is fanned out to {@link StrategyEvaluationShards}: each strategy is
+ * pinned to one single-threaded shard, so its ticks are evaluated in order while other
+ * shards run in parallel. Per-strategy ReadWriteLock protects lifecycle transitions
+ * (write lock) from evaluation (uncontended read tryLock on the shard thread). Atomic
  * computeIfAbsent/computeIfPresent prevent race conditions during registration
  * and deregistration.
  *
@@ -92,6 +98,9 @@ public class StrategyEngine {
     private final StrategyJpaRepository strategyJpaRepository;
     private final StrategyLegJpaRepository strategyLegJpaRepository;
     private final PositionRedisRepository positionRedisRepository;
+    private final TickLatencyTracker tickLatencyTracker;
+    private final StrategyEvaluationShards evaluationShards;
+    private final MarketStateService marketStateService;
 
     public StrategyEngine(
             StrategyFactory strategyFactory,
@@ -100,7 +109,10 @@ public class StrategyEngine {
             InstrumentService instrumentService,
             StrategyJpaRepository strategyJpaRepository,
             StrategyLegJpaRepository strategyLegJpaRepository,
-            PositionRedisRepository positionRedisRepository) {
+            PositionRedisRepository positionRedisRepository,
+            TickLatencyTracker tickLatencyTracker,
+            StrategyEvaluationShards evaluationShards,
+            MarketStateService marketStateService) {
         this.strategyFactory = strategyFactory;
         this.eventPublisherHelper = eventPublisherHelper;
         this.journaledMultiLegExecutor = journaledMultiLegExecutor;
@@ -108,6 +120,9 @@ public class StrategyEngine {
         this.strategyJpaRepository = strategyJpaRepository;
         this.strategyLegJpaRepository = strategyLegJpaRepository;
         this.positionRedisRepository = positionRedisRepository;
+        this.tickLatencyTracker = tickLatencyTracker;
+        this.evaluationShards = evaluationShards;
+        this.marketStateService = marketStateService;
     }
 
     // ========================
@@ -143,6 +158,9 @@ public class StrategyEngine {
             throw new IllegalStateException("Strategy ID collision: " + strategyId);
         }
         strategyLocks.put(strategyId, new ReentrantReadWriteLock());
+        tickLatencyTracker.registerStrategy(strategyId);
+        evaluationShards.assign(strategy);
+        marketStateService.track(strategy.getConfig().getUnderlying());
 
         // Persist to H2 so strategy survives restarts
         persistNewStrategy(strategy);
@@ -292,7 +310,10 @@ public class StrategyEngine {
                 throw new IllegalStateException(
                         "Cannot undeploy strategy in " + strategy.getStatus() + " state. Close it first.");
             }
+            evaluationShards.release(id);
             strategyLocks.remove(id);
+            tickLatencyTracker.unregisterStrategy(id);
+            marketStateService.untrack(strategy.getConfig().getUnderlying());
             persistStatusChange(id, StrategyStatus.CLOSED, "closedAt", LocalDateTime.now());
             eventPublisherHelper.publishDecision(this, "DEPLOY", "Strategy undeployed", id, Map.of());
             return null; // removes from map
@@ -363,43 +384,72 @@ public class StrategyEngine {
 
     /**
      * Routes tick events to strategies monitoring the ticked underlying.
-     * Builds a MarketSnapshot from the tick and calls evaluate() on each
-     * matching ARMED/ACTIVE strategy.
      *
-     * <p>Uses tryLock to avoid blocking if a lifecycle transition is in progress.
-     * A missed tick is acceptable -- the next tick will be evaluated.
+     * <p>Ticks of a tracked underlying (its spot or option chain) update the shared
+     * {@link MarketStateService} state, and the resulting snapshot is handed to the
+     * strategies on that underlying only. Ticks of untracked instruments fall back to a
+     * snapshot built from the tick alone, routed to strategies whose underlying is not
+     * tracked (e.g. instruments not loaded yet).
+     *
+     * <p>Returns once the snapshot has been queued on each evaluation shard; it does not wait
+     * for evaluation, so a slow strategy never holds up the ticker thread.
+     *
+     * <p>Dispatch and per-strategy evaluation times are recorded in {@link TickLatencyTracker}.
      */
     @EventListener
     @Order(4) // After TickProcessor(1), IndicatorService(2), PositionService(3)
     public void onTick(TickEvent event) {
+        long dispatchStart = System.nanoTime();
         Tick tick = event.getTick();
-        MarketSnapshot snapshot = buildSnapshot(tick);
-
-        for (Map.Entry<String, BaseStrategy> entry : activeStrategies.entrySet()) {
-            String strategyId = entry.getKey();
-            BaseStrategy strategy = entry.getValue();
 
-            StrategyStatus status = strategy.getStatus();
-            if (status != StrategyStatus.ARMED && status != StrategyStatus.ACTIVE) {
-                continue;
+        if (marketStateService.isTrackedToken(tick.getInstrumentToken())) {
+            MarketSnapshot snapshot = marketStateService.onTick(tick, event.getReceivedAt());
+            if (snapshot != null) {
+                String underlying = snapshot.getUnderlying();
+                evaluationShards.dispatch(strategy -> {
+                    if (underlying.equals(strategy.getConfig().getUnderlying())) {
+                        evaluateOnTick(strategy, snapshot);
+                    }
+                });
             }
+        } else {
+            MarketSnapshot snapshot = buildSnapshot(tick, event.getReceivedAt());
+            evaluationShards.dispatch(strategy -> {
+                if (!marketStateService.isTracked(strategy.getConfig().getUnderlying())) {
+                    evaluateOnTick(strategy, snapshot);
+                }
+            });
+        }
 
-            // Only route ticks for the strategy's underlying
-            // #TODO: Map instrumentToken -> underlying for multi-instrument strategies
-            // For now, strategies will internally filter based on their underlying config
+        tickLatencyTracker.recordSince(LatencyStage.STRATEGY_DISPATCH, dispatchStart);
+    }
 
-            ReadWriteLock lock = strategyLocks.get(strategyId);
-            if (lock != null && lock.readLock().tryLock()) {
-                try {
-                    strategy.evaluate(snapshot);
-                } catch (Exception e) {
-                    log.error("Error evaluating strategy {} on tick: {}", strategyId, e.getMessage(), e);
-                } finally {
-                    lock.readLock().unlock();
-                }
+    /**
+     * Evaluates one strategy against a tick snapshot. Runs on the strategy's shard thread.
+     *
+     * <p>Uses tryLock to avoid blocking if a lifecycle transition is in progress.
+     * A missed tick is acceptable -- the next tick will be evaluated.
+     */
+    private void evaluateOnTick(BaseStrategy strategy, MarketSnapshot snapshot) {
+        StrategyStatus status = strategy.getStatus();
+        if (status != StrategyStatus.ARMED && status != StrategyStatus.ACTIVE) {
+            return;
+        }
+
+        String strategyId = strategy.getId();
+        ReadWriteLock lock = strategyLocks.get(strategyId);
+        if (lock != null && lock.readLock().tryLock()) {
+            long evaluateStart = System.nanoTime();
+            try {
+                strategy.evaluate(snapshot);
+            } catch (Exception e) {
+                log.error("Error evaluating strategy {} on tick: {}", strategyId, e.getMessage(), e);
+            } finally {
+                lock.readLock().unlock();
+                tickLatencyTracker.recordStrategyEvaluation(strategyId, System.nanoTime() - evaluateStart);
             }
-            // If tryLock fails, a lifecycle transition is in progress -- skip this tick
         }
+        // If tryLock fails, a lifecycle transition is in progress -- skip this tick
     }
 
     /**
@@ -560,6 +610,9 @@ public class StrategyEngine {
             throw new IllegalStateException("Strategy ID collision on restore: " + strategyId);
         }
         strategyLocks.put(strategyId, new ReentrantReadWriteLock());
+        tickLatencyTracker.registerStrategy(strategyId);
+        evaluationShards.assign(strategy);
+        marketStateService.track(strategy.getConfig().getUnderlying());
 
         log.info(
                 "Registered restored strategy: id={}, name={}, type={}",
@@ -628,11 +681,12 @@ public class StrategyEngine {
                 .build();
     }
 
-    private MarketSnapshot buildSnapshot(Tick tick) {
+    /** Fallback snapshot for ticks of instruments without tracked market state. */
+    private MarketSnapshot buildSnapshot(Tick tick, long tickReceivedAt) {
         return MarketSnapshot.builder()
                 .spotPrice(tick.getLastPrice())
-                .atmIV(null) // #TODO Phase 3.4b: Populate from IV service
                 .timestamp(tick.getTimestamp() != null ? tick.getTimestamp() : LocalDateTime.now())
+                .tickReceivedAt(tickReceivedAt)
                 .build();
     }
 
@@ -0,0 +1,188 @@
+package com.algotrader.core.engine;
+
+import com.algotrader.strategy.base.BaseStrategy;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pins strategies to single-threaded evaluation shards so that one slow {@code evaluate()}
+ * only delays the strategies sharing its shard, not every strategy in the engine.
+ *
+ * <p>Each shard is a one-thread executor with a bounded FIFO queue. A strategy is assigned
+ * to the least-loaded shard when it is registered and stays there until it is released, so
+ * all of its evaluations run on the same thread in tick order. Within a shard, strategies are
+ * evaluated one after another; across shards, evaluation runs in parallel.
+ *
+ * <p>When a shard falls behind and its queue is full, the oldest pending tick for that shard
+ * is dropped in favour of the newest one (same policy as StrategyEngine's tryLock skip: a
+ * missed tick is acceptable, the next tick will be evaluated). Drops are counted and exposed
+ * via {@link #getDroppedTicks()}.
+ *
+ * <p>Configuration ({@code algotrader.strategy-engine.*}):
+ * <ul>
+ *   <li>{@code shard-count}: number of shards. -1 (default) uses one shard per available
+ *       core; 0 disables sharding and evaluates inline on the publishing (ticker) thread,
+ *       which is what unit tests and benchmarks use for deterministic execution.</li>
+ *   <li>{@code shard-queue-capacity}: pending tick batches per shard before dropping.</li>
+ * </ul>
+ */
+@Component
+public class StrategyEvaluationShards {
+
+    private static final Logger log = LoggerFactory.getLogger(StrategyEvaluationShards.class);
+
+    private final ThreadPoolExecutor[] executors;
+    private final List<BaseStrategy>[] members;
+    private final ConcurrentHashMap<String, Integer> assignments = new ConcurrentHashMap<>();
+    private final AtomicLong droppedTicks = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public StrategyEvaluationShards(
+            @Value("${algotrader.strategy-engine.shard-count:-1}") int shardCount,
+            @Value("${algotrader.strategy-engine.shard-queue-capacity:256}") int queueCapacity) {
+        int resolved = shardCount < 0 ? Runtime.getRuntime().availableProcessors() : shardCount;
+
+        this.members = new List[Math.max(resolved, 1)];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = new CopyOnWriteArrayList<>();
+        }
+
+        if (resolved == 0) {
+            this.executors = null;
+            log.info("Strategy evaluation sharding disabled, evaluating inline on the tick thread");
+            return;
+        }
+
+        this.executors = new ThreadPoolExecutor[resolved];
+        for (int i = 0; i < resolved; i++) {
+            String threadName = "strategy-shard-" + i;
+            executors[i] = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> dropOldest(runnable, executor, threadName));
+        }
+        log.info("Strategy evaluation sharded across {} threads (queue capacity {})", resolved, queueCapacity);
+    }
+
+    /**
+     * Assigns a strategy to the least-loaded shard. Idempotent: an already assigned strategy
+     * keeps its shard.
+     *
+     * @return the shard index
+     */
+    public synchronized int assign(BaseStrategy strategy) {
+        Integer existing = assignments.get(strategy.getId());
+        if (existing != null) {
+            return existing;
+        }
+
+        int target = 0;
+        for (int i = 1; i < members.length; i++) {
+            if (members[i].size() < members[target].size()) {
+                target = i;
+            }
+        }
+        members[target].add(strategy);
+        assignments.put(strategy.getId(), target);
+        return target;
+    }
+
+    /** Removes a strategy from its shard. No-op if it was never assigned. */
+    public synchronized void release(String strategyId) {
+        Integer shard = assignments.remove(strategyId);
+        if (shard != null) {
+            members[shard].removeIf(strategy -> strategy.getId().equals(strategyId));
+        }
+    }
+
+    /**
+     * Runs {@code evaluation} for every assigned strategy: one task per non-empty shard, each
+     * task visiting its shard's strategies in assignment order. Returns without waiting for
+     * the shards unless sharding is disabled, in which case everything runs on the caller.
+     */
+    public void dispatch(Consumer<BaseStrategy> evaluation) {
+        for (int i = 0; i < members.length; i++) {
+            List<BaseStrategy> shardMembers = members[i];
+            if (shardMembers.isEmpty()) {
+                continue;
+            }
+            if (executors == null) {
+                shardMembers.forEach(evaluation);
+            } else {
+                executors[i].execute(() -> shardMembers.forEach(evaluation));
+            }
+        }
+    }
+
+    /** Returns the shard a strategy is pinned to, or -1 if it is not assigned. */
+    public int getShard(String strategyId) {
+        return assignments.getOrDefault(strategyId, -1);
+    }
+
+    /** Number of shards (1 when sharding is disabled). */
+    public int getShardCount() {
+        return members.length;
+    }
+
+    /** Whether evaluation runs on shard threads rather than inline on the caller. */
+    public boolean isSharded() {
+        return executors != null;
+    }
+
+    /** Total tick batches dropped because a shard queue was full. */
+    public long getDroppedTicks() {
+        return droppedTicks.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executors == null) {
+            return;
+        }
+        for (ThreadPoolExecutor executor : executors) {
+            executor.shutdown();
+        }
+        for (ThreadPoolExecutor executor : executors) {
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void dropOldest(Runnable runnable, ThreadPoolExecutor executor, String shardName) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (executor.getQueue().poll() != null) {
+            long dropped = droppedTicks.incrementAndGet();
+            if (dropped == 1 || dropped % 1000 == 0) {
+                log.warn("{} is falling behind, dropped {} tick batches so far", shardName, dropped);
+            }
+        }
+        executor.execute(runnable);
+    }
+}
@@ -0,0 +1,230 @@
+package com.algotrader.core.processor;
+
+import com.algotrader.calendar.ExpiryCalendarService;
+import com.algotrader.domain.model.Instrument;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.IndicatorUpdateEvent;
+import com.algotrader.service.InstrumentService;
+import com.algotrader.strategy.base.MarketSnapshot;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Shared per-underlying market state from which strategy {@link MarketSnapshot}s are served.
+ *
+ * <p>Before this service every strategy evaluation got a snapshot carrying only the tick's
+ * last price; anything else (ATM IV, DTE, indicators) had to be looked up per strategy per
+ * tick. Now each tracked underlying has one {@link UnderlyingMarketState} that is updated
+ * incrementally as its spot and option ticks and indicator updates arrive, and that publishes
+ * an immutable snapshot shared by all strategies on the underlying.
+ *
+ * <p>An underlying is tracked while at least one strategy on it is deployed or restored
+ * ({@link #track(String)} / {@link #untrack(String)}, reference counted). Tracking resolves the
+ * spot instrument and the nearest expiry's option chain, and indexes their tokens so that
+ * {@link #onTick(Tick, long)} is a single map lookup for untracked tokens. The chain is
+ * re-resolved once per day ({@link #rollExpiries()}), which moves the state onto the next
+ * expiry after the current one has passed.
+ *
+ * <p>StrategyEngine calls {@link #onTick(Tick, long)} itself at the start of its tick handler
+ * (rather than this service listening independently) so the state is guaranteed to include
+ * the tick being evaluated.
+ */
+@Service
+public class MarketStateService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketStateService.class);
+
+    private final InstrumentService instrumentService;
+    private final GreeksCalculator greeksCalculator;
+    private final ExpiryCalendarService expiryCalendarService;
+
+    /** Underlying -> state. */
+    private final ConcurrentHashMap<String, UnderlyingMarketState> states = new ConcurrentHashMap<>();
+
+    /** Spot and option tokens -> owning state. */
+    private final ConcurrentHashMap<Long, UnderlyingMarketState> statesByToken = new ConcurrentHashMap<>();
+
+    /** Underlying -> number of deployed strategies on it. Guarded by this. */
+    private final Map<String, Integer> trackCounts = new HashMap<>();
+
+    public MarketStateService(
+            InstrumentService instrumentService,
+            GreeksCalculator greeksCalculator,
+            ExpiryCalendarService expiryCalendarService) {
+        this.instrumentService = instrumentService;
+        this.greeksCalculator = greeksCalculator;
+        this.expiryCalendarService = expiryCalendarService;
+    }
+
+    /**
+     * Starts maintaining state for an underlying, or takes another reference to it. Each call
+     * should be paired with an {@link #untrack(String)} when its strategy is undeployed. If the
+     * spot instrument is not known (instruments not loaded yet, or not an F&amp;O underlying)
+     * nothing is tracked and a later call can retry.
+     *
+     * @return true if the underlying is tracked after the call
+     */
+    public synchronized boolean track(String underlying) {
+        if (underlying == null) {
+            return false;
+        }
+        trackCounts.merge(underlying, 1, Integer::sum);
+        if (states.containsKey(underlying)) {
+            return true;
+        }
+
+        UnderlyingMarketState state = resolve(underlying, LocalDate.now());
+        if (state == null) {
+            return false;
+        }
+        index(state);
+        log.info(
+                "Tracking market state for {}: spotToken={}, expiry={}, options={}",
+                underlying,
+                state.getSpotToken(),
+                state.getExpiry(),
+                state.getOptionCount());
+        return true;
+    }
+
+    /**
+     * Releases one reference taken by {@link #track(String)}. When the last strategy on the
+     * underlying is gone its state and token index entries are dropped.
+     */
+    public synchronized void untrack(String underlying) {
+        if (underlying == null) {
+            return;
+        }
+        Integer remaining = trackCounts.computeIfPresent(underlying, (key, count) -> count > 1 ? count - 1 : null);
+        if (remaining != null) {
+            return;
+        }
+        UnderlyingMarketState state = states.remove(underlying);
+        if (state != null) {
+            unindex(state);
+            log.info("Stopped tracking market state for {}", underlying);
+        }
+    }
+
+    /** Re-resolves each tracked underlying's expiry and chain once the day has rolled over. */
+    @Scheduled(fixedDelayString = "${algotrader.market-state.expiry-check-ms:60000}")
+    public void rollExpiries() {
+        rollExpiries(LocalDate.now());
+    }
+
+    /**
+     * Re-resolves the nearest expiry and its option chain for every underlying last resolved
+     * before {@code today}. The new state carries over the spot price and indicators, so the
+     * snapshot stays available until the next spot tick.
+     */
+    public synchronized void rollExpiries(LocalDate today) {
+        for (UnderlyingMarketState current : List.copyOf(states.values())) {
+            if (!current.getResolvedOn().isBefore(today)) {
+                continue;
+            }
+            UnderlyingMarketState next = resolve(current.getUnderlying(), today);
+            if (next == null) {
+                continue;
+            }
+            next.carryOver(current, expiryCalendarService);
+            index(next);
+            unindex(current);
+            if (!Objects.equals(next.getExpiry(), current.getExpiry())) {
+                log.info(
+                        "Market state for {} rolled from expiry {} to {}, options={}",
+                        next.getUnderlying(),
+                        current.getExpiry(),
+                        next.getExpiry(),
+                        next.getOptionCount());
+            }
+        }
+    }
+
+    /**
+     * Builds state for the underlying's spot and nearest expiry on or after {@code today}, or
+     * returns null if the spot instrument is not known.
+     */
+    private UnderlyingMarketState resolve(String underlying, LocalDate today) {
+        Optional<Instrument> spot = instrumentService.getSpotInstrument(underlying);
+        if (spot.isEmpty() || spot.get().getToken() == null) {
+            log.debug("No spot instrument for {}, market state not tracked", underlying);
+            return null;
+        }
+        LocalDate expiry = instrumentService.getExpiries(underlying).stream()
+                .filter(date -> !date.isBefore(today))
+                .findFirst()
+                .orElse(null);
+        List<Instrument> options =
+                expiry != null ? instrumentService.getOptionsForUnderlying(underlying, expiry) : List.of();
+        return new UnderlyingMarketState(underlying, spot.get().getToken(), expiry, today, options);
+    }
+
+    private void index(UnderlyingMarketState state) {
+        states.put(state.getUnderlying(), state);
+        statesByToken.put(state.getSpotToken(), state);
+        for (Long token : state.getOptionTokens()) {
+            statesByToken.put(token, state);
+        }
+    }
+
+    /** Removes the state's tokens from the index, leaving any that now map to another state. */
+    private void unindex(UnderlyingMarketState state) {
+        statesByToken.remove(state.getSpotToken(), state);
+        for (Long token : state.getOptionTokens()) {
+            statesByToken.remove(token, state);
+        }
+    }
+
+    /** Returns true if an underlying is tracked. */
+    public boolean isTracked(String underlying) {
+        return underlying != null && states.containsKey(underlying);
+    }
+
+    /** Returns true if the token is the spot or an option of a tracked underlying. */
+    public boolean isTrackedToken(long instrumentToken) {
+        return statesByToken.containsKey(instrumentToken);
+    }
+
+    /**
+     * Applies a tick to the state of the underlying it belongs to.
+     *
+     * @return the underlying's new snapshot; null if the token is not tracked or the
+     *     underlying has not had a spot tick yet
+     */
+    public MarketSnapshot onTick(Tick tick, long receivedAt) {
+        UnderlyingMarketState state = statesByToken.get(tick.getInstrumentToken());
+        if (state == null) {
+            return null;
+        }
+        return state.applyTick(tick, receivedAt, greeksCalculator, expiryCalendarService);
+    }
+
+    /** Folds indicator updates for a tracked spot instrument into its underlying's state. */
+    @EventListener
+    public void onIndicatorUpdate(IndicatorUpdateEvent event) {
+        Long token = event.getInstrumentToken();
+        if (token == null) {
+            return;
+        }
+        UnderlyingMarketState state = statesByToken.get(token);
+        if (state != null && state.getSpotToken() == token) {
+            state.applyIndicators(event.getIndicators());
+        }
+    }
+
+    /** Returns the latest snapshot for an underlying, or null if untracked or not yet ticked. */
+    public MarketSnapshot getSnapshot(String underlying) {
+        UnderlyingMarketState state = underlying != null ? states.get(underlying) : null;
+        return state != null ? state.getSnapshot() : null;
+    }
+}
@@ -0,0 +1,254 @@
+package com.algotrader.core.processor;
+
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.TickEvent;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recent tick history per instrument token, shared by every consumer that needs more than the
+ * latest tick (sparkline bootstrap, spike detection, short-window VWAP in strategies).
+ *
+ * <p>Each instrument gets a fixed ring of the last {@code depth} ticks stored column by column
+ * in primitive arrays (time, price, cumulative volume; 24 bytes per tick), plus one spare slot
+ * for the tick being written so a full-depth read never overlaps the writer. Recording a tick
+ * is three array stores and a counter bump with no allocation. Reads return {@link TickWindow}
+ * views over the ring instead of copies; see that class for how readers detect a window that
+ * was overwritten while they held it.
+ *
+ * <p><b>Memory budget:</b> rings are allocated on an instrument's first tick, up to
+ * {@code max-memory-mb / ((depth + 1) * 24 bytes)} instruments. Past that, a new instrument takes over
+ * the ring of the instrument that ticked least recently (typically one that was unsubscribed),
+ * so total memory stays fixed however the subscription set changes.
+ *
+ * <p><b>Ordering:</b> runs at {@code @Order(1)} alongside {@link TickProcessor}, so history
+ * includes the current tick by the time indicators and strategies evaluate it. Tick times are
+ * the exchange timestamp (IST), falling back to the wall clock, and never go backwards within a
+ * ring, so range reads can binary search.
+ *
+ * <p><b>Thread safety:</b> writes to a ring are serialized on the ring. Readers take no lock:
+ * the tick count is volatile and written after the tick's columns (a seqlock without the
+ * odd/even step, since readers validate against the count instead).
+ */
+@Component
+public class TickHistoryBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(TickHistoryBuffer.class);
+
+    private static final ZoneOffset IST_OFFSET = ZoneOffset.ofHoursMinutes(5, 30);
+
+    /** Bytes stored per tick: time (long), price (double), volume (long). */
+    static final int BYTES_PER_TICK = 3 * Long.BYTES;
+
+    private final int depth;
+    private final int maxInstruments;
+    private final ConcurrentHashMap<Long, Ring> rings = new ConcurrentHashMap<>();
+
+    public TickHistoryBuffer(
+            @Value("${algotrader.tick-history.depth:256}") int depth,
+            @Value("${algotrader.tick-history.max-memory-mb:16}") int maxMemoryMb) {
+        this.depth = Math.max(1, depth);
+        long budgetBytes = (long) maxMemoryMb * 1024 * 1024;
+        this.maxInstruments = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budgetBytes / bytesPerRing(this.depth)));
+        log.info(
+                "Tick history: {} ticks per instrument, up to {} instruments in {} MB",
+                this.depth,
+                maxInstruments,
+                maxMemoryMb);
+    }
+
+    @EventListener
+    @Order(1)
+    public void onTick(TickEvent event) {
+        Tick tick = event.getTick();
+        if (tick.getInstrumentToken() == null || tick.getLastPrice() == null) {
+            return;
+        }
+        long timeMillis = tick.getTimestamp() != null
+                ? tick.getTimestamp().toInstant(IST_OFFSET).toEpochMilli()
+                : System.currentTimeMillis();
+        record(tick.getInstrumentToken(), timeMillis, tick.getLastPrice().doubleValue(), tick.getVolume());
+    }
+
+    /** Appends a tick to the instrument's ring, claiming a ring on its first tick. */
+    public void record(long instrumentToken, long timeMillis, double price, long volume) {
+        Ring ring = rings.get(instrumentToken);
+        if (ring == null) {
+            ring = claimRing(instrumentToken);
+        }
+        synchronized (ring) {
+            // The ring may have been handed to another instrument since we looked it up
+            if (ring.token != instrumentToken) {
+                return;
+            }
+            ring.append(timeMillis, price, volume);
+        }
+    }
+
+    /** Returns the instrument's most recent {@code n} ticks (fewer if it has fewer). */
+    public TickWindow lastN(long instrumentToken, int n) {
+        Ring ring = rings.get(instrumentToken);
+        if (ring == null || n <= 0) {
+            return TickWindow.EMPTY;
+        }
+        int generation = ring.generation;
+        // The ring may have been handed to another instrument since we looked it up
+        if (ring.token != instrumentToken) {
+            return TickWindow.EMPTY;
+        }
+        long end = ring.count;
+        long start = Math.max(ring.oldest(end), end - n);
+        return new TickWindow(ring, generation, start, (int) (end - start));
+    }
+
+    /**
+     * Returns the instrument's retained ticks with {@code fromMillis <= time <= toMillis}
+     * (epoch milliseconds).
+     */
+    public TickWindow range(long instrumentToken, long fromMillis, long toMillis) {
+        Ring ring = rings.get(instrumentToken);
+        if (ring == null || fromMillis > toMillis) {
+            return TickWindow.EMPTY;
+        }
+        int generation = ring.generation;
+        if (ring.token != instrumentToken) {
+            return TickWindow.EMPTY;
+        }
+        long end = ring.count;
+        long oldest = ring.oldest(end);
+        long start = ring.firstAtOrAfter(oldest, end, fromMillis);
+        long stop = toMillis == Long.MAX_VALUE ? end : ring.firstAtOrAfter(start, end, toMillis + 1);
+        return new TickWindow(ring, generation, start, (int) (stop - start));
+    }
+
+    /** Ticks retained per instrument. */
+    public int getDepth() {
+        return depth;
+    }
+
+    /** Number of instruments the memory budget allows rings for. */
+    public int getMaxInstruments() {
+        return maxInstruments;
+    }
+
+    /** Number of instruments currently holding a ring. */
+    public int getInstrumentCount() {
+        return rings.size();
+    }
+
+    private synchronized Ring claimRing(long instrumentToken) {
+        Ring ring = rings.get(instrumentToken);
+        if (ring != null) {
+            return ring;
+        }
+        if (rings.size() < maxInstruments) {
+            ring = new Ring(instrumentToken, depth + 1);
+        } else {
+            ring = leastRecentlyTicked();
+            synchronized (ring) {
+                rings.remove(ring.token, ring);
+                log.debug("Tick history ring reassigned from {} to {}", ring.token, instrumentToken);
+                ring.reassign(instrumentToken);
+            }
+        }
+        rings.put(instrumentToken, ring);
+        return ring;
+    }
+
+    private Ring leastRecentlyTicked() {
+        Ring oldest = null;
+        for (Ring ring : rings.values()) {
+            if (oldest == null || ring.lastTime() < oldest.lastTime()) {
+                oldest = ring;
+            }
+        }
+        return oldest;
+    }
+
+    private static long bytesPerRing(int depth) {
+        return (long) (depth + 1) * BYTES_PER_TICK;
+    }
+
+    /**
+     * One instrument's fixed ring. {@code count} is the total number of ticks ever appended
+     * (across reassignments), so tick {@code s} lives in slot {@code s % capacity} and stays
+     * there until tick {@code s + capacity} is written. Readers see at most {@code capacity - 1}
+     * ticks: the remaining slot is the one the writer may be filling.
+     */
+    static final class Ring {
+
+        final int capacity;
+        final long[] times;
+        final double[] prices;
+        final long[] volumes;
+
+        volatile long count;
+        volatile int generation;
+
+        /** Owning instrument. Written under this ring's lock; read lock-free by readers. */
+        volatile long token;
+
+        /** First tick that belongs to the current owner. */
+        volatile long base;
+
+        Ring(long token, int capacity) {
+            this.capacity = capacity;
+            this.times = new long[capacity];
+            this.prices = new double[capacity];
+            this.volumes = new long[capacity];
+            this.token = token;
+        }
+
+        void append(long timeMillis, double price, long volume) {
+            long seq = count;
+            if (seq > base) {
+                // Keep times non-decreasing so range reads can binary search
+                timeMillis = Math.max(timeMillis, times[(int) ((seq - 1) % capacity)]);
+            }
+            int slot = (int) (seq % capacity);
+            times[slot] = timeMillis;
+            prices[slot] = price;
+            volumes[slot] = volume;
+            count = seq + 1;
+        }
+
+        void reassign(long newToken) {
+            // Generation last: a reader that sees the new generation also sees the new owner
+            token = newToken;
+            base = count;
+            generation++;
+        }
+
+        /** Oldest readable tick, given the count {@code end}. */
+        long oldest(long end) {
+            return Math.max(base, end - (capacity - 1));
+        }
+
+        /** Time of the newest tick, or {@code Long.MIN_VALUE} if the ring holds none. */
+        long lastTime() {
+            long end = count;
+            return end > base ? times[(int) ((end - 1) % capacity)] : Long.MIN_VALUE;
+        }
+
+        /** First tick in [from, to) with time >= {@code timeMillis}, or {@code to} if none. */
+        long firstAtOrAfter(long from, long to, long timeMillis) {
+            long lo = from;
+            long hi = to;
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                if (times[(int) (mid % capacity)] < timeMillis) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.algotrader.core.processor;
+
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.TickEvent;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the latest tick per instrument token, first in the tick listener chain.
+ *
+ * <p>Lets request-path consumers (e.g., QuoteService) answer from live WebSocket data instead
+ * of a REST round trip when the token is subscribed and its last tick is recent. Each entry
+ * records the tick event's receipt time ({@code System.nanoTime()}) for freshness checks.
+ *
+ * <p>The handler is a single map put so it adds nothing measurable to the tick path.
+ */
+@Component
+public class TickProcessor {
+
+    private final ConcurrentHashMap<Long, CachedTick> latestTicks = new ConcurrentHashMap<>();
+
+    @EventListener
+    @Order(1)
+    public void onTick(TickEvent event) {
+        Tick tick = event.getTick();
+        if (tick.getInstrumentToken() == null) {
+            return;
+        }
+        latestTicks.put(tick.getInstrumentToken(), new CachedTick(tick, event.getReceivedAt()));
+    }
+
+    /**
+     * Returns the latest tick for the token if it was received within {@code maxAgeNanos}.
+     */
+    public Optional<Tick> getFreshTick(long instrumentToken, long maxAgeNanos) {
+        CachedTick cached = latestTicks.get(instrumentToken);
+        if (cached == null || System.nanoTime() - cached.receivedAt() > maxAgeNanos) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.tick());
+    }
+
+    /** Returns the latest tick for the token regardless of age. */
+    public Optional<Tick> getLatestTick(long instrumentToken) {
+        CachedTick cached = latestTicks.get(instrumentToken);
+        return cached != null ? Optional.of(cached.tick()) : Optional.empty();
+    }
+
+    private record CachedTick(Tick tick, long receivedAt) {}
+}
@@ -0,0 +1,82 @@
+package com.algotrader.core.processor;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Read-only view over a contiguous run of one instrument's recorded ticks, oldest first.
+ *
+ * <p>A window copies nothing: accessors read straight out of the instrument's ring in
+ * {@link TickHistoryBuffer}, as primitives. The ring keeps filling while a window is held, so a
+ * window is only good until the ring wraps past its oldest tick (or the ring is handed to
+ * another instrument). Read what you need, then call {@link #isIntact()}: if it returns false,
+ * discard the values and take a fresh window.
+ *
+ * <pre>{@code
+ * TickWindow window = tickHistoryBuffer.lastN(token, 20);
+ * double sum = 0;
+ * for (int i = 0; i < window.size(); i++) {
+ *     sum += window.price(i);
+ * }
+ * if (window.isIntact()) { ... }
+ * }</pre>
+ */
+public final class TickWindow {
+
+    /** A window with no ticks, returned for instruments that have no history. */
+    public static final TickWindow EMPTY = new TickWindow(null, 0, 0, 0);
+
+    private final TickHistoryBuffer.Ring ring;
+    private final int generation;
+    private final long start;
+    private final int size;
+
+    TickWindow(TickHistoryBuffer.Ring ring, int generation, long start, int size) {
+        this.ring = ring;
+        this.generation = generation;
+        this.start = start;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Tick time of the i-th tick (0 = oldest), in epoch milliseconds. */
+    public long timeMillis(int i) {
+        return ring.times[slot(i)];
+    }
+
+    /** Last traded price of the i-th tick (0 = oldest). */
+    public double price(int i) {
+        return ring.prices[slot(i)];
+    }
+
+    /** Cumulative day volume reported with the i-th tick (0 = oldest). */
+    public long volume(int i) {
+        return ring.volumes[slot(i)];
+    }
+
+    /**
+     * Returns true if none of this window's ticks have been overwritten since it was taken,
+     * i.e. every value read through it so far belongs to it.
+     */
+    public boolean isIntact() {
+        if (ring == null) {
+            return true;
+        }
+        // Order the caller's reads before re-checking the ring's position (seqlock validate)
+        VarHandle.acquireFence();
+        return ring.generation == generation && ring.count - start < ring.capacity;
+    }
+
+    private int slot(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of window of size " + size);
+        }
+        return (int) ((start + i) % ring.capacity);
+    }
+}
@@ -0,0 +1,278 @@
+package com.algotrader.core.processor;
+
+import com.algotrader.calendar.ExpiryCalendarService;
+import com.algotrader.domain.enums.InstrumentType;
+import com.algotrader.domain.model.Greeks;
+import com.algotrader.domain.model.Instrument;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.strategy.base.MarketSnapshot;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Incrementally maintained market state for one underlying: spot, ATM strike, ATM IV,
+ * IV skew around ATM, days to expiry and the spot instrument's indicator values.
+ *
+ * <p>Each field is updated only by the input that affects it:
+ * <ul>
+ *   <li>Spot tick: spot price; ATM strike and skew window only when the nearest strike changes.</li>
+ *   <li>Option tick: IV for that strike/side (one IV solve), then ATM IV/skew if the strike
+ *       is inside the skew window.</li>
+ *   <li>Indicator update: replaces the indicator map.</li>
+ *   <li>Expiry: days to expiry is recomputed once per calendar day.</li>
+ * </ul>
+ * The expiry and option chain are fixed; when they roll, {@link MarketStateService} builds a
+ * new state and carries the spot price and indicators over.
+ * After every update a new immutable {@link MarketSnapshot} is published, so readers get the
+ * full view with a single volatile read instead of repeating the lookups.
+ *
+ * <p>Writes come from the tick listener chain (ticker thread) and are synchronized so that an
+ * indicator update from another thread cannot interleave; reads of {@link #getSnapshot()} are
+ * lock-free.
+ */
+class UnderlyingMarketState {
+
+    /** Number of strikes on each side of ATM included in the IV skew. */
+    static final int SKEW_STRIKES_PER_SIDE = 2;
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final String underlying;
+    private final long spotToken;
+    private final LocalDate expiry;
+
+    /** Day the expiry and chain were resolved for. */
+    private final LocalDate resolvedOn;
+
+    /** Option token -> [strike, isCall]. */
+    private final Map<Long, OptionKey> optionsByToken = new HashMap<>();
+
+    /** Strike -> latest IV (percent) for CE [0] and PE [1]; null until that option ticks. */
+    private final NavigableMap<BigDecimal, BigDecimal[]> ivByStrike = new TreeMap<>();
+
+    private BigDecimal spotPrice;
+    private BigDecimal atmStrike;
+    private BigDecimal atmIV;
+    private Map<BigDecimal, BigDecimal> ivSkew = Map.of();
+    private Map<String, BigDecimal> indicators = Map.of();
+    private Integer daysToExpiry;
+    private LocalDate daysToExpiryComputedOn;
+
+    private volatile MarketSnapshot snapshot;
+
+    UnderlyingMarketState(
+            String underlying, long spotToken, LocalDate expiry, LocalDate resolvedOn, List<Instrument> options) {
+        this.underlying = underlying;
+        this.spotToken = spotToken;
+        this.expiry = expiry;
+        this.resolvedOn = resolvedOn;
+        for (Instrument option : options) {
+            if (option.getStrike() == null || option.getToken() == null) {
+                continue;
+            }
+            boolean isCall = option.getType() == InstrumentType.CE;
+            optionsByToken.put(option.getToken(), new OptionKey(option.getStrike(), isCall));
+            ivByStrike.putIfAbsent(option.getStrike(), new BigDecimal[2]);
+        }
+    }
+
+    String getUnderlying() {
+        return underlying;
+    }
+
+    long getSpotToken() {
+        return spotToken;
+    }
+
+    LocalDate getExpiry() {
+        return expiry;
+    }
+
+    LocalDate getResolvedOn() {
+        return resolvedOn;
+    }
+
+    Iterable<Long> getOptionTokens() {
+        return optionsByToken.keySet();
+    }
+
+    int getOptionCount() {
+        return optionsByToken.size();
+    }
+
+    /** The latest published snapshot, or null until the first spot tick. */
+    MarketSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Applies a spot or option tick and publishes a new snapshot.
+     *
+     * @return the new snapshot, or null if no spot price has been seen yet
+     */
+    synchronized MarketSnapshot applyTick(
+            Tick tick,
+            long receivedAt,
+            GreeksCalculator greeksCalculator,
+            ExpiryCalendarService expiryCalendarService) {
+        long token = tick.getInstrumentToken();
+        if (token == spotToken) {
+            spotPrice = tick.getLastPrice();
+            BigDecimal nearest = nearestStrike(spotPrice);
+            if (nearest != null && !nearest.equals(atmStrike)) {
+                atmStrike = nearest;
+                rebuildIv();
+            }
+        } else {
+            OptionKey option = optionsByToken.get(token);
+            if (option != null && spotPrice != null && expiry != null) {
+                updateOptionIv(option, tick.getLastPrice(), greeksCalculator);
+            }
+        }
+
+        if (spotPrice == null) {
+            return null;
+        }
+
+        refreshDaysToExpiry(tick.getTimestamp(), expiryCalendarService);
+        return publish(tick.getTimestamp(), receivedAt);
+    }
+
+    /** Replaces the indicator values and republishes the current snapshot with them. */
+    synchronized void applyIndicators(Map<String, BigDecimal> values) {
+        indicators = values != null ? Collections.unmodifiableMap(new LinkedHashMap<>(values)) : Map.of();
+        MarketSnapshot current = snapshot;
+        if (current != null) {
+            snapshot = current.toBuilder().indicators(indicators).build();
+        }
+    }
+
+    /**
+     * Seeds this (not yet indexed) state with the previous state's spot price and indicators
+     * and publishes a snapshot for the new expiry, stamped with the previous snapshot's time.
+     * Per-strike IVs are not carried over: they belong to the previous expiry's options.
+     */
+    synchronized void carryOver(UnderlyingMarketState previous, ExpiryCalendarService expiryCalendarService) {
+        MarketSnapshot last;
+        synchronized (previous) {
+            spotPrice = previous.spotPrice;
+            indicators = previous.indicators;
+            last = previous.snapshot;
+        }
+        if (spotPrice == null || last == null) {
+            return;
+        }
+        atmStrike = nearestStrike(spotPrice);
+        rebuildIv();
+        refreshDaysToExpiry(resolvedOn.atStartOfDay(), expiryCalendarService);
+        publish(last.getTimestamp(), last.getTickReceivedAt());
+    }
+
+    private void updateOptionIv(OptionKey option, BigDecimal optionPrice, GreeksCalculator greeksCalculator) {
+        if (optionPrice == null || optionPrice.signum() <= 0) {
+            return;
+        }
+        Greeks greeks = greeksCalculator.calculate(spotPrice, option.strike(), expiry, optionPrice, option.isCall());
+        if (!greeks.isAvailable()) {
+            return;
+        }
+        // GreeksCalculator solves IV as a decimal; snapshots carry percent like the strategy configs
+        ivByStrike.get(option.strike())[option.isCall() ? 0 : 1] =
+                greeks.getIv().multiply(HUNDRED).setScale(2, RoundingMode.HALF_UP);
+
+        if (atmStrike != null && isInSkewWindow(option.strike())) {
+            rebuildIv();
+        }
+    }
+
+    private boolean isInSkewWindow(BigDecimal strike) {
+        return skewWindow().containsKey(strike);
+    }
+
+    private NavigableMap<BigDecimal, BigDecimal[]> skewWindow() {
+        BigDecimal low = atmStrike;
+        BigDecimal high = atmStrike;
+        for (int i = 0; i < SKEW_STRIKES_PER_SIDE; i++) {
+            BigDecimal lower = ivByStrike.lowerKey(low);
+            BigDecimal higher = ivByStrike.higherKey(high);
+            if (lower != null) low = lower;
+            if (higher != null) high = higher;
+        }
+        return ivByStrike.subMap(low, true, high, true);
+    }
+
+    /** Recomputes ATM IV and the skew map from the per-strike IVs in the window around ATM. */
+    private void rebuildIv() {
+        if (atmStrike == null) {
+            return;
+        }
+        Map<BigDecimal, BigDecimal> skew = new LinkedHashMap<>();
+        for (Map.Entry<BigDecimal, BigDecimal[]> entry : skewWindow().entrySet()) {
+            BigDecimal iv = average(entry.getValue());
+            if (iv != null) {
+                skew.put(entry.getKey(), iv);
+            }
+        }
+        ivSkew = Collections.unmodifiableMap(skew);
+        atmIV = average(ivByStrike.get(atmStrike));
+    }
+
+    private BigDecimal nearestStrike(BigDecimal price) {
+        if (price == null || ivByStrike.isEmpty()) {
+            return null;
+        }
+        BigDecimal floor = ivByStrike.floorKey(price);
+        BigDecimal ceiling = ivByStrike.ceilingKey(price);
+        if (floor == null) return ceiling;
+        if (ceiling == null) return floor;
+        return price.subtract(floor).compareTo(ceiling.subtract(price)) <= 0 ? floor : ceiling;
+    }
+
+    private void refreshDaysToExpiry(LocalDateTime tickTime, ExpiryCalendarService expiryCalendarService) {
+        if (expiry == null) {
+            return;
+        }
+        LocalDate today = tickTime != null ? tickTime.toLocalDate() : LocalDate.now();
+        if (!today.equals(daysToExpiryComputedOn)) {
+            daysToExpiry = expiryCalendarService.getTradingDaysToExpiry(today, expiry);
+            daysToExpiryComputedOn = today;
+        }
+    }
+
+    private MarketSnapshot publish(LocalDateTime tickTime, long receivedAt) {
+        MarketSnapshot next = MarketSnapshot.builder()
+                .underlying(underlying)
+                .spotPrice(spotPrice)
+                .atmStrike(atmStrike)
+                .atmIV(atmIV)
+                .ivSkew(ivSkew)
+                .daysToExpiry(daysToExpiry)
+                .indicators(indicators)
+                .timestamp(tickTime != null ? tickTime : LocalDateTime.now())
+                .tickReceivedAt(receivedAt)
+                .build();
+        snapshot = next;
+        return next;
+    }
+
+    private static BigDecimal average(BigDecimal[] callPut) {
+        if (callPut == null) return null;
+        BigDecimal call = callPut[0];
+        BigDecimal put = callPut[1];
+        if (call == null) return put;
+        if (put == null) return call;
+        return call.add(put).divide(TWO, 2, RoundingMode.HALF_UP);
+    }
+
+    private record OptionKey(BigDecimal strike, boolean isCall) {}
+}
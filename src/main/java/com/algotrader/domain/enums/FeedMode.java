@@ -0,0 +1,18 @@
+package com.algotrader.domain.enums;
+
+/**
+ * Level of market data a subscriber needs for an instrument.
+ *
+ * <p>Maps onto the Kite ticker modes. A token is streamed at the highest level any of its
+ * subscribers declares, so ordinal order matters: LTP &lt; QUOTE &lt; FULL.
+ */
+public enum FeedMode {
+    /** Last traded price only (charts, far strikes). */
+    LTP,
+
+    /** LTP plus OHLC, volume and total buy/sell quantity (watchlists). */
+    QUOTE,
+
+    /** Quote plus open interest, timestamps and five-level market depth. */
+    FULL
+}
@@ -8,8 +8,8 @@ import lombok.Data;
 /**
  * Snapshot of the trading account's margin state from the broker.
  *
- * <p>Fetched from Kite's margins API and cached for 30 seconds by
- * {@link com.algotrader.margin.MarginService}. Used by the margin monitor
+ * <p>Fetched from Kite's margins API by {@link com.algotrader.margin.MarginService}, which
+ * projects it forward locally on position changes between broker fetches. Used by the margin monitor
  * for utilization alerts and by the position sizers for margin-aware sizing.
  *
  * <p>The utilizationPercent is pre-computed as (usedMargin / totalCapital) * 100
@@ -37,6 +37,12 @@ public class AccountMargin {
     /** Margin utilization as percentage: (usedMargin / totalCapital) * 100. */
     private BigDecimal utilizationPercent;
 
-    /** Timestamp when this data was fetched from the broker. */
+    /** Timestamp when this data (or the broker figures it was projected from) was fetched from the broker. */
     private Instant fetchedAt;
+
+    /**
+     * True if used/available margin were projected locally from position changes since the
+     * last broker fetch; false for figures straight from the broker.
+     */
+    private boolean projected;
 }
@@ -24,7 +24,13 @@ public class LegOpenStep {
     private BigDecimal strike;
     private InstrumentType optionType;
     private OrderSide side;
+
+    /** Lots requested for the leg; null inherits the source strategy's or the request's overrideLots. */
+    private Integer lots;
+
+    /** Share quantity, resolved from lots and the instrument's lot size before execution. */
     private int quantity;
+
     private String targetStrategyId;
 
     @Builder.Default
@@ -14,6 +14,11 @@ import lombok.Data;
  * <p>For single-leg orders, hedgeBenefit/individualMarginSum/legCount are not set.
  * For multi-leg orders, hedgeBenefit shows the margin savings from portfolio netting
  * (e.g., iron condor margin is much less than the sum of 4 naked legs).
+ *
+ * <p>individualMarginSum, hedgeBenefit and hedgeBenefitPercent are set only when the combined
+ * and individual figures come from the same source (both broker or both local SPAN model).
+ * Otherwise all three are null, as on a pre-placement confirmation, which fetches only the
+ * broker's combined margin.
  */
 @Data
 @Builder
@@ -22,13 +27,13 @@ public class MarginEstimate {
     /** Total margin required for the proposed trade(s). */
     private BigDecimal requiredMargin;
 
-    /** Sum of individual leg margins (only for multi-leg). */
+    /** Sum of individual leg margins (only for multi-leg; null on confirmation). */
     private BigDecimal individualMarginSum;
 
-    /** Margin saved due to hedging: individualMarginSum - requiredMargin (only for multi-leg). */
+    /** Margin saved due to hedging: individualMarginSum - requiredMargin (only for multi-leg; null on confirmation). */
     private BigDecimal hedgeBenefit;
 
-    /** Hedge benefit as percentage of individual margins (only for multi-leg). */
+    /** Hedge benefit as percentage of individual margins (only for multi-leg; null on confirmation). */
     private BigDecimal hedgeBenefitPercent;
 
     /** Current available margin in the account. */
@@ -42,4 +47,14 @@ public class MarginEstimate {
 
     /** Number of legs in the basket (only for multi-leg). */
     private int legCount;
+
+    /** True if the figures come from the local SPAN model rather than the broker (only for multi-leg). */
+    private boolean estimatedLocally;
+
+    /**
+     * Error of the local SPAN estimate versus the broker figure, in percent; positive means the
+     * local model overestimated. Set only when a broker figure was obtained for a basket the
+     * local model could also price.
+     */
+    private BigDecimal localEstimateErrorPercent;
 }
@@ -28,6 +28,9 @@ public class MorphResult {
     private boolean success;
     private String errorMessage;
 
+    /** Wall time from the first leg order to the last, while the position was half-transformed. */
+    private long exposedWindowMillis;
+
     /** The morph plan ID for tracking/querying. */
     private Long morphPlanId;
 }
@@ -29,6 +29,9 @@ public class Position {
     private String tradingSymbol;
     private String exchange;
 
+    /** Kite product type: "NRML" (overnight), "MIS" (intraday margin). */
+    private String product;
+
     /** Signed quantity: positive = long, negative = short. From Kite's netQuantity. */
     private int quantity;
 
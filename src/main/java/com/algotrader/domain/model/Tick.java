@@ -10,8 +10,9 @@ import lombok.Data;
  * Real-time market data tick received from Kite WebSocket.
  *
  * <p>Ticks are the primary input for all real-time processing: position P&L updates,
- * strategy evaluation, Greeks recalculation, and risk monitoring. The TickBuffer
- * maintains the last 100 ticks per instrument in a Caffeine cache for indicator calculations.
+ * strategy evaluation, Greeks recalculation, and risk monitoring. The
+ * {@link com.algotrader.core.processor.TickHistoryBuffer} keeps the most recent ticks per
+ * instrument (price, volume and time) for consumers that need short-window history.
  *
  * <p>Depth data (buyDepth/sellDepth) is only available for instruments subscribed in
  * Kite's FULL mode. LTP-only subscriptions will have null depth fields.
@@ -3,6 +3,7 @@ package com.algotrader.entity;
 import com.algotrader.domain.enums.InstrumentType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
@@ -20,6 +21,7 @@ import lombok.Setter;
  * Strike selection logic is stored as JSON and resolved at entry time.
  */
 @Entity
+@EntityListeners(StrategyLegEntityListener.class)
 @Table(name = "strategy_legs")
 @Getter
 @Setter
@@ -0,0 +1,38 @@
+package com.algotrader.entity;
+
+import com.algotrader.event.StrategyLegChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that publishes a {@link StrategyLegChangedEvent} for every strategy leg
+ * insert, update and delete, however the leg was written.
+ *
+ * <p>Instantiated by Hibernate through Spring's bean container, so the publisher is injected.
+ */
+public class StrategyLegEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public StrategyLegEntityListener(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(StrategyLegEntity leg) {
+        publish(leg, false);
+    }
+
+    @PostRemove
+    public void onRemoved(StrategyLegEntity leg) {
+        publish(leg, true);
+    }
+
+    private void publish(StrategyLegEntity leg, boolean removed) {
+        applicationEventPublisher.publishEvent(new StrategyLegChangedEvent(
+                this, leg.getId(), leg.getStrategyId(), leg.getPositionId(), leg.getQuantity(), removed));
+    }
+}
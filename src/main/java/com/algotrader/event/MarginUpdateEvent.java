@@ -0,0 +1,31 @@
+package com.algotrader.event;
+
+import com.algotrader.domain.model.AccountMargin;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by MarginService whenever the account margin view changes: after a broker
+ * fetch, and after every position change projected locally in between.
+ *
+ * <p>Key listeners:
+ * <ul>
+ *   <li>MarginMonitorService — evaluates utilization thresholds on every change</li>
+ * </ul>
+ */
+public class MarginUpdateEvent extends ApplicationEvent {
+
+    private final AccountMargin margin;
+
+    /**
+     * @param source the component publishing this event
+     * @param margin the new margin view ({@link AccountMargin#isProjected()} tells its origin)
+     */
+    public MarginUpdateEvent(Object source, AccountMargin margin) {
+        super(source);
+        this.margin = margin;
+    }
+
+    public AccountMargin getMargin() {
+        return margin;
+    }
+}
@@ -0,0 +1,42 @@
+package com.algotrader.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Application event published when a strategy leg row is inserted, updated or deleted.
+ *
+ * <p>Published from the JPA entity callbacks of {@code StrategyLegEntity}, i.e. inside the
+ * writing transaction; listeners that mirror leg state should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * <p>Listeners:
+ * <ul>
+ *   <li>PositionAllocationService -- keeps the in-memory position allocation ledger current</li>
+ * </ul>
+ */
+@Getter
+public class StrategyLegChangedEvent extends ApplicationEvent {
+
+    private final String legId;
+    private final String strategyId;
+
+    /** Position the leg is linked to after the change (null if unlinked). */
+    private final String positionId;
+
+    /** Signed leg quantity after the change. */
+    private final int quantity;
+
+    /** True if the leg row was deleted. */
+    private final boolean removed;
+
+    public StrategyLegChangedEvent(
+            Object source, String legId, String strategyId, String positionId, int quantity, boolean removed) {
+        super(source);
+        this.legId = legId;
+        this.strategyId = strategyId;
+        this.positionId = positionId;
+        this.quantity = quantity;
+        this.removed = removed;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.context.ApplicationEvent;
  * <p>Listener execution order is enforced via {@code @Order} annotations:
  * <ol>
  *   <li>TickProcessor (cache update) — @Order(1)</li>
+ *   <li>TickHistoryBuffer (recent tick history) — @Order(1)</li>
  *   <li>IndicatorService (technical indicators) — @Order(2)</li>
  *   <li>PositionService (P&L update) — @Order(3)</li>
  *   <li>StrategyEngine (condition evaluation) — @Order(4)</li>
@@ -29,9 +30,17 @@ public class TickEvent extends ApplicationEvent {
     private final long receivedAt;
 
     public TickEvent(Object source, Tick tick) {
+        this(source, tick, System.nanoTime());
+    }
+
+    /**
+     * Creates a tick event with an explicit receipt time, so latency is measured from the
+     * moment the KiteTicker callback fired rather than from event construction.
+     */
+    public TickEvent(Object source, Tick tick, long receivedAt) {
         super(source);
         this.tick = tick;
-        this.receivedAt = System.nanoTime();
+        this.receivedAt = receivedAt;
     }
 
     public Tick getTick() {
@@ -28,6 +28,10 @@ import org.ta4j.core.BaseBarSeriesBuilder;
  *
  * <p>The BarSeries has a configurable max bar count to limit memory usage.
  * Oldest bars are automatically evicted by ta4j when the limit is reached.
+ *
+ * <p>Bars must be added in increasing end-time order; a completed bar that does not end after
+ * the last bar (e.g., after seeding stored bars from a later session) is dropped with a warning
+ * instead of failing the tick.
  */
 public class BarSeriesManager {
 
@@ -47,9 +51,19 @@ public class BarSeriesManager {
 
     private final BarSeries barSeries;
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CompletedBarListener completedBarListener;
     private PendingBar pendingBar;
 
     public BarSeriesManager(InstrumentIndicatorConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param completedBarListener notified (under the write lock) of each bar completed from
+     *                             ticks; not called for historical bars. May be null.
+     */
+    public BarSeriesManager(InstrumentIndicatorConfig config, CompletedBarListener completedBarListener) {
+        this.completedBarListener = completedBarListener;
         this.instrumentToken = config.getInstrumentToken();
         this.tradingSymbol = config.getTradingSymbol();
         this.barDuration = config.getBarDuration();
@@ -100,19 +114,23 @@ public class BarSeriesManager {
      */
     public void addHistoricalBar(
             LocalDateTime endTime, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, long volume) {
+        addHistoricalBar(
+                endTime.atZone(IST).toInstant(),
+                open.doubleValue(),
+                high.doubleValue(),
+                low.doubleValue(),
+                close.doubleValue(),
+                volume);
+    }
+
+    /**
+     * Adds a historical bar directly to the series. Returns false (and adds nothing) if the
+     * bar does not end after the series' last bar.
+     */
+    public boolean addHistoricalBar(Instant endTime, double open, double high, double low, double close, long volume) {
         lock.writeLock().lock();
         try {
-            Instant instant = endTime.atZone(IST).toInstant();
-            barSeries.addBar(barSeries
-                    .barBuilder()
-                    .timePeriod(barDuration)
-                    .endTime(instant)
-                    .openPrice(open.doubleValue())
-                    .highPrice(high.doubleValue())
-                    .lowPrice(low.doubleValue())
-                    .closePrice(close.doubleValue())
-                    .volume(volume)
-                    .build());
+            return appendBar(endTime, open, high, low, close, volume);
         } finally {
             lock.writeLock().unlock();
         }
@@ -180,16 +198,17 @@ public class BarSeriesManager {
 
     private void addBarToSeries(PendingBar pending) {
         Instant instant = pending.getCloseTime().atZone(IST).toInstant();
-        barSeries.addBar(barSeries
-                .barBuilder()
-                .timePeriod(barDuration)
-                .endTime(instant)
-                .openPrice(pending.getOpen().doubleValue())
-                .highPrice(pending.getHigh().doubleValue())
-                .lowPrice(pending.getLow().doubleValue())
-                .closePrice(pending.getClose().doubleValue())
-                .volume(pending.getVolume())
-                .build());
+        double open = pending.getOpen().doubleValue();
+        double high = pending.getHigh().doubleValue();
+        double low = pending.getLow().doubleValue();
+        double close = pending.getClose().doubleValue();
+        if (!appendBar(instant, open, high, low, close, pending.getVolume())) {
+            log.warn(
+                    "Dropping bar for {} ending {}: not after the last bar in the series",
+                    tradingSymbol,
+                    pending.getCloseTime());
+            return;
+        }
 
         log.debug(
                 "Bar completed for {} [O={} H={} L={} C={} V={}]",
@@ -199,6 +218,33 @@ public class BarSeriesManager {
                 pending.getLow(),
                 pending.getClose(),
                 pending.getVolume());
+
+        if (completedBarListener != null) {
+            try {
+                completedBarListener.onBarCompleted(
+                        instrumentToken, instant, open, high, low, close, pending.getVolume());
+            } catch (RuntimeException e) {
+                log.warn("Completed-bar listener failed for {}: {}", tradingSymbol, e.getMessage());
+            }
+        }
+    }
+
+    /** Adds the bar if it ends after the last bar. Caller holds the write lock. */
+    private boolean appendBar(Instant endTime, double open, double high, double low, double close, long volume) {
+        if (!barSeries.isEmpty() && !endTime.isAfter(barSeries.getLastBar().getEndTime())) {
+            return false;
+        }
+        barSeries.addBar(barSeries
+                .barBuilder()
+                .timePeriod(barDuration)
+                .endTime(endTime)
+                .openPrice(open)
+                .highPrice(high)
+                .lowPrice(low)
+                .closePrice(close)
+                .volume(volume)
+                .build());
+        return true;
     }
 
     private com.algotrader.domain.model.Tick createMinimalTick(BigDecimal price, long volume, LocalDateTime timestamp) {
@@ -215,4 +261,11 @@ public class BarSeriesManager {
      */
     public record BarSnapshot(
             LocalDateTime timestamp, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, long volume) {}
+
+    /** Receives each bar completed from live ticks, e.g. to persist it. */
+    @FunctionalInterface
+    public interface CompletedBarListener {
+        void onBarCompleted(
+                long instrumentToken, Instant endTime, double open, double high, double low, double close, long volume);
+    }
 }
@@ -1,5 +1,6 @@
 package com.algotrader.indicator;
 
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -11,8 +12,11 @@ import org.springframework.stereotype.Component;
  * <p>Without historical seeding, indicators like EMA(50) or SMA(200) would
  * need 50-200 minutes of live data before producing valid values.
  *
- * <p>#TODO: Integrate with Kite Historical API to fetch previous session's bars.
- * The Kite API endpoint is: {@code kiteConnect.getHistoricalData(instrumentToken,
+ * <p>Bars come from the {@link LocalBarStore}, which records every bar completed from live
+ * ticks, so a restart resumes with the bars of the previous run without any broker call.
+ *
+ * <p>#TODO: Fall back to the Kite Historical API when the local store is empty (first run or
+ * a new instrument). The Kite API endpoint is: {@code kiteConnect.getHistoricalData(instrumentToken,
  * from, to, interval, continuous, oi)}. The BrokerGateway needs a
  * {@code getHistoricalData} method added.
  */
@@ -21,31 +25,44 @@ public class HistoricalDataSeeder {
 
     private static final Logger log = LoggerFactory.getLogger(HistoricalDataSeeder.class);
 
+    private final LocalBarStore localBarStore;
+
+    public HistoricalDataSeeder(LocalBarStore localBarStore) {
+        this.localBarStore = localBarStore;
+    }
+
     /**
-     * Seeds historical bars for a single instrument's BarSeriesManager.
-     *
-     * <p>Currently a no-op stub. When implemented, this will:
-     * <ol>
-     *   <li>Call Kite Historical API for the previous trading session</li>
-     *   <li>Convert the response into OHLCV bars matching the configured bar duration</li>
-     *   <li>Add bars to the BarSeriesManager via {@code addHistoricalBar()}</li>
-     * </ol>
+     * Seeds a single instrument's BarSeriesManager with up to {@code maxBars} of its most
+     * recent stored bars. Safe to call for different instruments in parallel.
      *
      * @param barSeriesManager the manager to seed with historical data
      * @param config           the instrument's indicator configuration
+     * @return the number of bars added
      */
-    public void seed(BarSeriesManager barSeriesManager, InstrumentIndicatorConfig config) {
-        // #TODO: Implement Kite Historical API integration
-        // Steps:
-        // 1. Calculate previous trading day using TradingCalendarService
-        // 2. Fetch OHLCV bars from Kite: GET /instruments/historical/{token}/{interval}
-        //    with from=previousSessionStart, to=previousSessionEnd
-        // 3. Map bar duration: 1min -> "minute", 5min -> "5minute", 15min -> "15minute"
-        // 4. For each bar: barSeriesManager.addHistoricalBar(endTime, open, high, low, close, volume)
-        log.info(
-                "Historical data seeding not yet implemented for {} (token={}). "
-                        + "Indicators will warm up from live ticks.",
-                config.getTradingSymbol(),
-                config.getInstrumentToken());
+    public int seed(BarSeriesManager barSeriesManager, InstrumentIndicatorConfig config) {
+        List<LocalBarStore.StoredBar> bars =
+                localBarStore.load(config.getInstrumentToken(), config.getBarDuration(), config.getMaxBars());
+
+        int added = 0;
+        for (LocalBarStore.StoredBar bar : bars) {
+            if (barSeriesManager.addHistoricalBar(
+                    bar.endTime(), bar.open(), bar.high(), bar.low(), bar.close(), bar.volume())) {
+                added++;
+            }
+        }
+
+        if (added == 0) {
+            log.info(
+                    "No stored bars for {} (token={}). Indicators will warm up from live ticks.",
+                    config.getTradingSymbol(),
+                    config.getInstrumentToken());
+        } else {
+            log.info(
+                    "Seeded {} stored bars for {} (token={})",
+                    added,
+                    config.getTradingSymbol(),
+                    config.getInstrumentToken());
+        }
+        return added;
     }
 }
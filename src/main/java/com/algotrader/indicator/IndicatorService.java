@@ -11,6 +11,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +49,7 @@ public class IndicatorService {
 
     private final IndicatorConfig indicatorConfig;
     private final HistoricalDataSeeder historicalDataSeeder;
+    private final LocalBarStore localBarStore;
     private final ApplicationEventPublisher applicationEventPublisher;
 
     /** BarSeriesManager per instrument token. */
@@ -64,15 +67,18 @@ public class IndicatorService {
     public IndicatorService(
             IndicatorConfig indicatorConfig,
             HistoricalDataSeeder historicalDataSeeder,
+            LocalBarStore localBarStore,
             ApplicationEventPublisher applicationEventPublisher) {
         this.indicatorConfig = indicatorConfig;
         this.historicalDataSeeder = historicalDataSeeder;
+        this.localBarStore = localBarStore;
         this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
      * Initializes BarSeries and indicators for all configured instruments.
-     * Called on application startup.
+     * Called on application startup. Stored bars are loaded for all instruments in
+     * parallel, and indicator values are computed from them before the first tick.
      */
     @jakarta.annotation.PostConstruct
     public void initialize() {
@@ -81,8 +87,17 @@ public class IndicatorService {
             return;
         }
 
-        for (InstrumentIndicatorConfig config : indicatorConfig.getInstruments()) {
-            initializeInstrument(config);
+        List<InstrumentIndicatorConfig> configs = indicatorConfig.getInstruments();
+        try (ExecutorService seeders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (InstrumentIndicatorConfig config : configs) {
+                BarSeriesManager barSeriesManager = new BarSeriesManager(config, barRecorder(config));
+                barSeriesManagers.put(config.getInstrumentToken(), barSeriesManager);
+                seeders.submit(() -> seedInstrument(barSeriesManager, config));
+            }
+        }
+
+        for (InstrumentIndicatorConfig config : configs) {
+            initializeIndicators(config);
         }
 
         log.info(
@@ -214,24 +229,38 @@ public class IndicatorService {
 
     // ---- Internal ----
 
-    private void initializeInstrument(InstrumentIndicatorConfig config) {
-        BarSeriesManager barSeriesManager = new BarSeriesManager(config);
-        barSeriesManagers.put(config.getInstrumentToken(), barSeriesManager);
+    private void seedInstrument(BarSeriesManager barSeriesManager, InstrumentIndicatorConfig config) {
+        try {
+            historicalDataSeeder.seed(barSeriesManager, config);
+        } catch (RuntimeException e) {
+            log.warn("Failed to seed bars for {}: {}", config.getTradingSymbol(), e.getMessage());
+        }
+    }
+
+    /** Persists each live bar to the local store so the next startup can seed from it. */
+    private BarSeriesManager.CompletedBarListener barRecorder(InstrumentIndicatorConfig config) {
+        return (token, endTime, open, high, low, close, volume) -> localBarStore.append(
+                token, config.getBarDuration(), config.getMaxBars(), endTime, open, high, low, close, volume);
+    }
 
-        // Seed historical data
-        historicalDataSeeder.seed(barSeriesManager, config);
+    private void initializeIndicators(InstrumentIndicatorConfig config) {
+        BarSeriesManager barSeriesManager = barSeriesManagers.get(config.getInstrumentToken());
 
         // Create ta4j indicators attached to the BarSeries
         Map<String, Indicator<Num>> indicators =
                 IndicatorFactory.createIndicators(barSeriesManager.getBarSeries(), config.getIndicators());
         indicatorMap.put(config.getInstrumentToken(), indicators);
 
+        // Seeded bars make values available before the first live bar completes
+        updateIndicatorCache(config.getInstrumentToken());
+
         log.info(
-                "Initialized {} indicators for {} (token={}, barDuration={})",
+                "Initialized {} indicators for {} (token={}, barDuration={}, seededBars={})",
                 indicators.size(),
                 config.getTradingSymbol(),
                 config.getInstrumentToken(),
-                config.getBarDuration());
+                config.getBarDuration(),
+                barSeriesManager.getBarCount());
     }
 
     private void updateIndicatorCache(Long instrumentToken) {
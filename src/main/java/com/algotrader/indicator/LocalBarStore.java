@@ -0,0 +1,240 @@
+package com.algotrader.indicator;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local on-disk store of completed bars, one file per instrument and bar interval, used to
+ * warm indicators up at startup without a historical data API.
+ *
+ * <p>Each file is a fixed-size ring of the last {@code capacity} bars laid out column by
+ * column (end time, open, high, low, close, volume; 8 bytes each) behind a small header, so a
+ * 500-bar file is about 24 KB. Files are memory-mapped: appending a bar is six puts into the
+ * page cache plus a header update, cheap enough to run on the tick thread, and loading reads
+ * the columns straight out of the mapping. The bar count in the header is written last, so a
+ * crash mid-append loses at most that bar.
+ *
+ * <p>If the configured bar capacity changes, the file is rewritten with the most recent bars
+ * that fit; a file that fails validation is started over. I/O failures are logged and the
+ * instrument is simply not recorded; the store never throws into the tick path.
+ */
+@Component
+public class LocalBarStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalBarStore.class);
+
+    private static final int MAGIC = 0x41424152; // "ABAR"
+    private static final int VERSION = 1;
+    private static final int COLUMNS = 6;
+
+    // Header: magic, version, capacity, reserved (ints), bar seconds, total bars appended (longs)
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int BAR_SECONDS_OFFSET = 16;
+    private static final int COUNT_OFFSET = 24;
+    private static final int HEADER_BYTES = 32;
+
+    private static final int END_TIME = 0;
+    private static final int OPEN = 1;
+    private static final int HIGH = 2;
+    private static final int LOW = 3;
+    private static final int CLOSE = 4;
+    private static final int VOLUME = 5;
+
+    private final Path directory;
+    private final Map<String, BarFile> openFiles = new ConcurrentHashMap<>();
+
+    public LocalBarStore(@Value("${algotrader.indicators.bar-store-dir:./data/bars}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Returns up to {@code maxBars} most recent stored bars for the instrument and interval,
+     * oldest first. Empty if nothing is stored or the file is unreadable.
+     */
+    public List<StoredBar> load(long instrumentToken, Duration barDuration, int maxBars) {
+        Path path = pathFor(instrumentToken, barDuration);
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!isValid(buffer, channel.size(), barDuration)) {
+                log.warn("Ignoring unreadable bar file {}", path);
+                return List.of();
+            }
+            return readBars(buffer, maxBars);
+        } catch (IOException e) {
+            log.warn("Failed to load bars from {}: {}", path, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Appends a completed bar to the instrument's ring of {@code capacity} bars. Bars whose end
+     * time is not after the last stored bar are ignored.
+     */
+    public void append(
+            long instrumentToken,
+            Duration barDuration,
+            int capacity,
+            Instant endTime,
+            double open,
+            double high,
+            double low,
+            double close,
+            long volume) {
+        String key = instrumentToken + "_" + barDuration.toSeconds();
+        BarFile file = openFiles.computeIfAbsent(key, k -> open(instrumentToken, barDuration, capacity));
+        if (file.buffer == null) {
+            return;
+        }
+        synchronized (file) {
+            file.append(endTime.getEpochSecond(), open, high, low, close, volume);
+        }
+    }
+
+    /** Flushes mapped files to disk and releases them. */
+    @PreDestroy
+    public void close() {
+        for (BarFile file : openFiles.values()) {
+            synchronized (file) {
+                if (file.buffer != null) {
+                    file.buffer.force();
+                }
+            }
+        }
+        openFiles.clear();
+    }
+
+    private BarFile open(long instrumentToken, Duration barDuration, int capacity) {
+        Path path = pathFor(instrumentToken, barDuration);
+        try {
+            List<StoredBar> existing = List.of();
+            if (Files.exists(path) && Files.size(path) != fileSize(capacity)) {
+                // Capacity changed: keep the most recent bars that fit in the new ring
+                existing = load(instrumentToken, barDuration, capacity);
+                Files.delete(path);
+            }
+            Files.createDirectories(directory);
+            boolean created = !Files.exists(path);
+            try (FileChannel channel = FileChannel.open(
+                    path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+                if (!created && !isValid(buffer, fileSize(capacity), barDuration)) {
+                    log.warn("Bar file {} is corrupt; starting it over", path);
+                    created = true;
+                }
+                if (created) {
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, VERSION);
+                    buffer.putInt(CAPACITY_OFFSET, capacity);
+                    buffer.putLong(BAR_SECONDS_OFFSET, barDuration.toSeconds());
+                    buffer.putLong(COUNT_OFFSET, 0);
+                }
+                BarFile file = new BarFile(buffer, capacity);
+                for (StoredBar bar : existing) {
+                    file.append(
+                            bar.endTime().getEpochSecond(),
+                            bar.open(),
+                            bar.high(),
+                            bar.low(),
+                            bar.close(),
+                            bar.volume());
+                }
+                return file;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to open bar file {}; not recording bars: {}", path, e.getMessage());
+            return new BarFile(null, capacity);
+        }
+    }
+
+    private Path pathFor(long instrumentToken, Duration barDuration) {
+        return directory.resolve(instrumentToken + "_" + barDuration.toSeconds() + "s.bars");
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_BYTES + (long) COLUMNS * capacity * Long.BYTES;
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, long size, Duration barDuration) {
+        if (size < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return false;
+        }
+        int capacity = buffer.getInt(CAPACITY_OFFSET);
+        return capacity > 0
+                && size == fileSize(capacity)
+                && buffer.getLong(BAR_SECONDS_OFFSET) == barDuration.toSeconds()
+                && buffer.getLong(COUNT_OFFSET) >= 0;
+    }
+
+    private static List<StoredBar> readBars(MappedByteBuffer buffer, int maxBars) {
+        int capacity = buffer.getInt(CAPACITY_OFFSET);
+        long count = buffer.getLong(COUNT_OFFSET);
+        int n = (int) Math.min(Math.min(count, capacity), Math.max(maxBars, 0));
+        List<StoredBar> bars = new ArrayList<>(n);
+        for (long i = count - n; i < count; i++) {
+            int slot = (int) (i % capacity);
+            bars.add(new StoredBar(
+                    Instant.ofEpochSecond(buffer.getLong(offset(capacity, END_TIME, slot))),
+                    buffer.getDouble(offset(capacity, OPEN, slot)),
+                    buffer.getDouble(offset(capacity, HIGH, slot)),
+                    buffer.getDouble(offset(capacity, LOW, slot)),
+                    buffer.getDouble(offset(capacity, CLOSE, slot)),
+                    buffer.getLong(offset(capacity, VOLUME, slot))));
+        }
+        return bars;
+    }
+
+    private static int offset(int capacity, int column, int slot) {
+        return HEADER_BYTES + (column * capacity + slot) * Long.BYTES;
+    }
+
+    /** A bar read back from the store. */
+    public record StoredBar(Instant endTime, double open, double high, double low, double close, long volume) {}
+
+    /** One mapped ring file. Appends are serialized by the caller. */
+    private static final class BarFile {
+
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+
+        BarFile(MappedByteBuffer buffer, int capacity) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        void append(long endEpochSecond, double open, double high, double low, double close, long volume) {
+            long count = buffer.getLong(COUNT_OFFSET);
+            if (count > 0) {
+                int lastSlot = (int) ((count - 1) % capacity);
+                if (endEpochSecond <= buffer.getLong(offset(capacity, END_TIME, lastSlot))) {
+                    return;
+                }
+            }
+            int slot = (int) (count % capacity);
+            buffer.putLong(offset(capacity, END_TIME, slot), endEpochSecond);
+            buffer.putDouble(offset(capacity, OPEN, slot), open);
+            buffer.putDouble(offset(capacity, HIGH, slot), high);
+            buffer.putDouble(offset(capacity, LOW, slot), low);
+            buffer.putDouble(offset(capacity, CLOSE, slot), close);
+            buffer.putLong(offset(capacity, VOLUME, slot), volume);
+            buffer.putLong(COUNT_OFFSET, count + 1);
+        }
+    }
+}
@@ -9,9 +9,10 @@ import lombok.Data;
 /**
  * Wraps an {@link AccountMargin} snapshot with a timestamp for TTL-based cache expiry.
  *
- * <p>Used internally by {@link MarginService} to implement a lightweight
- * AtomicReference-based cache with a 30-second TTL. This avoids the overhead
- * of a Caffeine cache for a single frequently-refreshed value.
+ * <p>Used internally by {@link MarginService} to hold the current margin view in a lightweight
+ * AtomicReference. The timestamp is that of the broker fetch the view is based on (projected
+ * views keep it), and the 30-second TTL decides when a read requests a background
+ * reconciliation. This avoids the overhead of a Caffeine cache for a single value.
  */
 @Data
 @AllArgsConstructor
@@ -14,17 +14,22 @@ import org.springframework.stereotype.Service;
 /**
  * Estimates margin requirements for proposed trades before they are placed.
  *
- * <p>Provides two estimation modes:
+ * <p>Provides three estimation modes:
  * <ul>
  *   <li><b>Single order:</b> Uses {@link BrokerGateway#getOrderMargin(OrderRequest)} to get
  *       the exact margin for one leg. Used by the order entry UI for pre-trade checks.</li>
- *   <li><b>Multi-leg basket:</b> Uses {@link BrokerGateway#getBasketMargin(List)} which
- *       accounts for hedging benefits (e.g., an iron condor requires much less margin than
- *       4 naked legs). Computes hedge benefit as the difference between individual sum and
- *       combined margin.</li>
+ *   <li><b>Multi-leg basket:</b> Served by the local {@link SpanMarginModel} with no broker
+ *       calls while the model is calibrated for the basket's underlying. Otherwise falls back
+ *       to {@link BrokerGateway#getBasketMargin(List)} plus one
+ *       {@link BrokerGateway#getOrderMargin(OrderRequest)} per leg, and uses the broker figure
+ *       to recalibrate the local model. Hedge benefit is the difference between the sum of
+ *       individual leg margins and the combined margin.</li>
+ *   <li><b>Multi-leg confirmation:</b> One broker basket call for the final pre-trade check
+ *       (the morph margin gate), reporting the local model's error against it and
+ *       recalibrating.</li>
  * </ul>
  *
- * <p>Both modes compare the required margin against the current available margin to
+ * <p>All modes compare the required margin against the current available margin to
  * determine if the trade is affordable, and compute the shortfall if not.
  */
 @Service
@@ -34,10 +39,12 @@ public class MarginEstimator {
 
     private final BrokerGateway brokerGateway;
     private final MarginService marginService;
+    private final SpanMarginModel spanMarginModel;
 
-    public MarginEstimator(BrokerGateway brokerGateway, MarginService marginService) {
+    public MarginEstimator(BrokerGateway brokerGateway, MarginService marginService, SpanMarginModel spanMarginModel) {
         this.brokerGateway = brokerGateway;
         this.marginService = marginService;
+        this.spanMarginModel = spanMarginModel;
     }
 
     /**
@@ -71,15 +78,29 @@ public class MarginEstimator {
     /**
      * Estimates combined margin for a multi-leg strategy order basket.
      *
-     * <p>Uses Kite's basket margins API which natively calculates portfolio-level margin
-     * with hedging benefits. For example, an iron condor (4 legs) may require only 40-60%
-     * of the sum of individual leg margins due to the protective wings.
+     * <p>When the local SPAN model can price every leg and has a recent broker calibration for
+     * the underlying, the estimate is computed locally in microseconds without broker calls.
+     * Otherwise Kite's basket margins API is used, which natively calculates portfolio-level
+     * margin with hedging benefits (for example, an iron condor may require only 40-60% of the
+     * sum of individual leg margins due to the protective wings), and its figure calibrates
+     * the local model.
      *
      * @param orders the list of order requests forming the basket
      * @return margin estimate with hedge benefit analysis
      * @throws BrokerException if the margin API call fails
      */
     public MarginEstimate estimateMultiLeg(List<OrderRequest> orders) {
+        SpanMarginModel.LocalMargin local = spanMarginModel.estimate(orders);
+        if (local != null && spanMarginModel.isCalibrated(local)) {
+            return buildMultiLegEstimate(
+                            orders,
+                            local.requiredMargin(),
+                            local.individualMarginSum(),
+                            marginService.getAvailableMargin())
+                    .estimatedLocally(true)
+                    .build();
+        }
+
         try {
             // Combined margin with hedging benefits
             BigDecimal combinedMargin = brokerGateway.getBasketMargin(orders);
@@ -91,27 +112,11 @@ public class MarginEstimator {
                 sumOfIndividualMargins = sumOfIndividualMargins.add(legMargin);
             }
 
-            BigDecimal hedgeBenefit = sumOfIndividualMargins.subtract(combinedMargin);
             BigDecimal availableMargin = marginService.getAvailableMargin();
+            BigDecimal error = local != null ? spanMarginModel.calibrate(local, combinedMargin) : null;
 
-            BigDecimal hedgeBenefitPercent = sumOfIndividualMargins.compareTo(BigDecimal.ZERO) > 0
-                    ? hedgeBenefit
-                            .divide(sumOfIndividualMargins, 4, RoundingMode.HALF_UP)
-                            .multiply(BigDecimal.valueOf(100))
-                    : BigDecimal.ZERO;
-
-            return MarginEstimate.builder()
-                    .requiredMargin(combinedMargin)
-                    .individualMarginSum(sumOfIndividualMargins)
-                    .hedgeBenefit(hedgeBenefit)
-                    .hedgeBenefitPercent(hedgeBenefitPercent.setScale(2, RoundingMode.HALF_UP))
-                    .availableMargin(availableMargin)
-                    .sufficient(availableMargin.compareTo(combinedMargin) >= 0)
-                    .shortfall(
-                            availableMargin.compareTo(combinedMargin) < 0
-                                    ? combinedMargin.subtract(availableMargin)
-                                    : BigDecimal.ZERO)
-                    .legCount(orders.size())
+            return buildMultiLegEstimate(orders, combinedMargin, sumOfIndividualMargins, availableMargin)
+                    .localEstimateErrorPercent(error)
                     .build();
 
         } catch (Exception e) {
@@ -119,4 +124,64 @@ public class MarginEstimator {
             throw new BrokerException("Multi-leg margin estimation failed", e);
         }
     }
+
+    /**
+     * Confirms a basket's margin with the broker before placement: one basket margin call.
+     *
+     * <p>Only the broker's combined margin is fetched, so there is no broker sum of individual
+     * legs to compare it with. The local model's sum would mix two sources, so individualMarginSum,
+     * hedgeBenefit and hedgeBenefitPercent are always null here. When the local model can price
+     * the basket, its error versus the broker figure is reported and folded into the calibration.
+     *
+     * @param orders the list of order requests forming the basket
+     * @return broker margin estimate, with the local model's error when available
+     * @throws BrokerException if the margin API call fails
+     */
+    public MarginEstimate confirmMultiLeg(List<OrderRequest> orders) {
+        SpanMarginModel.LocalMargin local = spanMarginModel.estimate(orders);
+        try {
+            BigDecimal combinedMargin = brokerGateway.getBasketMargin(orders);
+            BigDecimal availableMargin = marginService.getAvailableMargin();
+            BigDecimal error = local != null ? spanMarginModel.calibrate(local, combinedMargin) : null;
+
+            return buildMultiLegEstimate(orders, combinedMargin, null, availableMargin)
+                    .localEstimateErrorPercent(error)
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Failed to confirm multi-leg margin for {} orders", orders.size(), e);
+            throw new BrokerException("Multi-leg margin confirmation failed", e);
+        }
+    }
+
+    private MarginEstimate.MarginEstimateBuilder buildMultiLegEstimate(
+            List<OrderRequest> orders,
+            BigDecimal combinedMargin,
+            BigDecimal sumOfIndividualMargins,
+            BigDecimal availableMargin) {
+        BigDecimal hedgeBenefit = null;
+        BigDecimal hedgeBenefitPercent = null;
+        if (sumOfIndividualMargins != null) {
+            hedgeBenefit = sumOfIndividualMargins.subtract(combinedMargin);
+            hedgeBenefitPercent = sumOfIndividualMargins.compareTo(BigDecimal.ZERO) > 0
+                    ? hedgeBenefit
+                            .divide(sumOfIndividualMargins, 4, RoundingMode.HALF_UP)
+                            .multiply(BigDecimal.valueOf(100))
+                            .setScale(2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        return MarginEstimate.builder()
+                .requiredMargin(combinedMargin)
+                .individualMarginSum(sumOfIndividualMargins)
+                .hedgeBenefit(hedgeBenefit)
+                .hedgeBenefitPercent(hedgeBenefitPercent)
+                .availableMargin(availableMargin)
+                .sufficient(availableMargin.compareTo(combinedMargin) >= 0)
+                .shortfall(
+                        availableMargin.compareTo(combinedMargin) < 0
+                                ? combinedMargin.subtract(availableMargin)
+                                : BigDecimal.ZERO)
+                .legCount(orders.size());
+    }
 }
@@ -2,6 +2,7 @@ package com.algotrader.margin;
 
 import com.algotrader.calendar.TradingCalendarService;
 import com.algotrader.domain.model.AccountMargin;
+import com.algotrader.event.MarginUpdateEvent;
 import com.algotrader.event.RiskEvent;
 import com.algotrader.event.RiskEventType;
 import com.algotrader.event.RiskLevel;
@@ -11,11 +12,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
- * Monitors margin utilization every 30 seconds and publishes risk events at thresholds.
+ * Monitors margin utilization on every margin change and publishes risk events at thresholds.
+ *
+ * <p>Thresholds are evaluated on each {@link MarginUpdateEvent} from {@link MarginService},
+ * i.e. immediately after every position change (locally projected) and every broker
+ * reconciliation, so an alert is not delayed by a polling interval.
  *
  * <p>Two threshold levels:
  * <ul>
@@ -29,8 +35,9 @@ import org.springframework.stereotype.Service;
  * drops below the warning threshold, both flags are reset so they can fire again on the
  * next breach. This prevents alert spam during sustained high utilization.
  *
- * <p>Only runs during market hours (NORMAL phase) to avoid unnecessary API calls when
- * no trading is possible.
+ * <p>Every 30 seconds during market hours (NORMAL phase) a background broker reconciliation
+ * is requested, so that margin changes not caused by our own fills (M2M, funds, collateral)
+ * are picked up. No API calls are requested when no trading is possible.
  */
 @Service
 public class MarginMonitorService {
@@ -57,9 +64,8 @@ public class MarginMonitorService {
     }
 
     /**
-     * Checks margin utilization every 30 seconds during market hours.
-     * Publishes {@link RiskEvent} with {@link RiskEventType#MARGIN_UTILIZATION_HIGH}
-     * when thresholds are breached.
+     * Requests a background broker reconciliation every 30 seconds during market hours. The
+     * resulting {@link MarginUpdateEvent} is checked against thresholds.
      */
     @Scheduled(fixedRate = 30_000)
     public void checkMarginUtilization() {
@@ -67,7 +73,15 @@ public class MarginMonitorService {
             return;
         }
 
-        checkMarginUtilization(marginService.getMargins());
+        marginService.requestReconcile();
+    }
+
+    /**
+     * Evaluates thresholds whenever the margin view changes (projected or broker-fetched).
+     */
+    @EventListener
+    public void onMarginUpdate(MarginUpdateEvent event) {
+        checkMarginUtilization(event.getMargin());
     }
 
     /**
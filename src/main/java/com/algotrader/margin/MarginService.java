@@ -2,36 +2,57 @@ package com.algotrader.margin;
 
 import com.algotrader.broker.BrokerGateway;
 import com.algotrader.domain.model.AccountMargin;
+import com.algotrader.domain.model.Position;
+import com.algotrader.event.MarginUpdateEvent;
+import com.algotrader.event.PositionEvent;
+import com.algotrader.event.PositionEventType;
 import com.algotrader.exception.BrokerException;
 import com.algotrader.exception.SessionExpiredException;
+import com.algotrader.repository.redis.PositionRedisRepository;
 import com.algotrader.session.SessionHealthService;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
- * Fetches and caches real-time margin data from the broker.
+ * Serves the account margin view: broker figures projected forward locally on every
+ * position change, reconciled with the broker in the background.
  *
- * <p>Implements a lightweight 30-second TTL cache using an {@link AtomicReference} around
- * {@link CachedMargin}. This avoids excessive Kite API calls while keeping margin data
- * reasonably fresh for the {@link MarginMonitorService} and {@link MarginEstimator}.
- *
- * <p>Cache behavior:
+ * <p>The current view lives in an {@link AtomicReference} around {@link CachedMargin}.
+ * Only the very first call fetches from the broker synchronously; after that callers never
+ * block:
  * <ul>
- *   <li>Within TTL: returns cached value immediately (no API call)</li>
- *   <li>Expired + session active: fetches fresh data from broker</li>
- *   <li>Expired + session inactive: returns stale data with warning (graceful degradation)</li>
- *   <li>No cached data + session inactive: throws SessionExpiredException</li>
- *   <li>API failure: returns stale data if available, otherwise throws BrokerException</li>
+ *   <li><b>Position change</b> (opened, increased, reduced, closed): used margin is projected
+ *       as the broker's used margin at the last fetch plus the change in the local
+ *       {@link SpanMarginModel} margin of the open positions since then. The projected view
+ *       is published immediately and a broker reconciliation is requested. Positions the local
+ *       model cannot price (no instrument data or spot price) are left out of the delta, so
+ *       their margin stays at the broker figure until the reconciliation.</li>
+ *   <li><b>Reconciliation:</b> a background task fetches from the broker when requested
+ *       (position change, 30s TTL expiry on read, MarginMonitorService's periodic request),
+ *       coalescing bursts of fills into one broker call, and re-bases the projection on the
+ *       broker figures and the positions at that time.</li>
+ *   <li><b>Degradation:</b> if the session is inactive or the broker call fails, the last
+ *       view is kept; with no view at all, the first call throws as before.</li>
  * </ul>
  *
- * <p>The cache is invalidated explicitly after order fills via {@link #invalidateCache()},
- * ensuring post-trade margin checks use fresh data.
+ * <p>Every new view is published as a {@link MarginUpdateEvent}, so utilization thresholds
+ * are evaluated on change rather than on a timer. The open positions and baseline are guarded
+ * by this service's monitor; the Redis read and event publishing happen outside it.
  */
 @Service
 public class MarginService {
@@ -40,27 +61,135 @@ public class MarginService {
 
     private final BrokerGateway brokerGateway;
     private final SessionHealthService sessionHealthService;
+    private final SpanMarginModel spanMarginModel;
+    private final PositionRedisRepository positionRedisRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     private final AtomicReference<CachedMargin> cachedMargin = new AtomicReference<>();
 
-    public MarginService(BrokerGateway brokerGateway, SessionHealthService sessionHealthService) {
+    /** Open positions by id: as of the last broker fetch, plus position events since. Guarded by this. */
+    private Map<String, Position> openPositions = new HashMap<>();
+
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean(false);
+
+    /** Broker figures at the last fetch and the local model's margin for the positions then. Guarded by this. */
+    private Baseline baseline;
+
+    public MarginService(
+            BrokerGateway brokerGateway,
+            SessionHealthService sessionHealthService,
+            SpanMarginModel spanMarginModel,
+            PositionRedisRepository positionRedisRepository,
+            ApplicationEventPublisher applicationEventPublisher) {
         this.brokerGateway = brokerGateway;
         this.sessionHealthService = sessionHealthService;
+        this.spanMarginModel = spanMarginModel;
+        this.positionRedisRepository = positionRedisRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
-     * Returns current account margins, served from cache if within 30s TTL.
+     * Returns the current account margin view without blocking, except for the very first
+     * call (or after {@link #invalidateCache()}), which fetches from the broker. A view older
+     * than the 30s TTL is still returned, and a background reconciliation is requested.
      *
-     * @return current account margin snapshot
-     * @throws SessionExpiredException if session is not active and no cached data exists
-     * @throws BrokerException if the broker API call fails and no cached data exists
+     * @return current account margin view (broker figures or local projection)
+     * @throws SessionExpiredException if session is not active and no view exists
+     * @throws BrokerException if the broker API call fails and no view exists
      */
     public AccountMargin getMargins() {
         CachedMargin cached = cachedMargin.get();
-
-        if (cached != null && !cached.isExpired()) {
+        if (cached != null) {
+            if (cached.isExpired()) {
+                requestReconcile();
+            }
             return cached.getMargin();
         }
+        return fetchFromBroker();
+    }
+
+    /**
+     * Returns the available margin for new trades.
+     */
+    public BigDecimal getAvailableMargin() {
+        return getMargins().getAvailableMargin();
+    }
+
+    /**
+     * Returns current margin utilization as a percentage (0-100).
+     */
+    public BigDecimal getUtilizationPercent() {
+        return getMargins().getUtilizationPercent();
+    }
+
+    /**
+     * Requests a background broker reconciliation. Requests made before the reconciler runs
+     * are coalesced into a single broker call.
+     */
+    public void requestReconcile() {
+        reconcileRequested.set(true);
+    }
+
+    /**
+     * Drops the current view, forcing the next call to fetch from the broker synchronously.
+     * Prefer {@link #requestReconcile()}, which does not block callers.
+     */
+    public void invalidateCache() {
+        cachedMargin.set(null);
+        log.debug("Margin cache invalidated");
+    }
+
+    /**
+     * Projects used/available margin on every position size change and requests a broker
+     * reconciliation. P&amp;L-only updates are ignored.
+     */
+    @EventListener
+    public void onPositionEvent(PositionEvent event) {
+        if (event.getEventType() == PositionEventType.UPDATED) {
+            return;
+        }
+        Position position = event.getPosition();
+        if (position == null || position.getId() == null) {
+            return;
+        }
+        AccountMargin projected;
+        synchronized (this) {
+            if (event.getEventType() == PositionEventType.CLOSED || position.getQuantity() == 0) {
+                openPositions.remove(position.getId());
+            } else {
+                openPositions.put(position.getId(), position);
+            }
+            projected = project();
+        }
+
+        if (projected != null) {
+            applicationEventPublisher.publishEvent(new MarginUpdateEvent(this, projected));
+        }
+        requestReconcile();
+    }
+
+    /**
+     * Background reconciler: fetches from the broker if a reconciliation was requested.
+     * Failures keep the current view; the next request retries.
+     */
+    @Scheduled(fixedDelayString = "${algotrader.margin.reconcile-check-ms:1000}")
+    public void reconcilePending() {
+        if (!reconcileRequested.getAndSet(false)) {
+            return;
+        }
+        if (!sessionHealthService.isSessionActive()) {
+            log.debug("Session not active, skipping margin reconciliation");
+            return;
+        }
+        try {
+            fetchFromBroker();
+        } catch (Exception e) {
+            log.warn("Background margin reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private AccountMargin fetchFromBroker() {
+        CachedMargin cached = cachedMargin.get();
 
         if (!sessionHealthService.isSessionActive()) {
             if (cached != null) {
@@ -87,7 +216,7 @@ public class MarginService {
                     .fetchedAt(Instant.now())
                     .build();
 
-            cachedMargin.set(new CachedMargin(margin, Instant.now()));
+            rebase(margin);
             return margin;
 
         } catch (Exception e) {
@@ -101,26 +230,105 @@ public class MarginService {
     }
 
     /**
-     * Returns the available margin for new trades.
+     * Re-bases the projection on fresh broker figures and the positions at this moment. If the
+     * positions cannot be loaded, projection stays off until the next fetch.
      */
-    public BigDecimal getAvailableMargin() {
-        return getMargins().getAvailableMargin();
+    private void rebase(AccountMargin margin) {
+        Map<String, Position> positions = new HashMap<>();
+        try {
+            for (Position position : positionRedisRepository.findAll()) {
+                if (position.getId() != null && position.getQuantity() != 0) {
+                    positions.put(position.getId(), position);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not load positions for margin projection: {}", e.getMessage());
+            positions = null;
+        }
+
+        synchronized (this) {
+            if (positions == null) {
+                baseline = new Baseline(margin, null, Set.of(), Set.of());
+            } else {
+                openPositions = positions;
+                List<Position> priced = new ArrayList<>(positions.size());
+                Set<String> pricedIds = new HashSet<>();
+                Set<String> unpricedIds = new HashSet<>();
+                for (Position position : positions.values()) {
+                    if (isPriceable(position)) {
+                        priced.add(position);
+                        pricedIds.add(position.getId());
+                    } else {
+                        unpricedIds.add(position.getId());
+                    }
+                }
+                if (!unpricedIds.isEmpty()) {
+                    log.debug(
+                            "{} open positions cannot be priced locally; their margin is held at the broker figure",
+                            unpricedIds.size());
+                }
+                SpanMarginModel.LocalMargin local = spanMarginModel.estimatePositions(priced);
+                baseline = new Baseline(margin, local != null ? local.requiredMargin() : null, pricedIds, unpricedIds);
+            }
+            cachedMargin.set(new CachedMargin(margin, margin.getFetchedAt()));
+        }
+        applicationEventPublisher.publishEvent(new MarginUpdateEvent(this, margin));
     }
 
     /**
-     * Returns current margin utilization as a percentage (0-100).
+     * Projects the broker figures forward by the local margin change since the last fetch and
+     * caches the result. Positions unpriced at the last fetch, or opened since and not priceable,
+     * are left at the broker figure. Returns null (no projection) without a baseline, or if a
+     * position priced at the last fetch can no longer be priced. Caller holds the monitor.
      */
-    public BigDecimal getUtilizationPercent() {
-        return getMargins().getUtilizationPercent();
+    private AccountMargin project() {
+        Baseline base = baseline;
+        if (base == null || base.localMargin() == null) {
+            return null;
+        }
+        List<Position> priced = new ArrayList<>(openPositions.size());
+        for (Position position : openPositions.values()) {
+            if (base.unpricedIds().contains(position.getId())) {
+                continue;
+            }
+            if (isPriceable(position)) {
+                priced.add(position);
+            } else if (base.pricedIds().contains(position.getId())) {
+                log.debug("Position {} can no longer be priced locally; not projecting margin", position.getId());
+                return null;
+            }
+        }
+        SpanMarginModel.LocalMargin local = spanMarginModel.estimatePositions(priced);
+        if (local == null) {
+            return null;
+        }
+
+        AccountMargin broker = base.margin();
+        BigDecimal delta = local.requiredMargin().subtract(base.localMargin());
+        BigDecimal usedMargin = broker.getUsedMargin().add(delta).max(BigDecimal.ZERO);
+        BigDecimal totalCapital = broker.getTotalCapital();
+
+        AccountMargin projected = AccountMargin.builder()
+                .availableCash(broker.getAvailableCash())
+                .availableMargin(totalCapital.subtract(usedMargin))
+                .usedMargin(usedMargin)
+                .collateral(broker.getCollateral())
+                .totalCapital(totalCapital)
+                .utilizationPercent(calculateUtilization(usedMargin, totalCapital))
+                .fetchedAt(broker.getFetchedAt())
+                .projected(true)
+                .build();
+
+        log.debug(
+                "Projected margin: used={} (delta {}), utilization={}%",
+                usedMargin, delta, projected.getUtilizationPercent());
+        // TTL stays anchored to the broker fetch so a reconciliation is still requested on expiry
+        cachedMargin.set(new CachedMargin(projected, broker.getFetchedAt()));
+        return projected;
     }
 
-    /**
-     * Invalidates the margin cache, forcing the next call to fetch fresh data.
-     * Called after order fills to ensure post-trade margin checks use current data.
-     */
-    public void invalidateCache() {
-        cachedMargin.set(null);
-        log.debug("Margin cache invalidated");
+    private boolean isPriceable(Position position) {
+        return position.getInstrumentToken() != null && spanMarginModel.canPrice(position.getInstrumentToken());
     }
 
     private BigDecimal calculateUtilization(BigDecimal used, BigDecimal total) {
@@ -131,4 +339,7 @@ public class MarginService {
                 .multiply(BigDecimal.valueOf(100))
                 .setScale(2, RoundingMode.HALF_UP);
     }
+
+    private record Baseline(
+            AccountMargin margin, BigDecimal localMargin, Set<String> pricedIds, Set<String> unpricedIds) {}
 }
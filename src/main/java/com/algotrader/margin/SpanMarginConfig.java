@@ -0,0 +1,63 @@
+package com.algotrader.margin;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Risk parameters for the local SPAN-style margin model, loaded from span-parameters.yml.
+ *
+ * <p>Properties prefix: {@code margin.span.*}. The file holds the exchange's published risk
+ * parameters per underlying (price scan range, volatility scan range, short option minimum,
+ * exposure margin) and is updated when the exchange revises them. Underlyings without an
+ * entry use {@link #getDefaults()}.
+ *
+ * <p>The model's output is scaled by a per-underlying calibration factor learned from broker
+ * margin figures; {@link #calibrationInterval} controls how long a calibration is trusted
+ * before the next basket estimate goes to the broker again.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "margin.span")
+public class SpanMarginConfig {
+
+    /** Parameters for underlyings not listed in {@link #underlyings}. */
+    private RiskParameters defaults = new RiskParameters();
+
+    /** Per-underlying parameters, keyed by root underlying (e.g., "NIFTY"). */
+    private Map<String, RiskParameters> underlyings = new HashMap<>();
+
+    /** How long a broker calibration is trusted before estimates are re-checked against the broker. */
+    private Duration calibrationInterval = Duration.ofMinutes(30);
+
+    /** Weight of the newest broker/local ratio in the calibration factor (0..1]. */
+    private double calibrationSmoothing = 0.3;
+
+    /** Returns the parameters for an underlying, falling back to the defaults. */
+    public RiskParameters forUnderlying(String underlying) {
+        return underlyings.getOrDefault(underlying, defaults);
+    }
+
+    /** SPAN risk parameters for one underlying. All percentages are of the underlying's value. */
+    @Data
+    public static class RiskParameters {
+
+        /** Price scan range: the largest one-day price move scanned, in percent. */
+        private double priceScanPercent = 6.0;
+
+        /** Volatility scan range: absolute change in IV scanned, in percentage points. */
+        private double volatilityScanPercent = 4.0;
+
+        /** Minimum SPAN charge per net short option unit, in percent of spot. */
+        private double shortOptionMinimumPercent = 1.5;
+
+        /** Exposure margin on short options and futures, in percent of notional. */
+        private double exposurePercent = 2.0;
+
+        /** IV used when the underlying's ATM IV is not known yet, in percent. */
+        private double defaultVolatilityPercent = 15.0;
+    }
+}
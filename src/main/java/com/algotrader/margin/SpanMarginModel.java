@@ -0,0 +1,378 @@
+package com.algotrader.margin;
+
+import com.algotrader.core.processor.IVCalculator;
+import com.algotrader.core.processor.MarketStateService;
+import com.algotrader.domain.enums.InstrumentType;
+import com.algotrader.domain.enums.OrderSide;
+import com.algotrader.domain.model.Instrument;
+import com.algotrader.domain.model.Position;
+import com.algotrader.oms.OrderRequest;
+import com.algotrader.service.InstrumentService;
+import com.algotrader.strategy.base.MarketSnapshot;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local SPAN-style margin model for F&amp;O baskets, used to avoid broker margin API calls.
+ *
+ * <p>Per underlying, the basket is revalued under the 16 standard SPAN risk scenarios: the
+ * price moved by 0, ±1/3, ±2/3 and ±1 of the price scan range, each with volatility up and
+ * down by the volatility scan range, plus two extreme moves of ±2 ranges counted at 35%.
+ * The SPAN charge is the worst scenario loss, floored at the short option minimum (charged on
+ * the greater of net short calls and net short puts). Because
+ * all legs of an underlying are revalued together, hedges offset naturally (the long wings of
+ * an iron condor cap its scenario losses). Exposure margin is a flat percentage of notional
+ * on short options and futures. Options are valued with Black-Scholes at the underlying's
+ * ATM IV from {@link MarketStateService}.
+ *
+ * <p>Risk parameters come from {@link SpanMarginConfig} (span-parameters.yml). The raw model
+ * differs from the broker's figure (exact exchange parameters, premium treatment, per-strike
+ * IV), so each underlying carries a calibration factor, an exponentially smoothed ratio of
+ * broker to raw local margin, updated by {@link #calibrate(LocalMargin, BigDecimal)} whenever a
+ * broker figure is obtained. The estimate error against the broker is logged and kept per
+ * underlying.
+ *
+ * <p>Thread-safe: estimation is stateless apart from the calibration map.
+ */
+@Component
+public class SpanMarginModel {
+
+    private static final Logger log = LoggerFactory.getLogger(SpanMarginModel.class);
+
+    private static final double RISK_FREE_RATE = 0.07;
+    private static final double MIN_VOLATILITY = 0.01;
+    private static final double MIN_TIME_TO_EXPIRY = 0.25 / 365.0;
+
+    /** SPAN scenarios: {price move in scan ranges, volatility direction, loss weight}. */
+    private static final double[][] SCENARIOS = {
+        {0, 1, 1},
+        {0, -1, 1},
+        {1.0 / 3, 1, 1},
+        {1.0 / 3, -1, 1},
+        {-1.0 / 3, 1, 1},
+        {-1.0 / 3, -1, 1},
+        {2.0 / 3, 1, 1},
+        {2.0 / 3, -1, 1},
+        {-2.0 / 3, 1, 1},
+        {-2.0 / 3, -1, 1},
+        {1, 1, 1},
+        {1, -1, 1},
+        {-1, 1, 1},
+        {-1, -1, 1},
+        {2, 0, 0.35},
+        {-2, 0, 0.35}
+    };
+
+    private final SpanMarginConfig config;
+    private final InstrumentService instrumentService;
+    private final MarketStateService marketStateService;
+    private final IVCalculator ivCalculator;
+
+    private final Map<String, Calibration> calibrations = new ConcurrentHashMap<>();
+
+    public SpanMarginModel(
+            SpanMarginConfig config,
+            InstrumentService instrumentService,
+            MarketStateService marketStateService,
+            IVCalculator ivCalculator) {
+        this.config = config;
+        this.instrumentService = instrumentService;
+        this.marketStateService = marketStateService;
+        this.ivCalculator = ivCalculator;
+    }
+
+    /**
+     * Estimates the basket's margin locally.
+     *
+     * @param orders the basket legs (options and futures)
+     * @return the calibrated estimate, or null if any leg cannot be priced (unknown or
+     *     non-derivative instrument, or no spot price for its underlying yet)
+     */
+    public LocalMargin estimate(List<OrderRequest> orders) {
+        Map<String, List<Leg>> legsByUnderlying = new LinkedHashMap<>();
+        for (OrderRequest order : orders) {
+            int signedQuantity = order.getSide() == OrderSide.BUY ? order.getQuantity() : -order.getQuantity();
+            if (!addLeg(legsByUnderlying, order.getInstrumentToken(), signedQuantity)) {
+                return null;
+            }
+        }
+        return estimate(legsByUnderlying);
+    }
+
+    /**
+     * Estimates the margin blocked by a set of open positions (signed quantities).
+     * Flat positions are ignored.
+     *
+     * @return the calibrated estimate, or null if any position cannot be priced
+     */
+    public LocalMargin estimatePositions(Collection<Position> positions) {
+        Map<String, List<Leg>> legsByUnderlying = new LinkedHashMap<>();
+        for (Position position : positions) {
+            if (position.getQuantity() == 0 || position.getInstrumentToken() == null) {
+                continue;
+            }
+            if (!addLeg(legsByUnderlying, position.getInstrumentToken(), position.getQuantity())) {
+                return null;
+            }
+        }
+        return estimate(legsByUnderlying);
+    }
+
+    /**
+     * Returns true if the instrument can be priced locally: a known option or future whose
+     * underlying has a spot price.
+     */
+    public boolean canPrice(long instrumentToken) {
+        Leg leg = resolveLeg(instrumentToken, 0);
+        if (leg == null) {
+            return false;
+        }
+        MarketSnapshot snapshot = marketStateService.getSnapshot(leg.underlying());
+        return snapshot != null && snapshot.getSpotPrice() != null;
+    }
+
+    private LocalMargin estimate(Map<String, List<Leg>> legsByUnderlying) {
+        double span = 0;
+        double exposure = 0;
+        double individualSum = 0;
+        double raw = 0;
+        for (Map.Entry<String, List<Leg>> entry : legsByUnderlying.entrySet()) {
+            String underlying = entry.getKey();
+            MarketSnapshot snapshot = marketStateService.getSnapshot(underlying);
+            if (snapshot == null || snapshot.getSpotPrice() == null) {
+                return null;
+            }
+            SpanMarginConfig.RiskParameters params = config.forUnderlying(underlying);
+            double spot = snapshot.getSpotPrice().doubleValue();
+            double sigma = snapshot.getAtmIV() != null
+                    ? snapshot.getAtmIV().doubleValue() / 100
+                    : params.getDefaultVolatilityPercent() / 100;
+            double factor = getCalibrationFactor(underlying);
+
+            List<Leg> legs = entry.getValue();
+            double groupSpan = span(legs, spot, sigma, params);
+            double groupExposure = exposure(legs, spot, params);
+            raw += groupSpan + groupExposure;
+            span += groupSpan * factor;
+            exposure += groupExposure * factor;
+            for (Leg leg : legs) {
+                List<Leg> single = List.of(leg);
+                individualSum += (span(single, spot, sigma, params) + exposure(single, spot, params)) * factor;
+            }
+        }
+
+        return new LocalMargin(
+                toAmount(span + exposure),
+                toAmount(individualSum),
+                toAmount(span),
+                toAmount(exposure),
+                Set.copyOf(legsByUnderlying.keySet()),
+                raw);
+    }
+
+    /** Returns true if every underlying in the estimate has a broker calibration within the interval. */
+    public boolean isCalibrated(LocalMargin margin) {
+        Instant cutoff = Instant.now().minus(config.getCalibrationInterval());
+        for (String underlying : margin.underlyings()) {
+            Calibration calibration = calibrations.get(underlying);
+            if (calibration == null || calibration.calibratedAt().isBefore(cutoff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a broker margin figure for a basket previously estimated locally: reports the
+     * local estimate's error and, for single-underlying baskets, folds the broker/raw ratio
+     * into the underlying's calibration factor. Non-positive broker figures (margin API not
+     * available) are ignored.
+     *
+     * @return the local estimate's error versus the broker in percent (positive = local
+     *     overestimates), or null if the broker figure was not usable
+     */
+    public BigDecimal calibrate(LocalMargin margin, BigDecimal brokerMargin) {
+        if (brokerMargin == null || brokerMargin.signum() <= 0) {
+            return null;
+        }
+        double broker = brokerMargin.doubleValue();
+        double errorPercent = (margin.requiredMargin().doubleValue() - broker) / broker * 100;
+
+        if (margin.underlyings().size() == 1 && margin.rawMargin() > 0) {
+            String underlying = margin.underlyings().iterator().next();
+            double ratio = broker / margin.rawMargin();
+            double smoothing = config.getCalibrationSmoothing();
+            Calibration previous = calibrations.get(underlying);
+            double factor = previous != null ? previous.factor() + smoothing * (ratio - previous.factor()) : ratio;
+            calibrations.put(underlying, new Calibration(factor, Instant.now(), errorPercent));
+            log.info(
+                    "SPAN margin calibrated for {}: local={}, broker={}, error={}%, factor={}",
+                    underlying,
+                    margin.requiredMargin(),
+                    brokerMargin,
+                    String.format("%.2f", errorPercent),
+                    String.format("%.4f", factor));
+        } else {
+            log.info(
+                    "SPAN margin check for {}: local={}, broker={}, error={}%",
+                    margin.underlyings(), margin.requiredMargin(), brokerMargin, String.format("%.2f", errorPercent));
+        }
+
+        return BigDecimal.valueOf(errorPercent).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /** Returns the calibration factor for an underlying (1.0 until first calibrated). */
+    public double getCalibrationFactor(String underlying) {
+        Calibration calibration = calibrations.get(underlying);
+        return calibration != null ? calibration.factor() : 1.0;
+    }
+
+    /** Returns the error of the last local estimate checked against the broker, or null if none. */
+    public Double getLastErrorPercent(String underlying) {
+        Calibration calibration = calibrations.get(underlying);
+        return calibration != null ? calibration.lastErrorPercent() : null;
+    }
+
+    private boolean addLeg(Map<String, List<Leg>> legsByUnderlying, long instrumentToken, int signedQuantity) {
+        Leg leg = resolveLeg(instrumentToken, signedQuantity);
+        if (leg == null) {
+            return false;
+        }
+        legsByUnderlying
+                .computeIfAbsent(leg.underlying(), key -> new ArrayList<>())
+                .add(leg);
+        return true;
+    }
+
+    private Leg resolveLeg(long instrumentToken, int signedQuantity) {
+        Instrument instrument = instrumentService.findByToken(instrumentToken).orElse(null);
+        if (instrument == null
+                || instrument.getUnderlying() == null
+                || instrument.getExpiry() == null
+                || instrument.getType() == null) {
+            return null;
+        }
+        InstrumentType type = instrument.getType();
+        boolean option = type == InstrumentType.CE || type == InstrumentType.PE;
+        if (!option && type != InstrumentType.FUT) {
+            return null;
+        }
+        if (option && instrument.getStrike() == null) {
+            return null;
+        }
+
+        double timeToExpiry =
+                Math.max(ChronoUnit.DAYS.between(LocalDate.now(), instrument.getExpiry()) / 365.0, MIN_TIME_TO_EXPIRY);
+        return new Leg(
+                instrument.getUnderlying(),
+                option,
+                type == InstrumentType.CE,
+                option ? instrument.getStrike().doubleValue() : 0,
+                timeToExpiry,
+                signedQuantity);
+    }
+
+    /** Worst weighted scenario loss, floored at the short option minimum charge. */
+    private double span(List<Leg> legs, double spot, double sigma, SpanMarginConfig.RiskParameters params) {
+        double priceScan = spot * params.getPriceScanPercent() / 100;
+        double volatilityScan = params.getVolatilityScanPercent() / 100;
+
+        double[] baseValues = new double[legs.size()];
+        for (int i = 0; i < baseValues.length; i++) {
+            baseValues[i] = value(legs.get(i), spot, sigma);
+        }
+
+        double worstLoss = 0;
+        for (double[] scenario : SCENARIOS) {
+            double scenarioSpot = spot + scenario[0] * priceScan;
+            double scenarioSigma = Math.max(sigma + scenario[1] * volatilityScan, MIN_VOLATILITY);
+            double loss = 0;
+            for (int i = 0; i < baseValues.length; i++) {
+                Leg leg = legs.get(i);
+                loss -= leg.signedQuantity() * (value(leg, scenarioSpot, scenarioSigma) - baseValues[i]);
+            }
+            worstLoss = Math.max(worstLoss, loss * scenario[2]);
+        }
+
+        // Short option minimum applies to the greater of net short calls and net short puts
+        double netCalls = 0;
+        double netPuts = 0;
+        for (Leg leg : legs) {
+            if (leg.option()) {
+                if (leg.isCall()) {
+                    netCalls += leg.signedQuantity();
+                } else {
+                    netPuts += leg.signedQuantity();
+                }
+            }
+        }
+        double netShortUnits = Math.max(Math.max(-netCalls, -netPuts), 0);
+        double shortOptionMinimum = netShortUnits * spot * params.getShortOptionMinimumPercent() / 100;
+
+        return Math.max(worstLoss, shortOptionMinimum);
+    }
+
+    /** Exposure margin: a percentage of notional on short options and on futures. */
+    private double exposure(List<Leg> legs, double spot, SpanMarginConfig.RiskParameters params) {
+        double units = 0;
+        for (Leg leg : legs) {
+            if (!leg.option() || leg.signedQuantity() < 0) {
+                units += Math.abs(leg.signedQuantity());
+            }
+        }
+        return units * spot * params.getExposurePercent() / 100;
+    }
+
+    private double value(Leg leg, double spot, double sigma) {
+        if (!leg.option()) {
+            return spot;
+        }
+        return ivCalculator.blackScholesPrice(
+                spot, leg.strike(), leg.timeToExpiry(), RISK_FREE_RATE, 0.0, sigma, leg.isCall());
+    }
+
+    private static BigDecimal toAmount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * A local margin estimate.
+     *
+     * @param requiredMargin      calibrated basket margin (SPAN + exposure) with hedge offsets
+     * @param individualMarginSum calibrated sum of each leg's standalone margin
+     * @param spanMargin          calibrated SPAN component
+     * @param exposureMargin      calibrated exposure component
+     * @param underlyings         underlyings in the basket
+     * @param rawMargin           uncalibrated basket margin, used for calibration
+     */
+    public record LocalMargin(
+            BigDecimal requiredMargin,
+            BigDecimal individualMarginSum,
+            BigDecimal spanMargin,
+            BigDecimal exposureMargin,
+            Set<String> underlyings,
+            double rawMargin) {}
+
+    private record Leg(
+            String underlying,
+            boolean option,
+            boolean isCall,
+            double strike,
+            double timeToExpiry,
+            int signedQuantity) {}
+
+    private record Calibration(double factor, Instant calibratedAt, double lastErrorPercent) {}
+}
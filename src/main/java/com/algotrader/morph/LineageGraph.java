@@ -0,0 +1,112 @@
+package com.algotrader.morph;
+
+import com.algotrader.domain.model.StrategyLineage;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory adjacency graph of morph lineage links (parent strategy -> child strategy).
+ *
+ * <p>Each strategy has at most one parent link (it was created by at most one morph) and any
+ * number of child links. Ancestor walks are O(depth) map lookups and descendant walks visit
+ * only the subtree. Each node's cumulative P&amp;L (sum of {@code parentPnlAtMorph} over
+ * its ancestor links) is precomputed and kept current as links are added in any order.
+ *
+ * <p>Not thread-safe; {@link StrategyLineageService} serializes access.
+ */
+final class LineageGraph {
+
+    private static final Comparator<StrategyLineage> BY_ID =
+            Comparator.comparing(StrategyLineage::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, StrategyLineage> parentLinkByChild = new HashMap<>();
+    private final Map<String, List<StrategyLineage>> childLinksByParent = new HashMap<>();
+    private final Map<String, BigDecimal> cumulativePnl = new HashMap<>();
+    private final Set<Long> linkIds = new HashSet<>();
+
+    static LineageGraph of(List<StrategyLineage> links) {
+        LineageGraph graph = new LineageGraph();
+        for (StrategyLineage link : links) {
+            graph.add(link);
+        }
+        return graph;
+    }
+
+    /** Adds a link; links already present (same id) are ignored. */
+    void add(StrategyLineage link) {
+        if (link.getChildStrategyId() == null || (link.getId() != null && !linkIds.add(link.getId()))) {
+            return;
+        }
+        parentLinkByChild.put(link.getChildStrategyId(), link);
+        List<StrategyLineage> siblings =
+                childLinksByParent.computeIfAbsent(link.getParentStrategyId(), id -> new ArrayList<>());
+        siblings.add(link);
+        siblings.sort(BY_ID);
+
+        // The child (and anything already linked below it) inherits the parent's total
+        propagatePnl(link, getCumulativePnl(link.getParentStrategyId()));
+    }
+
+    /** Links from the strategy up to its root: parent link first. */
+    List<StrategyLineage> ancestors(String strategyId) {
+        List<StrategyLineage> ancestors = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        StrategyLineage link = parentLinkByChild.get(strategyId);
+        while (link != null && visited.add(link.getParentStrategyId())) {
+            ancestors.add(link);
+            link = parentLinkByChild.get(link.getParentStrategyId());
+        }
+        return ancestors;
+    }
+
+    /** All links below the strategy: its direct children first, then each child's subtree. */
+    List<StrategyLineage> descendants(String strategyId) {
+        List<StrategyLineage> descendants = new ArrayList<>();
+        collectDescendants(strategyId, descendants, new HashSet<>());
+        return descendants;
+    }
+
+    BigDecimal getCumulativePnl(String strategyId) {
+        return cumulativePnl.getOrDefault(strategyId, BigDecimal.ZERO);
+    }
+
+    private void collectDescendants(String strategyId, List<StrategyLineage> out, Set<String> visited) {
+        if (!visited.add(strategyId)) {
+            return;
+        }
+        List<StrategyLineage> direct = childLinksByParent.getOrDefault(strategyId, List.of());
+        out.addAll(direct);
+        for (StrategyLineage child : direct) {
+            collectDescendants(child.getChildStrategyId(), out, visited);
+        }
+    }
+
+    private void propagatePnl(StrategyLineage link, BigDecimal parentTotal) {
+        List<StrategyLineage> pending = new ArrayList<>();
+        List<BigDecimal> totals = new ArrayList<>();
+        pending.add(link);
+        totals.add(parentTotal);
+        Set<String> visited = new HashSet<>();
+        while (!pending.isEmpty()) {
+            StrategyLineage current = pending.removeLast();
+            BigDecimal total = totals.removeLast();
+            if (!visited.add(current.getChildStrategyId())) {
+                continue;
+            }
+            if (current.getParentPnlAtMorph() != null) {
+                total = total.add(current.getParentPnlAtMorph());
+            }
+            cumulativePnl.put(current.getChildStrategyId(), total);
+            for (StrategyLineage child : childLinksByParent.getOrDefault(current.getChildStrategyId(), List.of())) {
+                pending.add(child);
+                totals.add(total);
+            }
+        }
+    }
+}
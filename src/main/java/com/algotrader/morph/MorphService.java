@@ -7,9 +7,11 @@ import com.algotrader.domain.enums.OrderPriority;
 import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.OrderType;
 import com.algotrader.domain.enums.StrategyStatus;
+import com.algotrader.domain.model.Instrument;
 import com.algotrader.domain.model.LegCloseStep;
 import com.algotrader.domain.model.LegOpenStep;
 import com.algotrader.domain.model.LegReassignStep;
+import com.algotrader.domain.model.MarginEstimate;
 import com.algotrader.domain.model.MorphExecutionPlan;
 import com.algotrader.domain.model.MorphPlan;
 import com.algotrader.domain.model.MorphRequest;
@@ -26,12 +28,16 @@ import com.algotrader.exception.BusinessException;
 import com.algotrader.exception.ErrorCode;
 import com.algotrader.mapper.MorphHistoryMapper;
 import com.algotrader.mapper.MorphPlanMapper;
+import com.algotrader.margin.MarginEstimator;
 import com.algotrader.observability.DecisionLogger;
 import com.algotrader.oms.JournaledMultiLegExecutor;
 import com.algotrader.oms.OrderRequest;
 import com.algotrader.repository.jpa.MorphHistoryJpaRepository;
 import com.algotrader.repository.jpa.MorphPlanJpaRepository;
+import com.algotrader.service.InstrumentService;
 import com.algotrader.strategy.base.BaseStrategy;
+import com.algotrader.strategy.base.BaseStrategyConfig;
+import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -39,8 +45,11 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.mapstruct.factory.Mappers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,11 +69,20 @@ import tools.jackson.databind.ObjectMapper;
  *   <li><b>Preview</b>: Generate an execution plan without executing (for UI confirmation)</li>
  *   <li><b>Validate</b>: Pre-morph checks (source must be ACTIVE, no in-flight adjustments)</li>
  *   <li><b>Plan</b>: Determine which legs to close, reassign, and open</li>
- *   <li><b>Persist WAL</b>: Write the plan to morph_plans before execution</li>
- *   <li><b>Execute</b>: Close legs -> open new legs -> create strategies -> reassign positions</li>
- *   <li><b>Record lineage</b>: Create parent-child link in morph_history</li>
+ *   <li><b>Prepare</b>: Resolve every new leg's instrument and quantity, build all orders, and
+ *       check the margin the target strategies need, so nothing is routed unless the whole
+ *       morph can be placed</li>
+ *   <li><b>Persist WAL</b>: Write the resolved plan to morph_plans before execution</li>
+ *   <li><b>Execute</b>: Close and open legs -> close source -> record target strategies</li>
+ *   <li><b>Record lineage</b>: Create parent-child links in morph_history in one batch</li>
  * </ol>
  *
+ * <p>Between the first order and the last, the position is half-transformed and exposed. Close
+ * and open legs are therefore submitted as one basket: every BUY (closing shorts, opening wings)
+ * goes out concurrently and fills first, then every SELL goes out concurrently, which keeps the
+ * hedge in place throughout in two broker round trips instead of four. The exposed window is
+ * measured and reported on the result and in the decision log.
+ *
  * <p>Uses a Write-Ahead Log (morph_plans table) for crash recovery.
  * If the app crashes mid-morph, incomplete plans (EXECUTING status) are
  * detected on startup by MorphRecoveryService.
@@ -82,6 +100,8 @@ public class MorphService {
     private final ApplicationEventPublisher applicationEventPublisher;
     private final ObjectMapper objectMapper;
     private final MorphConfig morphConfig;
+    private final InstrumentService instrumentService;
+    private final MarginEstimator marginEstimator;
 
     private final MorphPlanMapper morphPlanMapper = Mappers.getMapper(MorphPlanMapper.class);
     private final MorphHistoryMapper morphHistoryMapper = Mappers.getMapper(MorphHistoryMapper.class);
@@ -94,7 +114,9 @@ public class MorphService {
             DecisionLogger decisionLogger,
             ApplicationEventPublisher applicationEventPublisher,
             ObjectMapper objectMapper,
-            MorphConfig morphConfig) {
+            MorphConfig morphConfig,
+            InstrumentService instrumentService,
+            MarginEstimator marginEstimator) {
         this.strategyEngine = strategyEngine;
         this.journaledMultiLegExecutor = journaledMultiLegExecutor;
         this.morphPlanJpaRepository = morphPlanJpaRepository;
@@ -103,6 +125,8 @@ public class MorphService {
         this.applicationEventPublisher = applicationEventPublisher;
         this.objectMapper = objectMapper;
         this.morphConfig = morphConfig;
+        this.instrumentService = instrumentService;
+        this.marginEstimator = marginEstimator;
     }
 
     /**
@@ -144,19 +168,24 @@ public class MorphService {
         MorphExecutionPlan plan = generatePlan(request, sourceStrategy);
         validatePlanLimits(plan);
 
-        // Step 3: Persist plan as WAL
+        // Step 3: Resolve new legs and build every order; fails before anything is routed
+        resolveNewLegs(request, plan, sourceStrategy);
+        List<OrderRequest> orders = buildOrders(request, plan);
+        validateMargin(sourceStrategy, plan, orders);
+
+        // Step 4: Persist plan as WAL
         MorphPlan walEntry = persistPlan(request, plan, sourceStrategy);
 
-        // Step 4: Pause source to prevent concurrent evaluation during morph
+        // Step 5: Pause source to prevent concurrent evaluation during morph
         strategyEngine.pauseStrategy(request.getSourceStrategyId());
 
-        // Step 5: Execute
+        // Step 6: Execute
         try {
             walEntry.setStatus(MorphPlanStatus.EXECUTING);
             walEntry.setExecutedAt(LocalDateTime.now());
             savePlan(walEntry);
 
-            MorphResult result = executePlan(request, plan, walEntry);
+            MorphResult result = executePlan(request, plan, orders, walEntry);
 
             walEntry.setStatus(MorphPlanStatus.COMPLETED);
             walEntry.setCompletedAt(LocalDateTime.now());
@@ -259,7 +288,8 @@ public class MorphService {
         if (sourcePositions != null) {
             for (Position position : sourcePositions) {
                 String legId = identifyLeg(position);
-                if (!allRetainedLegIds.contains(legId)) {
+                // A flat position needs no closing order
+                if (position.getQuantity() != 0 && !allRetainedLegIds.contains(legId)) {
                     legsToClose.add(LegCloseStep.builder()
                             .positionId(position.getId())
                             .instrumentToken(position.getInstrumentToken())
@@ -299,12 +329,12 @@ public class MorphService {
             // New legs to open
             if (target.getNewLegs() != null) {
                 for (NewLegDefinition newLeg : target.getNewLegs()) {
-                    // #TODO: Resolve instrument token from underlying + strike + optionType + expiry
+                    // morph() resolves the instrument and share quantity from these lots
                     legsToOpen.add(LegOpenStep.builder()
                             .strike(newLeg.getStrike())
                             .optionType(newLeg.getOptionType())
                             .side(newLeg.getSide())
-                            .quantity(newLeg.getLots() != null ? newLeg.getLots() : 1)
+                            .lots(newLeg.getLots())
                             .targetStrategyId(newStrategyId)
                             .status("PENDING")
                             .build());
@@ -334,77 +364,49 @@ public class MorphService {
     // EXECUTION
     // ========================
 
-    private MorphResult executePlan(MorphRequest request, MorphExecutionPlan plan, MorphPlan walEntry) {
+    private MorphResult executePlan(
+            MorphRequest request, MorphExecutionPlan plan, List<OrderRequest> orders, MorphPlan walEntry) {
 
         // Source was already paused in morph() before execution started.
 
-        // Step A: Close legs not retained (via multi-leg executor)
-        if (!plan.getLegsToClose().isEmpty()) {
-            List<OrderRequest> closeOrders = plan.getLegsToClose().stream()
-                    .map(close -> OrderRequest.builder()
-                            .instrumentToken(close.getInstrumentToken())
-                            .tradingSymbol(close.getTradingSymbol())
-                            .side(close.getCloseSide())
-                            .type(OrderType.MARKET)
-                            .quantity(close.getQuantity())
-                            .strategyId(request.getSourceStrategyId())
-                            .correlationId("MORPH_CLOSE_" + walEntry.getId())
-                            .build())
-                    .toList();
-
-            // Buy-first: buying back short positions frees margin before selling long positions
-            JournaledMultiLegExecutor.MultiLegResult closeResult = journaledMultiLegExecutor.executeBuyFirstThenSell(
-                    closeOrders,
-                    request.getSourceStrategyId(),
-                    "MORPH_CLOSE",
-                    OrderPriority.STRATEGY_ADJUSTMENT,
-                    Duration.ofSeconds(morphConfig.getCloseOrderTimeoutSeconds()));
-
-            if (!closeResult.isSuccess()) {
+        // Step A: Close and open legs as one basket. Buy-first: buying back shorts and buying
+        // new wings frees margin and keeps every short covered before any SELL is placed.
+        long exposedNanos = 0;
+        if (!orders.isEmpty()) {
+            Duration fillTimeout = Duration.ofSeconds(
+                    Math.max(morphConfig.getCloseOrderTimeoutSeconds(), morphConfig.getOpenOrderTimeoutSeconds()));
+            long startNanos = System.nanoTime();
+            JournaledMultiLegExecutor.MultiLegResult legResult = journaledMultiLegExecutor.executeBuyFirstThenSell(
+                    orders, request.getSourceStrategyId(), "MORPH", OrderPriority.STRATEGY_ADJUSTMENT, fillTimeout);
+            exposedNanos = System.nanoTime() - startNanos;
+
+            if (!legResult.isSuccess()) {
                 throw new BusinessException(
                         ErrorCode.INTERNAL_ERROR,
-                        "Failed to close " + plan.getLegsToClose().size() + " legs during morph");
+                        "Failed to execute morph legs (" + plan.getLegsToClose().size() + " to close, "
+                                + plan.getLegsToOpen().size() + " to open)");
             }
 
-            // Update step statuses
-            for (int i = 0; i < plan.getLegsToClose().size(); i++) {
-                plan.getLegsToClose().get(i).setStatus("EXECUTED");
-            }
-        }
-
-        // Step C: Open new legs
-        if (!plan.getLegsToOpen().isEmpty()) {
-            List<OrderRequest> openOrders = plan.getLegsToOpen().stream()
-                    .map(open -> OrderRequest.builder()
-                            .instrumentToken(open.getInstrumentToken() != null ? open.getInstrumentToken() : 0L)
-                            .tradingSymbol(open.getTradingSymbol())
-                            .side(open.getSide())
-                            .type(OrderType.MARKET)
-                            .quantity(open.getQuantity())
-                            .strategyId(open.getTargetStrategyId())
-                            .correlationId("MORPH_OPEN_" + walEntry.getId())
-                            .build())
-                    .toList();
-
-            JournaledMultiLegExecutor.MultiLegResult openResult = journaledMultiLegExecutor.executeParallel(
-                    openOrders, request.getSourceStrategyId(), "MORPH_OPEN", OrderPriority.STRATEGY_ADJUSTMENT);
-
-            if (!openResult.isSuccess()) {
-                throw new BusinessException(
-                        ErrorCode.INTERNAL_ERROR,
-                        "Failed to open " + plan.getLegsToOpen().size() + " new legs during morph");
-            }
-
-            for (int i = 0; i < plan.getLegsToOpen().size(); i++) {
-                plan.getLegsToOpen().get(i).setStatus("EXECUTED");
-            }
+            plan.getLegsToClose().forEach(close -> close.setStatus("EXECUTED"));
+            plan.getLegsToOpen().forEach(open -> open.setStatus("EXECUTED"));
         }
+        long exposedWindowMillis = TimeUnit.NANOSECONDS.toMillis(exposedNanos);
+        log.info(
+                "Morph legs executed: source={}, closed={}, opened={}, exposedWindowMs={}",
+                request.getSourceStrategyId(),
+                plan.getLegsToClose().size(),
+                plan.getLegsToOpen().size(),
+                exposedWindowMillis);
 
-        // Step D: Close the source strategy
+        // Step B: Close the source strategy
         strategyEngine.closeStrategy(request.getSourceStrategyId());
 
-        // Step E: Record lineage for each new strategy
-        List<String> newStrategyIds = new ArrayList<>();
+        // Step C: Record lineage for all new strategies in one batch
+        List<String> newStrategyIds =
+                new ArrayList<>(plan.getStrategiesToCreate().size());
+        List<MorphHistoryEntity> lineageEntities =
+                new ArrayList<>(plan.getStrategiesToCreate().size());
+        LocalDateTime morphedAt = LocalDateTime.now();
         for (StrategyCreateStep create : plan.getStrategiesToCreate()) {
             newStrategyIds.add(create.getNewStrategyId());
 
@@ -414,12 +416,11 @@ public class MorphService {
                     .parentStrategyType(plan.getSourceType())
                     .childStrategyType(create.getStrategyType())
                     .morphReason(request.getReason())
-                    .morphedAt(LocalDateTime.now())
+                    .morphedAt(morphedAt)
                     .build();
-
-            MorphHistoryEntity entity = morphHistoryMapper.toEntity(lineage);
-            morphHistoryJpaRepository.save(entity);
+            lineageEntities.add(morphHistoryMapper.toEntity(lineage));
         }
+        morphHistoryJpaRepository.saveAll(lineageEntities);
 
         // Publish event for WebSocket + AlertService
         applicationEventPublisher.publishEvent(new MorphEvent(this, request.getSourceStrategyId(), newStrategyIds));
@@ -430,11 +431,139 @@ public class MorphService {
                 .legsClosedCount(plan.getLegsToClose().size())
                 .legsReassignedCount(plan.getLegsToReassign().size())
                 .legsOpenedCount(plan.getLegsToOpen().size())
+                .exposedWindowMillis(exposedWindowMillis)
                 .success(true)
                 .morphPlanId(walEntry.getId())
                 .build();
     }
 
+    // ========================
+    // PREPARATION
+    // ========================
+
+    /**
+     * Resolves each new leg to a tradable instrument from the source strategy's underlying and
+     * expiry, and converts its lots into a share quantity: (leg lots, else overrideLots, else
+     * source lots) * lotSize. All-or-nothing: throws if any leg
+     * cannot be resolved, before any order is placed.
+     */
+    private void resolveNewLegs(MorphRequest request, MorphExecutionPlan plan, BaseStrategy sourceStrategy) {
+        if (plan.getLegsToOpen().isEmpty()) {
+            return;
+        }
+        BaseStrategyConfig config = sourceStrategy.getConfig();
+        if (config == null || config.getUnderlying() == null || config.getExpiry() == null) {
+            throw new BusinessException(
+                    ErrorCode.VALIDATION_ERROR,
+                    "Source strategy " + request.getSourceStrategyId() + " has no underlying/expiry to open legs from");
+        }
+        int strategyLots = request.getOverrideLots() != null ? request.getOverrideLots() : config.getLots();
+
+        for (LegOpenStep open : plan.getLegsToOpen()) {
+            if (open.getSide() == null || open.getStrike() == null || open.getOptionType() == null) {
+                throw new BusinessException(
+                        ErrorCode.VALIDATION_ERROR, "New morph legs need a side, strike and option type");
+            }
+            Optional<Instrument> instrument = instrumentService.resolveOption(
+                    config.getUnderlying(), config.getExpiry(), open.getStrike(), open.getOptionType());
+            if (instrument.isEmpty()) {
+                throw new BusinessException(
+                        ErrorCode.VALIDATION_ERROR,
+                        "No instrument found for " + config.getUnderlying() + " " + config.getExpiry() + " "
+                                + open.getStrike() + " " + open.getOptionType());
+            }
+            int lots = open.getLots() != null ? open.getLots() : strategyLots;
+            int quantity = lots * instrument.get().getLotSize();
+            if (quantity <= 0) {
+                throw new BusinessException(
+                        ErrorCode.VALIDATION_ERROR,
+                        "Invalid quantity " + quantity + " for new leg "
+                                + instrument.get().getTradingSymbol());
+            }
+            open.setInstrumentToken(instrument.get().getToken());
+            open.setTradingSymbol(instrument.get().getTradingSymbol());
+            open.setQuantity(quantity);
+        }
+    }
+
+    /** Builds the close orders followed by the open orders of a resolved plan. */
+    private List<OrderRequest> buildOrders(MorphRequest request, MorphExecutionPlan plan) {
+        List<OrderRequest> orders = new ArrayList<>(
+                plan.getLegsToClose().size() + plan.getLegsToOpen().size());
+        for (LegCloseStep close : plan.getLegsToClose()) {
+            orders.add(OrderRequest.builder()
+                    .instrumentToken(close.getInstrumentToken())
+                    .tradingSymbol(close.getTradingSymbol())
+                    .side(close.getCloseSide())
+                    .type(OrderType.MARKET)
+                    .quantity(close.getQuantity())
+                    .strategyId(request.getSourceStrategyId())
+                    .build());
+        }
+        for (LegOpenStep open : plan.getLegsToOpen()) {
+            orders.add(OrderRequest.builder()
+                    .instrumentToken(open.getInstrumentToken())
+                    .tradingSymbol(open.getTradingSymbol())
+                    .side(open.getSide())
+                    .type(OrderType.MARKET)
+                    .quantity(open.getQuantity())
+                    .strategyId(open.getTargetStrategyId())
+                    .build());
+        }
+        return orders;
+    }
+
+    /**
+     * Checks that the account can carry the target strategies. The additional margin is the
+     * requirement of the post-morph basket (retained positions plus new legs) less what the
+     * source positions block today, since the closes release it. The target is confirmed
+     * with the broker (one basket call, which also recalibrates the local model) since it gates
+     * placement; the released margin is only an estimate. Morphs that open nothing only
+     * release margin and are not checked.
+     */
+    private void validateMargin(BaseStrategy sourceStrategy, MorphExecutionPlan plan, List<OrderRequest> orders) {
+        if (plan.getLegsToOpen().isEmpty()) {
+            return;
+        }
+        List<Position> sourcePositions =
+                sourceStrategy.getPositions() != null ? sourceStrategy.getPositions() : List.of();
+        Set<String> retainedIds = plan.getLegsToReassign().stream()
+                .map(LegReassignStep::getPositionId)
+                .collect(Collectors.toSet());
+
+        List<OrderRequest> sourceBasket = new ArrayList<>();
+        List<OrderRequest> targetBasket = new ArrayList<>();
+        for (Position position : sourcePositions) {
+            if (position.getQuantity() == 0) {
+                continue;
+            }
+            OrderRequest holding = OrderRequest.builder()
+                    .instrumentToken(position.getInstrumentToken())
+                    .tradingSymbol(position.getTradingSymbol())
+                    .side(position.getQuantity() > 0 ? OrderSide.BUY : OrderSide.SELL)
+                    .type(OrderType.MARKET)
+                    .quantity(Math.abs(position.getQuantity()))
+                    .build();
+            sourceBasket.add(holding);
+            if (retainedIds.contains(position.getId())) {
+                targetBasket.add(holding);
+            }
+        }
+        targetBasket.addAll(orders.subList(plan.getLegsToClose().size(), orders.size()));
+
+        MarginEstimate target = marginEstimator.confirmMultiLeg(targetBasket);
+        BigDecimal released = sourceBasket.isEmpty()
+                ? BigDecimal.ZERO
+                : marginEstimator.estimateMultiLeg(sourceBasket).getRequiredMargin();
+        BigDecimal additional = target.getRequiredMargin().subtract(released);
+        if (additional.compareTo(target.getAvailableMargin()) > 0) {
+            throw new BusinessException(
+                    ErrorCode.BAD_REQUEST,
+                    "Insufficient margin for morph: needs " + additional + " more, available "
+                            + target.getAvailableMargin());
+        }
+    }
+
     // ========================
     // HELPERS
     // ========================
@@ -466,13 +595,13 @@ public class MorphService {
     }
 
     private MorphPlan persistPlan(MorphRequest request, MorphExecutionPlan plan, BaseStrategy sourceStrategy) {
+        // Enum names need no escaping, so the list is written directly
+        String targetTypesJson = request.getTargets().stream()
+                .map(t -> "\"" + t.getStrategyType().name() + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
         String planJson;
-        String targetTypesJson;
         try {
             planJson = objectMapper.writeValueAsString(plan);
-            targetTypesJson = objectMapper.writeValueAsString(request.getTargets().stream()
-                    .map(t -> t.getStrategyType().name())
-                    .toList());
         } catch (Exception e) {
             throw new BusinessException(ErrorCode.INTERNAL_ERROR, "Failed to serialize morph plan");
         }
@@ -505,6 +634,7 @@ public class MorphService {
         context.put("legsClosedCount", result.getLegsClosedCount());
         context.put("legsReassignedCount", result.getLegsReassignedCount());
         context.put("legsOpenedCount", result.getLegsOpenedCount());
+        context.put("exposedWindowMs", result.getExposedWindowMillis());
         context.put("reason", request.getReason());
         return context;
     }
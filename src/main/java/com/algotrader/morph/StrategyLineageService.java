@@ -2,15 +2,16 @@ package com.algotrader.morph;
 
 import com.algotrader.domain.model.StrategyLineage;
 import com.algotrader.domain.model.StrategyLineageTree;
+import com.algotrader.event.MorphEvent;
 import com.algotrader.mapper.MorphHistoryMapper;
 import com.algotrader.repository.jpa.MorphHistoryJpaRepository;
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import org.mapstruct.factory.Mappers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,8 +24,11 @@ import org.springframework.stereotype.Service;
  *   <li>Tracing the origin of a morphed strategy back to its root</li>
  * </ul>
  *
- * <p>Uses recursive traversal to walk the lineage graph. Since morph chains
- * are typically short (2-5 levels deep), recursion is safe and readable.
+ * <p>Lineage is served from an in-memory {@link LineageGraph} loaded in one bulk read at
+ * startup and extended on every {@link MorphEvent}, so a tree or cumulative P&L lookup is an
+ * O(depth) walk with no database round trips (walking the table generation by generation cost
+ * one query per ancestor and per descendant). Reads that arrive before the graph is loaded
+ * fetch the strategy's links with a single recursive CTE instead.
  */
 @Service
 public class StrategyLineageService {
@@ -34,24 +38,50 @@ public class StrategyLineageService {
     private final MorphHistoryJpaRepository morphHistoryJpaRepository;
     private final MorphHistoryMapper morphHistoryMapper = Mappers.getMapper(MorphHistoryMapper.class);
 
+    /** All lineage links; null until the bulk load completes. */
+    private LineageGraph graph;
+
     public StrategyLineageService(MorphHistoryJpaRepository morphHistoryJpaRepository) {
         this.morphHistoryJpaRepository = morphHistoryJpaRepository;
     }
 
+    /** Loads every lineage link into the in-memory graph in one query. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadGraph() {
+        List<StrategyLineage> links = morphHistoryMapper.toDomainList(morphHistoryJpaRepository.findAll());
+        graph = LineageGraph.of(links);
+        log.info("Loaded {} strategy lineage links", links.size());
+    }
+
+    /**
+     * Adds the links a morph just recorded (MorphService saves them before publishing).
+     * Before the bulk load there is nothing to update; the load will read them.
+     */
+    @EventListener
+    public synchronized void onMorph(MorphEvent event) {
+        if (graph == null) {
+            return;
+        }
+        List<StrategyLineage> links = morphHistoryMapper.toDomainList(
+                morphHistoryJpaRepository.findByParentStrategyId(event.getSourceStrategyId()));
+        for (StrategyLineage link : links) {
+            graph.add(link);
+        }
+    }
+
     /**
      * Builds the full lineage tree for a strategy (ancestors and descendants).
      *
      * @param strategyId the strategy to trace
      * @return tree with ancestor and descendant lineage records
      */
-    public StrategyLineageTree getLineageTree(String strategyId) {
-        List<StrategyLineage> ancestors = findAncestors(strategyId);
-        List<StrategyLineage> descendants = findDescendants(strategyId);
+    public synchronized StrategyLineageTree getLineageTree(String strategyId) {
+        LineageGraph lineage = graphFor(strategyId);
 
         return StrategyLineageTree.builder()
                 .strategyId(strategyId)
-                .ancestors(ancestors)
-                .descendants(descendants)
+                .ancestors(lineage.ancestors(strategyId))
+                .descendants(lineage.descendants(strategyId))
                 .build();
     }
 
@@ -65,17 +95,8 @@ public class StrategyLineageService {
      * @param strategyId the strategy to calculate for
      * @return cumulative P&L from all ancestor morphs
      */
-    public BigDecimal getCumulativePnl(String strategyId) {
-        List<StrategyLineage> ancestors = findAncestors(strategyId);
-
-        BigDecimal cumulative = BigDecimal.ZERO;
-        for (StrategyLineage ancestor : ancestors) {
-            if (ancestor.getParentPnlAtMorph() != null) {
-                cumulative = cumulative.add(ancestor.getParentPnlAtMorph());
-            }
-        }
-
-        return cumulative;
+    public synchronized BigDecimal getCumulativePnl(String strategyId) {
+        return graphFor(strategyId).getCumulativePnl(strategyId);
     }
 
     /**
@@ -92,38 +113,23 @@ public class StrategyLineageService {
     /**
      * Walks up the lineage tree: child -> parent -> grandparent -> ...
      */
-    List<StrategyLineage> findAncestors(String strategyId) {
-        List<StrategyLineage> ancestors = new ArrayList<>();
-        String currentId = strategyId;
-
-        while (true) {
-            Optional<StrategyLineage> parent =
-                    morphHistoryJpaRepository.findByChildStrategyId(currentId).map(morphHistoryMapper::toDomain);
-
-            if (parent.isEmpty()) {
-                break;
-            }
-
-            ancestors.add(parent.get());
-            currentId = parent.get().getParentStrategyId();
-        }
-
-        return ancestors;
+    synchronized List<StrategyLineage> findAncestors(String strategyId) {
+        return graphFor(strategyId).ancestors(strategyId);
     }
 
     /**
      * Walks down the lineage tree: parent -> children -> grandchildren -> ...
      * A parent can have multiple children (one-to-many morph).
      */
-    List<StrategyLineage> findDescendants(String strategyId) {
-        List<StrategyLineage> direct =
-                morphHistoryMapper.toDomainList(morphHistoryJpaRepository.findByParentStrategyId(strategyId));
+    synchronized List<StrategyLineage> findDescendants(String strategyId) {
+        return graphFor(strategyId).descendants(strategyId);
+    }
 
-        List<StrategyLineage> all = new ArrayList<>(direct);
-        for (StrategyLineage child : direct) {
-            all.addAll(findDescendants(child.getChildStrategyId()));
+    /** The full graph once loaded; before that, a graph of just this strategy's lineage (one CTE query). */
+    private LineageGraph graphFor(String strategyId) {
+        if (graph != null) {
+            return graph;
         }
-
-        return all;
+        return LineageGraph.of(morphHistoryMapper.toDomainList(morphHistoryJpaRepository.findLineageOf(strategyId)));
     }
 }
@@ -9,6 +9,7 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,10 @@ import org.springframework.stereotype.Component;
  *
  * <p>User preferences stored in notification_preferences table override these defaults.
  * If a user explicitly disables an alert type, no channels are returned.
+ *
+ * <p>Preferences are read once per alert type and kept as parsed channel sets, so alert bursts
+ * do not hit the database. Whoever edits a preference must call {@link #invalidate} so the next
+ * alert of that type reloads it.
  */
 @Component
 public class AlertSeverityRouter {
@@ -40,6 +45,9 @@ public class AlertSeverityRouter {
 
     private final NotificationPreferenceJpaRepository notificationPreferenceJpaRepository;
 
+    /** Resolved preference per alert type; empty when the user has no preference for the type. */
+    private final Map<AlertType, Optional<Set<NotificationChannel>>> routingTable = new ConcurrentHashMap<>();
+
     public AlertSeverityRouter(NotificationPreferenceJpaRepository notificationPreferenceJpaRepository) {
         this.notificationPreferenceJpaRepository = notificationPreferenceJpaRepository;
     }
@@ -49,20 +57,33 @@ public class AlertSeverityRouter {
      * User preferences override default severity-based routing.
      */
     public Set<NotificationChannel> resolveChannels(AlertType alertType, AlertSeverity severity) {
+        Optional<Set<NotificationChannel>> preferred = routingTable.computeIfAbsent(alertType, this::loadPreference);
+
+        // Fall back to severity-based default
+        return preferred.orElseGet(() -> DEFAULT_ROUTING.getOrDefault(severity, Set.of(NotificationChannel.WEBSOCKET)));
+    }
+
+    /**
+     * Drops the cached preferences so they are reloaded on next use. Clears every type because an
+     * edit can also move a preference row to a different alert type.
+     */
+    public void invalidate() {
+        routingTable.clear();
+    }
+
+    private Optional<Set<NotificationChannel>> loadPreference(AlertType alertType) {
         Optional<NotificationPreferenceEntity> preference =
                 notificationPreferenceJpaRepository.findByAlertType(alertType.name());
 
-        if (preference.isPresent()) {
-            NotificationPreferenceEntity pref = preference.get();
-            if (!pref.isEnabled()) {
-                log.debug("Alert type {} explicitly disabled by user preference", alertType);
-                return Set.of();
-            }
-            return parseChannels(pref.getEnabledChannels());
+        if (preference.isEmpty()) {
+            return Optional.empty();
         }
-
-        // Fall back to severity-based default
-        return DEFAULT_ROUTING.getOrDefault(severity, Set.of(NotificationChannel.WEBSOCKET));
+        NotificationPreferenceEntity pref = preference.get();
+        if (!pref.isEnabled()) {
+            log.debug("Alert type {} explicitly disabled by user preference", alertType);
+            return Optional.of(Set.of());
+        }
+        return Optional.of(parseChannels(pref.getEnabledChannels()));
     }
 
     /**
@@ -76,6 +97,6 @@ public class AlertSeverityRouter {
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .map(NotificationChannel::valueOf)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toUnmodifiableSet());
     }
 }
@@ -13,9 +13,13 @@ import com.algotrader.event.SessionEventType;
 import com.algotrader.event.StrategyEvent;
 import com.algotrader.event.StrategyEventType;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -30,6 +34,11 @@ import org.springframework.stereotype.Service;
  * <p>All notification delivery is asynchronous via {@code @Async("eventExecutor")}
  * to avoid blocking the main trading thread. A failed Telegram delivery should
  * never delay an order fill event.
+ *
+ * <p>Identical alerts (same type, severity, title and message) repeated within the coalesce
+ * window reach Telegram once: a burst of the same risk breach then costs one queued message,
+ * not one per event. The window starts at the first delivery, so an alert that keeps firing is
+ * still re-sent once per window. WebSocket delivery is not coalesced.
  */
 @Service
 public class NotificationService {
@@ -40,16 +49,22 @@ public class NotificationService {
     private final TelegramNotifier telegramNotifier;
     private final WebSocketNotifier webSocketNotifier;
     private final NotificationTemplateEngine notificationTemplateEngine;
+    private final long coalesceWindowNanos;
+
+    /** Last Telegram delivery time (System.nanoTime) per alert identity. */
+    private final Map<String, Long> lastTelegramDelivery = new ConcurrentHashMap<>();
 
     public NotificationService(
             AlertSeverityRouter alertSeverityRouter,
             TelegramNotifier telegramNotifier,
             WebSocketNotifier webSocketNotifier,
-            NotificationTemplateEngine notificationTemplateEngine) {
+            NotificationTemplateEngine notificationTemplateEngine,
+            @Value("${notifications.telegram.coalesce-window-ms:5000}") long coalesceWindowMs) {
         this.alertSeverityRouter = alertSeverityRouter;
         this.telegramNotifier = telegramNotifier;
         this.webSocketNotifier = webSocketNotifier;
         this.notificationTemplateEngine = notificationTemplateEngine;
+        this.coalesceWindowNanos = TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs);
     }
 
     /**
@@ -63,13 +78,11 @@ public class NotificationService {
             return;
         }
 
-        String formattedMessage = notificationTemplateEngine.render(alert);
-
         for (NotificationChannel channel : channels) {
             try {
                 switch (channel) {
                     case WEBSOCKET -> webSocketNotifier.send(alert);
-                    case TELEGRAM -> telegramNotifier.send(formattedMessage, alert.getSeverity());
+                    case TELEGRAM -> sendTelegram(alert);
                     case EMAIL -> log.debug("Email channel not yet implemented for: {}", alert.getTitle());
                     // #TODO: Implement EmailNotifier when Spring Mail is configured
                 }
@@ -177,6 +190,35 @@ public class NotificationService {
         }
     }
 
+    private void sendTelegram(Alert alert) {
+        if (isRecentDuplicate(alert)) {
+            log.debug("Coalesced duplicate Telegram alert: {} ({})", alert.getTitle(), alert.getType());
+            return;
+        }
+        telegramNotifier.send(notificationTemplateEngine.render(alert), alert.getSeverity());
+    }
+
+    /** Records the delivery and returns false, or returns true if the same alert went out within the window. */
+    private boolean isRecentDuplicate(Alert alert) {
+        if (coalesceWindowNanos <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        String key = alert.getType() + "|" + alert.getSeverity() + "|" + alert.getTitle() + "|" + alert.getMessage();
+        boolean[] duplicate = new boolean[1];
+        lastTelegramDelivery.compute(key, (k, last) -> {
+            if (last != null && now - last < coalesceWindowNanos) {
+                duplicate[0] = true;
+                return last;
+            }
+            return now;
+        });
+        if (lastTelegramDelivery.size() > 1024) {
+            lastTelegramDelivery.values().removeIf(last -> now - last >= coalesceWindowNanos);
+        }
+        return duplicate[0];
+    }
+
     private AlertSeverity mapRiskLevel(RiskLevel level) {
         return switch (level) {
             case INFO -> AlertSeverity.INFO;
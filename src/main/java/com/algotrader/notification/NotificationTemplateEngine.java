@@ -1,6 +1,12 @@
 package com.algotrader.notification;
 
-import java.time.format.DateTimeFormatter;
+import com.algotrader.domain.enums.AlertType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import org.springframework.stereotype.Component;
 
 /**
@@ -9,76 +15,120 @@ import org.springframework.stereotype.Component;
  * <p>Templates use Telegram HTML parse mode ({@code <b>bold</b>}) for structured,
  * readable messages on mobile screens. Each alert type has a dedicated template
  * with actionable context (strategy name, P&L, recommended action).
+ *
+ * <p>Templates are split into literal text and field slots once at class load; rendering
+ * appends the pieces into a per-thread reusable builder and writes the HH:mm:ss time digits
+ * directly, so an alert burst pays neither format-string parsing nor a DateTimeFormatter.
  */
 @Component
 public class NotificationTemplateEngine {
 
-    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final int MAX_RETAINED_CAPACITY = 4096;
 
-    public String render(Alert alert) {
-        return switch (alert.getType()) {
-            case RISK -> renderRiskAlert(alert);
-            case ORDER_FILL -> renderOrderFillAlert(alert);
-            case ORDER_REJECTION -> renderOrderRejectionAlert(alert);
-            case STRATEGY -> renderStrategyAlert(alert);
-            case SESSION -> renderSessionAlert(alert);
-            case RECONCILIATION -> renderReconciliationAlert(alert);
-            case KILL_SWITCH -> renderKillSwitchAlert(alert);
-            case SYSTEM -> renderDefaultAlert(alert);
-        };
-    }
+    private static final Map<AlertType, Template> TEMPLATES = new EnumMap<>(AlertType.class);
 
-    private String renderRiskAlert(Alert alert) {
-        return String.format(
-                "<b>RISK ALERT</b>\n" + "<b>Type:</b> %s\n" + "<b>Severity:</b> %s\n" + "<b>Message:</b> %s\n"
-                        + "<b>Time:</b> %s",
-                alert.getTitle(),
-                alert.getSeverity(),
-                alert.getMessage(),
-                alert.getTimestamp().format(TIME_FORMAT));
+    static {
+        TEMPLATES.put(
+                AlertType.RISK,
+                Template.compile("<b>RISK ALERT</b>\n" + "<b>Type:</b> {title}\n" + "<b>Severity:</b> {severity}\n"
+                        + "<b>Message:</b> {message}\n" + "<b>Time:</b> {time}"));
+        TEMPLATES.put(AlertType.ORDER_FILL, Template.compile("<b>ORDER FILLED</b>\n{message}\n<b>Time:</b> {time}"));
+        TEMPLATES.put(
+                AlertType.ORDER_REJECTION, Template.compile("<b>ORDER REJECTED</b>\n{message}\n<b>Time:</b> {time}"));
+        TEMPLATES.put(
+                AlertType.STRATEGY,
+                Template.compile("<b>STRATEGY UPDATE</b>\n" + "<b>Event:</b> {title}\n" + "<b>Details:</b> {message}\n"
+                        + "<b>Time:</b> {time}"));
+        TEMPLATES.put(
+                AlertType.SESSION,
+                Template.compile("<b>SESSION ALERT</b>\n" + "<b>Status:</b> {title}\n" + "<b>Details:</b> {message}\n"
+                        + "<b>Action Required:</b> Re-authenticate at Kite login\n" + "<b>Time:</b> {time}"));
+        TEMPLATES.put(
+                AlertType.RECONCILIATION, Template.compile("<b>RECONCILIATION</b>\n{message}\n<b>Time:</b> {time}"));
+        TEMPLATES.put(
+                AlertType.KILL_SWITCH,
+                Template.compile("<b>KILL SWITCH ACTIVATED</b>\n{message}\n"
+                        + "<b>Action:</b> All orders cancelled, positions being closed\n" + "<b>Time:</b> {time}"));
+        TEMPLATES.put(AlertType.SYSTEM, Template.compile("<b>{title}</b>\n{message}\n<b>Time:</b> {time}"));
     }
 
-    private String renderOrderFillAlert(Alert alert) {
-        return String.format(
-                "<b>ORDER FILLED</b>\n%s\n<b>Time:</b> %s",
-                alert.getMessage(), alert.getTimestamp().format(TIME_FORMAT));
-    }
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
 
-    private String renderOrderRejectionAlert(Alert alert) {
-        return String.format(
-                "<b>ORDER REJECTED</b>\n%s\n<b>Time:</b> %s",
-                alert.getMessage(), alert.getTimestamp().format(TIME_FORMAT));
+    public String render(Alert alert) {
+        StringBuilder sb = BUILDER.get();
+        sb.setLength(0);
+        TEMPLATES.get(alert.getType()).renderInto(alert, sb);
+        String rendered = sb.toString();
+        if (sb.capacity() > MAX_RETAINED_CAPACITY) {
+            // Don't pin a huge buffer to a pooled thread after one oversized message
+            BUILDER.remove();
+        }
+        return rendered;
     }
 
-    private String renderStrategyAlert(Alert alert) {
-        return String.format(
-                "<b>STRATEGY UPDATE</b>\n" + "<b>Event:</b> %s\n" + "<b>Details:</b> %s\n" + "<b>Time:</b> %s",
-                alert.getTitle(), alert.getMessage(), alert.getTimestamp().format(TIME_FORMAT));
+    /** Alert fields a template can reference as {@code {name}}. */
+    private enum Field {
+        TITLE,
+        SEVERITY,
+        MESSAGE,
+        TIME
     }
 
-    private String renderSessionAlert(Alert alert) {
-        return String.format(
-                "<b>SESSION ALERT</b>\n" + "<b>Status:</b> %s\n" + "<b>Details:</b> %s\n"
-                        + "<b>Action Required:</b> Re-authenticate at Kite login\n" + "<b>Time:</b> %s",
-                alert.getTitle(), alert.getMessage(), alert.getTimestamp().format(TIME_FORMAT));
-    }
+    /** A template precompiled into alternating literal text and field slots. */
+    private static final class Template {
 
-    private String renderReconciliationAlert(Alert alert) {
-        return String.format(
-                "<b>RECONCILIATION</b>\n%s\n<b>Time:</b> %s",
-                alert.getMessage(), alert.getTimestamp().format(TIME_FORMAT));
-    }
+        /** Each part is either a String literal or a Field. */
+        private final Object[] parts;
 
-    private String renderKillSwitchAlert(Alert alert) {
-        return String.format(
-                "<b>KILL SWITCH ACTIVATED</b>\n%s\n<b>Action:</b> All orders cancelled, positions being closed\n"
-                        + "<b>Time:</b> %s",
-                alert.getMessage(), alert.getTimestamp().format(TIME_FORMAT));
-    }
+        private Template(Object[] parts) {
+            this.parts = parts;
+        }
+
+        static Template compile(String source) {
+            List<Object> parts = new ArrayList<>();
+            int start = 0;
+            int open = source.indexOf('{');
+            while (open >= 0) {
+                int close = source.indexOf('}', open);
+                if (open > start) {
+                    parts.add(source.substring(start, open));
+                }
+                parts.add(Field.valueOf(source.substring(open + 1, close).toUpperCase(Locale.ROOT)));
+                start = close + 1;
+                open = source.indexOf('{', start);
+            }
+            if (start < source.length()) {
+                parts.add(source.substring(start));
+            }
+            return new Template(parts.toArray());
+        }
+
+        void renderInto(Alert alert, StringBuilder sb) {
+            for (Object part : parts) {
+                if (part instanceof String literal) {
+                    sb.append(literal);
+                    continue;
+                }
+                switch ((Field) part) {
+                    case TITLE -> sb.append(alert.getTitle());
+                    case SEVERITY -> sb.append(alert.getSeverity());
+                    case MESSAGE -> sb.append(alert.getMessage());
+                    case TIME -> appendTime(alert.getTimestamp(), sb);
+                }
+            }
+        }
+
+        /** Appends HH:mm:ss, matching DateTimeFormatter.ofPattern("HH:mm:ss"). */
+        private static void appendTime(LocalDateTime timestamp, StringBuilder sb) {
+            appendTwoDigits(timestamp.getHour(), sb);
+            sb.append(':');
+            appendTwoDigits(timestamp.getMinute(), sb);
+            sb.append(':');
+            appendTwoDigits(timestamp.getSecond(), sb);
+        }
 
-    private String renderDefaultAlert(Alert alert) {
-        return String.format(
-                "<b>%s</b>\n%s\n<b>Time:</b> %s",
-                alert.getTitle(), alert.getMessage(), alert.getTimestamp().format(TIME_FORMAT));
+        private static void appendTwoDigits(int value, StringBuilder sb) {
+            sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+        }
     }
 }
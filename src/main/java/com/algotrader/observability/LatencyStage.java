@@ -0,0 +1,38 @@
+package com.algotrader.observability;
+
+/**
+ * Stages of the tick-to-decision pipeline measured by {@link TickLatencyTracker}.
+ *
+ * <p>Stages nest rather than partition: LISTENER_CHAIN contains STRATEGY_DISPATCH, which
+ * contains one STRATEGY_EVALUATE per evaluated strategy. TICK_TO_ORDER is end-to-end from
+ * KiteTicker receipt to the order entering the OrderQueue, recorded only for orders that
+ * were triggered by a tick evaluation.
+ */
+public enum LatencyStage {
+
+    /** KiteTicker callback receipt to domain Tick mapped (mapToTick). */
+    TICK_MAPPING("mapping"),
+
+    /** TickEvent publish until every synchronous listener has returned. */
+    LISTENER_CHAIN("listeners"),
+
+    /** StrategyEngine.onTick across all strategies. */
+    STRATEGY_DISPATCH("dispatch"),
+
+    /** A single BaseStrategy.evaluate call (also recorded per strategy). */
+    STRATEGY_EVALUATE("evaluate"),
+
+    /** KiteTicker receipt to OrderQueue enqueue for a tick-triggered order. */
+    TICK_TO_ORDER("tick_to_order");
+
+    private final String tagValue;
+
+    LatencyStage(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    /** Value of the {@code stage} tag on the exported timer. */
+    public String getTagValue() {
+        return tagValue;
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +53,9 @@ public class JournaledMultiLegExecutor {
 
     private static final Logger log = LoggerFactory.getLogger(JournaledMultiLegExecutor.class);
 
+    /** Extra wait past the fill timeout in case the tracker's timer is late. */
+    private static final Duration FILL_WAIT_GRACE = Duration.ofSeconds(1);
+
     private final OrderRouter orderRouter;
     private final OrderTagGenerator orderTagGenerator;
     private final ExecutionJournalJpaRepository executionJournalJpaRepository;
@@ -257,7 +261,9 @@ public class JournaledMultiLegExecutor {
                 sellGroupId);
 
         // ---- Phase 1: Register fill await BEFORE routing (avoids race condition) ----
-        CompletableFuture<Void> buyFillsFuture = orderFillTracker.awaitFills(buyGroupId, buyLegs.size());
+        // The tracker's shared timer fails the future with OrderFillTimeoutException at fillTimeout
+        CompletableFuture<Void> buyFillsFuture =
+                orderFillTracker.awaitFills(buyGroupId, buyLegs.size(), fillTimeout, this::logBuyFillProgress);
 
         // Create journal entries for BUY phase
         List<ExecutionJournalEntity> buyJournals =
@@ -289,7 +295,15 @@ public class JournaledMultiLegExecutor {
 
         // ---- Phase 2: Wait for BUY fills ----
         try {
-            buyFillsFuture.get(fillTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                // Backstop only; the tracker times the await out first
+                buyFillsFuture.get(fillTimeout.plus(FILL_WAIT_GRACE).toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof OrderFillTracker.OrderFillTimeoutException) {
+                    throw new TimeoutException(e.getCause().getMessage());
+                }
+                throw e;
+            }
             log.info("All BUY fills confirmed: buyGroupId={}", buyGroupId);
         } catch (TimeoutException e) {
             log.error(
@@ -508,6 +522,19 @@ public class JournaledMultiLegExecutor {
         }
     }
 
+    private void logBuyFillProgress(
+            String buyGroupId, String tradingSymbol, int filledQuantity, int quantity, int remainingOrders) {
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "BUY fill progress: buyGroupId={}, symbol={}, filled={}/{}, legsRemaining={}",
+                    buyGroupId,
+                    tradingSymbol,
+                    filledQuantity,
+                    quantity,
+                    remainingOrders);
+        }
+    }
+
     private void updateJournalStatus(ExecutionJournalEntity journal, JournalStatus status, String failureReason) {
         journal.setStatus(status);
         journal.setFailureReason(failureReason);
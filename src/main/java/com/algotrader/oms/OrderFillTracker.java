@@ -1,12 +1,15 @@
 package com.algotrader.oms;
 
+import com.algotrader.domain.model.Order;
 import com.algotrader.event.OrderEvent;
 import com.algotrader.event.OrderEventType;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
@@ -31,7 +34,17 @@ import org.springframework.stereotype.Service;
  *       on rejection/timeout</li>
  * </ol>
  *
- * <p><b>Thread safety:</b> All state is in ConcurrentHashMap + AtomicInteger.
+ * <p><b>Event path:</b> the handler first checks the event type against an EnumSet and returns
+ * for anything but FILLED, PARTIALLY_FILLED and REJECTED, so placements, modifications and
+ * other status updates cost one bit test. With no pending awaits it returns before touching the
+ * registry.
+ *
+ * <p><b>Timeouts:</b> every await's deadline lives on one {@link TimerWheel} driven by a single
+ * {@link TimerWheelDriver} thread that parks while nothing is pending, so callers block on the future without
+ * their own timers. Completing or cancelling an await cancels its timer in O(1).
+ *
+ * <p><b>Thread safety:</b> Awaits are indexed by correlationId in a ConcurrentHashMap (whose
+ * bins are locked independently, so groups don't contend) and counted with AtomicInteger.
  * The EventListener callback may fire on any thread (event executor, WebSocket thread).
  */
 @Service
@@ -42,14 +55,45 @@ public class OrderFillTracker {
     /** Default auto-expire duration for stale awaits that were never completed. */
     private static final Duration AUTO_EXPIRE = Duration.ofMinutes(2);
 
+    /** Timer tick: upper bound on how late an await times out. */
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Event types that can advance or fail an await; all others return immediately. */
+    private static final Set<OrderEventType> HANDLED_EVENT_TYPES =
+            EnumSet.of(OrderEventType.FILLED, OrderEventType.PARTIALLY_FILLED, OrderEventType.REJECTED);
+
     private final ConcurrentHashMap<String, FillAwait> pendingAwaits = new ConcurrentHashMap<>();
 
-    /** Scheduler for auto-expiring stale awaits. Single thread is sufficient. */
-    private final ScheduledExecutorService cleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread thread = new Thread(r, "fill-tracker-cleanup");
-        thread.setDaemon(true);
-        return thread;
-    });
+    /** Shared deadline wheel for all awaits. */
+    private final TimerWheelDriver<String> timers;
+
+    public OrderFillTracker() {
+        this.timers = new TimerWheelDriver<>("fill-tracker-timer", TICK_NANOS, this::onExpired);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.shutdown();
+    }
+
+    /**
+     * Registers a fill await that auto-expires after two minutes.
+     *
+     * @see #awaitFills(String, int, Duration, FillProgressListener)
+     */
+    public CompletableFuture<Void> awaitFills(String correlationId, int expectedCount) {
+        return awaitFills(correlationId, expectedCount, AUTO_EXPIRE, null);
+    }
+
+    /**
+     * Registers a fill await that completes exceptionally with
+     * {@link OrderFillTimeoutException} if the fills don't arrive within {@code timeout}.
+     *
+     * @see #awaitFills(String, int, Duration, FillProgressListener)
+     */
+    public CompletableFuture<Void> awaitFills(String correlationId, int expectedCount, Duration timeout) {
+        return awaitFills(correlationId, expectedCount, timeout, null);
+    }
 
     /**
      * Registers a fill await for the given correlationId. Must be called BEFORE
@@ -57,31 +101,19 @@ public class OrderFillTracker {
      *
      * @param correlationId shared correlationId for all orders in this group
      * @param expectedCount number of fills expected before the future completes
+     * @param timeout       how long to wait before failing with {@link OrderFillTimeoutException}
+     * @param listener      optional callback for partial and complete fills of each order (may be null)
      * @return a CompletableFuture that completes when all fills arrive, or
      *         completes exceptionally on rejection/timeout
      */
-    public CompletableFuture<Void> awaitFills(String correlationId, int expectedCount) {
+    public CompletableFuture<Void> awaitFills(
+            String correlationId, int expectedCount, Duration timeout, FillProgressListener listener) {
         CompletableFuture<Void> future = new CompletableFuture<>();
-        FillAwait await = new FillAwait(future, new AtomicInteger(expectedCount));
+        long nowNanos = System.nanoTime();
+        FillAwait await =
+                new FillAwait(future, new AtomicInteger(expectedCount), listener, nowNanos + timeout.toNanos());
         pendingAwaits.put(correlationId, await);
-
-        // Schedule auto-expire to prevent memory leaks from forgotten awaits
-        cleanupScheduler.schedule(
-                () -> {
-                    FillAwait removed = pendingAwaits.remove(correlationId);
-                    if (removed != null && !removed.future().isDone()) {
-                        removed.future()
-                                .completeExceptionally(new OrderFillTimeoutException(
-                                        "Fill await expired for correlationId: " + correlationId + " (remaining: "
-                                                + removed.remaining().get() + ")"));
-                        log.warn(
-                                "Fill await auto-expired: correlationId={}, remaining={}",
-                                correlationId,
-                                removed.remaining().get());
-                    }
-                },
-                AUTO_EXPIRE.toMillis(),
-                TimeUnit.MILLISECONDS);
+        timers.schedule(correlationId, await.deadlineNanos());
 
         log.debug("Registered fill await: correlationId={}, expectedCount={}", correlationId, expectedCount);
         return future;
@@ -93,54 +125,43 @@ public class OrderFillTracker {
      */
     public void cancelAwait(String correlationId) {
         FillAwait removed = pendingAwaits.remove(correlationId);
-        if (removed != null && !removed.future().isDone()) {
-            removed.future().cancel(false);
-            log.debug("Cancelled fill await: correlationId={}", correlationId);
+        if (removed != null) {
+            timers.cancel(correlationId);
+            if (!removed.future().isDone()) {
+                removed.future().cancel(false);
+                log.debug("Cancelled fill await: correlationId={}", correlationId);
+            }
         }
     }
 
     /**
-     * Listens for order fill and rejection events. Decrements the fill counter
+     * Listens for fill and rejection events. Decrements the fill counter
      * for the matching correlationId and completes the future when all fills arrive.
-     * On rejection, completes exceptionally for fast-fail.
+     * On rejection, completes exceptionally for fast-fail. Partial fills only
+     * notify the await's progress listener.
      */
     @EventListener
     public void onOrderEvent(OrderEvent event) {
-        if (event.getOrder() == null || event.getOrder().getCorrelationId() == null) {
+        if (!HANDLED_EVENT_TYPES.contains(event.getEventType()) || pendingAwaits.isEmpty()) {
+            return;
+        }
+        Order order = event.getOrder();
+        if (order == null || order.getCorrelationId() == null) {
             return;
         }
 
-        String correlationId = event.getOrder().getCorrelationId();
+        String correlationId = order.getCorrelationId();
         FillAwait await = pendingAwaits.get(correlationId);
         if (await == null) {
             return;
         }
 
-        if (event.getEventType() == OrderEventType.FILLED) {
-            int remaining = await.remaining().decrementAndGet();
-            log.debug(
-                    "Fill received: correlationId={}, symbol={}, remaining={}",
-                    correlationId,
-                    event.getOrder().getTradingSymbol(),
-                    remaining);
-
-            if (remaining <= 0) {
-                pendingAwaits.remove(correlationId);
-                await.future().complete(null);
-                log.info("All fills received: correlationId={}", correlationId);
-            }
-        } else if (event.getEventType() == OrderEventType.REJECTED) {
-            pendingAwaits.remove(correlationId);
-            await.future()
-                    .completeExceptionally(
-                            new OrderRejectedException("Order rejected: correlationId=" + correlationId + ", symbol="
-                                    + event.getOrder().getTradingSymbol() + ", reason="
-                                    + event.getOrder().getRejectionReason()));
-            log.warn(
-                    "Order rejected, failing fill await: correlationId={}, symbol={}, reason={}",
-                    correlationId,
-                    event.getOrder().getTradingSymbol(),
-                    event.getOrder().getRejectionReason());
+        switch (event.getEventType()) {
+            case PARTIALLY_FILLED ->
+                notifyProgress(await, correlationId, order, await.remaining().get());
+            case FILLED -> onFill(await, correlationId, order);
+            case REJECTED -> onRejection(await, correlationId, order);
+            default -> {}
         }
     }
 
@@ -149,8 +170,99 @@ public class OrderFillTracker {
         return pendingAwaits.size();
     }
 
+    private void onFill(FillAwait await, String correlationId, Order order) {
+        int remaining = await.remaining().decrementAndGet();
+        log.debug(
+                "Fill received: correlationId={}, symbol={}, remaining={}",
+                correlationId,
+                order.getTradingSymbol(),
+                remaining);
+        notifyProgress(await, correlationId, order, Math.max(remaining, 0));
+
+        if (remaining <= 0 && pendingAwaits.remove(correlationId, await)) {
+            timers.cancel(correlationId);
+            await.future().complete(null);
+            log.info("All fills received: correlationId={}", correlationId);
+        }
+    }
+
+    private void onRejection(FillAwait await, String correlationId, Order order) {
+        if (!pendingAwaits.remove(correlationId, await)) {
+            return;
+        }
+        timers.cancel(correlationId);
+        await.future()
+                .completeExceptionally(new OrderRejectedException("Order rejected: correlationId=" + correlationId
+                        + ", symbol=" + order.getTradingSymbol() + ", reason=" + order.getRejectionReason()));
+        log.warn(
+                "Order rejected, failing fill await: correlationId={}, symbol={}, reason={}",
+                correlationId,
+                order.getTradingSymbol(),
+                order.getRejectionReason());
+    }
+
+    private void notifyProgress(FillAwait await, String correlationId, Order order, int remainingOrders) {
+        FillProgressListener listener = await.listener();
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onProgress(
+                    correlationId,
+                    order.getTradingSymbol(),
+                    order.getFilledQuantity(),
+                    order.getQuantity(),
+                    remainingOrders);
+        } catch (RuntimeException e) {
+            log.error("Fill progress listener failed: correlationId={}", correlationId, e);
+        }
+    }
+
+    /** Fails the awaits whose timers fired. Runs on the timer thread. */
+    private void onExpired(List<String> expired) {
+        long nowNanos = System.nanoTime();
+        for (String correlationId : expired) {
+            FillAwait await = pendingAwaits.get(correlationId);
+            // A newer await for the same id may have replaced the expired one
+            if (await != null && await.deadlineNanos() - nowNanos <= 0 && pendingAwaits.remove(correlationId, await)) {
+                expire(correlationId, await);
+            }
+        }
+    }
+
+    private void expire(String correlationId, FillAwait await) {
+        int remaining = await.remaining().get();
+        await.future()
+                .completeExceptionally(new OrderFillTimeoutException(
+                        "Fill await expired for correlationId: " + correlationId + " (remaining: " + remaining + ")"));
+        log.warn("Fill await expired: correlationId={}, remaining={}", correlationId, remaining);
+    }
+
+    /**
+     * Callback for fill progress within an awaited group, invoked on the event thread for each
+     * partial and complete fill. Arguments are primitives and existing strings, so notifying
+     * allocates nothing; implementations should return quickly.
+     */
+    @FunctionalInterface
+    public interface FillProgressListener {
+
+        /**
+         * @param correlationId   the awaited group
+         * @param tradingSymbol   symbol of the order that (partially) filled
+         * @param filledQuantity  quantity filled so far on that order
+         * @param quantity        that order's total quantity
+         * @param remainingOrders orders in the group still waiting for a complete fill
+         */
+        void onProgress(
+                String correlationId, String tradingSymbol, int filledQuantity, int quantity, int remainingOrders);
+    }
+
     /** Internal state for a pending fill await. */
-    private record FillAwait(CompletableFuture<Void> future, AtomicInteger remaining) {}
+    private record FillAwait(
+            CompletableFuture<Void> future,
+            AtomicInteger remaining,
+            FillProgressListener listener,
+            long deadlineNanos) {}
 
     /** Thrown when BUY fills don't arrive within the configured timeout. */
     public static class OrderFillTimeoutException extends RuntimeException {
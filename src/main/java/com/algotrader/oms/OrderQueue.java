@@ -1,6 +1,7 @@
 package com.algotrader.oms;
 
 import com.algotrader.domain.enums.OrderPriority;
+import com.algotrader.observability.TickLatencyTracker;
 import java.util.Comparator;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
@@ -39,12 +40,19 @@ public class OrderQueue {
             Comparator.<PrioritizedOrder>comparingInt(o -> o.getPriority().getLevel())
                     .thenComparingLong(PrioritizedOrder::getSequenceNumber));
 
+    private final TickLatencyTracker tickLatencyTracker;
+
+    public OrderQueue(TickLatencyTracker tickLatencyTracker) {
+        this.tickLatencyTracker = tickLatencyTracker;
+    }
+
     /**
      * Enqueues an order request with the given priority.
      *
      * <p>The sequence number is assigned atomically to preserve FIFO ordering
      * for orders at the same priority level. The enqueue timestamp enables
-     * queue latency monitoring.
+     * queue latency monitoring. Tick-triggered orders also record their end-to-end
+     * tick-to-order latency.
      */
     public void enqueue(OrderRequest orderRequest, OrderPriority priority) {
         PrioritizedOrder prioritizedOrder = PrioritizedOrder.builder()
@@ -55,6 +63,7 @@ public class OrderQueue {
                 .build();
 
         queue.put(prioritizedOrder);
+        tickLatencyTracker.recordTickToOrder(orderRequest.getTickReceivedAt());
         log.debug(
                 "Order enqueued: priority={}, symbol={}, queueSize={}",
                 priority,
@@ -51,4 +51,10 @@ public class OrderRequest {
 
     /** Groups related orders (e.g., all legs of a multi-leg entry). */
     private String correlationId;
+
+    /**
+     * System.nanoTime() when the tick that triggered this order was received (0 if the order
+     * was not triggered by a tick evaluation). Used only for tick-to-order latency metrics.
+     */
+    private long tickReceivedAt;
 }
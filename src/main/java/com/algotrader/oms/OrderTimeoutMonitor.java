@@ -6,16 +6,26 @@ import com.algotrader.domain.enums.OrderStatus;
 import com.algotrader.domain.enums.OrderType;
 import com.algotrader.domain.model.Order;
 import com.algotrader.event.EventPublisherHelper;
+import com.algotrader.event.OrderEvent;
 import com.algotrader.exception.BrokerException;
 import com.algotrader.repository.redis.OrderRedisRepository;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
@@ -35,7 +45,18 @@ import org.springframework.stereotype.Component;
  * If the order belongs to a strategy, the strategy engine receives the cancellation event
  * and can decide to re-enter or adjust.
  *
- * <p>Runs every 5 seconds via {@code @Scheduled(fixedRate = 5000)}.
+ * <p>Deadlines are kept in a hierarchical {@link TimerWheel} with 5 ms ticks, driven by a
+ * {@link TimerWheelDriver} thread that sleeps while no order is pending. An order is registered
+ * when its PLACED event arrives and unregistered on FILLED, CANCELLED or REJECTED, so a timeout
+ * is handled within a few milliseconds of its deadline and nothing is scanned in between. Other
+ * order events refresh the tracked snapshot. Redis is read at startup
+ * ({@link #recoverPendingOrders()}), to register orders that were open before a restart, and
+ * once per timed-out order before it is cancelled. If a broker cancel fails transiently, the
+ * order is retried after {@code RETRY_DELAY}.
+ *
+ * <p>The order is saved to Redis before PLACED is published, so a fast fill can reach this
+ * monitor before its PLACED event. Recently finished order ids are remembered so that a late
+ * PLACED does not register an order that is already done.
  */
 @Component
 public class OrderTimeoutMonitor {
@@ -47,11 +68,38 @@ public class OrderTimeoutMonitor {
             OrderType.MARKET, Duration.ofSeconds(10),
             OrderType.LIMIT, Duration.ofSeconds(30));
 
+    /** Wheel tick: upper bound on how late a timeout is handled. */
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /** Delay before retrying a timed-out order whose broker cancel failed transiently. */
+    static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    /** Statuses after which an order can no longer time out. */
+    private static final Set<OrderStatus> TERMINAL_STATUSES =
+            EnumSet.of(OrderStatus.COMPLETE, OrderStatus.CANCELLED, OrderStatus.REJECTED);
+
+    /** How many finished order ids are remembered to ignore a PLACED that arrives after them. */
+    private static final int RECENTLY_FINISHED_CAPACITY = 1024;
+
     private final OrderRedisRepository orderRedisRepository;
     private final BrokerGateway brokerGateway;
     private final TradingCalendarService tradingCalendarService;
     private final EventPublisherHelper eventPublisherHelper;
 
+    /** Order id -> deadline. Scheduled and cancelled together with {@link #trackedOrders}. */
+    private final TimerWheelDriver<String> timers;
+
+    /** Latest snapshot of each order with a registered deadline, keyed by order id. Guarded by this. */
+    private final Map<String, Order> trackedOrders = new HashMap<>();
+
+    /** Ids of orders seen filled, cancelled or rejected, oldest evicted first. Guarded by this. */
+    private final Set<String> recentlyFinished = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECENTLY_FINISHED_CAPACITY;
+        }
+    });
+
     public OrderTimeoutMonitor(
             OrderRedisRepository orderRedisRepository,
             BrokerGateway brokerGateway,
@@ -61,14 +109,21 @@ public class OrderTimeoutMonitor {
         this.brokerGateway = brokerGateway;
         this.tradingCalendarService = tradingCalendarService;
         this.eventPublisherHelper = eventPublisherHelper;
+        this.timers = new TimerWheelDriver<>("order-timeout-wheel", TICK_NANOS, this::onExpired);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.shutdown();
     }
 
     /**
-     * Checks all pending orders for timeout every 5 seconds.
-     * Only runs during active market hours to avoid wasting cycles.
+     * Registers deadlines for the orders that were pending in Redis before startup.
+     * Orders already past their timeout are handled immediately; the rest fire from the wheel.
+     * This is the only Redis read; afterwards order events keep the wheel current.
      */
-    @Scheduled(fixedRate = 5000)
-    public void checkTimeouts() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingOrders() {
         List<Order> pendingOrders = orderRedisRepository.findPending();
 
         if (pendingOrders.isEmpty()) {
@@ -78,9 +133,131 @@ public class OrderTimeoutMonitor {
         LocalDateTime now = LocalDateTime.now();
 
         for (Order order : pendingOrders) {
-            if (isTimedOut(order, now)) {
-                handleTimeout(order, now);
+            if (order.getPlacedAt() == null) {
+                continue;
             }
+            if (deadlineOf(order, now).isBefore(now)) {
+                handleTimeoutAndRetry(order, now);
+            } else {
+                register(order, now);
+            }
+        }
+        log.info("Registered timeouts for {} pending orders", pendingOrders.size());
+    }
+
+    /**
+     * Registers a deadline when an order is placed and drops it once the order is
+     * filled, cancelled or rejected. Other events refresh the tracked snapshot.
+     */
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        Order order = event.getOrder();
+        if (order == null || order.getId() == null) {
+            return;
+        }
+
+        switch (event.getEventType()) {
+            case PLACED -> {
+                if (order.getStatus() == OrderStatus.OPEN || order.getStatus() == OrderStatus.TRIGGER_PENDING) {
+                    register(order, LocalDateTime.now());
+                }
+            }
+            case FILLED, CANCELLED, REJECTED -> unregister(order.getId());
+            default -> refresh(order);
+        }
+    }
+
+    /** Number of orders with a registered deadline (for diagnostics). */
+    public synchronized int getTrackedCount() {
+        return trackedOrders.size();
+    }
+
+    private void register(Order order, LocalDateTime now) {
+        if (TERMINAL_STATUSES.contains(order.getStatus())) {
+            return;
+        }
+        Duration remaining = Duration.between(now, deadlineOf(order, now));
+        // Fire just after the deadline, matching isTimedOut's strict comparison
+        schedule(order, remaining.toNanos() + 1);
+    }
+
+    /**
+     * When the order times out: session end for SL/SL_M (they wait for their trigger), otherwise
+     * the type's timeout after placement.
+     */
+    private LocalDateTime deadlineOf(Order order, LocalDateTime now) {
+        if (order.getType() == OrderType.SL || order.getType() == OrderType.SL_M) {
+            return now.plus(getSessionEndTimeout(now));
+        }
+        LocalDateTime placedAt = order.getPlacedAt() != null ? order.getPlacedAt() : now;
+        return placedAt.plus(getTimeoutForOrder(order, now));
+    }
+
+    private synchronized void schedule(Order order, long delayNanos) {
+        // Finished before its PLACED event (or a retry) got here
+        if (recentlyFinished.contains(order.getId())) {
+            return;
+        }
+        trackedOrders.put(order.getId(), order);
+        timers.schedule(order.getId(), System.nanoTime() + Math.max(0, delayNanos));
+    }
+
+    private synchronized void unregister(String orderId) {
+        recentlyFinished.add(orderId);
+        if (timers.cancel(orderId)) {
+            trackedOrders.remove(orderId);
+        }
+    }
+
+    private synchronized void refresh(Order order) {
+        if (trackedOrders.containsKey(order.getId())) {
+            trackedOrders.put(order.getId(), order);
+        }
+    }
+
+    /** Handles the orders whose deadlines fired. Runs on the timer thread. */
+    private void onExpired(List<String> orderIds) {
+        List<Order> expired = new ArrayList<>();
+        synchronized (this) {
+            for (String orderId : orderIds) {
+                // Registered again since the wheel fired: the new deadline stands
+                if (timers.isScheduled(orderId)) {
+                    continue;
+                }
+                Order order = trackedOrders.remove(orderId);
+                if (order != null) {
+                    expired.add(order);
+                }
+            }
+        }
+
+        for (Order order : expired) {
+            try {
+                handleTimeoutAndRetry(order, LocalDateTime.now());
+            } catch (RuntimeException e) {
+                log.error("Order timeout handling failed: orderId={}", order.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Handles a timeout and, if the order could not be cancelled, retries it after
+     * {@link #RETRY_DELAY}. Each attempt first re-reads the order from Redis and drops it if it
+     * has finished meanwhile, so a filled order is not cancelled again every retry.
+     */
+    private void handleTimeoutAndRetry(Order order, LocalDateTime now) {
+        OrderStatus stored = orderRedisRepository
+                .findById(order.getId())
+                .map(Order::getStatus)
+                .orElse(null);
+        if (TERMINAL_STATUSES.contains(stored)) {
+            log.info("Timed-out order already {}, not cancelling: orderId={}", stored, order.getId());
+            unregister(order.getId());
+            return;
+        }
+        handleTimeout(order, now);
+        if (order.getStatus() != OrderStatus.CANCELLED) {
+            schedule(order, RETRY_DELAY.toNanos());
         }
     }
 
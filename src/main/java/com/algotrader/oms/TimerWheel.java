@@ -0,0 +1,185 @@
+package com.algotrader.oms;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by an id, with O(1) schedule and cancel.
+ *
+ * <p>Time is divided into ticks of {@code tickNanos}. Level 0 has one slot per tick; each
+ * higher level has slots spanning a whole rotation of the level below, so
+ * {@value #LEVELS} levels of {@value #SLOTS} slots cover {@code tick * 256^3} (about 23 hours at
+ * 5 ms). A timer is placed at the lowest level whose span covers its remaining time. Whenever a
+ * lower level wraps, the next slot of the level above is cascaded down, so each timer is moved at
+ * most {@value #LEVELS} times and expiry never scans timers that are not due. Deadlines beyond
+ * the top level's span wait in its farthest slot and are re-placed when it cascades.
+ *
+ * <p>Timers fire on the first {@link #advance} at or after the tick containing their deadline,
+ * so the lateness is bounded by one tick plus the driver's wake-up jitter.
+ *
+ * <p>Not thread-safe; {@link TimerWheelDriver} serializes access and drives it for
+ * {@link OrderTimeoutMonitor} and {@link OrderFillTracker}.
+ *
+ * @param <K> timer id type
+ */
+final class TimerWheel<K> {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 3;
+
+    private final long tickNanos;
+    private final Timer<K>[][] wheels;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+
+    /** Last tick processed; slots up to and including it have fired. */
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickNanos, long nowNanos) {
+        this.tickNanos = tickNanos;
+        this.wheels = new Timer[LEVELS][SLOTS];
+        this.currentTick = Math.floorDiv(nowNanos, tickNanos);
+    }
+
+    /** Schedules (or reschedules) the timer for {@code key} at {@code deadlineNanos} (System.nanoTime based). */
+    void schedule(K key, long deadlineNanos, long nowNanos) {
+        cancel(key);
+        if (timers.isEmpty()) {
+            // Nothing to fire in between, so skip the idle ticks instead of replaying them on advance
+            currentTick = Math.max(currentTick, Math.floorDiv(nowNanos, tickNanos));
+        }
+        // Round up so a timer never fires before its deadline; a past deadline fires on the next tick
+        long deadlineTick = Math.max(Math.floorDiv(deadlineNanos + tickNanos - 1, tickNanos), currentTick + 1);
+        Timer<K> timer = new Timer<>(key, deadlineTick);
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    /** Cancels the timer for {@code key}; returns false if none was scheduled. */
+    boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * Processes every tick up to {@code nowNanos} and returns the keys whose timers expired,
+     * earliest tick first. Expired timers are removed.
+     */
+    List<K> advance(long nowNanos) {
+        long targetTick = Math.floorDiv(nowNanos, tickNanos);
+        List<K> expired = new ArrayList<>();
+        if (timers.isEmpty()) {
+            currentTick = Math.max(currentTick, targetTick);
+            return expired;
+        }
+        while (currentTick < targetTick && !timers.isEmpty()) {
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & MASK);
+            Timer<K> timer = wheels[0][slot];
+            wheels[0][slot] = null;
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                if (timer.deadlineTick <= currentTick) {
+                    timers.remove(timer.key);
+                    expired.add(timer.key);
+                } else {
+                    place(timer);
+                }
+                timer = next;
+            }
+        }
+        if (timers.isEmpty()) {
+            currentTick = Math.max(currentTick, targetTick);
+        }
+        return expired;
+    }
+
+    /** Moves the slots of higher levels that start at the current tick down to lower levels. */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            long lowerBits = currentTick & ((1L << (BITS * level)) - 1);
+            if (lowerBits != 0) {
+                return;
+            }
+            int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Timer<K> timer = wheels[level][slot];
+            wheels[level][slot] = null;
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+
+    private void place(Timer<K> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        long slotTick = timer.deadlineTick;
+        long topSpan = 1L << (BITS * LEVELS);
+        if (delta >= topSpan) {
+            // Beyond the wheel's range: park in the farthest top-level slot and re-place on cascade
+            slotTick = currentTick + topSpan - 1;
+        }
+        int slot = (int) ((slotTick >>> (BITS * level)) & MASK);
+        timer.level = level;
+        timer.slot = slot;
+        Timer<K> head = wheels[level][slot];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        wheels[level][slot] = timer;
+    }
+
+    private void unlink(Timer<K> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else if (wheels[timer.level][timer.slot] == timer) {
+            wheels[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    private static final class Timer<K> {
+        final K key;
+        final long deadlineTick;
+        int level;
+        int slot;
+        Timer<K> prev;
+        Timer<K> next;
+
+        Timer(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
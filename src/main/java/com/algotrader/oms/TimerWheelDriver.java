@@ -0,0 +1,96 @@
+package com.algotrader.oms;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a {@link TimerWheel} on one daemon thread and hands expired keys to a callback.
+ *
+ * <p>The thread advances the wheel every tick while timers are pending and parks indefinitely
+ * while none are, so an idle driver costs nothing; {@link #schedule} wakes it. The callback runs
+ * on the driver thread outside the wheel's lock, so it may schedule or cancel timers (a retry,
+ * for example). Owners that keep per-key state next to the wheel should check
+ * {@link #isScheduled} before acting on an expired key, since the key may have been scheduled
+ * again between the wheel firing and the callback running.
+ *
+ * <p>Thread-safe: every wheel access is synchronized on the driver.
+ *
+ * @param <K> timer id type
+ */
+final class TimerWheelDriver<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheelDriver.class);
+
+    private final long tickNanos;
+    private final Consumer<List<K>> onExpired;
+
+    /** Guarded by {@code this}. */
+    private final TimerWheel<K> wheel;
+
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    TimerWheelDriver(String threadName, long tickNanos, Consumer<List<K>> onExpired) {
+        this.tickNanos = tickNanos;
+        this.onExpired = onExpired;
+        this.wheel = new TimerWheel<>(tickNanos, System.nanoTime());
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /** Schedules (or reschedules) the timer for {@code key} at {@code deadlineNanos} (System.nanoTime based). */
+    void schedule(K key, long deadlineNanos) {
+        synchronized (this) {
+            wheel.schedule(key, deadlineNanos, System.nanoTime());
+        }
+        LockSupport.unpark(thread);
+    }
+
+    /** Cancels the timer for {@code key}; returns false if none was scheduled. */
+    synchronized boolean cancel(K key) {
+        return wheel.cancel(key);
+    }
+
+    synchronized boolean isScheduled(K key) {
+        return wheel.contains(key);
+    }
+
+    synchronized int size() {
+        return wheel.size();
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    private void run() {
+        while (running) {
+            List<K> expired;
+            boolean idle;
+            synchronized (this) {
+                expired = wheel.advance(System.nanoTime());
+                idle = wheel.size() == 0;
+            }
+
+            if (!expired.isEmpty()) {
+                try {
+                    onExpired.accept(expired);
+                } catch (RuntimeException e) {
+                    log.error("Timer expiry handling failed on {}", thread.getName(), e);
+                }
+            }
+
+            if (idle) {
+                // Woken by the next schedule
+                LockSupport.park(this);
+            } else {
+                LockSupport.parkNanos(this, tickNanos);
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.algotrader.entity.DailyPnlEntity;
 import com.algotrader.entity.TradeEntity;
 import com.algotrader.event.MarketStatusEvent;
 import com.algotrader.mapper.TradeMapper;
+import com.algotrader.reporting.ReportingRollupService;
 import com.algotrader.repository.jpa.DailyPnlJpaRepository;
 import com.algotrader.repository.jpa.TradeJpaRepository;
 import java.math.BigDecimal;
@@ -50,6 +51,7 @@ public class DailyPnLAggregator {
     private final DailyPnlJpaRepository dailyPnlJpaRepository;
     private final PnLCalculationService pnLCalculationService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ReportingRollupService reportingRollupService;
 
     public DailyPnLAggregator(
             TradeJpaRepository tradeJpaRepository,
@@ -57,13 +59,15 @@ public class DailyPnLAggregator {
             ChargeCalculator chargeCalculator,
             DailyPnlJpaRepository dailyPnlJpaRepository,
             PnLCalculationService pnLCalculationService,
-            RedisTemplate<String, Object> redisTemplate) {
+            RedisTemplate<String, Object> redisTemplate,
+            ReportingRollupService reportingRollupService) {
         this.tradeJpaRepository = tradeJpaRepository;
         this.tradeMapper = tradeMapper;
         this.chargeCalculator = chargeCalculator;
         this.dailyPnlJpaRepository = dailyPnlJpaRepository;
         this.pnLCalculationService = pnLCalculationService;
         this.redisTemplate = redisTemplate;
+        this.reportingRollupService = reportingRollupService;
     }
 
     /**
@@ -165,6 +169,7 @@ public class DailyPnLAggregator {
         entity.setMaxDrawdown(maxDrawdown);
 
         dailyPnlJpaRepository.save(entity);
+        reportingRollupService.recordDailyPnl(entity);
 
         log.info(
                 "Daily P&L aggregated: date={}, realized={}, unrealized={}, trades={}, charges={}, maxDD={}",
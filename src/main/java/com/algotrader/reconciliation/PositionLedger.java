@@ -0,0 +1,214 @@
+package com.algotrader.reconciliation;
+
+import com.algotrader.domain.model.Position;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running per-instrument ledger of expected vs broker-confirmed net quantities.
+ *
+ * <p>Entries are keyed by instrument token and product ({@link Key}), since the broker nets
+ * MIS and NRML positions in the same instrument separately.
+ *
+ * <p>Fills move the <i>expected</i> quantity and mark the instrument dirty; an incremental
+ * reconciliation then checks only the dirty instruments against the broker and records the
+ * broker's quantity as <i>confirmed</i>. The ledger also keeps an order-independent checksum
+ * of all confirmed quantities, updated in O(1) per confirmation, so the periodic safety net
+ * can compare the whole book with a single number instead of diffing every position.
+ *
+ * <p>A full reconciliation merges the broker's positions into the ledger. Until the first
+ * seeding the ledger is unseeded and incremental checks fall back to a full reconciliation.
+ *
+ * <p>Fills arrive on the Kite ticker thread while checks run on the scheduler, so all access
+ * is synchronized; every operation is a handful of map updates.
+ */
+public class PositionLedger {
+
+    /** Consecutive checks a broker quantity may lag the expected one before it counts as drift. */
+    static final int MAX_PENDING_CHECKS = 3;
+
+    /** Result of confirming a broker quantity against the expected one. */
+    public enum Confirmation {
+        /** Broker quantity equals the expected quantity. */
+        MATCHED,
+        /** Broker has not caught up with recent fills yet; the instrument stays dirty. */
+        PENDING,
+        /** Broker still differs after the retry budget; the broker quantity is adopted. */
+        DRIFT
+    }
+
+    /** Product assumed for fills and positions that carry none (orders default to NRML). */
+    static final String DEFAULT_PRODUCT = "NRML";
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final Set<Key> dirty = new LinkedHashSet<>();
+    private long confirmedChecksum;
+    private boolean seeded;
+
+    /**
+     * Applies a fill to the expected quantity and marks the instrument for checking.
+     *
+     * @param signedQuantity filled quantity, positive for BUY and negative for SELL
+     */
+    public synchronized void recordFill(Key key, int signedQuantity) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        entry.expected += signedQuantity;
+        dirty.add(key);
+    }
+
+    /** Marks an instrument for checking without changing its expected quantity. */
+    public synchronized void markDirty(Key key) {
+        dirty.add(key);
+    }
+
+    public synchronized boolean hasDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /** Returns and clears the instruments awaiting a check. */
+    public synchronized Set<Key> drainDirty() {
+        Set<Key> drained = new LinkedHashSet<>(dirty);
+        dirty.clear();
+        return drained;
+    }
+
+    /**
+     * Records the broker's quantity for an instrument and compares it to the expected one.
+     * A lagging broker is retried up to {@link #MAX_PENDING_CHECKS} times before the broker
+     * quantity is adopted as expected and reported as drift.
+     *
+     * @param positionId Redis id of the broker position, or null if the broker has none
+     */
+    public synchronized Confirmation confirm(Key key, int brokerQuantity, String positionId) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        confirmedChecksum -= mix(key, entry.confirmed);
+        confirmedChecksum += mix(key, brokerQuantity);
+        entry.confirmed = brokerQuantity;
+        if (positionId != null) {
+            entry.positionId = positionId;
+        }
+
+        if (brokerQuantity == entry.expected) {
+            entry.pendingChecks = 0;
+            return Confirmation.MATCHED;
+        }
+        if (++entry.pendingChecks < MAX_PENDING_CHECKS) {
+            dirty.add(key);
+            return Confirmation.PENDING;
+        }
+        entry.expected = brokerQuantity;
+        entry.pendingChecks = 0;
+        return Confirmation.DRIFT;
+    }
+
+    /**
+     * Merges the broker's active positions into the ledger after a full reconciliation: every
+     * entry's confirmed quantity becomes the broker's. Clean entries adopt the broker quantity
+     * as expected (and are dropped if the broker holds nothing). Dirty entries keep their
+     * expected quantity, so fills recorded while the reconciliation ran are still checked by
+     * the next incremental pass rather than reported as drift.
+     */
+    public synchronized void rebuild(Collection<Position> brokerPositions) {
+        Map<Key, Position> brokerByKey = new HashMap<>();
+        for (Position position : brokerPositions) {
+            brokerByKey.putIfAbsent(Key.of(position), position);
+        }
+
+        entries.entrySet().removeIf(e -> !brokerByKey.containsKey(e.getKey()) && !dirty.contains(e.getKey()));
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            if (!brokerByKey.containsKey(e.getKey())) {
+                e.getValue().confirmed = 0;
+            }
+        }
+        for (Map.Entry<Key, Position> e : brokerByKey.entrySet()) {
+            Entry entry = entries.computeIfAbsent(e.getKey(), k -> new Entry());
+            Position position = e.getValue();
+            entry.confirmed = position.getQuantity();
+            entry.positionId = position.getId();
+            if (!dirty.contains(e.getKey())) {
+                entry.expected = position.getQuantity();
+                entry.pendingChecks = 0;
+            }
+        }
+        confirmedChecksum = checksum(brokerByKey.values());
+        seeded = true;
+    }
+
+    public synchronized boolean isSeeded() {
+        return seeded;
+    }
+
+    public synchronized int getExpectedQuantity(Key key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.expected : 0;
+    }
+
+    public synchronized int getConfirmedQuantity(Key key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.confirmed : 0;
+    }
+
+    /** Last known Redis id of the instrument's position, or null if it was never held. */
+    public synchronized String getPositionId(Key key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.positionId : null;
+    }
+
+    public synchronized long getConfirmedChecksum() {
+        return confirmedChecksum;
+    }
+
+    /**
+     * Order-independent checksum of a set of positions' net quantities, comparable to
+     * {@link #getConfirmedChecksum()}. Flat positions contribute nothing.
+     */
+    public static long checksum(Collection<Position> positions) {
+        long sum = 0;
+        for (Position position : positions) {
+            sum += mix(Key.of(position), position.getQuantity());
+        }
+        return sum;
+    }
+
+    /** Mixes (key, quantity) into a well-distributed 64-bit value; summing keeps order independence. */
+    private static long mix(Key key, int quantity) {
+        if (quantity == 0) {
+            return 0;
+        }
+        long h = (key.instrumentToken() * 31 + key.product().hashCode()) * 0x9E3779B97F4A7C15L + quantity;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Ledger key: an instrument in one product.
+     *
+     * @param instrumentToken the instrument
+     * @param product         Kite product type ("NRML", "MIS"); never null
+     */
+    public record Key(long instrumentToken, String product) {
+
+        /** Builds a key, treating a missing product as NRML. */
+        public static Key of(long instrumentToken, String product) {
+            return new Key(instrumentToken, product != null ? product : DEFAULT_PRODUCT);
+        }
+
+        public static Key of(Position position) {
+            return of(position.getInstrumentToken(), position.getProduct());
+        }
+    }
+
+    private static final class Entry {
+        private int expected;
+        private int confirmed;
+        private int pendingChecks;
+        private String positionId;
+    }
+}
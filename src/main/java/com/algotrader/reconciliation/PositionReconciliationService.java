@@ -8,7 +8,9 @@ import com.algotrader.domain.enums.DecisionSeverity;
 import com.algotrader.domain.enums.DecisionSource;
 import com.algotrader.domain.enums.DecisionType;
 import com.algotrader.domain.enums.MismatchType;
+import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.ResolutionStrategy;
+import com.algotrader.domain.model.Order;
 import com.algotrader.domain.model.Position;
 import com.algotrader.domain.model.PositionMismatch;
 import com.algotrader.domain.model.ReconciliationResult;
@@ -19,8 +21,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -32,9 +37,12 @@ import org.springframework.stereotype.Service;
 /**
  * Ensures local positions (Redis) stay in sync with the broker's positions (Kite API).
  *
- * <p>Runs every 5 minutes during market hours, on startup, on WebSocket reconnect,
- * and on manual API trigger. Compares by instrument token and applies resolution
- * strategies per mismatch type:
+ * <p>Reconciliation is driven by fills. Each fill updates a {@link PositionLedger} of expected
+ * vs broker-confirmed quantities, and {@link #incrementalReconciliation()} checks only the
+ * instruments whose expected quantity changed. A periodic checksum comparison of the whole
+ * book is the safety net; only a checksum mismatch, startup, WebSocket reconnect or a manual
+ * API trigger runs a full reconciliation, which compares by instrument token and applies
+ * resolution strategies per mismatch type:
  * <ul>
  *   <li>QUANTITY_MISMATCH with strategy -> PAUSE_STRATEGY + sync</li>
  *   <li>QUANTITY_MISMATCH without strategy -> AUTO_SYNC</li>
@@ -59,6 +67,7 @@ public class PositionReconciliationService {
     private final TradingCalendarService tradingCalendarService;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final DecisionLogger decisionLogger;
+    private final PositionLedger positionLedger = new PositionLedger();
 
     public PositionReconciliationService(
             BrokerGateway brokerGateway,
@@ -76,14 +85,137 @@ public class PositionReconciliationService {
     }
 
     /**
-     * Scheduled reconciliation every 5 minutes during market hours.
+     * Records a fill in the ledger; the affected instrument is checked by the next
+     * {@link #incrementalReconciliation()}. Called by KiteOrderUpdateHandler for full and
+     * partial fills with the quantity filled since the previous update.
      */
-    @Scheduled(fixedRate = 300_000)
+    public void onFill(Order order, int filledQuantityDelta) {
+        if (order.getInstrumentToken() == null || filledQuantityDelta <= 0) {
+            return;
+        }
+        int signedQuantity = order.getSide() == OrderSide.SELL ? -filledQuantityDelta : filledQuantityDelta;
+        positionLedger.recordFill(
+                PositionLedger.Key.of(order.getInstrumentToken(), order.getProduct()), signedQuantity);
+    }
+
+    /**
+     * Checks only the instruments whose expected quantity changed since the last check.
+     * One broker fetch serves the whole batch (Kite has no per-instrument positions API), and
+     * only the dirty instruments are read from Redis. Instruments where the broker matches the
+     * fills are synced silently; instruments that still differ after the retry budget are
+     * classified like a full reconciliation and reported.
+     */
+    @Scheduled(fixedDelayString = "${algotrader.reconciliation.incremental-check-ms:2000}")
+    public void incrementalReconciliation() {
+        if (!positionLedger.hasDirty()) {
+            return;
+        }
+        if (!positionLedger.isSeeded()) {
+            reconcile("ORDER_FILL");
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Set<PositionLedger.Key> keys = positionLedger.drainDirty();
+        try {
+            Map<PositionLedger.Key, Position> brokerByKey = new HashMap<>();
+            for (Position brokerPos : fetchActiveBrokerPositions()) {
+                PositionLedger.Key key = PositionLedger.Key.of(brokerPos);
+                if (keys.contains(key)) {
+                    brokerByKey.putIfAbsent(key, brokerPos);
+                }
+            }
+
+            Map<Long, Position> brokerMap = new HashMap<>();
+            Map<Long, Position> localMap = new HashMap<>();
+            List<PositionMismatch> mismatches = new ArrayList<>();
+            int synced = 0;
+
+            for (PositionLedger.Key key : keys) {
+                long token = key.instrumentToken();
+                Position brokerPos = brokerByKey.get(key);
+                Position localPos = findLocal(key, brokerPos);
+                if (brokerPos != null) {
+                    brokerMap.put(token, brokerPos);
+                }
+                if (localPos != null) {
+                    localMap.put(token, localPos);
+                }
+
+                PositionLedger.Confirmation confirmation = positionLedger.confirm(
+                        key,
+                        brokerPos != null ? brokerPos.getQuantity() : 0,
+                        brokerPos != null ? brokerPos.getId() : null);
+
+                switch (confirmation) {
+                    case MATCHED -> {
+                        if (syncLocal(brokerPos, localPos)) {
+                            synced++;
+                        }
+                    }
+                    case PENDING -> log.debug("Broker position for token {} has not caught up with fills yet", token);
+                    case DRIFT -> {
+                        log.warn("Broker position for token {} differs from the quantity expected from fills", token);
+                        compare(token, brokerPos, localPos, mismatches);
+                    }
+                }
+            }
+
+            if (mismatches.isEmpty()) {
+                log.debug(
+                        "Incremental reconciliation: {} instruments checked, {} synced from fills",
+                        keys.size(),
+                        synced);
+                return;
+            }
+
+            ReconciliationResult reconciliationResult = ReconciliationResult.builder()
+                    .timestamp(LocalDateTime.now())
+                    .trigger("INCREMENTAL")
+                    .brokerPositionCount(brokerMap.size())
+                    .localPositionCount(localMap.size())
+                    .mismatches(mismatches)
+                    .build();
+            applyResolutions(mismatches, brokerMap, localMap, reconciliationResult);
+            reconciliationResult.setDurationMs(System.currentTimeMillis() - startTime);
+            publishResult(reconciliationResult);
+        } catch (Exception e) {
+            log.error("Incremental reconciliation failed, re-queueing {} instruments", keys.size(), e);
+            keys.forEach(positionLedger::markDirty);
+        }
+    }
+
+    /**
+     * Periodic safety net during market hours: compares a checksum of the broker's book with
+     * the ledger's confirmed checksum and runs a full reconciliation only when they differ
+     * (e.g. a trade placed outside the platform, or a missed order update).
+     */
+    @Scheduled(fixedDelayString = "${algotrader.reconciliation.checksum-interval-ms:60000}")
     public void scheduledReconciliation() {
         if (!tradingCalendarService.isMarketOpen()) {
             return;
         }
-        reconcile("SCHEDULED");
+        if (positionLedger.hasDirty()) {
+            // Expected changes are pending; the incremental check will confirm them first
+            return;
+        }
+
+        List<Position> activeBrokerPositions;
+        try {
+            activeBrokerPositions = fetchActiveBrokerPositions();
+        } catch (Exception e) {
+            log.error("Failed to fetch broker positions for checksum comparison", e);
+            return;
+        }
+
+        if (!positionLedger.isSeeded()) {
+            reconcile("SCHEDULED", activeBrokerPositions);
+            return;
+        }
+        if (PositionLedger.checksum(activeBrokerPositions) != positionLedger.getConfirmedChecksum()) {
+            log.warn("Position checksum mismatch with broker, running full reconciliation");
+            reconcile("CHECKSUM_MISMATCH", activeBrokerPositions);
+        }
     }
 
     /**
@@ -101,9 +233,16 @@ public class PositionReconciliationService {
     }
 
     /**
-     * Core reconciliation logic: fetch broker + local, compare, resolve, publish.
+     * Full reconciliation: fetch broker + local, compare, resolve, re-seed the ledger, publish.
      */
     public ReconciliationResult reconcile(String trigger) {
+        return reconcile(trigger, null);
+    }
+
+    /**
+     * Full reconciliation against already-fetched broker positions, or a fresh fetch if null.
+     */
+    private ReconciliationResult reconcile(String trigger, List<Position> fetchedBrokerPositions) {
         long startTime = System.currentTimeMillis();
         log.info("Position reconciliation started: trigger={}", trigger);
 
@@ -113,11 +252,9 @@ public class PositionReconciliationService {
                 .build();
 
         try {
-            // Fetch broker positions (source of truth) — use "net" positions
-            Map<String, List<Position>> allPositions = brokerGateway.getPositions();
-            List<Position> brokerPositions = allPositions.getOrDefault("net", List.of());
+            // Broker positions are the source of truth ("net" positions, flat ones dropped)
             List<Position> activeBrokerPositions =
-                    brokerPositions.stream().filter(p -> p.getQuantity() != 0).toList();
+                    fetchedBrokerPositions != null ? fetchedBrokerPositions : fetchActiveBrokerPositions();
             reconciliationResult.setBrokerPositionCount(activeBrokerPositions.size());
 
             // Fetch local positions from Redis
@@ -135,70 +272,38 @@ public class PositionReconciliationService {
 
             // Check broker positions against local
             for (Map.Entry<Long, Position> entry : brokerMap.entrySet()) {
-                Long token = entry.getKey();
-                Position brokerPos = entry.getValue();
-                Position localPos = localMap.get(token);
-
-                if (localPos == null) {
-                    // MISSING_LOCAL: broker has a position we don't know about
-                    mismatches.add(PositionMismatch.builder()
-                            .instrumentToken(token)
-                            .tradingSymbol(brokerPos.getTradingSymbol())
-                            .type(MismatchType.MISSING_LOCAL)
-                            .resolution(ResolutionStrategy.AUTO_SYNC)
-                            .brokerQuantity(brokerPos.getQuantity())
-                            .brokerAveragePrice(brokerPos.getAveragePrice())
-                            .localQuantity(0)
-                            .build());
-                } else if (brokerPos.getQuantity() != localPos.getQuantity()) {
-                    // QUANTITY_MISMATCH: auto-sync to broker state
-                    // #TODO: Use PositionAllocationService to detect strategy-linked positions
-                    //  and apply PAUSE_STRATEGY resolution for those.
-                    mismatches.add(PositionMismatch.builder()
-                            .instrumentToken(token)
-                            .tradingSymbol(brokerPos.getTradingSymbol())
-                            .type(MismatchType.QUANTITY_MISMATCH)
-                            .resolution(ResolutionStrategy.AUTO_SYNC)
-                            .brokerQuantity(brokerPos.getQuantity())
-                            .brokerAveragePrice(brokerPos.getAveragePrice())
-                            .localQuantity(localPos.getQuantity())
-                            .localAveragePrice(localPos.getAveragePrice())
-                            .build());
-                } else {
-                    // Quantities match — check for price drift
-                    checkPriceDrift(brokerPos, localPos, mismatches);
-                }
+                compare(entry.getKey(), entry.getValue(), localMap.get(entry.getKey()), mismatches);
             }
 
             // Check for positions that exist locally but not at broker (stale cache)
             for (Map.Entry<Long, Position> entry : localMap.entrySet()) {
-                Long token = entry.getKey();
-                if (!brokerMap.containsKey(token)) {
-                    Position localPos = entry.getValue();
-                    mismatches.add(PositionMismatch.builder()
-                            .instrumentToken(token)
-                            .tradingSymbol(localPos.getTradingSymbol())
-                            .type(MismatchType.MISSING_BROKER)
-                            .resolution(ResolutionStrategy.AUTO_SYNC)
-                            .localQuantity(localPos.getQuantity())
-                            .localAveragePrice(localPos.getAveragePrice())
-                            .brokerQuantity(0)
-                            .build());
+                if (!brokerMap.containsKey(entry.getKey())) {
+                    compare(entry.getKey(), null, entry.getValue(), mismatches);
                 }
             }
 
             reconciliationResult.setMismatches(mismatches);
 
             // Apply resolutions
-            applyResolutions(mismatches, brokerMap, reconciliationResult);
+            applyResolutions(mismatches, brokerMap, localMap, reconciliationResult);
+
+            // Local state now mirrors the broker: merge confirmed quantities and checksum into the ledger
+            positionLedger.rebuild(activeBrokerPositions);
 
         } catch (Exception e) {
             log.error("Position reconciliation failed", e);
         }
 
         reconciliationResult.setDurationMs(System.currentTimeMillis() - startTime);
+        publishResult(reconciliationResult);
+        return reconciliationResult;
+    }
 
-        // Log as DecisionLog entry
+    /**
+     * Logs a reconciliation run as a DecisionLog entry and publishes a {@link ReconciliationEvent}.
+     */
+    private void publishResult(ReconciliationResult reconciliationResult) {
+        String trigger = reconciliationResult.getTrigger();
         boolean manual = "MANUAL".equals(trigger);
         decisionLogger.log(
                 DecisionSource.RECONCILIATION,
@@ -236,8 +341,86 @@ public class PositionReconciliationService {
         } else {
             log.info("Reconciliation complete: no mismatches, duration={}ms", reconciliationResult.getDurationMs());
         }
+    }
 
-        return reconciliationResult;
+    private List<Position> fetchActiveBrokerPositions() {
+        Map<String, List<Position>> allPositions = brokerGateway.getPositions();
+        return allPositions.getOrDefault("net", List.of()).stream()
+                .filter(p -> p.getQuantity() != 0)
+                .toList();
+    }
+
+    /** Reads one instrument's local position by the broker's id, or the id last seen by the ledger. */
+    private Position findLocal(PositionLedger.Key key, Position brokerPos) {
+        String positionId = brokerPos != null ? brokerPos.getId() : positionLedger.getPositionId(key);
+        if (positionId == null) {
+            return null;
+        }
+        return positionRedisRepository.findById(positionId).orElse(null);
+    }
+
+    /** Brings the local position in line with the broker's after an expected change. */
+    private boolean syncLocal(Position brokerPos, Position localPos) {
+        if (brokerPos != null) {
+            if (localPos == null
+                    || localPos.getQuantity() != brokerPos.getQuantity()
+                    || !Objects.equals(localPos.getAveragePrice(), brokerPos.getAveragePrice())) {
+                positionRedisRepository.save(brokerPos);
+                return true;
+            }
+            return false;
+        }
+        if (localPos != null) {
+            positionRedisRepository.delete(localPos.getId());
+            return true;
+        }
+        return false;
+    }
+
+    /** Classifies the difference between one instrument's broker and local positions. */
+    private void compare(Long token, Position brokerPos, Position localPos, List<PositionMismatch> mismatches) {
+        if (brokerPos == null) {
+            if (localPos != null) {
+                // MISSING_BROKER: local has a position the broker doesn't (stale cache)
+                mismatches.add(PositionMismatch.builder()
+                        .instrumentToken(token)
+                        .tradingSymbol(localPos.getTradingSymbol())
+                        .type(MismatchType.MISSING_BROKER)
+                        .resolution(ResolutionStrategy.AUTO_SYNC)
+                        .localQuantity(localPos.getQuantity())
+                        .localAveragePrice(localPos.getAveragePrice())
+                        .brokerQuantity(0)
+                        .build());
+            }
+        } else if (localPos == null) {
+            // MISSING_LOCAL: broker has a position we don't know about
+            mismatches.add(PositionMismatch.builder()
+                    .instrumentToken(token)
+                    .tradingSymbol(brokerPos.getTradingSymbol())
+                    .type(MismatchType.MISSING_LOCAL)
+                    .resolution(ResolutionStrategy.AUTO_SYNC)
+                    .brokerQuantity(brokerPos.getQuantity())
+                    .brokerAveragePrice(brokerPos.getAveragePrice())
+                    .localQuantity(0)
+                    .build());
+        } else if (brokerPos.getQuantity() != localPos.getQuantity()) {
+            // QUANTITY_MISMATCH: auto-sync to broker state
+            // #TODO: Use PositionAllocationService to detect strategy-linked positions
+            //  and apply PAUSE_STRATEGY resolution for those.
+            mismatches.add(PositionMismatch.builder()
+                    .instrumentToken(token)
+                    .tradingSymbol(brokerPos.getTradingSymbol())
+                    .type(MismatchType.QUANTITY_MISMATCH)
+                    .resolution(ResolutionStrategy.AUTO_SYNC)
+                    .brokerQuantity(brokerPos.getQuantity())
+                    .brokerAveragePrice(brokerPos.getAveragePrice())
+                    .localQuantity(localPos.getQuantity())
+                    .localAveragePrice(localPos.getAveragePrice())
+                    .build());
+        } else {
+            // Quantities match — check for price drift
+            checkPriceDrift(brokerPos, localPos, mismatches);
+        }
     }
 
     private void checkPriceDrift(Position brokerPos, Position localPos, List<PositionMismatch> mismatches) {
@@ -271,6 +454,7 @@ public class PositionReconciliationService {
     private void applyResolutions(
             List<PositionMismatch> mismatches,
             Map<Long, Position> brokerMap,
+            Map<Long, Position> localMap,
             ReconciliationResult reconciliationResult) {
         int autoSynced = 0;
         int alertsRaised = 0;
@@ -285,7 +469,11 @@ public class PositionReconciliationService {
                         mismatch.setResolved(true);
                         mismatch.setResolutionDetail("Synced from broker");
                     } else if (mismatch.getType() == MismatchType.MISSING_BROKER) {
-                        positionRedisRepository.delete(String.valueOf(mismatch.getInstrumentToken()));
+                        Position localPos = localMap.get(mismatch.getInstrumentToken());
+                        positionRedisRepository.delete(
+                                localPos != null && localPos.getId() != null
+                                        ? localPos.getId()
+                                        : String.valueOf(mismatch.getInstrumentToken()));
                         mismatch.setResolved(true);
                         mismatch.setResolutionDetail("Removed stale local position");
                     }
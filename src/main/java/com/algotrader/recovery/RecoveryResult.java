@@ -3,6 +3,8 @@ package com.algotrader.recovery;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Builder;
 import lombok.Data;
 
@@ -44,4 +46,8 @@ public class RecoveryResult {
 
     // Step 6: Strategy resumption
     private int strategiesResumed;
+
+    /** Wall-clock duration of each recovery phase in ms; phases may overlap. */
+    @Builder.Default
+    private Map<String, Long> phaseDurationsMs = new ConcurrentHashMap<>();
 }
@@ -29,8 +29,17 @@ import com.algotrader.strategy.base.BaseStrategyConfig;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
@@ -50,6 +59,11 @@ import org.springframework.stereotype.Service;
  *   <li>Resume strategies that were ACTIVE before shutdown</li>
  * </ol>
  *
+ * <p>Data is bulk-loaded with set-based queries (one journal query and batch save, one
+ * strategy query, one leg query, one Redis multi-get for positions) and independent phases
+ * run concurrently. Per-phase wall-clock durations are recorded in
+ * {@link RecoveryResult#getPhaseDurationsMs()} and the slowest phase is reported.
+ *
  * <p>On completion, publishes a {@link SystemEvent} with type APPLICATION_READY
  * so downstream components know the system is fully operational. Each step is
  * logged as a DecisionLog entry for audit trail.
@@ -106,6 +120,11 @@ public class StartupRecoveryService {
      * Runs the daily startup recovery sequence. Called by StartupAuthRunner after
      * auth + instrument loading completes, ensuring the Kite session is available
      * for position reconciliation.
+     *
+     * <p>Independent phases overlap: the journal scan and the bulk strategy/leg load run
+     * on virtual threads while positions are reconciled with the broker, and strategies are
+     * then rehydrated in parallel. Recovery runs on its own threads and after the ticker is
+     * connected, so it never delays market data.
      */
     public void runRecovery() {
         log.info("Starting daily recovery sequence...");
@@ -113,29 +132,50 @@ public class StartupRecoveryService {
         RecoveryResult recoveryResult =
                 RecoveryResult.builder().startedAt(System.currentTimeMillis()).build();
 
-        try {
+        try (ExecutorService recoveryExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
             // Step 3: Restore Redis state (daily P&L, kill switch)
-            restoreState(recoveryResult);
+            timed(recoveryResult, "restoreState", () -> restoreState(recoveryResult));
+
+            // Step 4: Scan ExecutionJournal for incomplete multi-leg operations (H2, independent)
+            CompletableFuture<Void> journals = CompletableFuture.runAsync(
+                    () -> timed(recoveryResult, "journals", () -> recoverIncompleteExecutions(recoveryResult)),
+                    recoveryExecutor);
 
-            // Step 4: Scan ExecutionJournal for incomplete multi-leg operations
-            recoverIncompleteExecutions(recoveryResult);
+            // Bulk-load strategies and legs while the broker call below is in flight
+            CompletableFuture<RestorableStrategies> restorable = recoveryResult.isKillSwitchWasActive()
+                    ? CompletableFuture.completedFuture(RestorableStrategies.EMPTY)
+                    : CompletableFuture.supplyAsync(
+                            () -> timed(recoveryResult, "loadStrategies", this::loadRestorableStrategies),
+                            recoveryExecutor);
 
             // Step 5: Reconcile positions with broker
-            reconcilePositions(recoveryResult);
+            Map<String, Position> positionsById =
+                    timed(recoveryResult, "reconcilePositions", () -> reconcilePositions(recoveryResult));
+
+            journals.join();
 
             // Step 6: Resume strategies that were ACTIVE before shutdown
-            resumeStrategies(recoveryResult);
+            timed(
+                    recoveryResult,
+                    "resumeStrategies",
+                    () -> resumeStrategies(recoveryResult, restorable.join(), positionsById, recoveryExecutor));
 
             recoveryResult.setSuccess(true);
             log.info("Recovery sequence completed successfully");
 
         } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
             recoveryResult.setSuccess(false);
-            recoveryResult.setError(e.getMessage());
-            log.error("Recovery sequence failed", e);
+            recoveryResult.setError(cause.getMessage());
+            log.error("Recovery sequence failed", cause);
         }
 
         recoveryResult.setDurationMs(System.currentTimeMillis() - recoveryResult.getStartedAt());
+        String slowestPhase = recoveryResult.getPhaseDurationsMs().entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("none");
+        log.info("Recovery phase durations (ms): {}, slowest={}", recoveryResult.getPhaseDurationsMs(), slowestPhase);
 
         // Log recovery summary
         decisionLogger.log(
@@ -144,13 +184,14 @@ public class StartupRecoveryService {
                 DecisionType.STARTUP_RECOVERY,
                 recoveryResult.isSuccess() ? DecisionOutcome.INFO : DecisionOutcome.FAILED,
                 String.format(
-                        "Startup recovery %s: duration=%dms, pnlRestored=%s, incompleteJournals=%d, positionsSynced=%d, strategiesResumed=%d",
+                        "Startup recovery %s: duration=%dms, pnlRestored=%s, incompleteJournals=%d, positionsSynced=%d, strategiesResumed=%d, slowestPhase=%s",
                         recoveryResult.isSuccess() ? "completed" : "failed",
                         recoveryResult.getDurationMs(),
                         recoveryResult.getRestoredDailyPnL(),
                         recoveryResult.getIncompleteExecutionsFound(),
                         recoveryResult.getPositionsSynced(),
-                        recoveryResult.getStrategiesResumed()),
+                        recoveryResult.getStrategiesResumed(),
+                        slowestPhase),
                 Map.of(
                         "success",
                         recoveryResult.isSuccess(),
@@ -161,7 +202,9 @@ public class StartupRecoveryService {
                         "positionsSynced",
                         recoveryResult.getPositionsSynced(),
                         "strategiesResumed",
-                        recoveryResult.getStrategiesResumed()),
+                        recoveryResult.getStrategiesResumed(),
+                        "phaseDurationsMs",
+                        Map.copyOf(recoveryResult.getPhaseDurationsMs())),
                 DecisionSeverity.INFO);
 
         // Publish system ready event
@@ -205,11 +248,12 @@ public class StartupRecoveryService {
 
         log.warn("Found {} incomplete execution journal entries", incompleteJournals.size());
 
-        // Group by executionGroupId and mark REQUIRES_RECOVERY for manual review
+        // Mark IN_PROGRESS entries REQUIRES_RECOVERY for manual review, saved in one batch
+        List<ExecutionJournalEntity> markedForRecovery = new ArrayList<>();
         for (ExecutionJournalEntity journal : incompleteJournals) {
             if (journal.getStatus() == JournalStatus.IN_PROGRESS) {
                 journal.setStatus(JournalStatus.REQUIRES_RECOVERY);
-                executionJournalJpaRepository.save(journal);
+                markedForRecovery.add(journal);
                 log.warn(
                         "Marked execution journal {} (group={}, strategy={}) as REQUIRES_RECOVERY",
                         journal.getId(),
@@ -218,18 +262,57 @@ public class StartupRecoveryService {
             }
             recoveryResult.getRecoveredExecutionGroups().add(journal.getExecutionGroupId());
         }
+        if (!markedForRecovery.isEmpty()) {
+            executionJournalJpaRepository.saveAll(markedForRecovery);
+        }
     }
 
-    void reconcilePositions(RecoveryResult recoveryResult) {
+    /**
+     * Reconciles positions with the broker, then reads all Redis positions in one batch.
+     *
+     * @return positions by id, used to attach positions to restored strategies without
+     *     per-leg Redis lookups
+     */
+    Map<String, Position> reconcilePositions(RecoveryResult recoveryResult) {
         try {
             positionReconciliationService.reconcile("STARTUP");
-            List<Position> syncedPositions = positionRedisRepository.findAll();
-            recoveryResult.setPositionsSynced(syncedPositions.size());
-            log.info("Position reconciliation complete: {} positions in Redis", syncedPositions.size());
         } catch (Exception e) {
             recoveryResult.setPositionReconciliationFailed(true);
             log.error("Position reconciliation failed during startup", e);
         }
+
+        List<Position> positions;
+        try {
+            positions = positionRedisRepository.findAll();
+        } catch (Exception e) {
+            log.error("Failed to load positions from Redis during startup", e);
+            return Map.of();
+        }
+        if (!recoveryResult.isPositionReconciliationFailed()) {
+            recoveryResult.setPositionsSynced(positions.size());
+            log.info("Position reconciliation complete: {} positions in Redis", positions.size());
+        }
+
+        Map<String, Position> positionsById = new HashMap<>();
+        for (Position position : positions) {
+            if (position.getId() != null) {
+                positionsById.putIfAbsent(position.getId(), position);
+            }
+        }
+        return positionsById;
+    }
+
+    /** Loads restorable strategies and all of their legs in two queries. */
+    RestorableStrategies loadRestorableStrategies() {
+        List<StrategyEntity> entities = strategyJpaRepository.findRestorableStrategies();
+        if (entities.isEmpty()) {
+            return RestorableStrategies.EMPTY;
+        }
+        List<String> strategyIds = entities.stream().map(StrategyEntity::getId).toList();
+        Map<String, List<StrategyLegEntity>> legsByStrategy =
+                strategyLegJpaRepository.findByStrategyIdIn(strategyIds).stream()
+                        .collect(Collectors.groupingBy(StrategyLegEntity::getStrategyId));
+        return new RestorableStrategies(entities, legsByStrategy);
     }
 
     /**
@@ -237,10 +320,17 @@ public class StartupRecoveryService {
      * All restored strategies are set to PAUSED for safety — the trader must
      * manually resume them after verifying market conditions.
      *
+     * <p>Strategies are independent, so each is rehydrated on its own virtual thread; their
+     * PAUSED status is then written in a single update.
+     *
      * <p>After all strategies are restored, populates the position→strategy
      * reverse index via PositionAdoptionService (orphaned leg cleanup + index build).
      */
-    void resumeStrategies(RecoveryResult recoveryResult) {
+    void resumeStrategies(
+            RecoveryResult recoveryResult,
+            RestorableStrategies restorable,
+            Map<String, Position> positionsById,
+            ExecutorService recoveryExecutor) {
         if (recoveryResult.isKillSwitchWasActive()) {
             log.warn("Kill switch was active before shutdown, not resuming strategies");
             // Still populate the position index even if not resuming strategies
@@ -248,7 +338,7 @@ public class StartupRecoveryService {
             return;
         }
 
-        List<StrategyEntity> restorableEntities = strategyJpaRepository.findRestorableStrategies();
+        List<StrategyEntity> restorableEntities = restorable.entities();
 
         if (restorableEntities.isEmpty()) {
             log.info("No strategies to restore from H2");
@@ -258,74 +348,95 @@ public class StartupRecoveryService {
         }
 
         log.info("Found {} strategies to restore from H2", restorableEntities.size());
-        int resumedCount = 0;
-
-        for (StrategyEntity entity : restorableEntities) {
-            try {
-                // Deserialize polymorphic config from JSON (uses @JsonTypeInfo on BaseStrategyConfig)
-                // H2 JSON column wraps the config string in extra quote layers — unwrap until
-                // we get the actual JSON object (starts with '{')
-                String configJson = unwrapJsonString(entity.getConfig());
-                BaseStrategyConfig config = JsonHelper.fromJson(configJson, BaseStrategyConfig.class);
-
-                // Recreate strategy instance with original ID
-                BaseStrategy strategy =
-                        strategyFactory.restore(entity.getId(), entity.getType(), entity.getName(), config);
-
-                // Register in StrategyEngine (injects services, adds to activeStrategies map)
-                strategyEngine.registerRestoredStrategy(strategy);
-
-                // Load positions from Redis via strategy legs
-                restoreStrategyPositions(strategy, entity.getId());
-
-                // All restored strategies come back as PAUSED for safety
-                strategy.pause();
-                strategyJpaRepository.updateStatus(entity.getId(), StrategyStatus.PAUSED);
-
-                resumedCount++;
-                log.info(
-                        "Restored strategy {}: name='{}', type={}, positions={}",
-                        entity.getId(),
-                        entity.getName(),
-                        entity.getType(),
-                        strategy.getPositions().size());
 
-            } catch (Exception e) {
-                // Don't fail entire recovery for one bad strategy
-                log.error("Failed to restore strategy {}: {}", entity.getId(), e.getMessage(), e);
-            }
+        List<CompletableFuture<String>> restorations = restorableEntities.stream()
+                .map(entity -> CompletableFuture.supplyAsync(
+                        () -> restoreStrategy(
+                                entity,
+                                restorable.legsByStrategy().getOrDefault(entity.getId(), List.of()),
+                                positionsById),
+                        recoveryExecutor))
+                .toList();
+        List<String> restoredIds = restorations.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+
+        // All restored strategies come back as PAUSED for safety
+        if (!restoredIds.isEmpty()) {
+            strategyJpaRepository.updateStatusIn(restoredIds, StrategyStatus.PAUSED);
         }
 
-        recoveryResult.setStrategiesResumed(resumedCount);
+        recoveryResult.setStrategiesResumed(restoredIds.size());
         log.info(
                 "Strategy restoration complete: {} of {} restored (all in PAUSED state)",
-                resumedCount,
+                restoredIds.size(),
                 restorableEntities.size());
 
         // Now that all strategies are in-memory, build the position→strategy reverse index
         // and clean up any orphaned legs from strategies that failed to restore
-        positionAdoptionService.populatePositionIndexOnStartup();
+        timed(recoveryResult, "positionIndex", positionAdoptionService::populatePositionIndexOnStartup);
     }
 
     /**
-     * Loads positions from Redis for a restored strategy by reading its legs from H2.
-     * Recalculates entry premium from current position average prices.
+     * Rehydrates one strategy: config, instance, engine registration and positions.
+     *
+     * @return the strategy id, or null if it could not be restored
      */
-    private void restoreStrategyPositions(BaseStrategy strategy, String strategyId) {
-        List<StrategyLegEntity> legs = strategyLegJpaRepository.findByStrategyId(strategyId);
+    private String restoreStrategy(
+            StrategyEntity entity, List<StrategyLegEntity> legs, Map<String, Position> positionsById) {
+        try {
+            // Deserialize polymorphic config from JSON (uses @JsonTypeInfo on BaseStrategyConfig)
+            // H2 JSON column wraps the config string in extra quote layers — unwrap until
+            // we get the actual JSON object (starts with '{')
+            String configJson = unwrapJsonString(entity.getConfig());
+            BaseStrategyConfig config = JsonHelper.fromJson(configJson, BaseStrategyConfig.class);
+
+            // Recreate strategy instance with original ID
+            BaseStrategy strategy = strategyFactory.restore(entity.getId(), entity.getType(), entity.getName(), config);
+
+            // Register in StrategyEngine (injects services, adds to activeStrategies map)
+            strategyEngine.registerRestoredStrategy(strategy);
+
+            // Attach positions from the pre-loaded Redis snapshot via strategy legs
+            restoreStrategyPositions(strategy, legs, positionsById);
+
+            strategy.pause();
 
+            log.info(
+                    "Restored strategy {}: name='{}', type={}, positions={}",
+                    entity.getId(),
+                    entity.getName(),
+                    entity.getType(),
+                    strategy.getPositions().size());
+            return entity.getId();
+
+        } catch (Exception e) {
+            // Don't fail entire recovery for one bad strategy
+            log.error("Failed to restore strategy {}: {}", entity.getId(), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Attaches positions to a restored strategy by its legs' position ids.
+     * Recalculates entry premium from current position average prices.
+     */
+    private void restoreStrategyPositions(
+            BaseStrategy strategy, List<StrategyLegEntity> legs, Map<String, Position> positionsById) {
         for (StrategyLegEntity leg : legs) {
             if (leg.getPositionId() == null) {
                 continue;
             }
-            positionRedisRepository
-                    .findById(leg.getPositionId())
-                    .ifPresentOrElse(
-                            strategy::addPosition,
-                            () -> log.warn(
-                                    "Leg {} references position {} but position not found in Redis",
-                                    leg.getId(),
-                                    leg.getPositionId()));
+            Position position = positionsById.get(leg.getPositionId());
+            if (position != null) {
+                strategy.addPosition(position);
+            } else {
+                log.warn(
+                        "Leg {} references position {} but position not found in Redis",
+                        leg.getId(),
+                        leg.getPositionId());
+            }
         }
 
         // Recalculate entry premium from restored positions
@@ -343,6 +454,27 @@ public class StartupRecoveryService {
         }
     }
 
+    private static void timed(RecoveryResult recoveryResult, String phase, Runnable action) {
+        timed(recoveryResult, phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static <T> T timed(RecoveryResult recoveryResult, String phase, Supplier<T> action) {
+        long start = System.currentTimeMillis();
+        try {
+            return action.get();
+        } finally {
+            recoveryResult.getPhaseDurationsMs().put(phase, System.currentTimeMillis() - start);
+        }
+    }
+
+    /** Strategies eligible for restore with their legs grouped by strategy id. */
+    record RestorableStrategies(List<StrategyEntity> entities, Map<String, List<StrategyLegEntity>> legsByStrategy) {
+        static final RestorableStrategies EMPTY = new RestorableStrategies(List.of(), Map.of());
+    }
+
     /**
      * Unwraps a JSON string that may have been double/triple-encoded by H2's JSON column type.
      * H2 stores String values in JSON columns as quoted JSON strings, so a config like
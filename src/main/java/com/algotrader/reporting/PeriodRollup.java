@@ -0,0 +1,140 @@
+package com.algotrader.reporting;
+
+import com.algotrader.domain.enums.GroupBy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Daily, weekly and monthly buckets of one aggregate, kept in step as days are updated.
+ *
+ * <p>Weeks are keyed by their Monday (ISO week) and months by their first day. A range query
+ * uses a week or month bucket only when the period lies entirely inside the range and falls
+ * back to the day buckets at the edges, so any range costs O(periods + edge days) regardless
+ * of how much history exists.
+ *
+ * <p>Not thread-safe; {@link ReportingRollupService} serializes access.
+ *
+ * @param <B> bucket type
+ */
+final class PeriodRollup<B extends PeriodRollup.Bucket<B>> {
+
+    /** A mergeable aggregate. */
+    interface Bucket<B> {
+
+        /** Adds another bucket's values into this one. */
+        void merge(B other);
+    }
+
+    private final Supplier<B> emptyBucket;
+    private final NavigableMap<LocalDate, B> daily = new TreeMap<>();
+    private final NavigableMap<LocalDate, B> weekly = new TreeMap<>();
+    private final NavigableMap<LocalDate, B> monthly = new TreeMap<>();
+
+    PeriodRollup(Supplier<B> emptyBucket) {
+        this.emptyBucket = emptyBucket;
+    }
+
+    static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    boolean hasDay(LocalDate date) {
+        return daily.containsKey(date);
+    }
+
+    /** Merges an additive delta into the day and its week and month. */
+    void add(LocalDate date, B delta) {
+        daily.computeIfAbsent(date, d -> emptyBucket.get()).merge(delta);
+        weekly.computeIfAbsent(weekStart(date), d -> emptyBucket.get()).merge(delta);
+        monthly.computeIfAbsent(monthStart(date), d -> emptyBucket.get()).merge(delta);
+    }
+
+    /**
+     * Replaces a day's bucket and rebuilds its week and month from their days. Used for
+     * aggregates that cannot be subtracted (e.g. a max); costs at most 31 merges.
+     */
+    void replace(LocalDate date, B value) {
+        daily.put(date, value);
+        LocalDate week = weekStart(date);
+        weekly.put(week, sumDays(week, week.plusDays(6)));
+        LocalDate month = monthStart(date);
+        monthly.put(month, sumDays(month, month.with(TemporalAdjusters.lastDayOfMonth())));
+    }
+
+    /**
+     * Aggregate over [from, to] per period of the given granularity, clipped to the range and
+     * keyed by period start. Fully covered periods use their pre-aggregated bucket; partial
+     * ones at the edges sum their days. Periods without any day in range are omitted.
+     */
+    NavigableMap<LocalDate, B> periods(GroupBy groupBy, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, B> result = new TreeMap<>();
+        if (groupBy == GroupBy.DAILY) {
+            for (Map.Entry<LocalDate, B> day :
+                    daily.subMap(from, true, to, true).entrySet()) {
+                result.put(day.getKey(), copyOf(day.getValue()));
+            }
+            return result;
+        }
+
+        boolean byWeek = groupBy == GroupBy.WEEKLY;
+        NavigableMap<LocalDate, B> level = byWeek ? weekly : monthly;
+        LocalDate firstPeriod = byWeek ? weekStart(from) : monthStart(from);
+        for (Map.Entry<LocalDate, B> period :
+                level.subMap(firstPeriod, true, to, true).entrySet()) {
+            LocalDate periodStart = period.getKey();
+            LocalDate periodEnd =
+                    byWeek ? periodStart.plusDays(6) : periodStart.with(TemporalAdjusters.lastDayOfMonth());
+            LocalDate start = periodStart.isBefore(from) ? from : periodStart;
+            LocalDate end = periodEnd.isAfter(to) ? to : periodEnd;
+
+            if (start.equals(periodStart) && end.equals(periodEnd)) {
+                result.put(periodStart, copyOf(period.getValue()));
+            } else if (!daily.subMap(start, true, end, true).isEmpty()) {
+                result.put(periodStart, sumDays(start, end));
+            }
+        }
+        return result;
+    }
+
+    /** Total over [from, to]: whole months from the monthly buckets, edge days from the daily ones. */
+    B total(LocalDate from, LocalDate to) {
+        B total = emptyBucket.get();
+        LocalDate cursor = from;
+        while (!cursor.isAfter(to)) {
+            LocalDate monthEnd = cursor.with(TemporalAdjusters.lastDayOfMonth());
+            if (cursor.getDayOfMonth() == 1 && !monthEnd.isAfter(to)) {
+                B month = monthly.get(cursor);
+                if (month != null) {
+                    total.merge(month);
+                }
+            } else {
+                total.merge(sumDays(cursor, monthEnd.isAfter(to) ? to : monthEnd));
+            }
+            cursor = monthEnd.plusDays(1);
+        }
+        return total;
+    }
+
+    private B sumDays(LocalDate from, LocalDate to) {
+        B sum = emptyBucket.get();
+        for (B day : daily.subMap(from, true, to, true).values()) {
+            sum.merge(day);
+        }
+        return sum;
+    }
+
+    private B copyOf(B bucket) {
+        B copy = emptyBucket.get();
+        copy.merge(bucket);
+        return copy;
+    }
+}
@@ -0,0 +1,276 @@
+package com.algotrader.reporting;
+
+import com.algotrader.domain.enums.GroupBy;
+import com.algotrader.entity.DailyPnlEntity;
+import com.algotrader.entity.TradeEntity;
+import com.algotrader.repository.jpa.DailyPnlJpaRepository;
+import com.algotrader.repository.jpa.TradeJpaRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pre-aggregated daily, weekly and monthly rollups of daily P&amp;L and trade charges.
+ *
+ * <p>Reports used to load every DailyPnlEntity or TradeEntity in the requested range and group
+ * them per request, so latency grew with history. The rollups are instead seeded once from H2
+ * on the first report and then maintained incrementally by the writers:
+ * <ul>
+ *   <li>{@link #recordDailyPnl(DailyPnlEntity)} from DailyPnLAggregator at end of day
+ *       (replaces the day, since max drawdown is not additive)</li>
+ *   <li>{@link #recordTrades(Collection)} from DataSyncService after trades are persisted
+ *       (adds each trade's charges to its day, week and month)</li>
+ * </ul>
+ * Any range is then answered from {@link PeriodRollup} in O(periods + edge days).
+ *
+ * <p>Writes before the first report are ignored because the seed reads them from H2. The seed
+ * reads H2 without holding the service's monitor, so writers are not blocked behind it; writes
+ * that arrive while it runs are buffered and applied once the seeded rollups are swapped in.
+ * Every counted trade id is remembered (a few dozen bytes per trade, the same order as the
+ * history the seed reads), so a trade that is persisted again, whether by a retried flush, a
+ * spill replay or reconciliation, never adds its charges twice. Rollup access is synchronized;
+ * reports and writes are both infrequent.
+ */
+@Service
+public class ReportingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportingRollupService.class);
+
+    private final DailyPnlJpaRepository dailyPnlJpaRepository;
+    private final TradeJpaRepository tradeJpaRepository;
+
+    /** Serializes seeding; held while reading H2, unlike the service monitor. */
+    private final Object seedLock = new Object();
+
+    private PeriodRollup<PnlBucket> pnl = new PeriodRollup<>(PnlBucket::new);
+    private PeriodRollup<ChargeBucket> charges = new PeriodRollup<>(ChargeBucket::new);
+
+    /** Ids of trades already counted, to keep recordTrades idempotent. */
+    private Set<String> countedTradeIds = new HashSet<>();
+
+    /** Writes received while the seed is reading H2, applied when it completes. */
+    private final List<DailyPnlEntity> dailyPnlDuringSeed = new ArrayList<>();
+
+    private final List<TradeEntity> tradesDuringSeed = new ArrayList<>();
+
+    private volatile boolean seeded;
+    private boolean seeding;
+
+    public ReportingRollupService(DailyPnlJpaRepository dailyPnlJpaRepository, TradeJpaRepository tradeJpaRepository) {
+        this.dailyPnlJpaRepository = dailyPnlJpaRepository;
+        this.tradeJpaRepository = tradeJpaRepository;
+    }
+
+    /** Replaces a day's P&amp;L in the rollups after DailyPnLAggregator persists it. */
+    public synchronized void recordDailyPnl(DailyPnlEntity record) {
+        if (record.getDate() == null) {
+            return;
+        }
+        if (seeded) {
+            pnl.replace(record.getDate(), PnlBucket.of(record));
+        } else if (seeding) {
+            dailyPnlDuringSeed.add(record);
+        }
+    }
+
+    /** Adds persisted trades' charges to the rollups; trades already counted are skipped. */
+    public synchronized void recordTrades(Collection<TradeEntity> trades) {
+        if (seeded) {
+            for (TradeEntity trade : trades) {
+                addTrade(charges, countedTradeIds, trade);
+            }
+        } else if (seeding) {
+            tradesDuringSeed.addAll(trades);
+        }
+    }
+
+    /** P&amp;L per period over [from, to], keyed by period start and clipped to the range. */
+    NavigableMap<LocalDate, PnlBucket> pnlPeriods(LocalDate from, LocalDate to, GroupBy groupBy) {
+        ensureSeeded();
+        synchronized (this) {
+            return pnl.periods(groupBy, from, to);
+        }
+    }
+
+    /** Charge totals over [from, to]. */
+    ChargeBucket chargeTotal(LocalDate from, LocalDate to) {
+        ensureSeeded();
+        synchronized (this) {
+            return charges.total(from, to);
+        }
+    }
+
+    /**
+     * Builds the rollups from H2 on first use. The H2 reads and aggregation run outside the
+     * service monitor; only the swap and the replay of writes buffered meanwhile hold it.
+     */
+    private void ensureSeeded() {
+        if (seeded) {
+            return;
+        }
+        synchronized (seedLock) {
+            if (seeded) {
+                return;
+            }
+            synchronized (this) {
+                seeding = true;
+            }
+            long start = System.currentTimeMillis();
+
+            PeriodRollup<PnlBucket> seededPnl = new PeriodRollup<>(PnlBucket::new);
+            PeriodRollup<ChargeBucket> seededCharges = new PeriodRollup<>(ChargeBucket::new);
+            Set<String> seededTradeIds = new HashSet<>();
+            List<DailyPnlEntity> dailyRecords;
+            List<TradeEntity> trades;
+            try {
+                dailyRecords = dailyPnlJpaRepository.findAll();
+                for (DailyPnlEntity record : dailyRecords) {
+                    if (record.getDate() != null) {
+                        seededPnl.replace(record.getDate(), PnlBucket.of(record));
+                    }
+                }
+                trades = tradeJpaRepository.findAll();
+                for (TradeEntity trade : trades) {
+                    addTrade(seededCharges, seededTradeIds, trade);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    seeding = false;
+                    dailyPnlDuringSeed.clear();
+                    tradesDuringSeed.clear();
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                pnl = seededPnl;
+                charges = seededCharges;
+                countedTradeIds = seededTradeIds;
+                // Writes made while H2 was read: P&L replaces its day, trades dedupe by id
+                for (DailyPnlEntity record : dailyPnlDuringSeed) {
+                    pnl.replace(record.getDate(), PnlBucket.of(record));
+                }
+                for (TradeEntity trade : tradesDuringSeed) {
+                    addTrade(charges, countedTradeIds, trade);
+                }
+                dailyPnlDuringSeed.clear();
+                tradesDuringSeed.clear();
+                seeding = false;
+                seeded = true;
+            }
+            log.info(
+                    "Reporting rollups seeded: {} daily P&L records, {} trades in {}ms",
+                    dailyRecords.size(),
+                    trades.size(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    private static void addTrade(PeriodRollup<ChargeBucket> charges, Set<String> countedTradeIds, TradeEntity trade) {
+        if (trade.getExecutedAt() == null) {
+            return;
+        }
+        if (trade.getId() != null && !countedTradeIds.add(trade.getId())) {
+            return;
+        }
+        LocalDate date = trade.getExecutedAt().toLocalDate();
+
+        ChargeBucket delta = ChargeBucket.of(trade);
+        // The first trade of a day makes it a trading day for the day, week and month
+        delta.tradingDays = charges.hasDay(date) ? 0 : 1;
+        charges.add(date, delta);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /** Daily P&amp;L aggregate: sums, plus the worst single-day drawdown. */
+    static final class PnlBucket implements PeriodRollup.Bucket<PnlBucket> {
+        BigDecimal realizedPnl = BigDecimal.ZERO;
+        BigDecimal unrealizedPnl = BigDecimal.ZERO;
+        int tradeCount;
+        int winningTrades;
+        int losingTrades;
+        BigDecimal maxDrawdown = BigDecimal.ZERO;
+        int tradingDays;
+
+        static PnlBucket of(DailyPnlEntity record) {
+            PnlBucket bucket = new PnlBucket();
+            bucket.realizedPnl = orZero(record.getRealizedPnl());
+            bucket.unrealizedPnl = orZero(record.getUnrealizedPnl());
+            bucket.tradeCount = record.getTotalTrades();
+            bucket.winningTrades = record.getWinningTrades();
+            bucket.losingTrades = record.getLosingTrades();
+            bucket.maxDrawdown = orZero(record.getMaxDrawdown());
+            bucket.tradingDays = 1;
+            return bucket;
+        }
+
+        @Override
+        public void merge(PnlBucket other) {
+            realizedPnl = realizedPnl.add(other.realizedPnl);
+            unrealizedPnl = unrealizedPnl.add(other.unrealizedPnl);
+            tradeCount += other.tradeCount;
+            winningTrades += other.winningTrades;
+            losingTrades += other.losingTrades;
+            if (other.maxDrawdown.compareTo(maxDrawdown) > 0) {
+                maxDrawdown = other.maxDrawdown;
+            }
+            tradingDays += other.tradingDays;
+        }
+    }
+
+    /** Itemized charge sums with trade and trading-day counts. */
+    static final class ChargeBucket implements PeriodRollup.Bucket<ChargeBucket> {
+        BigDecimal brokerage = BigDecimal.ZERO;
+        BigDecimal stt = BigDecimal.ZERO;
+        BigDecimal exchangeCharges = BigDecimal.ZERO;
+        BigDecimal sebiCharges = BigDecimal.ZERO;
+        BigDecimal stampDuty = BigDecimal.ZERO;
+        BigDecimal gst = BigDecimal.ZERO;
+        int tradeCount;
+        int tradingDays;
+
+        static ChargeBucket of(TradeEntity trade) {
+            ChargeBucket bucket = new ChargeBucket();
+            bucket.brokerage = orZero(trade.getBrokerage());
+            bucket.stt = orZero(trade.getStt());
+            bucket.exchangeCharges = orZero(trade.getExchangeCharges());
+            bucket.sebiCharges = orZero(trade.getSebiCharges());
+            bucket.stampDuty = orZero(trade.getStampDuty());
+            bucket.gst = orZero(trade.getGst());
+            bucket.tradeCount = 1;
+            return bucket;
+        }
+
+        @Override
+        public void merge(ChargeBucket other) {
+            brokerage = brokerage.add(other.brokerage);
+            stt = stt.add(other.stt);
+            exchangeCharges = exchangeCharges.add(other.exchangeCharges);
+            sebiCharges = sebiCharges.add(other.sebiCharges);
+            stampDuty = stampDuty.add(other.stampDuty);
+            gst = gst.add(other.gst);
+            tradeCount += other.tradeCount;
+            tradingDays += other.tradingDays;
+        }
+
+        BigDecimal grandTotal() {
+            return brokerage
+                    .add(stt)
+                    .add(exchangeCharges)
+                    .add(sebiCharges)
+                    .add(stampDuty)
+                    .add(gst);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import org.slf4j.Logger;
@@ -42,6 +43,11 @@ public class StrategyPerformanceCalculator {
     /**
      * Calculates performance metrics for the given strategy across all its completed runs.
      *
+     * <p>The runs are first laid out as primitive columns (P&L and charges in paise, holding
+     * minutes, adjustments), then every metric is accumulated in one pass over those arrays.
+     * Sharpe uses Welford's running mean/variance; max drawdown walks the P&L column in entry
+     * time order via a sorted index.
+     *
      * @param strategyId the strategy to calculate performance for
      * @return performance report, or empty report if no completed runs exist
      */
@@ -54,36 +60,58 @@ public class StrategyPerformanceCalculator {
             return StrategyPerformanceReport.empty(strategyId);
         }
 
-        int totalRuns = runs.size();
-        long winningRuns = runs.stream()
-                .filter(r -> r.getNetPnl() != null && r.getNetPnl().compareTo(BigDecimal.ZERO) > 0)
-                .count();
-        int losingRuns = totalRuns - (int) winningRuns;
+        RunColumns columns = RunColumns.of(runs);
+        int totalRuns = columns.size;
+
+        int winningRuns = 0;
+        long totalNetPaise = 0;
+        long grossProfitPaise = 0;
+        long grossLossPaise = 0;
+        long bestPaise = Long.MIN_VALUE;
+        long worstPaise = Long.MAX_VALUE;
+        boolean anyPnl = false;
+        long totalChargesPaise = 0;
+        long totalHoldingMinutes = 0;
+        long totalAdjustments = 0;
+        // Welford running mean/variance of returns (missing P&L counts as 0, as before)
+        double mean = 0;
+        double m2 = 0;
+
+        for (int i = 0; i < totalRuns; i++) {
+            long pnl = columns.netPnlPaise[i];
+            if (columns.hasPnl[i]) {
+                anyPnl = true;
+                totalNetPaise += pnl;
+                if (pnl > 0) {
+                    winningRuns++;
+                    grossProfitPaise += pnl;
+                } else if (pnl < 0) {
+                    grossLossPaise -= pnl;
+                }
+                bestPaise = Math.max(bestPaise, pnl);
+                worstPaise = Math.min(worstPaise, pnl);
+            }
+            totalChargesPaise += columns.chargesPaise[i];
+            totalHoldingMinutes += columns.holdingMinutes[i];
+            totalAdjustments += columns.adjustments[i];
+
+            double value = pnl / 100.0;
+            double delta = value - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (value - mean);
+        }
+
+        int losingRuns = totalRuns - winningRuns;
 
         // Win rate as percentage
         BigDecimal winRate = BigDecimal.valueOf(winningRuns)
                 .divide(BigDecimal.valueOf(totalRuns), 4, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100));
 
-        // Total net P&L
-        BigDecimal totalNetPnL = runs.stream()
-                .map(StrategyRun::getNetPnl)
-                .filter(pnl -> pnl != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        BigDecimal totalNetPnL = fromPaise(totalNetPaise);
         BigDecimal avgPnLPerRun = totalNetPnL.divide(BigDecimal.valueOf(totalRuns), 2, RoundingMode.HALF_UP);
-
-        // Gross profit (sum of positive P&Ls) and gross loss (sum of absolute negative P&Ls)
-        BigDecimal grossProfit = runs.stream()
-                .map(StrategyRun::getNetPnl)
-                .filter(pnl -> pnl != null && pnl.compareTo(BigDecimal.ZERO) > 0)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal grossLoss = runs.stream()
-                .map(StrategyRun::getNetPnl)
-                .filter(pnl -> pnl != null && pnl.compareTo(BigDecimal.ZERO) < 0)
-                .map(BigDecimal::abs)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal grossProfit = fromPaise(grossProfitPaise);
+        BigDecimal grossLoss = fromPaise(grossLossPaise);
 
         // Profit factor = gross profit / gross loss
         BigDecimal profitFactor;
@@ -93,39 +121,8 @@ public class StrategyPerformanceCalculator {
             profitFactor = grossProfit.compareTo(BigDecimal.ZERO) > 0 ? BigDecimal.valueOf(999.99) : BigDecimal.ZERO;
         }
 
-        BigDecimal maxDrawdown = calculateMaxDrawdown(runs);
-        BigDecimal sharpeRatio = calculateSharpeRatio(runs);
-
-        // Average holding time
-        Duration avgHoldingTime = Duration.ofMinutes((long) runs.stream()
-                .mapToLong(r -> getHoldingDuration(r).toMinutes())
-                .average()
-                .orElse(0));
-
-        // Best and worst single runs
-        BigDecimal maxFavorableExcursion = runs.stream()
-                .map(StrategyRun::getNetPnl)
-                .filter(pnl -> pnl != null)
-                .max(Comparator.naturalOrder())
-                .orElse(BigDecimal.ZERO);
-
-        BigDecimal maxAdverseExcursion = runs.stream()
-                .map(StrategyRun::getNetPnl)
-                .filter(pnl -> pnl != null)
-                .min(Comparator.naturalOrder())
-                .orElse(BigDecimal.ZERO);
-
-        // Total charges
-        BigDecimal totalCharges = runs.stream()
-                .map(StrategyRun::getTotalCharges)
-                .filter(c -> c != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Average adjustments per run
-        double avgAdjustments = runs.stream()
-                .mapToInt(StrategyRun::getAdjustmentCount)
-                .average()
-                .orElse(0);
+        BigDecimal maxDrawdown = fromPaise(columns.maxDrawdownPaise());
+        BigDecimal sharpeRatio = sharpe(totalRuns, mean, m2);
 
         log.debug(
                 "Performance calculated for strategy {}: {} runs, {}% win rate, PF={}, maxDD={}",
@@ -134,7 +131,7 @@ public class StrategyPerformanceCalculator {
         return StrategyPerformanceReport.builder()
                 .strategyId(strategyId)
                 .totalRuns(totalRuns)
-                .winningRuns((int) winningRuns)
+                .winningRuns(winningRuns)
                 .losingRuns(losingRuns)
                 .winRate(winRate)
                 .totalNetPnL(totalNetPnL)
@@ -144,11 +141,13 @@ public class StrategyPerformanceCalculator {
                 .profitFactor(profitFactor)
                 .maxDrawdown(maxDrawdown)
                 .sharpeRatio(sharpeRatio)
-                .avgHoldingTimeMinutes(avgHoldingTime.toMinutes())
-                .maxFavorableExcursion(maxFavorableExcursion)
-                .maxAdverseExcursion(maxAdverseExcursion)
-                .totalCharges(totalCharges)
-                .avgAdjustmentsPerRun(BigDecimal.valueOf(avgAdjustments).setScale(1, RoundingMode.HALF_UP))
+                .avgHoldingTimeMinutes(totalHoldingMinutes / totalRuns)
+                // Best and worst single runs
+                .maxFavorableExcursion(anyPnl ? fromPaise(bestPaise) : BigDecimal.ZERO)
+                .maxAdverseExcursion(anyPnl ? fromPaise(worstPaise) : BigDecimal.ZERO)
+                .totalCharges(fromPaise(totalChargesPaise))
+                .avgAdjustmentsPerRun(BigDecimal.valueOf((double) totalAdjustments / totalRuns)
+                        .setScale(1, RoundingMode.HALF_UP))
                 .build();
     }
 
@@ -157,28 +156,7 @@ public class StrategyPerformanceCalculator {
      * Drawdown = peak cumulative P&L - current cumulative P&L.
      */
     BigDecimal calculateMaxDrawdown(List<StrategyRun> runs) {
-        BigDecimal peak = BigDecimal.ZERO;
-        BigDecimal maxDrawdown = BigDecimal.ZERO;
-        BigDecimal cumulativePnL = BigDecimal.ZERO;
-
-        List<StrategyRun> sorted = runs.stream()
-                .sorted(Comparator.comparing(StrategyRun::getEntryTime))
-                .toList();
-
-        for (StrategyRun run : sorted) {
-            if (run.getNetPnl() != null) {
-                cumulativePnL = cumulativePnL.add(run.getNetPnl());
-                if (cumulativePnL.compareTo(peak) > 0) {
-                    peak = cumulativePnL;
-                }
-                BigDecimal drawdown = peak.subtract(cumulativePnL);
-                if (drawdown.compareTo(maxDrawdown) > 0) {
-                    maxDrawdown = drawdown;
-                }
-            }
-        }
-
-        return maxDrawdown;
+        return fromPaise(RunColumns.of(runs).maxDrawdownPaise());
     }
 
     /**
@@ -186,35 +164,100 @@ public class StrategyPerformanceCalculator {
      * Not annualized since runs are not time-uniform.
      */
     BigDecimal calculateSharpeRatio(List<StrategyRun> runs) {
-        if (runs.size() < 2) {
-            return BigDecimal.ZERO;
+        double mean = 0;
+        double m2 = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            BigDecimal pnl = runs.get(i).getNetPnl();
+            double value = pnl != null ? pnl.doubleValue() : 0;
+            double delta = value - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (value - mean);
         }
+        return sharpe(runs.size(), mean, m2);
+    }
 
-        List<BigDecimal> returns = runs.stream()
-                .map(r -> r.getNetPnl() != null ? r.getNetPnl() : BigDecimal.ZERO)
-                .toList();
-
-        double mean =
-                returns.stream().mapToDouble(BigDecimal::doubleValue).average().orElse(0);
-
-        double variance = returns.stream()
-                .mapToDouble(r -> Math.pow(r.doubleValue() - mean, 2))
-                .average()
-                .orElse(0);
-
-        double stdDev = Math.sqrt(variance);
-
+    private static BigDecimal sharpe(int count, double mean, double m2) {
+        if (count < 2) {
+            return BigDecimal.ZERO;
+        }
+        // Population standard deviation, as before
+        double stdDev = Math.sqrt(m2 / count);
         if (stdDev == 0) {
             return BigDecimal.ZERO;
         }
-
         return BigDecimal.valueOf(mean / stdDev).setScale(2, RoundingMode.HALF_UP);
     }
 
-    private Duration getHoldingDuration(StrategyRun run) {
-        if (run.getExitTime() == null) {
-            return Duration.between(run.getEntryTime(), LocalDateTime.now());
+    private static long toPaise(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal fromPaise(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /** Completed runs as primitive columns, one index per run. */
+    private static final class RunColumns {
+        final int size;
+        final long[] netPnlPaise;
+        final boolean[] hasPnl;
+        final long[] chargesPaise;
+        final long[] holdingMinutes;
+        final int[] adjustments;
+        final LocalDateTime[] entryTimes;
+
+        private RunColumns(int size) {
+            this.size = size;
+            this.netPnlPaise = new long[size];
+            this.hasPnl = new boolean[size];
+            this.chargesPaise = new long[size];
+            this.holdingMinutes = new long[size];
+            this.adjustments = new int[size];
+            this.entryTimes = new LocalDateTime[size];
+        }
+
+        static RunColumns of(List<StrategyRun> runs) {
+            RunColumns columns = new RunColumns(runs.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < columns.size; i++) {
+                StrategyRun run = runs.get(i);
+                if (run.getNetPnl() != null) {
+                    columns.netPnlPaise[i] = toPaise(run.getNetPnl());
+                    columns.hasPnl[i] = true;
+                }
+                if (run.getTotalCharges() != null) {
+                    columns.chargesPaise[i] = toPaise(run.getTotalCharges());
+                }
+                LocalDateTime exit = run.getExitTime() != null ? run.getExitTime() : now;
+                columns.holdingMinutes[i] =
+                        Duration.between(run.getEntryTime(), exit).toMinutes();
+                columns.adjustments[i] = run.getAdjustmentCount();
+                columns.entryTimes[i] = run.getEntryTime();
+            }
+            return columns;
+        }
+
+        /** Peak-to-trough decline of cumulative P&L with runs taken in entry time order. */
+        long maxDrawdownPaise() {
+            // Sort run indices by (entry time, index); ties keep the repository order
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(
+                    order, Comparator.comparing((Integer i) -> entryTimes[i]).thenComparingInt(i -> i));
+
+            long peak = 0;
+            long cumulative = 0;
+            long maxDrawdown = 0;
+            for (int i : order) {
+                if (hasPnl[i]) {
+                    cumulative += netPnlPaise[i];
+                    peak = Math.max(peak, cumulative);
+                    maxDrawdown = Math.max(maxDrawdown, peak - cumulative);
+                }
+            }
+            return maxDrawdown;
         }
-        return Duration.between(run.getEntryTime(), run.getExitTime());
     }
 }
@@ -0,0 +1,86 @@
+package com.algotrader.repository.jdbc;
+
+import com.algotrader.entity.AuditLogEntity;
+import com.algotrader.entity.TradeEntity;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * JDBC batch writer for the high-volume append tables (trades, audit_logs).
+ *
+ * <p>JPA {@code saveAll} issues one statement per entity (plus a select per trade, since trade
+ * ids are assigned), which capped DataSyncService at a few hundred rows per flush. Here each
+ * batch binds every row to one prepared statement and sends it with a single
+ * {@code executeBatch}, inside one transaction so the batch costs one commit.
+ *
+ * <p>Trades use H2's {@code MERGE ... KEY(id)} so re-writing a trade (e.g., replaying a spill
+ * file after a crash mid-replay) updates it instead of failing on the primary key, matching
+ * the upsert semantics of {@code saveAll} with assigned ids. Audit rows use an identity key and
+ * are plain inserts.
+ */
+@Repository
+public class BatchInsertJdbcRepository {
+
+    private static final String MERGE_TRADE = "MERGE INTO trades (id, order_id, instrument_token, trading_symbol,"
+            + " exchange, side, quantity, price, brokerage, stt, exchange_charges, sebi_charges, stamp_duty, gst,"
+            + " total_charges, pnl, strategy_id, executed_at, created_at)"
+            + " KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_AUDIT_LOG = "INSERT INTO audit_logs (event_type, entity_type, entity_id,"
+            + " action, old_value, new_value, context_json, user_id, ip_address, timestamp)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchInsertJdbcRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Inserts or updates the trades in one JDBC batch and one transaction. */
+    public void upsertTrades(List<TradeEntity> trades) {
+        transactionTemplate.executeWithoutResult(
+                status -> jdbcTemplate.batchUpdate(MERGE_TRADE, trades, trades.size(), (ps, trade) -> {
+                    ps.setString(1, trade.getId());
+                    ps.setString(2, trade.getOrderId());
+                    ps.setObject(3, trade.getInstrumentToken());
+                    ps.setString(4, trade.getTradingSymbol());
+                    ps.setString(5, trade.getExchange());
+                    ps.setString(6, trade.getSide() != null ? trade.getSide().name() : null);
+                    ps.setInt(7, trade.getQuantity());
+                    ps.setBigDecimal(8, trade.getPrice());
+                    ps.setBigDecimal(9, trade.getBrokerage());
+                    ps.setBigDecimal(10, trade.getStt());
+                    ps.setBigDecimal(11, trade.getExchangeCharges());
+                    ps.setBigDecimal(12, trade.getSebiCharges());
+                    ps.setBigDecimal(13, trade.getStampDuty());
+                    ps.setBigDecimal(14, trade.getGst());
+                    ps.setBigDecimal(15, trade.getTotalCharges());
+                    ps.setBigDecimal(16, trade.getPnl());
+                    ps.setString(17, trade.getStrategyId());
+                    ps.setObject(18, trade.getExecutedAt());
+                    ps.setObject(19, trade.getCreatedAt());
+                }));
+    }
+
+    /** Inserts the audit logs in one JDBC batch and one transaction. */
+    public void insertAuditLogs(List<AuditLogEntity> auditLogs) {
+        transactionTemplate.executeWithoutResult(
+                status -> jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, auditLogs, auditLogs.size(), (ps, auditLog) -> {
+                    ps.setString(1, auditLog.getEventType());
+                    ps.setString(2, auditLog.getEntityType());
+                    ps.setString(3, auditLog.getEntityId());
+                    ps.setString(4, auditLog.getAction());
+                    ps.setString(5, auditLog.getOldValue());
+                    ps.setString(6, auditLog.getNewValue());
+                    ps.setString(7, auditLog.getContextJson());
+                    ps.setString(8, auditLog.getUserId());
+                    ps.setString(9, auditLog.getIpAddress());
+                    ps.setObject(10, auditLog.getTimestamp());
+                }));
+    }
+}
@@ -4,6 +4,8 @@ import com.algotrader.entity.MorphHistoryEntity;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -20,4 +22,22 @@ public interface MorphHistoryJpaRepository extends JpaRepository<MorphHistoryEnt
     Optional<MorphHistoryEntity> findByChildStrategyId(String childStrategyId);
 
     List<MorphHistoryEntity> findAllByOrderByMorphedAtDesc();
+
+    /**
+     * Every lineage link above and below a strategy (its ancestor chain and descendant subtree)
+     * in one round trip, via two recursive CTEs. Ordered by id.
+     */
+    @Query(
+            value = "WITH RECURSIVE ancestors (id, parent_strategy_id) AS ("
+                    + " SELECT id, parent_strategy_id FROM morph_history WHERE child_strategy_id = :strategyId"
+                    + " UNION ALL SELECT m.id, m.parent_strategy_id FROM morph_history m"
+                    + " JOIN ancestors a ON m.child_strategy_id = a.parent_strategy_id),"
+                    + " descendants (id, child_strategy_id) AS ("
+                    + " SELECT id, child_strategy_id FROM morph_history WHERE parent_strategy_id = :strategyId"
+                    + " UNION ALL SELECT m.id, m.child_strategy_id FROM morph_history m"
+                    + " JOIN descendants d ON m.parent_strategy_id = d.child_strategy_id)"
+                    + " SELECT * FROM morph_history WHERE id IN (SELECT id FROM ancestors)"
+                    + " OR id IN (SELECT id FROM descendants) ORDER BY id",
+            nativeQuery = true)
+    List<MorphHistoryEntity> findLineageOf(@Param("strategyId") String strategyId);
 }
@@ -4,6 +4,7 @@ import com.algotrader.domain.enums.StrategyStatus;
 import com.algotrader.entity.StrategyEntity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -42,6 +43,12 @@ public interface StrategyJpaRepository extends JpaRepository<StrategyEntity, Str
     @Query("UPDATE StrategyEntity s SET s.status = :status WHERE s.id = :id")
     void updateStatus(@Param("id") String id, @Param("status") StrategyStatus status);
 
+    /** Batch status update for many strategies in one statement (startup recovery). */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StrategyEntity s SET s.status = :status WHERE s.id IN :ids")
+    void updateStatusIn(@Param("ids") Collection<String> ids, @Param("status") StrategyStatus status);
+
     /** Update status and deployedAt timestamp without touching config. */
     @Modifying
     @Transactional
@@ -16,6 +16,9 @@ public interface StrategyLegJpaRepository extends JpaRepository<StrategyLegEntit
 
     List<StrategyLegEntity> findByStrategyId(String strategyId);
 
+    /** Batch query: find all legs of any of the given strategies (startup recovery). */
+    List<StrategyLegEntity> findByStrategyIdIn(Collection<String> strategyIds);
+
     List<StrategyLegEntity> findByPositionId(String positionId);
 
     /** Batch query: find all legs linked to any of the given position IDs. */
@@ -4,10 +4,13 @@ import com.algotrader.config.RedisConfig;
 import com.algotrader.entity.AuditLogEntity;
 import com.algotrader.entity.DeadLetterEventEntity;
 import com.algotrader.entity.TradeEntity;
-import com.algotrader.repository.jpa.AuditLogJpaRepository;
+import com.algotrader.reporting.ReportingRollupService;
+import com.algotrader.repository.jdbc.BatchInsertJdbcRepository;
 import com.algotrader.repository.jpa.DeadLetterEventJpaRepository;
-import com.algotrader.repository.jpa.TradeJpaRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,28 +18,40 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * Write-behind data sync service that batches writes to H2 for performance.
  *
  * <p>Trading is latency-sensitive, so this service decouples persistence from the
- * hot path by buffering entities in in-memory queues and flushing them on a schedule:
+ * hot path by buffering entities in in-memory queues that a dedicated writer thread
+ * drains continuously into JDBC batches ({@link BatchInsertJdbcRepository}):
  * <ul>
- *   <li>Trade records: flush every 1s (infrequent but critical; the 5-10s window
- *       risks losing trade records on JVM crash since positions are recoverable
- *       from Redis via reconciliation, but trade records would be lost from H2)</li>
- *   <li>Audit logs: flush every 10s (high volume, less time-critical)</li>
+ *   <li>Trade records: written as soon as they arrive (infrequent but critical; positions
+ *       are recoverable from Redis via reconciliation, but trade records would be lost
+ *       from H2 on a JVM crash). Producers wake the writer directly.</li>
+ *   <li>Audit logs: written once {@value #AUDIT_MIN_BATCH} are pending, or at least every
+ *       second (high volume, less time-critical)</li>
  * </ul>
+ * Batch size follows the backlog: a lone trade is a batch of one, a burst is drained in
+ * batches of up to {@value #MAX_BATCH_SIZE_TRADES} trades or {@value #MAX_BATCH_SIZE_AUDIT}
+ * audit rows, so throughput grows with load instead of being capped per timer tick.
  *
- * <p>When a queue is full, the service overflows to a synchronous DB write rather than
- * dropping data. If the synchronous write also fails, the entry is sent to the dead
- * letter queue for later reprocessing.
+ * <p>Producers never block or touch the database: when a queue is full the entry is appended
+ * to a local spill file ({@link SpillFile}) under {@code algotrader.data-sync.spill-dir}. The
+ * writer replays spill files when the queues have headroom, and at startup for entries left
+ * by a previous run. If a batch write fails, its entries are sent to the dead letter queue.
  *
  * <p>Dead letter entries carry a monotonically increasing sequence number so that
  * dependent events (e.g., OrderEvent.PLACED before OrderEvent.FILLED) maintain
@@ -50,118 +65,239 @@ public class DataSyncService {
 
     private static final Logger log = LoggerFactory.getLogger(DataSyncService.class);
 
-    private static final int TRADE_QUEUE_CAPACITY = 10_000;
-    private static final int AUDIT_QUEUE_CAPACITY = 50_000;
-    private static final int MAX_BATCH_SIZE_TRADES = 500;
-    private static final int MAX_BATCH_SIZE_AUDIT = 1_000;
+    private static final int MAX_BATCH_SIZE_TRADES = 1_000;
+    private static final int MAX_BATCH_SIZE_AUDIT = 5_000;
+    private static final int AUDIT_MIN_BATCH = 256;
     private static final int DEAD_LETTER_MAX_RETRIES = 3;
 
+    /** Writer park time when both queues are idle; trades unpark it early. */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /** Longest an audit log waits for a batch to fill before it is written anyway. */
+    private static final long AUDIT_LINGER_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long SPILL_REPLAY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
     /** Monotonically increasing counter for dead letter entry ordering. */
     private final AtomicLong deadLetterSequence = new AtomicLong(0);
 
     private final BlockingQueue<TradeEntity> tradeQueue;
     private final BlockingQueue<AuditLogEntity> auditQueue;
+    private final int tradeQueueCapacity;
+    private final int auditQueueCapacity;
 
-    private final TradeJpaRepository tradeJpaRepository;
-    private final AuditLogJpaRepository auditLogJpaRepository;
+    private final SpillFile<TradeEntity> tradeSpill;
+    private final SpillFile<AuditLogEntity> auditSpill;
+    private final AtomicBoolean tradesSpilling = new AtomicBoolean();
+    private final AtomicBoolean auditsSpilling = new AtomicBoolean();
+
+    private final BatchInsertJdbcRepository batchInsertJdbcRepository;
     private final DeadLetterEventJpaRepository deadLetterEventJpaRepository;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ReportingRollupService reportingRollupService;
 
-    @org.springframework.beans.factory.annotation.Autowired
-    public DataSyncService(
-            TradeJpaRepository tradeJpaRepository,
-            AuditLogJpaRepository auditLogJpaRepository,
-            DeadLetterEventJpaRepository deadLetterEventJpaRepository,
-            RedisTemplate<String, Object> redisTemplate) {
-        this(
-                tradeJpaRepository,
-                auditLogJpaRepository,
-                deadLetterEventJpaRepository,
-                redisTemplate,
-                TRADE_QUEUE_CAPACITY,
-                AUDIT_QUEUE_CAPACITY);
-    }
+    private volatile boolean running;
+    private volatile Thread writerThread;
 
-    /** Secondary constructor for tests that need small queue capacities. */
     public DataSyncService(
-            TradeJpaRepository tradeJpaRepository,
-            AuditLogJpaRepository auditLogJpaRepository,
+            BatchInsertJdbcRepository batchInsertJdbcRepository,
             DeadLetterEventJpaRepository deadLetterEventJpaRepository,
             RedisTemplate<String, Object> redisTemplate,
-            int tradeQueueCapacity,
-            int auditQueueCapacity) {
-        this.tradeJpaRepository = tradeJpaRepository;
-        this.auditLogJpaRepository = auditLogJpaRepository;
+            ReportingRollupService reportingRollupService,
+            ObjectMapper objectMapper,
+            @Value("${algotrader.data-sync.spill-dir:./data/spill}") String spillDir,
+            @Value("${algotrader.data-sync.trade-queue-capacity:10000}") int tradeQueueCapacity,
+            @Value("${algotrader.data-sync.audit-queue-capacity:50000}") int auditQueueCapacity) {
+        this.batchInsertJdbcRepository = batchInsertJdbcRepository;
         this.deadLetterEventJpaRepository = deadLetterEventJpaRepository;
         this.redisTemplate = redisTemplate;
+        this.reportingRollupService = reportingRollupService;
+        this.tradeQueueCapacity = tradeQueueCapacity;
+        this.auditQueueCapacity = auditQueueCapacity;
         this.tradeQueue = new LinkedBlockingQueue<>(tradeQueueCapacity);
         this.auditQueue = new LinkedBlockingQueue<>(auditQueueCapacity);
+        this.tradeSpill = new SpillFile<>(Path.of(spillDir), "trades", TradeEntity.class, objectMapper);
+        this.auditSpill = new SpillFile<>(Path.of(spillDir), "audit-logs", AuditLogEntity.class, objectMapper);
     }
 
     // ---- Queue methods (called from hot path) ----
 
     /**
-     * Queues a trade for write-behind persistence to H2.
-     * If the queue is full, falls back to synchronous DB write to avoid data loss.
+     * Queues a trade for write-behind persistence to H2 and wakes the writer.
+     * If the queue is full, appends the trade to the spill file for later replay.
      */
     public void queueTrade(TradeEntity tradeEntity) {
-        if (!tradeQueue.offer(tradeEntity)) {
-            log.warn(
-                    "Trade queue full ({} entries), forcing synchronous write for trade {}",
-                    TRADE_QUEUE_CAPACITY,
-                    tradeEntity.getId());
-            writeTradeSynchronously(tradeEntity);
+        if (tradeQueue.offer(tradeEntity)) {
+            Thread writer = writerThread;
+            if (writer != null) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+        if (tradesSpilling.compareAndSet(false, true)) {
+            log.warn("Trade queue full ({} entries), spilling trades to disk", tradeQueueCapacity);
+        }
+        try {
+            tradeSpill.append(tradeEntity);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to spill trade {}, sending to dead letter queue", tradeEntity.getId(), e);
+            sendToDeadLetterQueue("TRADE_SPILL", tradeEntity.getId(), e);
         }
     }
 
     /**
      * Queues an audit log for write-behind persistence to H2.
-     * If the queue is full, falls back to synchronous DB write.
+     * If the queue is full, appends the entry to the spill file for later replay.
      */
     public void queueAuditLog(AuditLogEntity auditLogEntity) {
-        if (!auditQueue.offer(auditLogEntity)) {
-            log.warn("Audit queue full ({} entries), forcing synchronous write", AUDIT_QUEUE_CAPACITY);
-            writeAuditLogSynchronously(auditLogEntity);
+        if (auditQueue.offer(auditLogEntity)) {
+            return;
+        }
+        if (auditsSpilling.compareAndSet(false, true)) {
+            log.warn("Audit queue full ({} entries), spilling audit logs to disk", auditQueueCapacity);
+        }
+        try {
+            auditSpill.append(auditLogEntity);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to spill audit log, sending to dead letter queue", e);
+            sendToDeadLetterQueue(
+                    "AUDIT_SPILL", auditLogEntity.getEntityType() + ":" + auditLogEntity.getEntityId(), e);
+        }
+    }
+
+    // ---- Writer thread ----
+
+    /** Starts the writer thread once the application is ready. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runWriter, "data-sync-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    /** Stops the writer and spills whatever is still queued, so nothing is lost without touching H2. */
+    @PreDestroy
+    public void shutdown() {
+        stopWriter();
+        List<TradeEntity> trades = new ArrayList<>();
+        tradeQueue.drainTo(trades);
+        List<AuditLogEntity> audits = new ArrayList<>();
+        auditQueue.drainTo(audits);
+        spillAll(trades, audits);
+        try {
+            tradeSpill.close();
+            auditSpill.close();
+        } catch (IOException e) {
+            log.warn("Failed to close spill files: {}", e.getMessage());
+        }
+    }
+
+    private void runWriter() {
+        long lastAuditFlush = System.nanoTime();
+        // Replay anything a previous run left on disk right away
+        long nextReplay = lastAuditFlush;
+        while (running) {
+            try {
+                int written = flushTrades();
+
+                long now = System.nanoTime();
+                int pendingAudits = auditQueue.size();
+                if (pendingAudits >= AUDIT_MIN_BATCH
+                        || (pendingAudits > 0 && now - lastAuditFlush >= AUDIT_LINGER_NANOS)) {
+                    written += flushAuditLogs();
+                    lastAuditFlush = now;
+                }
+
+                if (now - nextReplay >= 0 && hasHeadroom()) {
+                    written += replaySpillFiles();
+                    nextReplay = now + SPILL_REPLAY_INTERVAL_NANOS;
+                }
+
+                if (written == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                log.error("Data sync writer iteration failed", e);
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private synchronized void stopWriter() {
+        running = false;
+        Thread thread = writerThread;
+        writerThread = null;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
-    // ---- Scheduled flush methods ----
+    private boolean hasHeadroom() {
+        return tradeQueue.size() < tradeQueueCapacity / 2 && auditQueue.size() < auditQueueCapacity / 2;
+    }
+
+    // ---- Flush methods (writer thread) ----
 
     /**
-     * Flushes trade records every 1 second.
-     * Trade records are infrequent but critical -- a JVM crash during the flush window
-     * would lose them from H2 (positions are recoverable from Redis via reconciliation).
+     * Writes up to {@value #MAX_BATCH_SIZE_TRADES} queued trades as one JDBC batch.
+     *
+     * @return number of trades drained
      */
-    @Scheduled(fixedRate = 1_000)
-    public void flushTrades() {
-        List<TradeEntity> batch = new ArrayList<>();
+    public int flushTrades() {
+        List<TradeEntity> batch = new ArrayList<>(Math.min(tradeQueue.size(), MAX_BATCH_SIZE_TRADES));
         tradeQueue.drainTo(batch, MAX_BATCH_SIZE_TRADES);
 
         if (!batch.isEmpty()) {
             try {
-                tradeJpaRepository.saveAll(batch);
+                batchInsertJdbcRepository.upsertTrades(batch);
                 log.debug("Flushed {} trades to H2", batch.size());
             } catch (Exception e) {
                 log.error("Failed to flush {} trades to H2, sending to dead letter queue", batch.size(), e);
                 for (TradeEntity tradeEntity : batch) {
                     sendToDeadLetterQueue("TRADE_FLUSH", tradeEntity.getId(), e);
                 }
+                return batch.size();
             }
+            recordRollups(batch);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Folds trades that are already in H2 into the reporting rollups. A rollup failure is only
+     * logged: the trades are persisted, so they must not be dead-lettered or spilled again.
+     */
+    private void recordRollups(List<TradeEntity> trades) {
+        try {
+            reportingRollupService.recordTrades(trades);
+        } catch (Exception e) {
+            log.error("Failed to record {} persisted trades in reporting rollups", trades.size(), e);
         }
     }
 
     /**
-     * Flushes audit logs every 10 seconds.
-     * High volume, less time-critical than trades.
+     * Writes up to {@value #MAX_BATCH_SIZE_AUDIT} queued audit logs as one JDBC batch.
+     *
+     * @return number of audit logs drained
      */
-    @Scheduled(fixedRate = 10_000)
-    public void flushAuditLogs() {
-        List<AuditLogEntity> batch = new ArrayList<>();
+    public int flushAuditLogs() {
+        List<AuditLogEntity> batch = new ArrayList<>(Math.min(auditQueue.size(), MAX_BATCH_SIZE_AUDIT));
         auditQueue.drainTo(batch, MAX_BATCH_SIZE_AUDIT);
 
         if (!batch.isEmpty()) {
             try {
-                auditLogJpaRepository.saveAll(batch);
+                batchInsertJdbcRepository.insertAuditLogs(batch);
                 log.debug("Flushed {} audit logs to H2", batch.size());
             } catch (Exception e) {
                 log.error("Failed to flush {} audit logs to H2, sending to dead letter queue", batch.size(), e);
@@ -171,6 +307,51 @@ public class DataSyncService {
                 }
             }
         }
+        return batch.size();
+    }
+
+    /**
+     * Persists spilled trades and audit logs in batches. A spill file is deleted only after all
+     * of its entries are written; on failure it is kept and retried on the next replay. Trades
+     * are upserted, so a retried trade is not duplicated.
+     *
+     * @return number of entries replayed
+     */
+    public int replaySpillFiles() {
+        int replayed = 0;
+        if (tradeSpill.hasEntries()) {
+            try {
+                List<TradeEntity> trades = tradeSpill.claim();
+                for (int i = 0; i < trades.size(); i += MAX_BATCH_SIZE_TRADES) {
+                    List<TradeEntity> batch = trades.subList(i, Math.min(i + MAX_BATCH_SIZE_TRADES, trades.size()));
+                    batchInsertJdbcRepository.upsertTrades(batch);
+                }
+                tradeSpill.completeReplay();
+                // Only once the whole file is in: a failed replay is retried from the start
+                recordRollups(trades);
+                tradesSpilling.set(false);
+                replayed += trades.size();
+                log.info("Replayed {} spilled trades to H2", trades.size());
+            } catch (Exception e) {
+                log.error("Failed to replay spilled trades, will retry", e);
+            }
+        }
+        if (auditSpill.hasEntries()) {
+            try {
+                List<AuditLogEntity> audits = auditSpill.claim();
+                for (int i = 0; i < audits.size(); i += MAX_BATCH_SIZE_AUDIT) {
+                    batchInsertJdbcRepository.insertAuditLogs(
+                            audits.subList(i, Math.min(i + MAX_BATCH_SIZE_AUDIT, audits.size())));
+                }
+                auditSpill.completeReplay();
+                auditsSpilling.set(false);
+                replayed += audits.size();
+                log.info("Replayed {} spilled audit logs to H2", audits.size());
+            } catch (Exception e) {
+                log.error("Failed to replay spilled audit logs, will retry", e);
+            }
+        }
+        return replayed;
     }
 
     // ---- Daily P&L persistence ----
@@ -207,32 +388,50 @@ public class DataSyncService {
 
     /**
      * Flushes all pending data to H2. Called by GracefulShutdownService
-     * to ensure no data is lost when the JVM exits.
+     * to ensure no data is lost when the JVM exits. Stops the writer thread first;
+     * anything that cannot be written is spilled to disk for replay on the next start.
      */
     public void flushAll() {
         log.info("Flushing all queued data to H2...");
+        stopWriter();
 
         List<TradeEntity> trades = new ArrayList<>();
         tradeQueue.drainTo(trades);
+        List<TradeEntity> unwrittenTrades = List.of();
         if (!trades.isEmpty()) {
             try {
-                tradeJpaRepository.saveAll(trades);
+                for (int i = 0; i < trades.size(); i += MAX_BATCH_SIZE_TRADES) {
+                    List<TradeEntity> batch = trades.subList(i, Math.min(i + MAX_BATCH_SIZE_TRADES, trades.size()));
+                    batchInsertJdbcRepository.upsertTrades(batch);
+                }
                 log.info("Flushed {} pending trades during shutdown", trades.size());
             } catch (Exception e) {
-                log.error("Failed to flush trades during shutdown", e);
+                log.error("Failed to flush trades during shutdown, spilling to disk", e);
+                unwrittenTrades = trades;
+            }
+            // On failure all of them are spilled and recorded when the spill replays
+            if (unwrittenTrades.isEmpty()) {
+                recordRollups(trades);
             }
         }
 
         List<AuditLogEntity> audits = new ArrayList<>();
         auditQueue.drainTo(audits);
+        List<AuditLogEntity> unwrittenAudits = List.of();
         if (!audits.isEmpty()) {
             try {
-                auditLogJpaRepository.saveAll(audits);
+                for (int i = 0; i < audits.size(); i += MAX_BATCH_SIZE_AUDIT) {
+                    batchInsertJdbcRepository.insertAuditLogs(
+                            audits.subList(i, Math.min(i + MAX_BATCH_SIZE_AUDIT, audits.size())));
+                }
                 log.info("Flushed {} pending audit logs during shutdown", audits.size());
             } catch (Exception e) {
-                log.error("Failed to flush audit logs during shutdown", e);
+                log.error("Failed to flush audit logs during shutdown, spilling to disk", e);
+                unwrittenAudits = audits;
             }
         }
+
+        spillAll(unwrittenTrades, unwrittenAudits);
     }
 
     // ---- Queue metrics (for monitoring) ----
@@ -283,21 +482,19 @@ public class DataSyncService {
 
     // ---- Private helpers ----
 
-    private void writeTradeSynchronously(TradeEntity tradeEntity) {
-        try {
-            tradeJpaRepository.save(tradeEntity);
-        } catch (Exception e) {
-            log.error("Synchronous trade write failed for {}, sending to dead letter queue", tradeEntity.getId(), e);
-            sendToDeadLetterQueue("TRADE_SYNC", tradeEntity.getId(), e);
-        }
-    }
-
-    private void writeAuditLogSynchronously(AuditLogEntity auditLogEntity) {
+    private void spillAll(List<TradeEntity> trades, List<AuditLogEntity> audits) {
         try {
-            auditLogJpaRepository.save(auditLogEntity);
-        } catch (Exception e) {
-            log.error("Synchronous audit log write failed, sending to dead letter queue", e);
-            sendToDeadLetterQueue("AUDIT_SYNC", auditLogEntity.getEntityType() + ":" + auditLogEntity.getEntityId(), e);
+            for (TradeEntity trade : trades) {
+                tradeSpill.append(trade);
+            }
+            for (AuditLogEntity audit : audits) {
+                auditSpill.append(audit);
+            }
+            if (!trades.isEmpty() || !audits.isEmpty()) {
+                log.info("Spilled {} trades and {} audit logs to disk", trades.size(), audits.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("CRITICAL: Failed to spill {} trades and {} audit logs to disk", trades.size(), audits.size(), e);
         }
     }
 
@@ -1,5 +1,8 @@
 package com.algotrader.service;
 
+import com.algotrader.broker.InstrumentSubscriptionManager;
+import com.algotrader.core.processor.TickProcessor;
+import com.algotrader.domain.enums.FeedMode;
 import com.algotrader.domain.model.DepthItem;
 import com.algotrader.domain.model.Instrument;
 import com.algotrader.domain.model.Tick;
@@ -7,17 +10,29 @@ import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Depth;
 import com.zerodhatech.models.Quote;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import jakarta.annotation.PreDestroy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -30,7 +45,14 @@ import org.springframework.stereotype.Service;
  * <p>Key responsibilities:
  * <ul>
  *   <li>Token → symbol resolution via InstrumentService</li>
- *   <li>Batch quote fetching (max 500 instruments per Kite API call)</li>
+ *   <li>Serving subscribed tokens from the live tick cache ({@link TickProcessor}) when their
+ *       last tick is fresher than {@code algotrader.quotes.tick-max-age-ms} and carries the
+ *       full quote (FULL mode, with depth and OI)</li>
+ *   <li>Coalescing: a symbol already being fetched by another caller joins that in-flight
+ *       request instead of issuing its own, so overlapping watchlist, option chain and
+ *       reconciliation loads share one REST call</li>
+ *   <li>Batch quote fetching (max 500 instruments per Kite API call), batches running
+ *       concurrently on virtual threads, each taking a {@code kiteQuotes} rate limiter permit</li>
  *   <li>Quote → Tick mapping with BigDecimal conversion for financial precision</li>
  *   <li>Partial result handling — skips unknown tokens, returns what succeeds</li>
  * </ul>
@@ -40,13 +62,41 @@ import org.springframework.stereotype.Service;
 public class QuoteService {
 
     private static final int QUOTE_BATCH_SIZE = 500;
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
 
     private final KiteConnect kiteConnect;
     private final InstrumentService instrumentService;
+    private final TickProcessor tickProcessor;
+    private final InstrumentSubscriptionManager instrumentSubscriptionManager;
+    private final RateLimiter quoteRateLimiter;
+    private final long tickMaxAgeNanos;
+    private final long fetchTimeoutMs;
 
-    public QuoteService(KiteConnect kiteConnect, InstrumentService instrumentService) {
+    /** Symbol → pending quote for every symbol currently being fetched. Null result = not returned. */
+    private final ConcurrentHashMap<String, CompletableFuture<Quote>> inFlight = new ConcurrentHashMap<>();
+
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public QuoteService(
+            KiteConnect kiteConnect,
+            InstrumentService instrumentService,
+            TickProcessor tickProcessor,
+            InstrumentSubscriptionManager instrumentSubscriptionManager,
+            RateLimiterRegistry rateLimiterRegistry,
+            @Value("${algotrader.quotes.tick-max-age-ms:2000}") long tickMaxAgeMs,
+            @Value("${algotrader.quotes.fetch-timeout-ms:5000}") long fetchTimeoutMs) {
         this.kiteConnect = kiteConnect;
         this.instrumentService = instrumentService;
+        this.tickProcessor = tickProcessor;
+        this.instrumentSubscriptionManager = instrumentSubscriptionManager;
+        this.quoteRateLimiter = rateLimiterRegistry.rateLimiter("kiteQuotes");
+        this.tickMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos(tickMaxAgeMs);
+        this.fetchTimeoutMs = fetchTimeoutMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
     }
 
     /**
@@ -54,9 +104,11 @@ public class QuoteService {
      *
      * <p>Flow:
      * <ol>
-     *   <li>Resolves each token to an Instrument via InstrumentService (skips unknown tokens)</li>
-     *   <li>Builds Kite symbol strings: "exchange:tradingSymbol"</li>
-     *   <li>Fetches quotes in batches of 500 (Kite API limit)</li>
+     *   <li>Answers tokens with a fresh live tick from the tick cache</li>
+     *   <li>Resolves the rest to Instruments via InstrumentService (skips unknown tokens)
+     *       and builds Kite symbol strings: "exchange:tradingSymbol"</li>
+     *   <li>Joins in-flight fetches for symbols another caller is already fetching, and
+     *       fetches the remainder in concurrent batches of 500 (Kite API limit)</li>
      *   <li>Maps each Quote to a domain Tick</li>
      * </ol>
      *
@@ -64,58 +116,135 @@ public class QuoteService {
      * @return list of Tick objects (may be smaller than input if tokens are unknown or batch fails)
      */
     public List<Tick> getQuotes(List<Long> instrumentTokens) {
-        // Resolve tokens to instruments, building symbol→token lookup
-        Map<String, Long> symbolToToken = new HashMap<>();
-        List<String> symbols = new ArrayList<>();
+        List<Tick> ticks = new ArrayList<>(instrumentTokens.size());
 
+        // Resolve tokens to instruments, building symbol→token lookup
+        Map<String, Long> symbolToToken = new LinkedHashMap<>();
         for (Long token : instrumentTokens) {
+            Optional<Tick> live = freshLiveTick(token);
+            if (live.isPresent()) {
+                ticks.add(live.get());
+                continue;
+            }
             Optional<Instrument> instrument = instrumentService.findByToken(token);
             if (instrument.isEmpty()) {
                 log.debug("Skipping unknown instrument token: {}", token);
                 continue;
             }
             Instrument inst = instrument.get();
-            String symbol = inst.getExchange() + ":" + inst.getTradingSymbol();
-            symbols.add(symbol);
-            symbolToToken.put(symbol, token);
+            symbolToToken.put(inst.getExchange() + ":" + inst.getTradingSymbol(), token);
         }
 
-        if (symbols.isEmpty()) {
-            return List.of();
+        if (symbolToToken.isEmpty()) {
+            return ticks;
         }
 
-        // Fetch quotes from Kite (batched)
-        Map<String, Quote> quotes = fetchQuotes(symbols.toArray(String[]::new));
+        // Fetch quotes from Kite (coalesced, batched)
+        Map<String, Quote> quotes = fetchQuotes(symbolToToken.keySet());
 
-        // Map Quote → Tick
-        List<Tick> ticks = new ArrayList<>();
+        // Map Quote → Tick (quotes are keyed by the symbols we requested)
         for (Map.Entry<String, Quote> entry : quotes.entrySet()) {
-            Long token = symbolToToken.get(entry.getKey());
-            if (token == null) {
-                // Kite may return keys in a different format; try matching by instrumentToken
-                token = entry.getValue().instrumentToken;
-            }
-            ticks.add(mapQuoteToTick(entry.getValue(), token));
+            ticks.add(mapQuoteToTick(entry.getValue(), symbolToToken.get(entry.getKey())));
         }
 
         return ticks;
     }
 
     /**
-     * Fetches quotes from Kite API, batching if more than 500 instruments.
-     * Returns partial results on batch failure (fail-safe).
+     * Returns the cached live tick when it was received recently enough and carries everything
+     * a REST quote would: FULL-mode ticks, or any tick with depth. LTP-mode ticks lack OHLC and
+     * volume, and QUOTE-mode ticks lack depth and OI.
      */
-    private Map<String, Quote> fetchQuotes(String[] symbols) {
-        if (symbols.length <= QUOTE_BATCH_SIZE) {
-            return fetchQuoteBatch(symbols);
+    private Optional<Tick> freshLiveTick(Long token) {
+        FeedMode feedMode = instrumentSubscriptionManager.getFeedMode(token);
+        if (feedMode == null || feedMode == FeedMode.LTP) {
+            return Optional.empty();
+        }
+        return tickProcessor
+                .getFreshTick(token, tickMaxAgeNanos)
+                .filter(tick -> feedMode == FeedMode.FULL || tick.getBuyDepth() != null);
+    }
+
+    /**
+     * Fetches quotes for the symbols, joining in-flight fetches where possible and starting
+     * concurrent batches for the rest. Waits up to the fetch timeout overall and returns
+     * whatever arrived (fail-safe partial results).
+     */
+    private Map<String, Quote> fetchQuotes(Iterable<String> symbols) {
+        Map<String, CompletableFuture<Quote>> pending = new LinkedHashMap<>();
+        List<String> toFetch = new ArrayList<>();
+        for (String symbol : symbols) {
+            CompletableFuture<Quote> created = new CompletableFuture<>();
+            CompletableFuture<Quote> existing = inFlight.putIfAbsent(symbol, created);
+            if (existing != null) {
+                pending.put(symbol, existing);
+            } else {
+                pending.put(symbol, created);
+                toFetch.add(symbol);
+            }
+        }
+        if (toFetch.size() < pending.size()) {
+            log.debug("Joined {} in-flight quote fetches", pending.size() - toFetch.size());
+        }
+
+        for (int i = 0; i < toFetch.size(); i += QUOTE_BATCH_SIZE) {
+            List<String> batch = toFetch.subList(i, Math.min(i + QUOTE_BATCH_SIZE, toFetch.size()));
+            String[] batchSymbols = batch.toArray(String[]::new);
+            try {
+                fetchExecutor.execute(() -> runBatch(batchSymbols));
+            } catch (RejectedExecutionException e) {
+                // Shutting down: release the symbols so joiners don't wait on a batch that never runs
+                log.warn("Quote batch of {} symbols rejected: {}", batchSymbols.length, e.getMessage());
+                for (String symbol : batchSymbols) {
+                    CompletableFuture<Quote> future = inFlight.remove(symbol);
+                    if (future != null) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            }
         }
 
-        Map<String, Quote> allQuotes = new HashMap<>();
-        for (int i = 0; i < symbols.length; i += QUOTE_BATCH_SIZE) {
-            String[] batch = Arrays.copyOfRange(symbols, i, Math.min(i + QUOTE_BATCH_SIZE, symbols.length));
-            allQuotes.putAll(fetchQuoteBatch(batch));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fetchTimeoutMs);
+        Map<String, Quote> quotes = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<Quote>> entry : pending.entrySet()) {
+            Quote quote = await(entry.getValue(), deadline);
+            if (quote != null) {
+                quotes.put(entry.getKey(), quote);
+            }
+        }
+        return quotes;
+    }
+
+    /** Fetches one batch and completes (then releases) its symbols' in-flight futures. */
+    private void runBatch(String[] symbols) {
+        Map<String, Quote> result = Map.of();
+        try {
+            RateLimiter.waitForPermission(quoteRateLimiter);
+            result = fetchQuoteBatch(symbols);
+        } catch (Exception e) {
+            log.error("Quote batch of {} symbols not fetched: {}", symbols.length, e.getMessage());
+        } finally {
+            for (String symbol : symbols) {
+                CompletableFuture<Quote> future = inFlight.remove(symbol);
+                if (future != null) {
+                    future.complete(result.get(symbol));
+                }
+            }
+        }
+    }
+
+    private Quote await(CompletableFuture<Quote> future, long deadlineNanos) {
+        try {
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
         }
-        return allQuotes;
     }
 
     /**
@@ -170,7 +299,7 @@ public class QuoteService {
         if (date == null) {
             return LocalDateTime.now();
         }
-        return date.toInstant().atZone(ZoneId.of("Asia/Kolkata")).toLocalDateTime();
+        return date.toInstant().atZone(IST).toLocalDateTime();
     }
 
     /** Maps Kite depth data to our DepthItem list. */
@@ -182,12 +311,14 @@ public class QuoteService {
         if (side == null || side.isEmpty()) {
             return null;
         }
-        return side.stream()
-                .map(d -> DepthItem.builder()
-                        .quantity(d.getQuantity())
-                        .price(BigDecimal.valueOf(d.getPrice()))
-                        .orders(d.getOrders())
-                        .build())
-                .toList();
+        List<DepthItem> items = new ArrayList<>(side.size());
+        for (Depth d : side) {
+            items.add(DepthItem.builder()
+                    .quantity(d.getQuantity())
+                    .price(BigDecimal.valueOf(d.getPrice()))
+                    .orders(d.getOrders())
+                    .build());
+        }
+        return items;
     }
 }
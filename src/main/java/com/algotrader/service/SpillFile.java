@@ -0,0 +1,106 @@
+package com.algotrader.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only JSON-lines file that absorbs DataSyncService queue overflow.
+ *
+ * <p>Appends go to {@code <name>.spill}. Replay first moves that file to {@code <name>.replay}
+ * (so new overflow starts a fresh file), reads it, and deletes it once every entry is persisted.
+ * A replay file left behind by a failed replay or a crash is picked up again before the spill
+ * file is claimed.
+ *
+ * <p>Each append is flushed to the OS, so spilled entries survive a JVM crash. A line torn by a
+ * crash mid-append is skipped on replay.
+ *
+ * @param <T> entity type
+ */
+final class SpillFile<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillFile.class);
+
+    private final Path spillPath;
+    private final Path replayPath;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+
+    private BufferedWriter writer;
+
+    SpillFile(Path directory, String name, Class<T> type, ObjectMapper objectMapper) {
+        this.spillPath = directory.resolve(name + ".spill");
+        this.replayPath = directory.resolve(name + ".replay");
+        this.type = type;
+        this.objectMapper = objectMapper;
+    }
+
+    synchronized void append(T entity) throws IOException {
+        if (writer == null) {
+            Files.createDirectories(spillPath.getParent());
+            writer = Files.newBufferedWriter(
+                    spillPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(objectMapper.writeValueAsString(entity));
+        writer.newLine();
+        writer.flush();
+    }
+
+    /** True if there is a spill or unfinished replay file. */
+    boolean hasEntries() {
+        return Files.exists(replayPath) || Files.exists(spillPath);
+    }
+
+    /**
+     * Claims the spilled entries for replay and returns them. Returns an unfinished replay file's
+     * entries if one exists, otherwise moves the spill file aside. Empty if nothing is spilled.
+     */
+    List<T> claim() throws IOException {
+        synchronized (this) {
+            if (!Files.exists(replayPath)) {
+                if (writer != null) {
+                    writer.close();
+                    writer = null;
+                }
+                if (!Files.exists(spillPath)) {
+                    return List.of();
+                }
+                Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+
+        List<T> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(replayPath, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(objectMapper.readValue(line, type));
+            } catch (RuntimeException e) {
+                log.warn("Skipping unreadable line in {}: {}", replayPath, e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    /** Deletes the replay file after its entries were persisted. */
+    void completeReplay() throws IOException {
+        Files.deleteIfExists(replayPath);
+    }
+
+    synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
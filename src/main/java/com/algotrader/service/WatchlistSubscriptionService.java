@@ -3,6 +3,7 @@ package com.algotrader.service;
 import com.algotrader.broker.InstrumentSubscriptionManager;
 import com.algotrader.broker.KiteMarketDataService;
 import com.algotrader.domain.enums.ExpiryType;
+import com.algotrader.domain.enums.FeedMode;
 import com.algotrader.domain.enums.InstrumentType;
 import com.algotrader.domain.enums.SubscriptionPriority;
 import com.algotrader.domain.model.Instrument;
@@ -24,7 +25,8 @@ import org.springframework.stereotype.Service;
  * and KiteMarketDataService (for actual WebSocket subscription).
  *
  * <p>Subscriptions use MANUAL priority (lowest), so they're evictable by strategy
- * subscriptions if the 3000-instrument limit is reached.
+ * subscriptions if the 3000-instrument limit is reached. They declare QUOTE feed mode:
+ * the watchlist shows prices, OHLC and volume, not depth.
  *
  * <p>Note: ATM-based option strike subscriptions are deferred to the frontend.
  * The FE's useOptionChainSubscription hook handles ATM ± N windowing based on
@@ -127,13 +129,20 @@ public class WatchlistSubscriptionService {
         }
 
         // Register with subscription manager for priority tracking
-        List<Long> newTokens =
-                instrumentSubscriptionManager.subscribe(subscriberKey, tokens, SubscriptionPriority.MANUAL);
+        List<Long> newTokens = instrumentSubscriptionManager.subscribe(
+                subscriberKey, tokens, SubscriptionPriority.MANUAL, FeedMode.QUOTE);
 
-        // Subscribe on WebSocket (queued if ticker not yet connected)
+        // Drop anything evicted to make room, then subscribe (queued if ticker not yet connected)
+        List<Long> evicted = instrumentSubscriptionManager.drainEvictedTokens();
+        if (!evicted.isEmpty()) {
+            kiteMarketDataService.unsubscribe(evicted);
+        }
         if (!newTokens.isEmpty()) {
             kiteMarketDataService.subscribe(newTokens);
         }
+        instrumentSubscriptionManager
+                .drainModeChanges()
+                .forEach((mode, modeTokens) -> kiteMarketDataService.setMode(modeTokens, mode));
 
         log.info(
                 "Watchlist subscription for {}: {} tokens (spot={}, expiry={})",
@@ -1,12 +1,18 @@
 package com.algotrader.strategy.adoption;
 
 import com.algotrader.entity.StrategyLegEntity;
+import com.algotrader.event.StrategyLegChangedEvent;
 import com.algotrader.repository.jpa.StrategyLegJpaRepository;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Computes position allocation across strategies using strategy legs as the source of truth.
@@ -26,12 +32,35 @@ import org.springframework.stereotype.Service;
  *   <li>Adopt validation — to ensure new allocations don't exceed available quantity</li>
  *   <li>FE badge display — Unmanaged / Partial / Fully Managed / Over-allocated</li>
  * </ul>
+ *
+ * <p><b>Allocation ledger:</b> reads are served from an in-memory copy of every linked leg,
+ * indexed by position, with a running total per position, so per-row lookups from adoption and
+ * position views cost a map lookup instead of a query. The ledger is loaded with one query
+ * (at startup, or on first use) and then kept current by {@link StrategyLegChangedEvent}s,
+ * which every leg insert, update and delete publishes. Changes are applied after their
+ * transaction commits, so a rolled-back leg write never shows up as an allocation.
  */
 @Service
 public class PositionAllocationService {
 
+    private static final Logger log = LoggerFactory.getLogger(PositionAllocationService.class);
+
     private final StrategyLegJpaRepository strategyLegJpaRepository;
 
+    /** Guards the ledger maps below. */
+    private final Object ledgerLock = new Object();
+
+    private boolean ledgerLoaded;
+
+    /** Linked legs by leg ID. */
+    private final Map<String, LegAllocation> legsById = new HashMap<>();
+
+    /** Linked legs per position ID, keyed by leg ID. */
+    private final Map<String, Map<String, LegAllocation>> legsByPosition = new HashMap<>();
+
+    /** Signed sum of leg quantities per position ID (present while any leg is linked). */
+    private final Map<String, Integer> allocatedByPosition = new HashMap<>();
+
     public PositionAllocationService(StrategyLegJpaRepository strategyLegJpaRepository) {
         this.strategyLegJpaRepository = strategyLegJpaRepository;
     }
@@ -45,8 +74,10 @@ public class PositionAllocationService {
      * @return total allocated quantity (0 if no legs reference this position)
      */
     public int getAllocatedQuantity(String positionId) {
-        List<StrategyLegEntity> legs = strategyLegJpaRepository.findByPositionId(positionId);
-        return legs.stream().mapToInt(StrategyLegEntity::getQuantity).sum();
+        synchronized (ledgerLock) {
+            ensureLedgerLoaded();
+            return allocatedByPosition.getOrDefault(positionId, 0);
+        }
     }
 
     /**
@@ -65,8 +96,25 @@ public class PositionAllocationService {
     }
 
     /**
-     * Bulk query: returns allocated quantity per position ID for a set of positions.
-     * Uses a single batch query to H2 for efficiency.
+     * Returns the allocated quantity per strategy for one position.
+     *
+     * @param positionId the position ID
+     * @return map of strategyId → allocatedQuantity (signed); empty if the position is unallocated
+     */
+    public Map<String, Integer> getStrategyAllocations(String positionId) {
+        synchronized (ledgerLock) {
+            ensureLedgerLoaded();
+            Map<String, Integer> byStrategy = new HashMap<>();
+            for (LegAllocation leg :
+                    legsByPosition.getOrDefault(positionId, Map.of()).values()) {
+                byStrategy.merge(leg.strategyId(), leg.quantity(), Integer::sum);
+            }
+            return byStrategy;
+        }
+    }
+
+    /**
+     * Bulk lookup: returns allocated quantity per position ID for a set of positions.
      *
      * @param positionIds the position IDs to query
      * @return map of positionId → allocatedQuantity (signed sum of leg quantities)
@@ -76,31 +124,109 @@ public class PositionAllocationService {
             return Map.of();
         }
 
-        List<StrategyLegEntity> legs = strategyLegJpaRepository.findByPositionIdIn(positionIds);
-
-        Map<String, Integer> allocationMap = new HashMap<>();
-        for (StrategyLegEntity leg : legs) {
-            allocationMap.merge(leg.getPositionId(), leg.getQuantity(), Integer::sum);
+        synchronized (ledgerLock) {
+            ensureLedgerLoaded();
+            Map<String, Integer> allocationMap = new HashMap<>();
+            for (String positionId : positionIds) {
+                Integer allocated = allocatedByPosition.get(positionId);
+                if (allocated != null) {
+                    allocationMap.put(positionId, allocated);
+                }
+            }
+            return allocationMap;
         }
-
-        return allocationMap;
     }
 
     /**
      * Returns allocated quantity for ALL positions that have any allocation.
-     * Queries all legs with non-null positionId. Useful for the broker positions
-     * endpoint where we need allocations for every position.
+     * Useful for the broker positions endpoint where we need allocations for every position.
      *
      * @return map of positionId → allocatedQuantity for all allocated positions
      */
     public Map<String, Integer> getAllAllocations() {
-        List<StrategyLegEntity> legs = strategyLegJpaRepository.findByPositionIdIsNotNull();
+        synchronized (ledgerLock) {
+            ensureLedgerLoaded();
+            return new HashMap<>(allocatedByPosition);
+        }
+    }
 
-        Map<String, Integer> allocationMap = new HashMap<>();
+    /** Loads the ledger at startup so the first request doesn't pay for it. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLedger() {
+        synchronized (ledgerLock) {
+            ensureLedgerLoaded();
+        }
+    }
+
+    /**
+     * Applies a committed leg insert, update or delete to the ledger. Events published outside
+     * a transaction are applied immediately.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLegChanged(StrategyLegChangedEvent event) {
+        synchronized (ledgerLock) {
+            if (!ledgerLoaded) {
+                // The load will read the committed row
+                return;
+            }
+            unlink(event.getLegId());
+            if (!event.isRemoved() && event.getPositionId() != null) {
+                link(new LegAllocation(
+                        event.getLegId(), event.getStrategyId(), event.getPositionId(), event.getQuantity()));
+            }
+        }
+    }
+
+    /**
+     * Discards the ledger; it is reloaded from the database on next use. For recovery after
+     * leg rows were changed outside JPA (e.g., a manual SQL fix).
+     */
+    public void invalidateLedger() {
+        synchronized (ledgerLock) {
+            ledgerLoaded = false;
+            legsById.clear();
+            legsByPosition.clear();
+            allocatedByPosition.clear();
+        }
+    }
+
+    /** Caller holds {@link #ledgerLock}. */
+    private void ensureLedgerLoaded() {
+        if (ledgerLoaded) {
+            return;
+        }
+        List<StrategyLegEntity> legs = strategyLegJpaRepository.findByPositionIdIsNotNull();
         for (StrategyLegEntity leg : legs) {
-            allocationMap.merge(leg.getPositionId(), leg.getQuantity(), Integer::sum);
+            link(new LegAllocation(leg.getId(), leg.getStrategyId(), leg.getPositionId(), leg.getQuantity()));
         }
+        ledgerLoaded = true;
+        log.info(
+                "Position allocation ledger loaded: {} linked legs across {} positions",
+                legsById.size(),
+                legsByPosition.size());
+    }
 
-        return allocationMap;
+    private void link(LegAllocation leg) {
+        legsById.put(leg.legId(), leg);
+        legsByPosition.computeIfAbsent(leg.positionId(), id -> new HashMap<>()).put(leg.legId(), leg);
+        allocatedByPosition.merge(leg.positionId(), leg.quantity(), Integer::sum);
     }
+
+    private void unlink(String legId) {
+        LegAllocation previous = legsById.remove(legId);
+        if (previous == null) {
+            return;
+        }
+        Map<String, LegAllocation> positionLegs = legsByPosition.get(previous.positionId());
+        positionLegs.remove(legId);
+        if (positionLegs.isEmpty()) {
+            legsByPosition.remove(previous.positionId());
+            allocatedByPosition.remove(previous.positionId());
+        } else {
+            allocatedByPosition.merge(previous.positionId(), -previous.quantity(), Integer::sum);
+        }
+    }
+
+    /** One linked leg as held in the ledger. */
+    private record LegAllocation(String legId, String strategyId, String positionId, int quantity) {}
 }
@@ -12,6 +12,8 @@ import com.algotrader.event.EventPublisherHelper;
 import com.algotrader.oms.JournaledMultiLegExecutor;
 import com.algotrader.oms.OrderRequest;
 import com.algotrader.service.InstrumentService;
+import com.algotrader.strategy.base.EvaluationDecisionLog.EvaluationPoint;
+import com.algotrader.strategy.base.EvaluationDecisionLog.EvaluationRecord;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDate;
@@ -34,8 +36,8 @@ import org.slf4j.LoggerFactory;
  *       and auto-pause thresholds before delegating to subclass logic</li>
  *   <li><b>Exit evaluation:</b> Target profit, max loss, and DTE-based exits
  *       (subclasses can override {@link #shouldExit} for custom logic)</li>
- *   <li><b>Position tracking:</b> Maintains a list of positions, calculates
- *       aggregate P&L and net delta</li>
+ *   <li><b>Position tracking:</b> Maintains a list of positions and their aggregate
+ *       P&L and Greeks ({@link PositionTotals}), updated as positions change</li>
  *   <li><b>Adjustment cooldown:</b> Configurable per-strategy cooldown prevents
  *       rapid-fire adjustments</li>
  *   <li><b>Concurrency safety:</b> Uses {@link StampedLock} with optimistic reads
@@ -63,6 +65,9 @@ public abstract class BaseStrategy implements TradingStrategy {
     /** Default adjustment cooldown: 5 minutes for positional strategies. */
     private static final Duration DEFAULT_ADJUSTMENT_COOLDOWN = Duration.ofMinutes(5);
 
+    /** How often a repeated "no action" evaluation outcome is sampled into the decision log. */
+    private static final Duration DECISION_SAMPLE_INTERVAL = Duration.ofMinutes(1);
+
     /** Default timeout for waiting on BUY fills in buy-first-then-sell mode. */
     private static final Duration BUY_FILL_TIMEOUT = Duration.ofSeconds(30);
 
@@ -74,11 +79,16 @@ public abstract class BaseStrategy implements TradingStrategy {
     // ---- State ----
     protected volatile StrategyStatus status = StrategyStatus.CREATED;
     protected final List<Position> positions = new ArrayList<>();
+    private final PositionTotalsTracker positionTotals = new PositionTotalsTracker();
     protected volatile BigDecimal entryPremium;
     protected volatile LocalDateTime lastEvaluationTime;
     protected volatile LocalDateTime entryTime;
     protected volatile LocalDateTime lastAdjustmentTime;
 
+    /** Suppresses/samples repeated per-tick entry and exit outcomes. Evaluation-thread only. */
+    private final EvaluationDecisionLog evaluationDecisionLog =
+            new EvaluationDecisionLog(DECISION_SAMPLE_INTERVAL.toNanos());
+
     // ---- Concurrency ----
     /**
      * StampedLock for concurrent strategy access.
@@ -271,6 +281,14 @@ public abstract class BaseStrategy implements TradingStrategy {
 
     @Override
     public void initiateClose() {
+        initiateClose(0L);
+    }
+
+    /**
+     * Closes all positions. {@code tickReceivedAt} is the receipt time of the tick that
+     * triggered the exit (0 for manual/lifecycle closes) and is stamped on the exit orders.
+     */
+    private void initiateClose(long tickReceivedAt) {
         List<OrderRequest> exitOrders;
 
         long stamp = stampedLock.writeLock();
@@ -281,6 +299,9 @@ public abstract class BaseStrategy implements TradingStrategy {
         } finally {
             stampedLock.unlockWrite(stamp);
         }
+        for (OrderRequest order : exitOrders) {
+            order.setTickReceivedAt(tickReceivedAt);
+        }
 
         // Execute exit orders OUTSIDE the lock to avoid holding it during I/O
         // Buy-first: buying back short positions frees margin before selling long positions
@@ -496,16 +517,7 @@ public abstract class BaseStrategy implements TradingStrategy {
     private void evaluateEntry(MarketSnapshot snapshot) {
         boolean enter = shouldEnter(snapshot);
 
-        logDecision(
-                "ENTRY_EVAL",
-                enter ? "Entry conditions met" : "Entry conditions not met",
-                Map.of(
-                        "spotPrice",
-                        snapshot.getSpotPrice().toString(),
-                        "atmIV",
-                        snapshot.getAtmIV() != null ? snapshot.getAtmIV().toString() : "N/A",
-                        "decision",
-                        enter));
+        logEvaluation(EvaluationPoint.ENTRY_EVAL, enter, snapshot.getSpotPrice(), snapshot.getAtmIV());
 
         if (enter) {
             executeEntry(snapshot);
@@ -524,9 +536,10 @@ public abstract class BaseStrategy implements TradingStrategy {
             return;
         }
 
-        // Set strategyId on all orders
+        // Set strategyId and originating tick on all orders
         for (OrderRequest order : orders) {
             order.setStrategyId(id);
+            order.setTickReceivedAt(snapshot.getTickReceivedAt());
         }
 
         logDecision("ENTRY_EXEC", "Executing entry orders", Map.of("legs", orders.size()));
@@ -561,19 +574,10 @@ public abstract class BaseStrategy implements TradingStrategy {
         boolean exit = shouldExitByAbsolutePnl() || shouldExit(snapshot);
         BigDecimal currentPnl = calculateTotalPnl();
 
-        logDecision(
-                "EXIT_EVAL",
-                exit ? "Exit triggered" : "No exit",
-                Map.of(
-                        "currentPnl",
-                        currentPnl.toString(),
-                        "entryPremium",
-                        entryPremium != null ? entryPremium.toString() : "N/A",
-                        "decision",
-                        exit));
+        logEvaluation(EvaluationPoint.EXIT_EVAL, exit, currentPnl, entryPremium);
 
         if (exit) {
-            initiateClose();
+            initiateClose(snapshot.getTickReceivedAt());
         }
     }
 
@@ -613,6 +617,7 @@ public abstract class BaseStrategy implements TradingStrategy {
             for (int i = 0; i < positions.size(); i++) {
                 if (positions.get(i).getId().equals(updatedPosition.getId())) {
                     positions.set(i, updatedPosition);
+                    positionTotals.set(i, updatedPosition);
                     return;
                 }
             }
@@ -626,6 +631,7 @@ public abstract class BaseStrategy implements TradingStrategy {
         long stamp = stampedLock.writeLock();
         try {
             positions.add(position);
+            positionTotals.add(position);
         } finally {
             stampedLock.unlockWrite(stamp);
         }
@@ -635,7 +641,9 @@ public abstract class BaseStrategy implements TradingStrategy {
     public void removePosition(String positionId) {
         long stamp = stampedLock.writeLock();
         try {
-            positions.removeIf(p -> p.getId().equals(positionId));
+            if (positions.removeIf(p -> p.getId().equals(positionId))) {
+                positionTotals.reset(positions);
+            }
         } finally {
             stampedLock.unlockWrite(stamp);
         }
@@ -645,18 +653,18 @@ public abstract class BaseStrategy implements TradingStrategy {
     // P&L CALCULATIONS
     // ========================
 
+    /**
+     * Returns the current aggregate P&L and Greeks across all positions. Maintained as
+     * positions are added, updated and removed, so this is a lock-free O(1) read.
+     */
+    public PositionTotals getPositionTotals() {
+        return positionTotals.totals();
+    }
+
+    /** Total realized + unrealized P&L across positions, to the paisa. */
     @Override
     public BigDecimal calculateTotalPnl() {
-        return positions.stream()
-                .map(p -> {
-                    BigDecimal unrealized = p.getUnrealizedPnl();
-                    BigDecimal realized = p.getRealizedPnl();
-                    BigDecimal total = BigDecimal.ZERO;
-                    if (unrealized != null) total = total.add(unrealized);
-                    if (realized != null) total = total.add(realized);
-                    return total;
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return positionTotals.totals().totalPnl();
     }
 
     /**
@@ -664,10 +672,7 @@ public abstract class BaseStrategy implements TradingStrategy {
      * Positive delta = net long, negative = net short.
      */
     protected BigDecimal calculatePositionDelta() {
-        return positions.stream()
-                .filter(p -> p.getGreeks() != null && p.getGreeks().isAvailable())
-                .map(p -> p.getGreeks().getDelta().multiply(BigDecimal.valueOf(p.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return BigDecimal.valueOf(positionTotals.totals().delta());
     }
 
     // ========================
@@ -864,6 +869,19 @@ public abstract class BaseStrategy implements TradingStrategy {
     // DECISION LOGGING
     // ========================
 
+    /**
+     * Logs a per-tick evaluation outcome through the {@link EvaluationDecisionLog}. Repeated
+     * "no action" outcomes cost a counter increment; only first, changed, triggered and
+     * periodically sampled outcomes reach {@link #logDecision}.
+     */
+    private void logEvaluation(EvaluationPoint point, boolean triggered, BigDecimal first, BigDecimal second) {
+        EvaluationRecord record = evaluationDecisionLog.record(point, triggered, first, second, System.nanoTime());
+        if (record != null) {
+            logDecision(record.getCategory(), record.getMessage(), record.toContext());
+            evaluationDecisionLog.published(record);
+        }
+    }
+
     /**
      * Logs a strategy decision via EventPublisherHelper. Every evaluation, skip,
      * and lifecycle change should be logged for post-trade analysis.
@@ -0,0 +1,153 @@
+package com.algotrader.strategy.base;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-strategy recorder for the per-tick evaluation outcomes (entry and exit checks).
+ *
+ * <p>Every tick an ARMED strategy decides "enter or not" and an ACTIVE strategy decides
+ * "exit or not". Almost all of those decisions are the same routine "no action" outcome,
+ * so publishing each one as a DecisionEvent (with its context map and formatted values)
+ * produces steady garbage without adding information. This log keeps one preallocated,
+ * reusable {@link EvaluationRecord} per {@link EvaluationPoint} and decides per call whether
+ * the outcome is worth publishing:
+ * <ul>
+ *   <li>First outcome, an outcome different from the previous one, and every triggered
+ *       outcome (an action is about to happen) are always emitted in full.</li>
+ *   <li>A repeat of the previous non-triggered outcome is suppressed: the record only
+ *       stores the latest value references and bumps a counter, no allocation.</li>
+ *   <li>Suppressed repeats are sampled: once the sample interval has elapsed since the
+ *       last emission, the next repeat is emitted carrying the count of repeats suppressed
+ *       in between.</li>
+ * </ul>
+ *
+ * <p>Formatting is deferred: values are held as references and only turned into the
+ * decision context map by {@link EvaluationRecord#toContext()} when a record is emitted.
+ *
+ * <p>Not thread-safe. A strategy is evaluated on a single shard thread (see
+ * StrategyEvaluationShards), which is the only caller.
+ */
+public final class EvaluationDecisionLog {
+
+    /** The evaluation points that run on every tick, with their decision log wording. */
+    public enum EvaluationPoint {
+        ENTRY_EVAL("Entry conditions met", "Entry conditions not met", "spotPrice", "atmIV"),
+        EXIT_EVAL("Exit triggered", "No exit", "currentPnl", "entryPremium");
+
+        private final String triggeredMessage;
+        private final String skippedMessage;
+        private final String firstKey;
+        private final String secondKey;
+
+        EvaluationPoint(String triggeredMessage, String skippedMessage, String firstKey, String secondKey) {
+            this.triggeredMessage = triggeredMessage;
+            this.skippedMessage = skippedMessage;
+            this.firstKey = firstKey;
+            this.secondKey = secondKey;
+        }
+    }
+
+    /**
+     * Reusable record for one evaluation point. Overwritten on every call, so it must be
+     * consumed (via {@link #toContext()}) before the next evaluation.
+     */
+    public static final class EvaluationRecord {
+
+        private final EvaluationPoint point;
+        private boolean seen;
+        private boolean triggered;
+        private BigDecimal first;
+        private BigDecimal second;
+        private long repeats;
+        private long lastEmittedAt;
+
+        private EvaluationRecord(EvaluationPoint point) {
+            this.point = point;
+        }
+
+        public EvaluationPoint getPoint() {
+            return point;
+        }
+
+        public String getCategory() {
+            return point.name();
+        }
+
+        public boolean isTriggered() {
+            return triggered;
+        }
+
+        public String getMessage() {
+            return triggered ? point.triggeredMessage : point.skippedMessage;
+        }
+
+        /** Number of outcomes suppressed since the previous emission of this point. */
+        public long getRepeats() {
+            return repeats;
+        }
+
+        /** Builds the decision context. Only called for emitted records. */
+        public Map<String, Object> toContext() {
+            Map<String, Object> context = new LinkedHashMap<>(4);
+            context.put(point.firstKey, first != null ? first.toString() : "N/A");
+            context.put(point.secondKey, second != null ? second.toString() : "N/A");
+            context.put("decision", triggered);
+            if (repeats > 0) {
+                context.put("repeats", repeats);
+            }
+            return context;
+        }
+    }
+
+    private final EvaluationRecord[] records;
+    private final long sampleIntervalNanos;
+
+    public EvaluationDecisionLog(long sampleIntervalNanos) {
+        this.sampleIntervalNanos = sampleIntervalNanos;
+        EvaluationPoint[] points = EvaluationPoint.values();
+        this.records = new EvaluationRecord[points.length];
+        for (EvaluationPoint point : points) {
+            records[point.ordinal()] = new EvaluationRecord(point);
+        }
+    }
+
+    /**
+     * Records an evaluation outcome.
+     *
+     * @param point     which evaluation produced the outcome
+     * @param triggered whether the evaluation decided to act
+     * @param first     first context value (spot price / current P&L), formatted only on emission
+     * @param second    second context value (ATM IV / entry premium), formatted only on emission
+     * @param nowNanos  System.nanoTime() of the evaluation
+     * @return the record to publish, or null if the outcome was suppressed
+     */
+    public EvaluationRecord record(
+            EvaluationPoint point, boolean triggered, BigDecimal first, BigDecimal second, long nowNanos) {
+        EvaluationRecord record = records[point.ordinal()];
+
+        boolean repeat = record.seen && !triggered && !record.triggered;
+        if (repeat && nowNanos - record.lastEmittedAt < sampleIntervalNanos) {
+            record.repeats++;
+            record.first = first;
+            record.second = second;
+            return null;
+        }
+
+        record.seen = true;
+        record.triggered = triggered;
+        record.first = first;
+        record.second = second;
+        record.lastEmittedAt = nowNanos;
+        return record;
+    }
+
+    /**
+     * Marks an emitted record as published, resetting its repeat counter. Separate from
+     * {@link #record} so that the count is still in the context built for the emission.
+     */
+    public void published(EvaluationRecord record) {
+        record.repeats = 0;
+    }
+}
@@ -2,29 +2,60 @@ package com.algotrader.strategy.base;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
 
 /**
  * Point-in-time snapshot of market conditions for a specific underlying.
  *
  * <p>Passed to strategy evaluation methods (shouldEnter, shouldExit, adjust).
- * Contains the spot price, ATM implied volatility, and timestamp. Strategy
+ * Contains the spot price, ATM strike and implied volatility, IV skew around ATM,
+ * days to expiry, the underlying's latest indicator values, and timestamp. Strategy
  * implementations use this to make entry/exit/adjustment decisions without
  * directly querying market data services.
  *
- * <p>Built by the StrategyEngine from the latest tick data before each evaluation cycle.
+ * <p>Immutable. Published by MarketStateService whenever the per-underlying market state
+ * changes and shared by every strategy on that underlying, so building it is not repeated
+ * per strategy. The maps are unmodifiable and replaced (never mutated) on update. Fields
+ * the state has not seen yet (e.g. IV before any option tick) are null.
  */
-@Data
-@Builder
+@Value
+@Builder(toBuilder = true)
 public class MarketSnapshot {
 
+    /** Root underlying symbol (e.g., "NIFTY"). Null for snapshots built from an untracked tick. */
+    String underlying;
+
     /** Underlying spot price (e.g., NIFTY index value). */
-    private BigDecimal spotPrice;
+    BigDecimal spotPrice;
+
+    /** Option strike closest to the spot price. */
+    BigDecimal atmStrike;
+
+    /** ATM implied volatility for the underlying, in percent (average of ATM CE and PE). */
+    BigDecimal atmIV;
+
+    /** IV (percent) at the strikes around ATM, keyed by strike in ascending order. */
+    Map<BigDecimal, BigDecimal> ivSkew;
 
-    /** ATM implied volatility for the underlying. */
-    private BigDecimal atmIV;
+    /** Trading days to the nearest expiry (null if unknown). */
+    Integer daysToExpiry;
+
+    /** Latest indicator values for the underlying's spot instrument, keyed by indicator key. */
+    Map<String, BigDecimal> indicators;
 
     /** When this snapshot was captured. */
-    private LocalDateTime timestamp;
+    LocalDateTime timestamp;
+
+    /**
+     * System.nanoTime() when the originating tick was received from Kite (0 if not tick-driven).
+     * Copied onto orders built during evaluation for tick-to-order latency measurement.
+     */
+    long tickReceivedAt;
+
+    /** Returns an indicator value by key (e.g., "RSI:14"), or null if not available. */
+    public BigDecimal getIndicator(String key) {
+        return indicators != null ? indicators.get(key) : null;
+    }
 }
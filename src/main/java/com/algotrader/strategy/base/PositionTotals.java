@@ -0,0 +1,50 @@
+package com.algotrader.strategy.base;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable snapshot of a strategy's aggregate position figures, kept current by
+ * {@link PositionTotalsTracker} and read through {@link BaseStrategy#getPositionTotals()}.
+ *
+ * <p>P&amp;L is held in whole paise so sums are exact; Greeks are quantity-weighted
+ * (greek * signed quantity) over positions with available Greeks. Premium is the entry
+ * premium numerator: sum of averagePrice * |quantity|.
+ *
+ * @param pnlPaise           realized + unrealized P&amp;L, in paise
+ * @param unrealizedPnlPaise unrealized P&amp;L, in paise
+ * @param delta              net position delta
+ * @param gamma              net position gamma
+ * @param theta              net position theta
+ * @param vega               net position vega
+ * @param premium            sum of averagePrice * |quantity|
+ * @param absQuantity        sum of |quantity|
+ * @param positionCount      number of positions
+ */
+public record PositionTotals(
+        long pnlPaise,
+        long unrealizedPnlPaise,
+        double delta,
+        double gamma,
+        double theta,
+        double vega,
+        double premium,
+        long absQuantity,
+        int positionCount) {
+
+    public static final PositionTotals EMPTY = new PositionTotals(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    /** Realized + unrealized P&amp;L in rupees. */
+    public BigDecimal totalPnl() {
+        return BigDecimal.valueOf(pnlPaise, 2);
+    }
+
+    /** Unrealized P&amp;L in rupees. */
+    public BigDecimal unrealizedPnl() {
+        return BigDecimal.valueOf(unrealizedPnlPaise, 2);
+    }
+
+    /** Quantity-weighted average entry price, or 0 with no open quantity. */
+    public double averagePremium() {
+        return absQuantity > 0 ? premium / absQuantity : 0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.algotrader.strategy.base;
+
+import com.algotrader.domain.model.Greeks;
+import com.algotrader.domain.model.Position;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps a strategy's {@link PositionTotals} current as its positions change, so P&amp;L and
+ * Greeks are read in O(1) instead of streaming BigDecimal arithmetic over the positions on
+ * every evaluation, REST call and update push.
+ *
+ * <p>Each position's contribution is converted to primitives once, when the position is added
+ * or replaced, and stored in an array aligned with the strategy's position list. A replacement
+ * whose contribution is unchanged (same price, quantity, P&amp;L and Greeks) publishes nothing.
+ * Otherwise the stored contributions are re-summed, which is a handful of primitive adds for a
+ * few legs and never drifts the way subtract-and-add running sums of doubles would.
+ *
+ * <p>Writers are serialized by the strategy's write lock. The totals are published as an
+ * immutable snapshot through a volatile field, so readers need no lock and always see a
+ * consistent set of figures.
+ */
+final class PositionTotalsTracker {
+
+    private Contribution[] contributions = new Contribution[4];
+    private int size;
+
+    private volatile PositionTotals totals = PositionTotals.EMPTY;
+
+    PositionTotals totals() {
+        return totals;
+    }
+
+    /** Appends a position, matching an append to the strategy's list. */
+    void add(Position position) {
+        if (size == contributions.length) {
+            contributions = Arrays.copyOf(contributions, size * 2);
+        }
+        contributions[size++] = Contribution.of(position);
+        publish();
+    }
+
+    /** Replaces the position at {@code index}; publishes only if its contribution changed. */
+    void set(int index, Position position) {
+        Contribution updated = Contribution.of(position);
+        if (updated.equals(contributions[index])) {
+            return;
+        }
+        contributions[index] = updated;
+        publish();
+    }
+
+    /** Rebuilds from the full list after structural removals. */
+    void reset(List<Position> positions) {
+        contributions = new Contribution[Math.max(4, positions.size())];
+        size = 0;
+        for (Position position : positions) {
+            contributions[size++] = Contribution.of(position);
+        }
+        publish();
+    }
+
+    private void publish() {
+        long pnl = 0;
+        long unrealized = 0;
+        double delta = 0;
+        double gamma = 0;
+        double theta = 0;
+        double vega = 0;
+        double premium = 0;
+        long absQuantity = 0;
+        for (int i = 0; i < size; i++) {
+            Contribution c = contributions[i];
+            pnl += c.unrealizedPaise + c.realizedPaise;
+            unrealized += c.unrealizedPaise;
+            delta += c.delta;
+            gamma += c.gamma;
+            theta += c.theta;
+            vega += c.vega;
+            premium += c.premium;
+            absQuantity += c.absQuantity;
+        }
+        totals = new PositionTotals(pnl, unrealized, delta, gamma, theta, vega, premium, absQuantity, size);
+    }
+
+    /** One position's share of the totals, in primitives. */
+    private record Contribution(
+            long unrealizedPaise,
+            long realizedPaise,
+            double delta,
+            double gamma,
+            double theta,
+            double vega,
+            double premium,
+            int absQuantity) {
+
+        static Contribution of(Position position) {
+            int quantity = position.getQuantity();
+            Greeks greeks = position.getGreeks();
+            boolean hasGreeks = greeks != null && greeks.isAvailable();
+            return new Contribution(
+                    toPaise(position.getUnrealizedPnl()),
+                    toPaise(position.getRealizedPnl()),
+                    hasGreeks ? weighted(greeks.getDelta(), quantity) : 0,
+                    hasGreeks ? weighted(greeks.getGamma(), quantity) : 0,
+                    hasGreeks ? weighted(greeks.getTheta(), quantity) : 0,
+                    hasGreeks ? weighted(greeks.getVega(), quantity) : 0,
+                    position.getAveragePrice() != null
+                            ? position.getAveragePrice().doubleValue() * Math.abs(quantity)
+                            : 0,
+                    Math.abs(quantity));
+        }
+
+        private static long toPaise(BigDecimal amount) {
+            return amount != null
+                    ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue()
+                    : 0;
+        }
+
+        private static double weighted(BigDecimal greek, int quantity) {
+            return greek != null ? greek.doubleValue() * quantity : 0;
+        }
+    }
+}
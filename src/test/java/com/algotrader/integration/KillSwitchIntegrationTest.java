@@ -7,7 +7,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.broker.BrokerGateway;
+import com.algotrader.calendar.ExpiryCalendarService;
 import com.algotrader.core.engine.StrategyEngine;
+import com.algotrader.core.engine.StrategyEvaluationShards;
+import com.algotrader.core.processor.GreeksCalculator;
+import com.algotrader.core.processor.MarketStateService;
 import com.algotrader.domain.enums.OrderPriority;
 import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.OrderType;
@@ -16,6 +20,7 @@ import com.algotrader.domain.enums.StrategyType;
 import com.algotrader.domain.model.Order;
 import com.algotrader.domain.model.Position;
 import com.algotrader.event.EventPublisherHelper;
+import com.algotrader.observability.TickLatencyTracker;
 import com.algotrader.oms.IdempotencyService;
 import com.algotrader.oms.JournaledMultiLegExecutor;
 import com.algotrader.oms.OrderQueue;
@@ -31,6 +36,7 @@ import com.algotrader.risk.KillSwitchService;
 import com.algotrader.service.InstrumentService;
 import com.algotrader.strategy.StrategyFactory;
 import com.algotrader.strategy.impl.StraddleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -82,10 +88,14 @@ class KillSwitchIntegrationTest {
                 instrumentService,
                 strategyJpaRepository,
                 strategyLegJpaRepository,
-                positionRedisRepository);
+                positionRedisRepository,
+                new TickLatencyTracker(new SimpleMeterRegistry()),
+                new StrategyEvaluationShards(0, 256),
+                new MarketStateService(
+                        instrumentService, mock(GreeksCalculator.class), mock(ExpiryCalendarService.class)));
 
         IdempotencyService idempotencyService = mock(IdempotencyService.class);
-        OrderQueue orderQueue = new OrderQueue();
+        OrderQueue orderQueue = new OrderQueue(new TickLatencyTracker(new SimpleMeterRegistry()));
         orderRouter = new OrderRouter(idempotencyService, orderQueue, eventPublisherHelper);
 
         killSwitchService = new KillSwitchService(
@@ -8,12 +8,14 @@ import com.algotrader.domain.enums.OrderPriority;
 import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.OrderType;
 import com.algotrader.event.EventPublisherHelper;
+import com.algotrader.observability.TickLatencyTracker;
 import com.algotrader.oms.IdempotencyService;
 import com.algotrader.oms.OrderQueue;
 import com.algotrader.oms.OrderRequest;
 import com.algotrader.oms.OrderRouteResult;
 import com.algotrader.oms.OrderRouter;
 import com.algotrader.oms.PrioritizedOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -38,7 +40,7 @@ class OrderFlowIntegrationTest {
     @BeforeEach
     void setUp() {
         EventPublisherHelper eventPublisherHelper = mock(EventPublisherHelper.class);
-        orderQueue = new OrderQueue();
+        orderQueue = new OrderQueue(new TickLatencyTracker(new SimpleMeterRegistry()));
         orderRouter = new OrderRouter(idempotencyService, orderQueue, eventPublisherHelper);
     }
 
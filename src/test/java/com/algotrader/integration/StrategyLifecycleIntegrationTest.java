@@ -4,10 +4,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 
+import com.algotrader.calendar.ExpiryCalendarService;
 import com.algotrader.core.engine.StrategyEngine;
+import com.algotrader.core.engine.StrategyEvaluationShards;
+import com.algotrader.core.processor.GreeksCalculator;
+import com.algotrader.core.processor.MarketStateService;
 import com.algotrader.domain.enums.StrategyStatus;
 import com.algotrader.domain.enums.StrategyType;
 import com.algotrader.event.EventPublisherHelper;
+import com.algotrader.observability.TickLatencyTracker;
 import com.algotrader.oms.JournaledMultiLegExecutor;
 import com.algotrader.repository.jpa.StrategyJpaRepository;
 import com.algotrader.repository.jpa.StrategyLegJpaRepository;
@@ -16,6 +21,7 @@ import com.algotrader.service.InstrumentService;
 import com.algotrader.strategy.StrategyFactory;
 import com.algotrader.strategy.base.BaseStrategy;
 import com.algotrader.strategy.impl.StraddleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -50,7 +56,11 @@ class StrategyLifecycleIntegrationTest {
                 instrumentService,
                 strategyJpaRepository,
                 strategyLegJpaRepository,
-                positionRedisRepository);
+                positionRedisRepository,
+                new TickLatencyTracker(new SimpleMeterRegistry()),
+                new StrategyEvaluationShards(0, 256),
+                new MarketStateService(
+                        instrumentService, mock(GreeksCalculator.class), mock(ExpiryCalendarService.class)));
     }
 
     @Test
@@ -3,6 +3,7 @@ package com.algotrader.unit.broker;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.algotrader.broker.InstrumentSubscriptionManager;
+import com.algotrader.domain.enums.FeedMode;
 import com.algotrader.domain.enums.SubscriptionPriority;
 import java.util.List;
 import java.util.stream.LongStream;
@@ -173,4 +174,89 @@ class InstrumentSubscriptionManagerTest {
         var activeTokens = instrumentSubscriptionManager.getActiveTokens();
         assertThat(activeTokens).containsExactlyInAnyOrder(100L, 200L);
     }
+
+    @Test
+    @DisplayName("reference counts: token stays active until its last subscriber releases it")
+    void referenceCounts() {
+        instrumentSubscriptionManager.subscribe("manual:a", List.of(100L), SubscriptionPriority.MANUAL);
+        instrumentSubscriptionManager.subscribe("manual:b", List.of(100L), SubscriptionPriority.MANUAL);
+        instrumentSubscriptionManager.subscribe("manual:a", List.of(100L), SubscriptionPriority.MANUAL);
+
+        assertThat(instrumentSubscriptionManager.getReferenceCount(100L)).isEqualTo(2);
+        assertThat(instrumentSubscriptionManager.unsubscribeAll("manual:a")).isEmpty();
+        assertThat(instrumentSubscriptionManager.unsubscribeAll("manual:a")).isEmpty();
+        assertThat(instrumentSubscriptionManager.unsubscribeAll("manual:b")).containsExactly(100L);
+        assertThat(instrumentSubscriptionManager.getReferenceCount(100L)).isZero();
+    }
+
+    @Test
+    @DisplayName("eviction: evicted tokens are handed back for WebSocket unsubscribe, oldest first")
+    void evictedTokensDrained() {
+        instrumentSubscriptionManager.subscribe("manual:old", List.of(1L), SubscriptionPriority.MANUAL);
+        instrumentSubscriptionManager.subscribe(
+                "manual:new", LongStream.rangeClosed(2, 3000).boxed().toList(), SubscriptionPriority.MANUAL);
+
+        instrumentSubscriptionManager.subscribe("strategy:s1", List.of(5001L), SubscriptionPriority.STRATEGY);
+
+        assertThat(instrumentSubscriptionManager.drainEvictedTokens()).containsExactly(1L);
+        assertThat(instrumentSubscriptionManager.drainEvictedTokens()).isEmpty();
+        // The evicted subscriber no longer holds anything
+        assertThat(instrumentSubscriptionManager.unsubscribeAll("manual:old")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("eviction: a token also held at higher priority is never evicted")
+    void sharedHigherPriorityTokenNotEvicted() {
+        instrumentSubscriptionManager.subscribe(
+                "strategy:s1", LongStream.rangeClosed(1, 2999).boxed().toList(), SubscriptionPriority.STRATEGY);
+        instrumentSubscriptionManager.subscribe("manual:m1", List.of(1L, 3000L), SubscriptionPriority.MANUAL);
+
+        instrumentSubscriptionManager.subscribe("condition:c1", List.of(5001L), SubscriptionPriority.CONDITION);
+
+        assertThat(instrumentSubscriptionManager.drainEvictedTokens()).containsExactly(3000L);
+        assertThat(instrumentSubscriptionManager.getReferenceCount(1L)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("eviction: nothing is evicted when not enough capacity can be freed")
+    void insufficientCapacityEvictsNothing() {
+        instrumentSubscriptionManager.subscribe(
+                "strategy:s1", LongStream.rangeClosed(1, 2999).boxed().toList(), SubscriptionPriority.STRATEGY);
+        instrumentSubscriptionManager.subscribe("manual:m1", List.of(3000L), SubscriptionPriority.MANUAL);
+
+        List<Long> newTokens = instrumentSubscriptionManager.subscribe(
+                "strategy:s2", List.of(5001L, 5002L), SubscriptionPriority.STRATEGY);
+
+        assertThat(newTokens).isEmpty();
+        assertThat(instrumentSubscriptionManager.isSubscribed(3000L)).isTrue();
+        assertThat(instrumentSubscriptionManager.drainEvictedTokens()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("feed mode: token streams at the highest requested mode and downgrades when it leaves")
+    void feedModeFollowsHighestSubscriber() {
+        instrumentSubscriptionManager.subscribe("chart:c1", List.of(100L), SubscriptionPriority.MANUAL, FeedMode.LTP);
+        assertThat(instrumentSubscriptionManager.drainModeChanges()).containsEntry(FeedMode.LTP, List.of(100L));
+
+        instrumentSubscriptionManager.subscribe("chain:o1", List.of(100L), SubscriptionPriority.MANUAL, FeedMode.FULL);
+        assertThat(instrumentSubscriptionManager.getFeedMode(100L)).isEqualTo(FeedMode.FULL);
+        assertThat(instrumentSubscriptionManager.drainModeChanges()).containsEntry(FeedMode.FULL, List.of(100L));
+
+        // Another LTP subscriber changes nothing
+        instrumentSubscriptionManager.subscribe("chart:c2", List.of(100L), SubscriptionPriority.MANUAL, FeedMode.LTP);
+        assertThat(instrumentSubscriptionManager.drainModeChanges()).isEmpty();
+
+        instrumentSubscriptionManager.unsubscribeAll("chain:o1");
+        assertThat(instrumentSubscriptionManager.getFeedMode(100L)).isEqualTo(FeedMode.LTP);
+        assertThat(instrumentSubscriptionManager.drainModeChanges()).containsEntry(FeedMode.LTP, List.of(100L));
+    }
+
+    @Test
+    @DisplayName("feed mode: subscribe without a mode requests FULL")
+    void defaultFeedModeIsFull() {
+        instrumentSubscriptionManager.subscribe("strategy:s1", List.of(100L), SubscriptionPriority.STRATEGY);
+
+        assertThat(instrumentSubscriptionManager.getFeedMode(100L)).isEqualTo(FeedMode.FULL);
+        assertThat(instrumentSubscriptionManager.getFeedMode(999L)).isNull();
+    }
 }
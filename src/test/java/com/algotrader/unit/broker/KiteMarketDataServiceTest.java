@@ -5,6 +5,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.algotrader.broker.KiteMarketDataService;
 import com.algotrader.broker.KiteOrderUpdateHandler;
 import com.algotrader.config.KiteConfig;
+import com.algotrader.observability.TickLatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.lang.reflect.Method;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -41,8 +43,11 @@ class KiteMarketDataServiceTest {
         kiteConfig = new KiteConfig();
         kiteConfig.setApiKey("test_key");
         kiteConfig.setApiSecret("test_secret");
-        kiteMarketDataService =
-                new KiteMarketDataService(kiteConfig, applicationEventPublisher, kiteOrderUpdateHandler);
+        kiteMarketDataService = new KiteMarketDataService(
+                kiteConfig,
+                applicationEventPublisher,
+                kiteOrderUpdateHandler,
+                new TickLatencyTracker(new SimpleMeterRegistry()));
     }
 
     @Test
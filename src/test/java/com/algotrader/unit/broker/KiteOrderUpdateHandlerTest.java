@@ -3,6 +3,7 @@ package com.algotrader.unit.broker;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -194,7 +195,7 @@ class KiteOrderUpdateHandlerTest {
     class CompleteHandling {
 
         @Test
-        @DisplayName("COMPLETE with increased filledQty publishes FILLED event and triggers reconcile")
+        @DisplayName("COMPLETE with increased filledQty publishes FILLED event and records the fill")
         void completeOrderPublishesFilledEvent() {
             Order existing = existingOrder("ORD-4", "KT-400", OrderStatus.OPEN, 0);
             com.zerodhatech.models.Order kiteOrder = kiteOrder("KT-400", "COMPLETE", "50", "152.50");
@@ -213,7 +214,7 @@ class KiteOrderUpdateHandlerTest {
             assertThat(filledOrder.getAverageFillPrice()).isEqualByComparingTo(new BigDecimal("152.50"));
             assertThat(filledOrder.getUpdatedAt()).isNotNull();
 
-            verify(positionReconciliationService).reconcile("ORDER_FILL");
+            verify(positionReconciliationService).onFill(filledOrder, 50);
         }
 
         @Test
@@ -228,7 +229,7 @@ class KiteOrderUpdateHandlerTest {
 
             verify(orderRedisRepository, never()).save(any());
             verify(eventPublisherHelper, never()).publishOrderFilled(any(), any(), any());
-            verify(positionReconciliationService, never()).reconcile(any());
+            verify(positionReconciliationService, never()).onFill(any(), anyInt());
         }
     }
 
@@ -256,7 +257,8 @@ class KiteOrderUpdateHandlerTest {
             assertThat(partialOrder.getFilledQuantity()).isEqualTo(25);
             assertThat(partialOrder.getAverageFillPrice()).isEqualByComparingTo(new BigDecimal("151.00"));
 
-            // Partial fills should NOT trigger position reconciliation
+            // Partial fills are recorded for incremental reconciliation, never a full reconcile
+            verify(positionReconciliationService).onFill(partialOrder, 25);
             verify(positionReconciliationService, never()).reconcile(any());
         }
     }
@@ -295,7 +297,7 @@ class KiteOrderUpdateHandlerTest {
             when(orderRedisRepository.findByBrokerOrderId("KT-800")).thenReturn(Optional.of(existing));
             doThrow(new RuntimeException("Kite API down"))
                     .when(positionReconciliationService)
-                    .reconcile("ORDER_FILL");
+                    .onFill(any(), anyInt());
 
             // Should NOT throw — reconciliation failure is caught internally
             assertThatCode(() -> kiteOrderUpdateHandler.handleOrderUpdate(kiteOrder))
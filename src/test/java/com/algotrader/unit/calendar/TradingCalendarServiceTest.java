@@ -305,6 +305,78 @@ class TradingCalendarServiceTest {
             LocalDate prevTrading = tradingCalendarService.getPreviousTradingDay(aug18);
             assertThat(prevTrading).isEqualTo(LocalDate.of(2025, 8, 14));
         }
+
+        @Test
+        @DisplayName("getTradingDaysBetween excludes the start, includes the end and skips holidays")
+        void tradingDaysBetweenSkipsHolidays() {
+            addHoliday(LocalDate.of(2025, 8, 15), "Independence Day", HolidayType.FULL_HOLIDAY);
+            addHoliday(LocalDate.of(2025, 10, 25), "Muhurat on Saturday", HolidayType.MUHURAT_TRADING);
+
+            // Mon Aug 11 -> Mon Aug 18: Aug 12, 13, 14, 18
+            assertThat(tradingCalendarService.getTradingDaysBetween(
+                            LocalDate.of(2025, 8, 11), LocalDate.of(2025, 8, 18)))
+                    .isEqualTo(4);
+            // Fri Oct 24 -> Mon Oct 27: Saturday Muhurat session counts
+            assertThat(tradingCalendarService.getTradingDaysBetween(
+                            LocalDate.of(2025, 10, 24), LocalDate.of(2025, 10, 27)))
+                    .isEqualTo(2);
+            assertThat(tradingCalendarService.getTradingDaysBetween(
+                            LocalDate.of(2025, 8, 18), LocalDate.of(2025, 8, 11)))
+                    .isZero();
+        }
+
+        @Test
+        @DisplayName("Dates outside the compiled years fall back to the weekend rule")
+        void datesOutsideCompiledYears() {
+            addHoliday(LocalDate.of(2025, 8, 15), "Independence Day", HolidayType.FULL_HOLIDAY);
+
+            // Friday Dec 31, 2100 -> Monday Jan 3, 2101
+            assertThat(tradingCalendarService.getNextTradingDay(LocalDate.of(2100, 12, 31)))
+                    .isEqualTo(LocalDate.of(2101, 1, 3));
+            assertThat(tradingCalendarService.isHoliday(LocalDate.of(2000, 1, 1)))
+                    .isTrue();
+            // Mon Jan 3, 2000 -> Mon Jan 10, 2000 spans no holidays: 5 trading days
+            assertThat(tradingCalendarService.getTradingDaysBetween(
+                            LocalDate.of(2000, 1, 3), LocalDate.of(2000, 1, 10)))
+                    .isEqualTo(5);
+            // Spanning from before to inside the compiled years matches a day-by-day count
+            LocalDate from = LocalDate.of(2020, 3, 4);
+            LocalDate to = LocalDate.of(2025, 9, 1);
+            int expected = 0;
+            for (LocalDate d = from.plusDays(1); !d.isAfter(to); d = d.plusDays(1)) {
+                if (tradingCalendarService.isTradingDay(d)) {
+                    expected++;
+                }
+            }
+            assertThat(tradingCalendarService.getTradingDaysBetween(from, to)).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    @DisplayName("Phase Boundary Scheduling")
+    class PhaseBoundaryScheduling {
+
+        @Test
+        @DisplayName("Next boundary is the next session start later the same day")
+        void nextBoundarySameDay() {
+            LocalDate day = LocalDate.of(2025, 6, 11);
+
+            assertThat(TradingCalendarService.nextPhaseBoundary(day.atTime(8, 0)))
+                    .isEqualTo(day.atTime(9, 0));
+            assertThat(TradingCalendarService.nextPhaseBoundary(day.atTime(9, 0)))
+                    .isEqualTo(day.atTime(9, 8));
+            assertThat(TradingCalendarService.nextPhaseBoundary(day.atTime(12, 0)))
+                    .isEqualTo(day.atTime(15, 30));
+        }
+
+        @Test
+        @DisplayName("After the last boundary the next evaluation is at midnight")
+        void nextBoundaryMidnight() {
+            LocalDate day = LocalDate.of(2025, 6, 11);
+
+            assertThat(TradingCalendarService.nextPhaseBoundary(day.atTime(16, 0)))
+                    .isEqualTo(day.plusDays(1).atStartOfDay());
+        }
     }
 
     @Nested
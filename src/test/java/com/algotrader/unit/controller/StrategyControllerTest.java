@@ -26,6 +26,7 @@ import com.algotrader.strategy.LegOperationService;
 import com.algotrader.strategy.adoption.PositionAdoptionService;
 import com.algotrader.strategy.base.BaseStrategy;
 import com.algotrader.strategy.base.BaseStrategyConfig;
+import com.algotrader.strategy.base.PositionTotals;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -124,6 +125,9 @@ class StrategyControllerTest {
                                 .quantity(-50)
                                 .build()));
 
+        when(straddleStrategy.getPositionTotals())
+                .thenReturn(new PositionTotals(-125050, -125050, 0, 0, 0, 0, 10500, 100, 2));
+
         Map<String, BaseStrategy> strategies = new LinkedHashMap<>();
         strategies.put("STR-001", straddleStrategy);
         when(strategyEngine.getActiveStrategies()).thenReturn(strategies);
@@ -138,7 +142,8 @@ class StrategyControllerTest {
                 .andExpect(jsonPath("$.data[0].type").value("STRADDLE"))
                 .andExpect(jsonPath("$.data[0].status").value("ACTIVE"))
                 .andExpect(jsonPath("$.data[0].underlying").value("NIFTY"))
-                .andExpect(jsonPath("$.data[0].positionCount").value(2));
+                .andExpect(jsonPath("$.data[0].positionCount").value(2))
+                .andExpect(jsonPath("$.data[0].totalPnl").value(-1250.50));
     }
 
     @Test
@@ -162,6 +167,7 @@ class StrategyControllerTest {
         when(straddleStrategy.getPositions()).thenReturn(List.of(pos));
         when(straddleStrategy.getLastEvaluationTime()).thenReturn(LocalDateTime.of(2025, 2, 7, 10, 30, 0));
         when(straddleStrategy.getEntryPremium()).thenReturn(BigDecimal.valueOf(205.75));
+        when(straddleStrategy.getPositionTotals()).thenReturn(PositionTotals.EMPTY);
 
         when(strategyEngine.getStrategy("STR-001")).thenReturn(straddleStrategy);
         when(strategyLegJpaRepository.findByStrategyId("STR-001")).thenReturn(List.of());
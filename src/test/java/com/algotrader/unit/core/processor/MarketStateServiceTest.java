@@ -0,0 +1,298 @@
+package com.algotrader.unit.core.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.algotrader.calendar.ExpiryCalendarService;
+import com.algotrader.core.processor.GreeksCalculator;
+import com.algotrader.core.processor.MarketStateService;
+import com.algotrader.domain.enums.InstrumentType;
+import com.algotrader.domain.model.Greeks;
+import com.algotrader.domain.model.Instrument;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.IndicatorUpdateEvent;
+import com.algotrader.service.InstrumentService;
+import com.algotrader.strategy.base.MarketSnapshot;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for MarketStateService covering tracking, incremental spot/ATM/IV updates,
+ * days-to-expiry caching, indicator folding and expiry rollover.
+ */
+class MarketStateServiceTest {
+
+    private static final long SPOT_TOKEN = 256265L;
+    private static final LocalDate EXPIRY = LocalDate.now().plusDays(7);
+
+    private InstrumentService instrumentService;
+    private GreeksCalculator greeksCalculator;
+    private ExpiryCalendarService expiryCalendarService;
+    private MarketStateService marketStateService;
+
+    @BeforeEach
+    void setUp() {
+        instrumentService = mock(InstrumentService.class);
+        greeksCalculator = mock(GreeksCalculator.class);
+        expiryCalendarService = mock(ExpiryCalendarService.class);
+        marketStateService = new MarketStateService(instrumentService, greeksCalculator, expiryCalendarService);
+
+        when(instrumentService.getSpotInstrument("NIFTY"))
+                .thenReturn(Optional.of(Instrument.builder()
+                        .token(SPOT_TOKEN)
+                        .tradingSymbol("NIFTY 50")
+                        .build()));
+        when(instrumentService.getExpiries("NIFTY"))
+                .thenReturn(List.of(LocalDate.now().minusDays(7), EXPIRY));
+        when(instrumentService.getOptionsForUnderlying("NIFTY", EXPIRY)).thenReturn(optionChain());
+        when(expiryCalendarService.getTradingDaysToExpiry(any(LocalDate.class), eq(EXPIRY)))
+                .thenReturn(5);
+    }
+
+    /** Strikes 21800..22200 step 100; CE token = 1000 + strike/100, PE token = 2000 + strike/100. */
+    private List<Instrument> optionChain() {
+        return optionChain(EXPIRY, 1000L, 2000L);
+    }
+
+    private List<Instrument> optionChain(LocalDate expiry, long callBase, long putBase) {
+        List<Instrument> options = new ArrayList<>();
+        for (int strike = 21800; strike <= 22200; strike += 100) {
+            options.add(option(callBase + strike / 100, strike, InstrumentType.CE, expiry));
+            options.add(option(putBase + strike / 100, strike, InstrumentType.PE, expiry));
+        }
+        return options;
+    }
+
+    private Instrument option(long token, int strike, InstrumentType type, LocalDate expiry) {
+        return Instrument.builder()
+                .token(token)
+                .strike(BigDecimal.valueOf(strike))
+                .type(type)
+                .expiry(expiry)
+                .build();
+    }
+
+    private Tick tick(long token, double price) {
+        return Tick.builder()
+                .instrumentToken(token)
+                .lastPrice(BigDecimal.valueOf(price))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private void givenIv(double iv) {
+        when(greeksCalculator.calculate(any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(Greeks.builder().iv(BigDecimal.valueOf(iv)).build());
+    }
+
+    @Nested
+    @DisplayName("Tracking")
+    class Tracking {
+
+        @Test
+        @DisplayName("Tracks the spot and nearest-expiry option tokens")
+        void tracksTokens() {
+            assertThat(marketStateService.track("NIFTY")).isTrue();
+
+            assertThat(marketStateService.isTracked("NIFTY")).isTrue();
+            assertThat(marketStateService.isTrackedToken(SPOT_TOKEN)).isTrue();
+            assertThat(marketStateService.isTrackedToken(1220L)).isTrue();
+            assertThat(marketStateService.isTrackedToken(2218L)).isTrue();
+            assertThat(marketStateService.isTrackedToken(999L)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Tracking is idempotent and resolves instruments once")
+        void idempotent() {
+            marketStateService.track("NIFTY");
+            marketStateService.track("NIFTY");
+
+            verify(instrumentService, times(1)).getSpotInstrument("NIFTY");
+        }
+
+        @Test
+        @DisplayName("Unknown spot instrument is not tracked")
+        void unknownSpotNotTracked() {
+            when(instrumentService.getSpotInstrument("FINNIFTY")).thenReturn(Optional.empty());
+
+            assertThat(marketStateService.track("FINNIFTY")).isFalse();
+            assertThat(marketStateService.isTracked("FINNIFTY")).isFalse();
+        }
+
+        @Test
+        @DisplayName("State is dropped only when the last strategy on the underlying untracks it")
+        void untrackIsReferenceCounted() {
+            marketStateService.track("NIFTY");
+            marketStateService.track("NIFTY");
+
+            marketStateService.untrack("NIFTY");
+            assertThat(marketStateService.isTracked("NIFTY")).isTrue();
+
+            marketStateService.untrack("NIFTY");
+            assertThat(marketStateService.isTracked("NIFTY")).isFalse();
+            assertThat(marketStateService.isTrackedToken(SPOT_TOKEN)).isFalse();
+            assertThat(marketStateService.isTrackedToken(1220L)).isFalse();
+            assertThat(marketStateService.getSnapshot("NIFTY")).isNull();
+        }
+
+        @Test
+        @DisplayName("Ticks for untracked tokens return null")
+        void untrackedTickIgnored() {
+            marketStateService.track("NIFTY");
+
+            assertThat(marketStateService.onTick(tick(999L, 100), 0)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental updates")
+    class IncrementalUpdates {
+
+        @BeforeEach
+        void track() {
+            marketStateService.track("NIFTY");
+        }
+
+        @Test
+        @DisplayName("No snapshot until the first spot tick")
+        void noSnapshotBeforeSpot() {
+            assertThat(marketStateService.onTick(tick(1220L, 150), 0)).isNull();
+            assertThat(marketStateService.getSnapshot("NIFTY")).isNull();
+        }
+
+        @Test
+        @DisplayName("Spot tick sets spot, ATM strike, DTE and receipt time")
+        void spotTick() {
+            MarketSnapshot snapshot = marketStateService.onTick(tick(SPOT_TOKEN, 22040), 123L);
+
+            assertThat(snapshot.getUnderlying()).isEqualTo("NIFTY");
+            assertThat(snapshot.getSpotPrice()).isEqualByComparingTo("22040");
+            assertThat(snapshot.getAtmStrike()).isEqualByComparingTo("22000");
+            assertThat(snapshot.getDaysToExpiry()).isEqualTo(5);
+            assertThat(snapshot.getTickReceivedAt()).isEqualTo(123L);
+            assertThat(snapshot.getAtmIV()).isNull();
+            assertThat(marketStateService.getSnapshot("NIFTY")).isSameAs(snapshot);
+        }
+
+        @Test
+        @DisplayName("ATM option ticks populate ATM IV as the CE/PE average in percent")
+        void atmIvFromOptionTicks() {
+            marketStateService.onTick(tick(SPOT_TOKEN, 22010), 0);
+            givenIv(0.14);
+            marketStateService.onTick(tick(1220L, 150), 0);
+            givenIv(0.16);
+            MarketSnapshot snapshot = marketStateService.onTick(tick(2220L, 140), 0);
+
+            assertThat(snapshot.getAtmIV()).isEqualByComparingTo("15.00");
+            assertThat(snapshot.getIvSkew()).containsOnlyKeys(BigDecimal.valueOf(22000));
+        }
+
+        @Test
+        @DisplayName("Skew covers strikes around ATM and re-centers when ATM moves")
+        void skewWindow() {
+            marketStateService.onTick(tick(SPOT_TOKEN, 22000), 0);
+            givenIv(0.15);
+            for (long token = 1218L; token <= 1222L; token++) {
+                marketStateService.onTick(tick(token, 100), 0);
+            }
+            assertThat(marketStateService.getSnapshot("NIFTY").getIvSkew()).hasSize(5);
+
+            MarketSnapshot moved = marketStateService.onTick(tick(SPOT_TOKEN, 22190), 0);
+
+            assertThat(moved.getAtmStrike()).isEqualByComparingTo("22200");
+            assertThat(moved.getIvSkew())
+                    .containsOnlyKeys(BigDecimal.valueOf(22000), BigDecimal.valueOf(22100), BigDecimal.valueOf(22200));
+        }
+
+        @Test
+        @DisplayName("Days to expiry is computed once per day")
+        void dteCachedPerDay() {
+            marketStateService.onTick(tick(SPOT_TOKEN, 22000), 0);
+            marketStateService.onTick(tick(SPOT_TOKEN, 22010), 0);
+            marketStateService.onTick(tick(SPOT_TOKEN, 22020), 0);
+
+            verify(expiryCalendarService, times(1)).getTradingDaysToExpiry(any(LocalDate.class), eq(EXPIRY));
+        }
+
+        @Test
+        @DisplayName("Indicator updates for the spot are folded into the snapshot")
+        void indicatorsFolded() {
+            marketStateService.onTick(tick(SPOT_TOKEN, 22000), 0);
+
+            marketStateService.onIndicatorUpdate(
+                    new IndicatorUpdateEvent(this, SPOT_TOKEN, "NIFTY 50", Map.of("RSI:14", BigDecimal.valueOf(55))));
+
+            assertThat(marketStateService.getSnapshot("NIFTY").getIndicator("RSI:14"))
+                    .isEqualByComparingTo("55");
+            assertThat(marketStateService.onTick(tick(SPOT_TOKEN, 22005), 0).getIndicator("RSI:14"))
+                    .isEqualByComparingTo("55");
+        }
+    }
+
+    @Nested
+    @DisplayName("Expiry rollover")
+    class ExpiryRollover {
+
+        private final LocalDate nextExpiry = EXPIRY.plusDays(7);
+
+        @BeforeEach
+        void track() {
+            when(instrumentService.getExpiries("NIFTY")).thenReturn(List.of(EXPIRY, nextExpiry));
+            when(instrumentService.getOptionsForUnderlying("NIFTY", nextExpiry))
+                    .thenReturn(optionChain(nextExpiry, 3000L, 4000L));
+            when(expiryCalendarService.getTradingDaysToExpiry(any(LocalDate.class), eq(nextExpiry)))
+                    .thenReturn(4);
+            marketStateService.track("NIFTY");
+            marketStateService.onTick(tick(SPOT_TOKEN, 22040), 0);
+        }
+
+        @Test
+        @DisplayName("Same-day checks keep the resolved chain")
+        void sameDayKeepsChain() {
+            marketStateService.rollExpiries(LocalDate.now());
+
+            verify(instrumentService, times(1)).getSpotInstrument("NIFTY");
+            assertThat(marketStateService.isTrackedToken(1220L)).isTrue();
+        }
+
+        @Test
+        @DisplayName("After expiry the next expiry's chain replaces the old one")
+        void rollsToNextExpiry() {
+            marketStateService.rollExpiries(EXPIRY.plusDays(1));
+
+            assertThat(marketStateService.isTrackedToken(1220L)).isFalse();
+            assertThat(marketStateService.isTrackedToken(3220L)).isTrue();
+            assertThat(marketStateService.isTrackedToken(SPOT_TOKEN)).isTrue();
+        }
+
+        @Test
+        @DisplayName("The rolled state keeps the spot price and recomputes days to expiry")
+        void rolledStateCarriesSpot() {
+            marketStateService.rollExpiries(EXPIRY.plusDays(1));
+
+            MarketSnapshot snapshot = marketStateService.getSnapshot("NIFTY");
+            assertThat(snapshot.getSpotPrice()).isEqualByComparingTo("22040");
+            assertThat(snapshot.getAtmStrike()).isEqualByComparingTo("22000");
+            assertThat(snapshot.getDaysToExpiry()).isEqualTo(4);
+
+            givenIv(0.15);
+            assertThat(marketStateService.onTick(tick(3220L, 150), 0).getAtmIV())
+                    .isEqualByComparingTo("15.00");
+        }
+    }
+}
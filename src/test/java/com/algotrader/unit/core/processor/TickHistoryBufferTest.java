@@ -0,0 +1,165 @@
+package com.algotrader.unit.core.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.algotrader.core.processor.TickHistoryBuffer;
+import com.algotrader.core.processor.TickWindow;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.TickEvent;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TickHistoryBuffer covering ring wrap-around, last-N and range windows,
+ * overwrite detection and the memory budget.
+ */
+class TickHistoryBufferTest {
+
+    private static final long TOKEN = 256265L;
+
+    private TickHistoryBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new TickHistoryBuffer(4, 16);
+    }
+
+    @Test
+    @DisplayName("lastN returns the most recent ticks oldest first")
+    void lastNReturnsRecentTicks() {
+        for (int i = 1; i <= 3; i++) {
+            buffer.record(TOKEN, 1000L * i, 100.0 + i, 10L * i);
+        }
+
+        TickWindow window = buffer.lastN(TOKEN, 2);
+
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.price(0)).isEqualTo(102.0);
+        assertThat(window.price(1)).isEqualTo(103.0);
+        assertThat(window.timeMillis(1)).isEqualTo(3000L);
+        assertThat(window.volume(1)).isEqualTo(30L);
+        assertThat(window.isIntact()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ring keeps only the last depth ticks after wrapping")
+    void ringWrapsAtDepth() {
+        for (int i = 1; i <= 6; i++) {
+            buffer.record(TOKEN, 1000L * i, i, 0);
+        }
+
+        TickWindow window = buffer.lastN(TOKEN, 10);
+
+        assertThat(window.size()).isEqualTo(4);
+        assertThat(window.price(0)).isEqualTo(3.0);
+        assertThat(window.price(3)).isEqualTo(6.0);
+        assertThat(window.isIntact()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A full-depth window over a full ring is intact until the next tick")
+    void fullDepthWindowIntact() {
+        for (int i = 1; i <= 4; i++) {
+            buffer.record(TOKEN, 1000L * i, i, 0);
+        }
+
+        TickWindow last = buffer.lastN(TOKEN, 4);
+        TickWindow range = buffer.range(TOKEN, 0, Long.MAX_VALUE);
+
+        assertThat(last.size()).isEqualTo(4);
+        assertThat(last.isIntact()).isTrue();
+        assertThat(range.size()).isEqualTo(4);
+        assertThat(range.isIntact()).isTrue();
+    }
+
+    @Test
+    @DisplayName("range returns ticks within the inclusive time bounds")
+    void rangeSelectsByTime() {
+        for (int i = 1; i <= 4; i++) {
+            buffer.record(TOKEN, 1000L * i, i, 0);
+        }
+
+        TickWindow window = buffer.range(TOKEN, 2000L, 3500L);
+
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.timeMillis(0)).isEqualTo(2000L);
+        assertThat(window.timeMillis(1)).isEqualTo(3000L);
+        assertThat(buffer.range(TOKEN, 5000L, 6000L).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Out-of-order tick times are clamped so range reads stay ordered")
+    void outOfOrderTimesClamped() {
+        buffer.record(TOKEN, 2000L, 1.0, 0);
+        buffer.record(TOKEN, 1500L, 2.0, 0);
+
+        TickWindow window = buffer.lastN(TOKEN, 2);
+
+        assertThat(window.timeMillis(1)).isEqualTo(2000L);
+        assertThat(buffer.range(TOKEN, 2000L, 2000L).size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A window reports when the ring has overwritten its ticks")
+    void windowDetectsOverwrite() {
+        for (int i = 1; i <= 4; i++) {
+            buffer.record(TOKEN, 1000L * i, i, 0);
+        }
+        TickWindow window = buffer.lastN(TOKEN, 4);
+
+        buffer.record(TOKEN, 5000L, 5.0, 0);
+
+        assertThat(window.isIntact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Unknown instruments return an empty window")
+    void unknownInstrumentEmpty() {
+        assertThat(buffer.lastN(999L, 5).isEmpty()).isTrue();
+        assertThat(buffer.range(999L, 0, Long.MAX_VALUE).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Past the memory budget a new instrument takes the least recently ticked ring")
+    void budgetReusesStalestRing() {
+        // (65535 + 1 spare) ticks * 24 bytes = 1.5 MB per ring, so 3 MB holds two instruments
+        TickHistoryBuffer small = new TickHistoryBuffer((1 << 16) - 1, 3);
+        assertThat(small.getMaxInstruments()).isEqualTo(2);
+
+        small.record(1L, 1000L, 1.0, 0);
+        small.record(2L, 2000L, 2.0, 0);
+        TickWindow stale = small.lastN(1L, 1);
+        small.record(3L, 3000L, 3.0, 0);
+
+        assertThat(small.getInstrumentCount()).isEqualTo(2);
+        assertThat(small.lastN(1L, 1).isEmpty()).isTrue();
+        assertThat(small.lastN(2L, 1).price(0)).isEqualTo(2.0);
+        assertThat(small.lastN(3L, 5).size()).isEqualTo(1);
+        assertThat(small.lastN(3L, 1).price(0)).isEqualTo(3.0);
+        assertThat(stale.isIntact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("onTick records the tick at its exchange timestamp")
+    void onTickRecordsTick() {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 6, 9, 15, 30);
+        Tick tick = Tick.builder()
+                .instrumentToken(TOKEN)
+                .lastPrice(new BigDecimal("22000.50"))
+                .volume(1200L)
+                .timestamp(timestamp)
+                .build();
+
+        buffer.onTick(new TickEvent(this, tick));
+
+        TickWindow window = buffer.lastN(TOKEN, 1);
+        assertThat(window.price(0)).isEqualTo(22000.50);
+        assertThat(window.volume(0)).isEqualTo(1200L);
+        assertThat(window.timeMillis(0))
+                .isEqualTo(timestamp.toInstant(ZoneOffset.ofHoursMinutes(5, 30)).toEpochMilli());
+    }
+}
@@ -10,7 +10,11 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.algotrader.calendar.ExpiryCalendarService;
 import com.algotrader.core.engine.StrategyEngine;
+import com.algotrader.core.engine.StrategyEvaluationShards;
+import com.algotrader.core.processor.GreeksCalculator;
+import com.algotrader.core.processor.MarketStateService;
 import com.algotrader.domain.enums.ActionType;
 import com.algotrader.domain.enums.StrategyStatus;
 import com.algotrader.domain.enums.StrategyType;
@@ -22,6 +26,7 @@ import com.algotrader.event.PositionEvent;
 import com.algotrader.event.PositionEventType;
 import com.algotrader.event.TickEvent;
 import com.algotrader.exception.ResourceNotFoundException;
+import com.algotrader.observability.TickLatencyTracker;
 import com.algotrader.oms.JournaledMultiLegExecutor;
 import com.algotrader.oms.OrderRequest;
 import com.algotrader.repository.jpa.StrategyJpaRepository;
@@ -32,6 +37,7 @@ import com.algotrader.strategy.StrategyFactory;
 import com.algotrader.strategy.base.BaseStrategy;
 import com.algotrader.strategy.base.BaseStrategyConfig;
 import com.algotrader.strategy.base.MarketSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -86,7 +92,11 @@ class StrategyEngineTest {
                 instrumentService,
                 strategyJpaRepository,
                 strategyLegJpaRepository,
-                positionRedisRepository);
+                positionRedisRepository,
+                new TickLatencyTracker(new SimpleMeterRegistry()),
+                new StrategyEvaluationShards(0, 256),
+                new MarketStateService(
+                        instrumentService, mock(GreeksCalculator.class), mock(ExpiryCalendarService.class)));
 
         defaultConfig = BaseStrategyConfig.builder()
                 .underlying("NIFTY")
@@ -0,0 +1,212 @@
+package com.algotrader.unit.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.algotrader.core.engine.StrategyEvaluationShards;
+import com.algotrader.strategy.base.BaseStrategy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for StrategyEvaluationShards covering shard assignment, inline mode,
+ * per-strategy ordering, isolation of slow shards, and drop-oldest backpressure.
+ */
+class StrategyEvaluationShardsTest {
+
+    private StrategyEvaluationShards shards;
+
+    @AfterEach
+    void tearDown() {
+        if (shards != null) {
+            shards.shutdown();
+        }
+    }
+
+    private BaseStrategy strategy(String id) {
+        BaseStrategy strategy = mock(BaseStrategy.class);
+        when(strategy.getId()).thenReturn(id);
+        return strategy;
+    }
+
+    @Nested
+    @DisplayName("Assignment")
+    class Assignment {
+
+        @Test
+        @DisplayName("Strategies are spread across the least-loaded shards")
+        void spreadsAcrossShards() {
+            shards = new StrategyEvaluationShards(3, 16);
+
+            for (int i = 0; i < 6; i++) {
+                shards.assign(strategy("STR-" + i));
+            }
+
+            int[] perShard = new int[3];
+            for (int i = 0; i < 6; i++) {
+                perShard[shards.getShard("STR-" + i)]++;
+            }
+            assertThat(perShard).containsExactly(2, 2, 2);
+        }
+
+        @Test
+        @DisplayName("Re-assigning a strategy keeps its shard")
+        void assignIsIdempotent() {
+            shards = new StrategyEvaluationShards(4, 16);
+            BaseStrategy strategy = strategy("STR-1");
+
+            int first = shards.assign(strategy);
+            shards.assign(strategy("STR-2"));
+
+            assertThat(shards.assign(strategy)).isEqualTo(first);
+        }
+
+        @Test
+        @DisplayName("Released strategy is no longer dispatched and frees its slot")
+        void releaseRemovesStrategy() {
+            shards = new StrategyEvaluationShards(0, 16);
+            shards.assign(strategy("STR-1"));
+            shards.assign(strategy("STR-2"));
+
+            shards.release("STR-1");
+
+            List<String> visited = new ArrayList<>();
+            shards.dispatch(s -> visited.add(s.getId()));
+            assertThat(visited).containsExactly("STR-2");
+            assertThat(shards.getShard("STR-1")).isEqualTo(-1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Inline mode")
+    class InlineMode {
+
+        @Test
+        @DisplayName("Shard count 0 evaluates on the caller thread in assignment order")
+        void inlineRunsOnCaller() {
+            shards = new StrategyEvaluationShards(0, 16);
+            shards.assign(strategy("STR-A"));
+            shards.assign(strategy("STR-B"));
+
+            Thread caller = Thread.currentThread();
+            List<String> visited = new ArrayList<>();
+            shards.dispatch(s -> {
+                assertThat(Thread.currentThread()).isSameAs(caller);
+                visited.add(s.getId());
+            });
+
+            assertThat(shards.isSharded()).isFalse();
+            assertThat(visited).containsExactly("STR-A", "STR-B");
+        }
+    }
+
+    @Nested
+    @DisplayName("Sharded dispatch")
+    class ShardedDispatch {
+
+        @Test
+        @DisplayName("Each strategy sees ticks in dispatch order on a single thread")
+        void perStrategyOrderingPreserved() throws InterruptedException {
+            shards = new StrategyEvaluationShards(4, 1024);
+            for (int i = 0; i < 8; i++) {
+                shards.assign(strategy("STR-" + i));
+            }
+
+            int ticks = 200;
+            Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+            Map<String, Thread> threads = new ConcurrentHashMap<>();
+            CountDownLatch done = new CountDownLatch(8 * ticks);
+
+            for (int t = 0; t < ticks; t++) {
+                int tick = t;
+                shards.dispatch(s -> {
+                    seen.computeIfAbsent(s.getId(), k -> new ArrayList<>()).add(tick);
+                    Thread previous = threads.putIfAbsent(s.getId(), Thread.currentThread());
+                    assertThat(previous == null || previous == Thread.currentThread())
+                            .isTrue();
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            for (List<Integer> order : seen.values()) {
+                assertThat(order).isSorted().hasSize(ticks);
+            }
+        }
+
+        @Test
+        @DisplayName("A slow strategy does not delay strategies on other shards")
+        void slowShardIsolated() throws InterruptedException {
+            shards = new StrategyEvaluationShards(2, 16);
+            shards.assign(strategy("STR-SLOW"));
+            shards.assign(strategy("STR-FAST"));
+
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch fastDone = new CountDownLatch(1);
+
+            shards.dispatch(s -> {
+                if (s.getId().equals("STR-SLOW")) {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    fastDone.countDown();
+                }
+            });
+
+            assertThat(fastDone.await(2, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("Full shard queue drops the oldest pending tick")
+        void dropsOldestWhenFull() throws InterruptedException {
+            shards = new StrategyEvaluationShards(1, 2);
+            shards.assign(strategy("STR-1"));
+
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            List<Integer> evaluated = new ArrayList<>();
+            CountDownLatch done = new CountDownLatch(3);
+
+            // Tick 0 blocks the shard thread, ticks 1..3 compete for 2 queue slots
+            shards.dispatch(s -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                evaluated.add(0);
+                done.countDown();
+            });
+            assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+            AtomicInteger tick = new AtomicInteger(1);
+            for (int i = 0; i < 3; i++) {
+                int current = tick.getAndIncrement();
+                shards.dispatch(s -> {
+                    evaluated.add(current);
+                    done.countDown();
+                });
+            }
+            release.countDown();
+
+            assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(evaluated).containsExactly(0, 2, 3);
+            assertThat(shards.getDroppedTicks()).isEqualTo(1);
+        }
+    }
+}
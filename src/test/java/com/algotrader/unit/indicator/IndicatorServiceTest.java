@@ -2,7 +2,8 @@ package com.algotrader.unit.indicator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -16,8 +17,10 @@ import com.algotrader.indicator.IndicatorDefinition;
 import com.algotrader.indicator.IndicatorService;
 import com.algotrader.indicator.IndicatorType;
 import com.algotrader.indicator.InstrumentIndicatorConfig;
+import com.algotrader.indicator.LocalBarStore;
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +51,9 @@ class IndicatorServiceTest {
     @Mock
     private HistoricalDataSeeder historicalDataSeeder;
 
+    @Mock
+    private LocalBarStore localBarStore;
+
     private IndicatorService indicatorService;
 
     @BeforeEach
@@ -71,9 +77,7 @@ class IndicatorServiceTest {
         niftyConfig.setIndicators(List.of(rsiDef, ltpDef));
         config.setInstruments(List.of(niftyConfig));
 
-        doNothing().when(historicalDataSeeder).seed(any(), any());
-
-        indicatorService = new IndicatorService(config, historicalDataSeeder, applicationEventPublisher);
+        indicatorService = new IndicatorService(config, historicalDataSeeder, localBarStore, applicationEventPublisher);
         indicatorService.initialize();
     }
 
@@ -111,8 +115,8 @@ class IndicatorServiceTest {
             IndicatorConfig disabledConfig = new IndicatorConfig();
             disabledConfig.setEnabled(false);
 
-            IndicatorService disabled =
-                    new IndicatorService(disabledConfig, historicalDataSeeder, applicationEventPublisher);
+            IndicatorService disabled = new IndicatorService(
+                    disabledConfig, historicalDataSeeder, localBarStore, applicationEventPublisher);
             disabled.initialize();
 
             assertThat(disabled.isTracked(NIFTY_TOKEN)).isFalse();
@@ -159,6 +163,26 @@ class IndicatorServiceTest {
             // At least some bar completions should have published events
             verify(applicationEventPublisher, times(15)).publishEvent(any(IndicatorUpdateEvent.class));
         }
+
+        @Test
+        @DisplayName("completed bars are recorded in the local bar store")
+        void completedBarsAreRecorded() {
+            sendTick(22500.0, 1000, BASE_TIME);
+            sendTick(22510.0, 500, BASE_TIME.plusSeconds(30));
+            sendTick(22520.0, 200, BASE_TIME.plusMinutes(1));
+
+            verify(localBarStore)
+                    .append(
+                            eq(NIFTY_TOKEN),
+                            eq(Duration.ofMinutes(1)),
+                            eq(100),
+                            any(Instant.class),
+                            eq(22500.0),
+                            eq(22520.0),
+                            eq(22500.0),
+                            eq(22520.0),
+                            anyLong());
+        }
     }
 
     @Nested
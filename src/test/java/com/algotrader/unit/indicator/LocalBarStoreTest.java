@@ -0,0 +1,206 @@
+package com.algotrader.unit.indicator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.algotrader.indicator.BarSeriesManager;
+import com.algotrader.indicator.HistoricalDataSeeder;
+import com.algotrader.indicator.InstrumentIndicatorConfig;
+import com.algotrader.indicator.LocalBarStore;
+import com.algotrader.indicator.LocalBarStore.StoredBar;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for LocalBarStore (per-instrument columnar bar ring files) and seeding
+ * BarSeriesManager from it through HistoricalDataSeeder.
+ */
+class LocalBarStoreTest {
+
+    private static final long NIFTY_TOKEN = 256265L;
+    private static final Duration ONE_MINUTE = Duration.ofMinutes(1);
+    private static final Instant BASE_TIME = Instant.parse("2025-02-10T03:46:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private LocalBarStore localBarStore;
+
+    @BeforeEach
+    void setUp() {
+        localBarStore = new LocalBarStore(tempDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        localBarStore.close();
+    }
+
+    @Nested
+    @DisplayName("Append and load")
+    class AppendAndLoad {
+
+        @Test
+        @DisplayName("loads appended bars oldest first with all columns")
+        void roundTrip() {
+            appendBars(localBarStore, 3, 10);
+
+            List<StoredBar> bars = localBarStore.load(NIFTY_TOKEN, ONE_MINUTE, 10);
+
+            assertThat(bars).hasSize(3);
+            assertThat(bars.get(0)).isEqualTo(bar(0));
+            assertThat(bars.get(2)).isEqualTo(bar(2));
+        }
+
+        @Test
+        @DisplayName("keeps only the most recent capacity bars")
+        void ringKeepsMostRecent() {
+            appendBars(localBarStore, 25, 10);
+
+            List<StoredBar> bars = localBarStore.load(NIFTY_TOKEN, ONE_MINUTE, 100);
+
+            assertThat(bars).hasSize(10);
+            assertThat(bars.get(0)).isEqualTo(bar(15));
+            assertThat(bars.get(9)).isEqualTo(bar(24));
+        }
+
+        @Test
+        @DisplayName("loads at most maxBars")
+        void limitsToMaxBars() {
+            appendBars(localBarStore, 8, 10);
+
+            assertThat(localBarStore.load(NIFTY_TOKEN, ONE_MINUTE, 3))
+                    .extracting(StoredBar::endTime)
+                    .containsExactly(endTime(5), endTime(6), endTime(7));
+        }
+
+        @Test
+        @DisplayName("ignores bars that do not end after the last stored bar")
+        void ignoresOutOfOrderBars() {
+            appendBars(localBarStore, 2, 10);
+            append(localBarStore, bar(0), 10);
+
+            assertThat(localBarStore.load(NIFTY_TOKEN, ONE_MINUTE, 10)).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("survives reopening and keeps intervals separate")
+        void persistsAcrossInstances() {
+            appendBars(localBarStore, 4, 10);
+            localBarStore.close();
+
+            LocalBarStore reopened = new LocalBarStore(tempDir.toString());
+            assertThat(reopened.load(NIFTY_TOKEN, ONE_MINUTE, 10)).hasSize(4);
+            assertThat(reopened.load(NIFTY_TOKEN, Duration.ofMinutes(5), 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("capacity change keeps the most recent bars that fit")
+        void capacityChangeMigrates() {
+            appendBars(localBarStore, 6, 10);
+            localBarStore.close();
+
+            LocalBarStore resized = new LocalBarStore(tempDir.toString());
+            append(resized, bar(6), 4);
+            resized.close();
+
+            assertThat(resized.load(NIFTY_TOKEN, ONE_MINUTE, 10))
+                    .extracting(StoredBar::endTime)
+                    .containsExactly(endTime(3), endTime(4), endTime(5), endTime(6));
+        }
+
+        @Test
+        @DisplayName("unreadable file loads as empty")
+        void corruptFileLoadsEmpty() throws IOException {
+            Files.write(tempDir.resolve(NIFTY_TOKEN + "_60s.bars"), new byte[] {1, 2, 3});
+
+            assertThat(localBarStore.load(NIFTY_TOKEN, ONE_MINUTE, 10)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Seeding")
+    class Seeding {
+
+        @Test
+        @DisplayName("seeds the bar series with stored bars")
+        void seedsBarSeries() {
+            appendBars(localBarStore, 20, 100);
+            InstrumentIndicatorConfig config = config(100);
+            BarSeriesManager barSeriesManager = new BarSeriesManager(config);
+
+            int added = new HistoricalDataSeeder(localBarStore).seed(barSeriesManager, config);
+
+            assertThat(added).isEqualTo(20);
+            assertThat(barSeriesManager.getBarCount()).isEqualTo(20);
+            assertThat(barSeriesManager.getBarSeries().getLastBar().getEndTime())
+                    .isEqualTo(endTime(19));
+        }
+
+        @Test
+        @DisplayName("live bars completed by ticks are written through the listener")
+        void liveBarsAreRecorded() {
+            InstrumentIndicatorConfig config = config(100);
+            BarSeriesManager barSeriesManager = new BarSeriesManager(
+                    config,
+                    (token, end, open, high, low, close, volume) ->
+                            localBarStore.append(token, ONE_MINUTE, 100, end, open, high, low, close, volume));
+            LocalDateTime start = LocalDateTime.of(2025, 2, 10, 9, 15);
+
+            barSeriesManager.processTick(BigDecimal.valueOf(100), 10, start);
+            barSeriesManager.processTick(BigDecimal.valueOf(104), 10, start.plusMinutes(1));
+
+            List<StoredBar> bars = localBarStore.load(NIFTY_TOKEN, ONE_MINUTE, 10);
+            assertThat(bars).hasSize(1);
+            assertThat(bars.get(0).close()).isEqualTo(104.0);
+            assertThat(bars.get(0).volume()).isEqualTo(20);
+        }
+    }
+
+    private static void appendBars(LocalBarStore store, int count, int capacity) {
+        for (int i = 0; i < count; i++) {
+            append(store, bar(i), capacity);
+        }
+    }
+
+    private static void append(LocalBarStore store, StoredBar bar, int capacity) {
+        store.append(
+                NIFTY_TOKEN,
+                ONE_MINUTE,
+                capacity,
+                bar.endTime(),
+                bar.open(),
+                bar.high(),
+                bar.low(),
+                bar.close(),
+                bar.volume());
+    }
+
+    private static StoredBar bar(int i) {
+        return new StoredBar(endTime(i), 22500 + i, 22510 + i, 22490 + i, 22505 + i, 1000L + i);
+    }
+
+    private static Instant endTime(int i) {
+        return BASE_TIME.plus(ONE_MINUTE.multipliedBy(i));
+    }
+
+    private static InstrumentIndicatorConfig config(int maxBars) {
+        InstrumentIndicatorConfig config = new InstrumentIndicatorConfig();
+        config.setInstrumentToken(NIFTY_TOKEN);
+        config.setTradingSymbol("NIFTY");
+        config.setBarDuration(ONE_MINUTE);
+        config.setMaxBars(maxBars);
+        return config;
+    }
+}
@@ -3,6 +3,9 @@ package com.algotrader.unit.margin;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.broker.BrokerGateway;
@@ -12,9 +15,12 @@ import com.algotrader.domain.model.MarginEstimate;
 import com.algotrader.exception.BrokerException;
 import com.algotrader.margin.MarginEstimator;
 import com.algotrader.margin.MarginService;
+import com.algotrader.margin.SpanMarginModel;
+import com.algotrader.margin.SpanMarginModel.LocalMargin;
 import com.algotrader.oms.OrderRequest;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -36,11 +42,14 @@ class MarginEstimatorTest {
     @Mock
     private MarginService marginService;
 
+    @Mock
+    private SpanMarginModel spanMarginModel;
+
     private MarginEstimator marginEstimator;
 
     @BeforeEach
     void setUp() {
-        marginEstimator = new MarginEstimator(brokerGateway, marginService);
+        marginEstimator = new MarginEstimator(brokerGateway, marginService, spanMarginModel);
     }
 
     private OrderRequest sampleOrder() {
@@ -188,4 +197,105 @@ class MarginEstimatorTest {
                     .hasMessageContaining("Multi-leg margin estimation failed");
         }
     }
+
+    // ==============================
+    // LOCAL SPAN ESTIMATION
+    // ==============================
+
+    @Nested
+    @DisplayName("Local SPAN Estimation")
+    class LocalSpanEstimation {
+
+        private final LocalMargin local = new LocalMargin(
+                new BigDecimal("110000"),
+                new BigDecimal("400000"),
+                new BigDecimal("80000"),
+                new BigDecimal("30000"),
+                Set.of("NIFTY"),
+                100000);
+
+        @Test
+        @DisplayName("Calibrated local model serves the estimate without broker calls")
+        void localEstimateWhenCalibrated() {
+            List<OrderRequest> basket = List.of(sampleOrder(), sampleOrder());
+            when(spanMarginModel.estimate(basket)).thenReturn(local);
+            when(spanMarginModel.isCalibrated(local)).thenReturn(true);
+            when(marginService.getAvailableMargin()).thenReturn(new BigDecimal("500000"));
+
+            MarginEstimate estimate = marginEstimator.estimateMultiLeg(basket);
+
+            assertThat(estimate.isEstimatedLocally()).isTrue();
+            assertThat(estimate.getRequiredMargin()).isEqualByComparingTo("110000");
+            assertThat(estimate.getHedgeBenefit()).isEqualByComparingTo("290000");
+            assertThat(estimate.getHedgeBenefitPercent()).isEqualByComparingTo("72.50");
+            verify(brokerGateway, never()).getBasketMargin(any());
+            verify(brokerGateway, never()).getOrderMargin(any());
+        }
+
+        @Test
+        @DisplayName("Uncalibrated local model falls back to the broker and calibrates")
+        void brokerFallbackCalibrates() {
+            List<OrderRequest> basket = List.of(sampleOrder());
+            when(spanMarginModel.estimate(basket)).thenReturn(local);
+            when(spanMarginModel.isCalibrated(local)).thenReturn(false);
+            when(brokerGateway.getBasketMargin(basket)).thenReturn(new BigDecimal("100000"));
+            when(brokerGateway.getOrderMargin(any())).thenReturn(new BigDecimal("100000"));
+            when(marginService.getAvailableMargin()).thenReturn(new BigDecimal("500000"));
+            when(spanMarginModel.calibrate(local, new BigDecimal("100000"))).thenReturn(new BigDecimal("10.00"));
+
+            MarginEstimate estimate = marginEstimator.estimateMultiLeg(basket);
+
+            assertThat(estimate.isEstimatedLocally()).isFalse();
+            assertThat(estimate.getRequiredMargin()).isEqualByComparingTo("100000");
+            assertThat(estimate.getLocalEstimateErrorPercent()).isEqualByComparingTo("10.00");
+        }
+
+        @Test
+        @DisplayName("Confirmation makes a single broker call and reports the local error")
+        void confirmationSingleBrokerCall() {
+            List<OrderRequest> basket = List.of(sampleOrder(), sampleOrder(), sampleOrder(), sampleOrder());
+            when(spanMarginModel.estimate(basket)).thenReturn(local);
+            when(brokerGateway.getBasketMargin(basket)).thenReturn(new BigDecimal("100000"));
+            when(marginService.getAvailableMargin()).thenReturn(new BigDecimal("500000"));
+            when(spanMarginModel.calibrate(local, new BigDecimal("100000"))).thenReturn(new BigDecimal("10.00"));
+
+            MarginEstimate estimate = marginEstimator.confirmMultiLeg(basket);
+
+            assertThat(estimate.getRequiredMargin()).isEqualByComparingTo("100000");
+            assertThat(estimate.getLocalEstimateErrorPercent()).isEqualByComparingTo("10.00");
+            verify(brokerGateway, times(1)).getBasketMargin(basket);
+            verify(brokerGateway, never()).getOrderMargin(any());
+        }
+
+        @Test
+        @DisplayName("Confirmation never mixes the broker's combined margin with local leg margins")
+        void confirmationReportsNoHedgeBenefit() {
+            List<OrderRequest> basket = List.of(sampleOrder(), sampleOrder());
+            when(spanMarginModel.estimate(basket)).thenReturn(local);
+            when(brokerGateway.getBasketMargin(basket)).thenReturn(new BigDecimal("100000"));
+            when(marginService.getAvailableMargin()).thenReturn(new BigDecimal("500000"));
+
+            MarginEstimate estimate = marginEstimator.confirmMultiLeg(basket);
+
+            assertThat(estimate.getIndividualMarginSum()).isNull();
+            assertThat(estimate.getHedgeBenefit()).isNull();
+            assertThat(estimate.getHedgeBenefitPercent()).isNull();
+        }
+
+        @Test
+        @DisplayName("Confirmation of a basket the local model cannot price has no local error")
+        void confirmationWithoutLocalModel() {
+            List<OrderRequest> basket = List.of(sampleOrder());
+            when(spanMarginModel.estimate(basket)).thenReturn(null);
+            when(brokerGateway.getBasketMargin(basket)).thenReturn(new BigDecimal("100000"));
+            when(marginService.getAvailableMargin()).thenReturn(new BigDecimal("50000"));
+
+            MarginEstimate estimate = marginEstimator.confirmMultiLeg(basket);
+
+            assertThat(estimate.isSufficient()).isFalse();
+            assertThat(estimate.getHedgeBenefit()).isNull();
+            assertThat(estimate.getLocalEstimateErrorPercent()).isNull();
+            verify(spanMarginModel, never()).calibrate(any(), any());
+        }
+    }
 }
@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 
 import com.algotrader.calendar.TradingCalendarService;
 import com.algotrader.domain.model.AccountMargin;
+import com.algotrader.event.MarginUpdateEvent;
 import com.algotrader.event.RiskEvent;
 import com.algotrader.event.RiskLevel;
 import com.algotrader.margin.MarginMonitorService;
@@ -27,7 +28,7 @@ import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Unit tests for MarginMonitorService covering threshold detection,
- * alert deduplication, and market hours gating.
+ * alert deduplication, market hours gating, and evaluation on margin updates.
  */
 @ExtendWith(MockitoExtension.class)
 class MarginMonitorServiceTest {
@@ -209,18 +210,37 @@ class MarginMonitorServiceTest {
 
             marginMonitorService.checkMarginUtilization();
 
-            verify(marginService, never()).getMargins();
+            verify(marginService, never()).requestReconcile();
         }
 
         @Test
-        @DisplayName("Runs check when market is open")
-        void runsWhenMarketOpen() {
+        @DisplayName("Requests a background reconciliation when market is open")
+        void requestsReconcileWhenMarketOpen() {
             when(tradingCalendarService.isMarketOpen()).thenReturn(true);
-            when(marginService.getMargins()).thenReturn(marginWithUtilization("50.0"));
 
             marginMonitorService.checkMarginUtilization();
 
-            verify(marginService).getMargins();
+            verify(marginService).requestReconcile();
+            verify(marginService, never()).getMargins();
+        }
+    }
+
+    // ==============================
+    // EVALUATION ON CHANGE
+    // ==============================
+
+    @Nested
+    @DisplayName("Evaluation On Change")
+    class EvaluationOnChange {
+
+        @Test
+        @DisplayName("Margin update event is checked against thresholds immediately")
+        void checksOnMarginUpdate() {
+            marginMonitorService.onMarginUpdate(new MarginUpdateEvent(this, marginWithUtilization("92.0")));
+
+            ArgumentCaptor<RiskEvent> captor = ArgumentCaptor.forClass(RiskEvent.class);
+            verify(applicationEventPublisher).publishEvent(captor.capture());
+            assertThat(captor.getValue().getLevel()).isEqualTo(RiskLevel.CRITICAL);
         }
     }
 }
@@ -2,29 +2,45 @@ package com.algotrader.unit.margin;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.broker.BrokerGateway;
 import com.algotrader.domain.model.AccountMargin;
+import com.algotrader.domain.model.Position;
+import com.algotrader.event.MarginUpdateEvent;
+import com.algotrader.event.PositionEvent;
+import com.algotrader.event.PositionEventType;
 import com.algotrader.exception.BrokerException;
 import com.algotrader.exception.SessionExpiredException;
 import com.algotrader.margin.MarginService;
+import com.algotrader.margin.SpanMarginModel;
+import com.algotrader.margin.SpanMarginModel.LocalMargin;
+import com.algotrader.repository.redis.PositionRedisRepository;
 import com.algotrader.session.SessionHealthService;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Unit tests for MarginService covering cache behavior, session awareness,
- * graceful degradation, and utilization calculation.
+ * graceful degradation, utilization calculation, local projection on position
+ * changes, and background reconciliation.
  */
 @ExtendWith(MockitoExtension.class)
 class MarginServiceTest {
@@ -35,11 +51,25 @@ class MarginServiceTest {
     @Mock
     private SessionHealthService sessionHealthService;
 
+    @Mock
+    private SpanMarginModel spanMarginModel;
+
+    @Mock
+    private PositionRedisRepository positionRedisRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private MarginService marginService;
 
     @BeforeEach
     void setUp() {
-        marginService = new MarginService(brokerGateway, sessionHealthService);
+        marginService = new MarginService(
+                brokerGateway,
+                sessionHealthService,
+                spanMarginModel,
+                positionRedisRepository,
+                applicationEventPublisher);
     }
 
     private Map<String, BigDecimal> sampleMargins() {
@@ -260,4 +290,115 @@ class MarginServiceTest {
             assertThat(available).isEqualByComparingTo("800000");
         }
     }
+
+    // ==============================
+    // PROJECTION AND RECONCILIATION
+    // ==============================
+
+    @Nested
+    @DisplayName("Projection And Reconciliation")
+    class ProjectionAndReconciliation {
+
+        private LocalMargin localMargin(String required) {
+            return new LocalMargin(
+                    new BigDecimal(required), new BigDecimal(required), BigDecimal.ZERO, BigDecimal.ZERO, Set.of(), 0);
+        }
+
+        private Position position(String id, int quantity) {
+            return Position.builder()
+                    .id(id)
+                    .instrumentToken(1L)
+                    .quantity(quantity)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Position change projects used margin by the local model delta without a broker call")
+        void projectsOnPositionChange() {
+            when(sessionHealthService.isSessionActive()).thenReturn(true);
+            when(brokerGateway.getMargins()).thenReturn(sampleMargins());
+            when(positionRedisRepository.findAll()).thenReturn(List.of());
+            when(spanMarginModel.canPrice(1L)).thenReturn(true);
+            when(spanMarginModel.estimatePositions(anyCollection()))
+                    .thenReturn(localMargin("0"))
+                    .thenReturn(localMargin("150000"));
+            marginService.getMargins();
+
+            marginService.onPositionEvent(new PositionEvent(this, position("P1", -75), PositionEventType.OPENED));
+            AccountMargin projected = marginService.getMargins();
+
+            assertThat(projected.isProjected()).isTrue();
+            assertThat(projected.getUsedMargin()).isEqualByComparingTo("350000");
+            assertThat(projected.getAvailableMargin()).isEqualByComparingTo("650000");
+            assertThat(projected.getUtilizationPercent()).isEqualByComparingTo("35.00");
+            verify(brokerGateway, times(1)).getMargins();
+            verify(applicationEventPublisher, times(2)).publishEvent(any(MarginUpdateEvent.class));
+        }
+
+        @Test
+        @DisplayName("Positions the local model cannot price are held at the broker figure")
+        void projectsOverPriceablePositions() {
+            Position unpriced = Position.builder()
+                    .id("P0")
+                    .instrumentToken(2L)
+                    .quantity(-50)
+                    .build();
+            when(sessionHealthService.isSessionActive()).thenReturn(true);
+            when(brokerGateway.getMargins()).thenReturn(sampleMargins());
+            when(positionRedisRepository.findAll()).thenReturn(List.of(unpriced));
+            when(spanMarginModel.canPrice(2L)).thenReturn(false);
+            when(spanMarginModel.canPrice(1L)).thenReturn(true);
+            when(spanMarginModel.estimatePositions(anyCollection()))
+                    .thenReturn(localMargin("0"))
+                    .thenReturn(localMargin("150000"));
+            marginService.getMargins();
+
+            marginService.onPositionEvent(new PositionEvent(this, position("P1", -75), PositionEventType.OPENED));
+            AccountMargin projected = marginService.getMargins();
+
+            assertThat(projected.isProjected()).isTrue();
+            assertThat(projected.getUsedMargin()).isEqualByComparingTo("350000");
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Collection<Position>> captor = ArgumentCaptor.forClass(Collection.class);
+            verify(spanMarginModel, times(2)).estimatePositions(captor.capture());
+            assertThat(captor.getAllValues().get(0)).isEmpty();
+            assertThat(captor.getAllValues().get(1)).extracting(Position::getId).containsExactly("P1");
+        }
+
+        @Test
+        @DisplayName("P&L-only updates do not change the projection")
+        void ignoresPnlUpdates() {
+            marginService.onPositionEvent(new PositionEvent(this, position("P1", -75), PositionEventType.UPDATED));
+
+            marginService.reconcilePending();
+
+            verify(brokerGateway, never()).getMargins();
+        }
+
+        @Test
+        @DisplayName("Position changes are coalesced into one background broker call")
+        void reconcilesInBackground() {
+            when(sessionHealthService.isSessionActive()).thenReturn(true);
+            when(brokerGateway.getMargins()).thenReturn(sampleMargins());
+
+            marginService.onPositionEvent(new PositionEvent(this, position("P1", -75), PositionEventType.OPENED));
+            marginService.onPositionEvent(new PositionEvent(this, position("P2", 75), PositionEventType.OPENED));
+            marginService.reconcilePending();
+            marginService.reconcilePending();
+
+            verify(brokerGateway, times(1)).getMargins();
+            assertThat(marginService.getMargins().isProjected()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Background reconciliation is skipped while the session is inactive")
+        void skipsReconcileWithoutSession() {
+            when(sessionHealthService.isSessionActive()).thenReturn(false);
+
+            marginService.requestReconcile();
+            marginService.reconcilePending();
+
+            verify(brokerGateway, never()).getMargins();
+        }
+    }
 }
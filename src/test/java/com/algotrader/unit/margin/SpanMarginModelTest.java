@@ -0,0 +1,215 @@
+package com.algotrader.unit.margin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.algotrader.core.processor.IVCalculator;
+import com.algotrader.core.processor.MarketStateService;
+import com.algotrader.domain.enums.InstrumentType;
+import com.algotrader.domain.enums.OrderSide;
+import com.algotrader.domain.model.Instrument;
+import com.algotrader.margin.SpanMarginConfig;
+import com.algotrader.margin.SpanMarginModel;
+import com.algotrader.margin.SpanMarginModel.LocalMargin;
+import com.algotrader.oms.OrderRequest;
+import com.algotrader.service.InstrumentService;
+import com.algotrader.strategy.base.MarketSnapshot;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SpanMarginModel covering scenario-based SPAN with hedge offsets, exposure
+ * margin, unpriceable baskets, and broker calibration.
+ */
+class SpanMarginModelTest {
+
+    private static final LocalDate EXPIRY = LocalDate.now().plusDays(7);
+    private static final int QUANTITY = 75;
+
+    private InstrumentService instrumentService;
+    private MarketStateService marketStateService;
+    private SpanMarginConfig config;
+    private SpanMarginModel model;
+
+    private final Map<Long, Instrument> instruments = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        instrumentService = mock(InstrumentService.class);
+        marketStateService = mock(MarketStateService.class);
+        config = new SpanMarginConfig();
+        model = new SpanMarginModel(config, instrumentService, marketStateService, new IVCalculator());
+
+        when(instrumentService.findByToken(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(instruments.get(invocation.<Long>getArgument(0))));
+        when(marketStateService.getSnapshot("NIFTY"))
+                .thenReturn(MarketSnapshot.builder()
+                        .underlying("NIFTY")
+                        .spotPrice(BigDecimal.valueOf(22000))
+                        .atmIV(BigDecimal.valueOf(14))
+                        .build());
+    }
+
+    private OrderRequest leg(int strike, InstrumentType type, OrderSide side) {
+        long token = strike * 10L + (type == InstrumentType.CE ? 1 : 2);
+        instruments.put(
+                token,
+                Instrument.builder()
+                        .token(token)
+                        .underlying("NIFTY")
+                        .type(type)
+                        .strike(BigDecimal.valueOf(strike))
+                        .expiry(EXPIRY)
+                        .build());
+        return OrderRequest.builder()
+                .instrumentToken(token)
+                .side(side)
+                .quantity(QUANTITY)
+                .build();
+    }
+
+    private List<OrderRequest> ironCondor() {
+        return List.of(
+                leg(22500, InstrumentType.CE, OrderSide.SELL),
+                leg(22700, InstrumentType.CE, OrderSide.BUY),
+                leg(21500, InstrumentType.PE, OrderSide.SELL),
+                leg(21300, InstrumentType.PE, OrderSide.BUY));
+    }
+
+    @Nested
+    @DisplayName("Estimation")
+    class Estimation {
+
+        @Test
+        @DisplayName("Iron condor margin is well below the sum of its legs")
+        void hedgeOffset() {
+            LocalMargin margin = model.estimate(ironCondor());
+
+            assertThat(margin).isNotNull();
+            assertThat(margin.requiredMargin()).isPositive();
+            assertThat(margin.requiredMargin()).isLessThan(margin.individualMarginSum());
+            assertThat(margin.requiredMargin().doubleValue())
+                    .isLessThan(margin.individualMarginSum().doubleValue() * 0.6);
+            assertThat(margin.underlyings()).containsExactly("NIFTY");
+        }
+
+        @Test
+        @DisplayName("Hedged loss is capped by the wing width")
+        void spanCappedByWings() {
+            LocalMargin margin = model.estimate(ironCondor());
+
+            // Max loss of a 200-point wide condor is 200 * 75 = 15000
+            assertThat(margin.spanMargin().doubleValue()).isLessThanOrEqualTo(15000.0);
+        }
+
+        @Test
+        @DisplayName("Exposure margin applies to short options only")
+        void exposureOnShortsOnly() {
+            LocalMargin margin = model.estimate(ironCondor());
+
+            // 2 short legs * 75 * 22000 * 2%
+            assertThat(margin.exposureMargin()).isEqualByComparingTo("66000.00");
+        }
+
+        @Test
+        @DisplayName("Long option alone carries no exposure margin")
+        void longOptionNoExposure() {
+            LocalMargin margin = model.estimate(List.of(leg(22000, InstrumentType.CE, OrderSide.BUY)));
+
+            assertThat(margin.exposureMargin()).isEqualByComparingTo("0");
+        }
+
+        @Test
+        @DisplayName("Unknown instrument makes the basket unpriceable")
+        void unknownInstrument() {
+            OrderRequest unknown = OrderRequest.builder()
+                    .instrumentToken(1L)
+                    .side(OrderSide.SELL)
+                    .quantity(QUANTITY)
+                    .build();
+
+            assertThat(model.estimate(List.of(unknown))).isNull();
+        }
+
+        @Test
+        @DisplayName("Missing spot price makes the basket unpriceable")
+        void missingSpot() {
+            when(marketStateService.getSnapshot("NIFTY")).thenReturn(null);
+
+            assertThat(model.estimate(ironCondor())).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Calibration")
+    class Calibration {
+
+        @Test
+        @DisplayName("Not calibrated until a broker figure is recorded")
+        void uncalibratedInitially() {
+            LocalMargin margin = model.estimate(ironCondor());
+
+            assertThat(model.isCalibrated(margin)).isFalse();
+            assertThat(model.getCalibrationFactor("NIFTY")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("First calibration matches the broker figure and reports the error")
+        void firstCalibration() {
+            LocalMargin margin = model.estimate(ironCondor());
+            BigDecimal broker = margin.requiredMargin().multiply(BigDecimal.valueOf(1.25));
+
+            BigDecimal error = model.calibrate(margin, broker);
+
+            assertThat(error).isEqualByComparingTo("-20.00");
+            assertThat(model.isCalibrated(margin)).isTrue();
+            assertThat(model.estimate(ironCondor()).requiredMargin().doubleValue())
+                    .isCloseTo(broker.doubleValue(), within(1.0));
+            assertThat(model.getLastErrorPercent("NIFTY")).isCloseTo(-20.0, within(0.01));
+        }
+
+        @Test
+        @DisplayName("Later calibrations are smoothed")
+        void smoothing() {
+            LocalMargin margin = model.estimate(ironCondor());
+            model.calibrate(margin, margin.requiredMargin());
+
+            model.calibrate(
+                    model.estimate(ironCondor()), margin.requiredMargin().multiply(BigDecimal.valueOf(2)));
+
+            // 1.0 + 0.3 * (2.0 - 1.0)
+            assertThat(model.getCalibrationFactor("NIFTY")).isCloseTo(1.3, within(0.0001));
+        }
+
+        @Test
+        @DisplayName("Non-positive broker figure is ignored")
+        void zeroBrokerIgnored() {
+            LocalMargin margin = model.estimate(ironCondor());
+
+            assertThat(model.calibrate(margin, BigDecimal.ZERO)).isNull();
+            assertThat(model.isCalibrated(margin)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Calibration expires after the interval")
+        void calibrationExpires() {
+            config.setCalibrationInterval(Duration.ZERO.minusSeconds(1));
+            LocalMargin margin = model.estimate(ironCondor());
+            model.calibrate(margin, margin.requiredMargin());
+
+            assertThat(model.isCalibrated(margin)).isFalse();
+        }
+    }
+}
@@ -3,18 +3,23 @@ package com.algotrader.unit.morph;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.config.MorphConfig;
 import com.algotrader.core.engine.StrategyEngine;
 import com.algotrader.domain.enums.InstrumentType;
+import com.algotrader.domain.enums.OrderPriority;
 import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.StrategyStatus;
 import com.algotrader.domain.enums.StrategyType;
+import com.algotrader.domain.model.Instrument;
 import com.algotrader.domain.model.LegCloseStep;
+import com.algotrader.domain.model.MarginEstimate;
 import com.algotrader.domain.model.MorphExecutionPlan;
 import com.algotrader.domain.model.MorphRequest;
 import com.algotrader.domain.model.MorphResult;
@@ -24,14 +29,21 @@ import com.algotrader.domain.model.Position;
 import com.algotrader.entity.MorphHistoryEntity;
 import com.algotrader.entity.MorphPlanEntity;
 import com.algotrader.exception.BusinessException;
+import com.algotrader.margin.MarginEstimator;
 import com.algotrader.morph.MorphService;
 import com.algotrader.observability.DecisionLogger;
 import com.algotrader.oms.JournaledMultiLegExecutor;
+import com.algotrader.oms.OrderRequest;
 import com.algotrader.repository.jpa.MorphHistoryJpaRepository;
 import com.algotrader.repository.jpa.MorphPlanJpaRepository;
+import com.algotrader.service.InstrumentService;
 import com.algotrader.strategy.base.BaseStrategy;
+import com.algotrader.strategy.base.BaseStrategyConfig;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -68,6 +80,12 @@ class MorphServiceTest {
     @Mock
     private ApplicationEventPublisher applicationEventPublisher;
 
+    @Mock
+    private InstrumentService instrumentService;
+
+    @Mock
+    private MarginEstimator marginEstimator;
+
     @Mock
     private BaseStrategy sourceStrategy;
 
@@ -87,7 +105,9 @@ class MorphServiceTest {
                 decisionLogger,
                 applicationEventPublisher,
                 objectMapper,
-                morphConfig);
+                morphConfig,
+                instrumentService,
+                marginEstimator);
     }
 
     // ========================
@@ -313,9 +333,8 @@ class MorphServiceTest {
                 return entity;
             });
 
-            // Lineage save
-            when(morphHistoryJpaRepository.save(any(MorphHistoryEntity.class)))
-                    .thenAnswer(invocation -> invocation.getArgument(0));
+            // Lineage batch save
+            when(morphHistoryJpaRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
             MorphRequest request = MorphRequest.builder()
                     .sourceStrategyId(sourceId)
@@ -339,10 +358,14 @@ class MorphServiceTest {
             verify(strategyEngine).pauseStrategy(sourceId);
             verify(strategyEngine).closeStrategy(sourceId);
 
-            // Verify lineage was recorded
-            ArgumentCaptor<MorphHistoryEntity> lineageCaptor = ArgumentCaptor.forClass(MorphHistoryEntity.class);
-            verify(morphHistoryJpaRepository).save(lineageCaptor.capture());
-            assertThat(lineageCaptor.getValue().getParentStrategyId()).isEqualTo(sourceId);
+            // Verify lineage was recorded in one batch and no orders were needed
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<MorphHistoryEntity>> lineageCaptor = ArgumentCaptor.forClass(List.class);
+            verify(morphHistoryJpaRepository).saveAll(lineageCaptor.capture());
+            assertThat(lineageCaptor.getValue()).hasSize(1);
+            assertThat(lineageCaptor.getValue().get(0).getParentStrategyId()).isEqualTo(sourceId);
+            verify(journaledMultiLegExecutor, never())
+                    .executeBuyFirstThenSell(anyList(), anyString(), anyString(), any(), any());
 
             // Verify event was published
             verify(applicationEventPublisher).publishEvent(any());
@@ -350,12 +373,199 @@ class MorphServiceTest {
             // Verify decision was logged
             verify(decisionLogger).logMorph(eq(sourceId), eq(true), anyString(), any());
         }
+
+        @Test
+        @DisplayName("should resolve new legs and submit close and open legs as one basket")
+        void closeAndOpenInOneBasket() {
+            String sourceId = "STR-001";
+            stubStraddleSource(sourceId);
+            when(instrumentService.resolveOption("NIFTY", EXPIRY, BigDecimal.valueOf(24400), InstrumentType.CE))
+                    .thenReturn(Optional.of(buildInstrument(300001L, "NIFTY24FEB24400CE")));
+            when(instrumentService.resolveOption("NIFTY", EXPIRY, BigDecimal.valueOf(24600), InstrumentType.CE))
+                    .thenReturn(Optional.of(buildInstrument(300002L, "NIFTY24FEB24600CE")));
+            when(marginEstimator.confirmMultiLeg(anyList())).thenReturn(marginEstimate(100_000, 500_000));
+            when(marginEstimator.estimateMultiLeg(anyList())).thenReturn(marginEstimate(100_000, 500_000));
+            when(morphPlanJpaRepository.save(any(MorphPlanEntity.class))).thenAnswer(invocation -> {
+                MorphPlanEntity entity = invocation.getArgument(0);
+                entity.setId(2L);
+                return entity;
+            });
+            when(journaledMultiLegExecutor.executeBuyFirstThenSell(
+                            anyList(), eq(sourceId), eq("MORPH"), eq(OrderPriority.STRATEGY_ADJUSTMENT), any()))
+                    .thenReturn(JournaledMultiLegExecutor.MultiLegResult.builder()
+                            .success(true)
+                            .legResults(List.of())
+                            .build());
+
+            MorphResult result = morphService.morph(shiftCallRequest(sourceId));
+
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(result.getLegsClosedCount()).isEqualTo(1);
+            assertThat(result.getLegsReassignedCount()).isEqualTo(1);
+            assertThat(result.getLegsOpenedCount()).isEqualTo(2);
+            assertThat(result.getExposedWindowMillis()).isGreaterThanOrEqualTo(0);
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<OrderRequest>> ordersCaptor = ArgumentCaptor.forClass(List.class);
+            verify(journaledMultiLegExecutor)
+                    .executeBuyFirstThenSell(
+                            ordersCaptor.capture(), eq(sourceId), eq("MORPH"), any(), any(Duration.class));
+            List<OrderRequest> orders = ordersCaptor.getValue();
+            assertThat(orders).hasSize(3);
+
+            // Close the short call, then open the new short call (inherits 2 lots x 75) and its 1-lot wing
+            assertThat(orders.get(0).getInstrumentToken()).isEqualTo(256001L);
+            assertThat(orders.get(0).getSide()).isEqualTo(OrderSide.BUY);
+            assertThat(orders.get(0).getQuantity()).isEqualTo(150);
+            assertThat(orders.get(1).getInstrumentToken()).isEqualTo(300001L);
+            assertThat(orders.get(1).getTradingSymbol()).isEqualTo("NIFTY24FEB24400CE");
+            assertThat(orders.get(1).getSide()).isEqualTo(OrderSide.SELL);
+            assertThat(orders.get(1).getQuantity()).isEqualTo(150);
+            assertThat(orders.get(2).getInstrumentToken()).isEqualTo(300002L);
+            assertThat(orders.get(2).getSide()).isEqualTo(OrderSide.BUY);
+            assertThat(orders.get(2).getQuantity()).isEqualTo(75);
+            assertThat(orders.get(2).getStrategyId())
+                    .isEqualTo(result.getNewStrategyIds().get(0));
+        }
+
+        @Test
+        @DisplayName("should size a leg with explicit lots from those lots, not the strategy's")
+        void explicitLegLotsNotMultiplied() {
+            String sourceId = "STR-001";
+            stubStraddleSource(sourceId);
+            when(instrumentService.resolveOption("NIFTY", EXPIRY, BigDecimal.valueOf(24400), InstrumentType.CE))
+                    .thenReturn(Optional.of(buildInstrument(300001L, "NIFTY24FEB24400CE")));
+            when(instrumentService.resolveOption("NIFTY", EXPIRY, BigDecimal.valueOf(24600), InstrumentType.CE))
+                    .thenReturn(Optional.of(buildInstrument(300002L, "NIFTY24FEB24600CE")));
+            when(marginEstimator.confirmMultiLeg(anyList())).thenReturn(marginEstimate(100_000, 500_000));
+            when(marginEstimator.estimateMultiLeg(anyList())).thenReturn(marginEstimate(100_000, 500_000));
+            when(morphPlanJpaRepository.save(any(MorphPlanEntity.class))).thenAnswer(invocation -> {
+                MorphPlanEntity entity = invocation.getArgument(0);
+                entity.setId(3L);
+                return entity;
+            });
+            when(journaledMultiLegExecutor.executeBuyFirstThenSell(
+                            anyList(), eq(sourceId), eq("MORPH"), eq(OrderPriority.STRATEGY_ADJUSTMENT), any()))
+                    .thenReturn(JournaledMultiLegExecutor.MultiLegResult.builder()
+                            .success(true)
+                            .legResults(List.of())
+                            .build());
+
+            morphService.morph(shiftCallRequest(sourceId, 3));
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<OrderRequest>> ordersCaptor = ArgumentCaptor.forClass(List.class);
+            verify(journaledMultiLegExecutor)
+                    .executeBuyFirstThenSell(
+                            ordersCaptor.capture(), eq(sourceId), eq("MORPH"), any(), any(Duration.class));
+            List<OrderRequest> orders = ordersCaptor.getValue();
+
+            // Wing: 3 lots x 75 on a 2-lot strategy; the unsized short call still inherits 2 lots
+            assertThat(orders.get(1).getQuantity()).isEqualTo(150);
+            assertThat(orders.get(2).getQuantity()).isEqualTo(225);
+        }
+
+        @Test
+        @DisplayName("should reject before placing anything when a new leg cannot be resolved")
+        void unresolvableNewLeg() {
+            String sourceId = "STR-001";
+            stubStraddleSource(sourceId);
+            when(instrumentService.resolveOption(any(), any(), any(), any())).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> morphService.morph(shiftCallRequest(sourceId)))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("No instrument found");
+
+            verify(morphPlanJpaRepository, never()).save(any());
+            verify(strategyEngine, never()).pauseStrategy(anyString());
+            verify(journaledMultiLegExecutor, never())
+                    .executeBuyFirstThenSell(anyList(), anyString(), anyString(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should reject before placing anything when the target needs more margin than available")
+        void insufficientMargin() {
+            String sourceId = "STR-001";
+            stubStraddleSource(sourceId);
+            when(instrumentService.resolveOption(eq("NIFTY"), eq(EXPIRY), any(), eq(InstrumentType.CE)))
+                    .thenReturn(Optional.of(buildInstrument(300001L, "NIFTY24FEB24400CE")));
+            // Target basket needs 300k, source releases 50k: 250k more against 100k available
+            when(marginEstimator.confirmMultiLeg(anyList())).thenReturn(marginEstimate(300_000, 100_000));
+            when(marginEstimator.estimateMultiLeg(anyList())).thenReturn(marginEstimate(50_000, 100_000));
+
+            assertThatThrownBy(() -> morphService.morph(shiftCallRequest(sourceId)))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Insufficient margin");
+
+            verify(strategyEngine, never()).pauseStrategy(anyString());
+            verify(journaledMultiLegExecutor, never())
+                    .executeBuyFirstThenSell(anyList(), anyString(), anyString(), any(), any());
+        }
     }
 
     // ========================
     // HELPERS
     // ========================
 
+    private static final LocalDate EXPIRY = LocalDate.of(2024, 2, 29);
+
+    private void stubStraddleSource(String sourceId) {
+        Position sellCe = buildPosition("P1", "NIFTY24FEB24200CE", -150, 256001L);
+        Position sellPe = buildPosition("P2", "NIFTY24FEB24200PE", -150, 256002L);
+        when(strategyEngine.getStrategy(sourceId)).thenReturn(sourceStrategy);
+        when(sourceStrategy.getStatus()).thenReturn(StrategyStatus.ACTIVE);
+        when(sourceStrategy.getType()).thenReturn(StrategyType.STRADDLE);
+        when(sourceStrategy.getPositions()).thenReturn(List.of(sellCe, sellPe));
+        when(sourceStrategy.getConfig())
+                .thenReturn(BaseStrategyConfig.builder()
+                        .underlying("NIFTY")
+                        .expiry(EXPIRY)
+                        .lots(2)
+                        .build());
+    }
+
+    /** Keeps the short put, moves the short call out to 24400 and adds a 1-lot 24600 wing. */
+    private MorphRequest shiftCallRequest(String sourceId) {
+        return shiftCallRequest(sourceId, 1);
+    }
+
+    private MorphRequest shiftCallRequest(String sourceId, int wingLots) {
+        return MorphRequest.builder()
+                .sourceStrategyId(sourceId)
+                .targets(List.of(MorphTarget.builder()
+                        .strategyType(StrategyType.BEAR_CALL_SPREAD)
+                        .retainedLegs(List.of("SELL_PE"))
+                        .newLegs(List.of(
+                                NewLegDefinition.builder()
+                                        .strike(BigDecimal.valueOf(24400))
+                                        .optionType(InstrumentType.CE)
+                                        .side(OrderSide.SELL)
+                                        .build(),
+                                NewLegDefinition.builder()
+                                        .strike(BigDecimal.valueOf(24600))
+                                        .optionType(InstrumentType.CE)
+                                        .side(OrderSide.BUY)
+                                        .lots(wingLots)
+                                        .build()))
+                        .build()))
+                .build();
+    }
+
+    private Instrument buildInstrument(Long token, String tradingSymbol) {
+        return Instrument.builder()
+                .token(token)
+                .tradingSymbol(tradingSymbol)
+                .lotSize(75)
+                .build();
+    }
+
+    private MarginEstimate marginEstimate(long required, long available) {
+        return MarginEstimate.builder()
+                .requiredMargin(BigDecimal.valueOf(required))
+                .availableMargin(BigDecimal.valueOf(available))
+                .build();
+    }
+
     private Position buildPosition(String id, String tradingSymbol, int quantity, Long instrumentToken) {
         return Position.builder()
                 .id(id)
@@ -1,17 +1,22 @@
 package com.algotrader.unit.morph;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.domain.enums.StrategyType;
+import com.algotrader.domain.model.StrategyLineage;
 import com.algotrader.domain.model.StrategyLineageTree;
 import com.algotrader.entity.MorphHistoryEntity;
+import com.algotrader.event.MorphEvent;
 import com.algotrader.morph.StrategyLineageService;
 import com.algotrader.repository.jpa.MorphHistoryJpaRepository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -22,7 +27,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 /**
  * Unit tests for StrategyLineageService: tree construction, ancestor/descendant
- * traversal, and cumulative P&L calculation across morph chains.
+ * traversal, cumulative P&L calculation across morph chains, and maintenance of the
+ * in-memory lineage graph (bulk load, morph updates, cold-read fallback).
  */
 @ExtendWith(MockitoExtension.class)
 class StrategyLineageServiceTest {
@@ -48,8 +54,7 @@ class StrategyLineageServiceTest {
         @Test
         @DisplayName("should build tree with no ancestors or descendants")
         void emptyTree() {
-            when(morphHistoryJpaRepository.findByChildStrategyId("S1")).thenReturn(Optional.empty());
-            when(morphHistoryJpaRepository.findByParentStrategyId("S1")).thenReturn(List.of());
+            loadGraph();
 
             StrategyLineageTree tree = strategyLineageService.getLineageTree("S1");
 
@@ -64,9 +69,7 @@ class StrategyLineageServiceTest {
             MorphHistoryEntity parentLink = buildEntity(
                     1L, "PARENT", "CHILD", StrategyType.STRADDLE, StrategyType.IRON_CONDOR, new BigDecimal("-3000"));
 
-            when(morphHistoryJpaRepository.findByChildStrategyId("CHILD")).thenReturn(Optional.of(parentLink));
-            when(morphHistoryJpaRepository.findByChildStrategyId("PARENT")).thenReturn(Optional.empty());
-            when(morphHistoryJpaRepository.findByParentStrategyId("CHILD")).thenReturn(List.of());
+            loadGraph(parentLink);
 
             StrategyLineageTree tree = strategyLineageService.getLineageTree("CHILD");
 
@@ -92,10 +95,7 @@ class StrategyLineageServiceTest {
                     StrategyType.IRON_CONDOR,
                     new BigDecimal("-2000"));
 
-            when(morphHistoryJpaRepository.findByChildStrategyId("CHILD")).thenReturn(Optional.of(parentLink));
-            when(morphHistoryJpaRepository.findByChildStrategyId("PARENT")).thenReturn(Optional.of(grandparentLink));
-            when(morphHistoryJpaRepository.findByChildStrategyId("GRANDPARENT")).thenReturn(Optional.empty());
-            when(morphHistoryJpaRepository.findByParentStrategyId("CHILD")).thenReturn(List.of());
+            loadGraph(parentLink, grandparentLink);
 
             StrategyLineageTree tree = strategyLineageService.getLineageTree("CHILD");
 
@@ -117,10 +117,7 @@ class StrategyLineageServiceTest {
             MorphHistoryEntity child2 = buildEntity(
                     2L, "PARENT", "CHILD2", StrategyType.IRON_CONDOR, StrategyType.STRADDLE, new BigDecimal("3000"));
 
-            when(morphHistoryJpaRepository.findByChildStrategyId("PARENT")).thenReturn(Optional.empty());
-            when(morphHistoryJpaRepository.findByParentStrategyId("PARENT")).thenReturn(List.of(child1, child2));
-            when(morphHistoryJpaRepository.findByParentStrategyId("CHILD1")).thenReturn(List.of());
-            when(morphHistoryJpaRepository.findByParentStrategyId("CHILD2")).thenReturn(List.of());
+            loadGraph(child1, child2);
 
             StrategyLineageTree tree = strategyLineageService.getLineageTree("PARENT");
 
@@ -139,7 +136,7 @@ class StrategyLineageServiceTest {
         @Test
         @DisplayName("should return ZERO with no ancestors")
         void noAncestors() {
-            when(morphHistoryJpaRepository.findByChildStrategyId("S1")).thenReturn(Optional.empty());
+            loadGraph();
 
             BigDecimal pnl = strategyLineageService.getCumulativePnl("S1");
 
@@ -164,9 +161,8 @@ class StrategyLineageServiceTest {
                     StrategyType.IRON_CONDOR,
                     new BigDecimal("-2000"));
 
-            when(morphHistoryJpaRepository.findByChildStrategyId("CHILD")).thenReturn(Optional.of(parentLink));
-            when(morphHistoryJpaRepository.findByChildStrategyId("PARENT")).thenReturn(Optional.of(grandparentLink));
-            when(morphHistoryJpaRepository.findByChildStrategyId("GRANDPARENT")).thenReturn(Optional.empty());
+            // Child link loaded before its parent's: totals must still include both
+            loadGraph(parentLink, grandparentLink);
 
             BigDecimal pnl = strategyLineageService.getCumulativePnl("CHILD");
 
@@ -180,8 +176,7 @@ class StrategyLineageServiceTest {
             MorphHistoryEntity parentLink =
                     buildEntity(1L, "PARENT", "CHILD", StrategyType.IRON_CONDOR, StrategyType.BULL_PUT_SPREAD, null);
 
-            when(morphHistoryJpaRepository.findByChildStrategyId("CHILD")).thenReturn(Optional.of(parentLink));
-            when(morphHistoryJpaRepository.findByChildStrategyId("PARENT")).thenReturn(Optional.empty());
+            loadGraph(parentLink);
 
             BigDecimal pnl = strategyLineageService.getCumulativePnl("CHILD");
 
@@ -189,10 +184,99 @@ class StrategyLineageServiceTest {
         }
     }
 
+    // ========================
+    // GRAPH MAINTENANCE
+    // ========================
+
+    @Nested
+    @DisplayName("Graph loading and updates")
+    class GraphMaintenance {
+
+        @Test
+        @DisplayName("should answer cold reads with one recursive lineage query")
+        void coldReadUsesSingleQuery() {
+            MorphHistoryEntity grandparentLink = buildEntity(
+                    1L,
+                    "GRANDPARENT",
+                    "PARENT",
+                    StrategyType.STRADDLE,
+                    StrategyType.IRON_CONDOR,
+                    new BigDecimal("-2000"));
+            MorphHistoryEntity parentLink = buildEntity(
+                    2L,
+                    "PARENT",
+                    "CHILD",
+                    StrategyType.IRON_CONDOR,
+                    StrategyType.BULL_PUT_SPREAD,
+                    new BigDecimal("5000"));
+            when(morphHistoryJpaRepository.findLineageOf("CHILD")).thenReturn(List.of(grandparentLink, parentLink));
+
+            StrategyLineageTree tree = strategyLineageService.getLineageTree("CHILD");
+
+            assertThat(tree.getAncestors())
+                    .extracting(StrategyLineage::getParentStrategyId)
+                    .containsExactly("PARENT", "GRANDPARENT");
+            verify(morphHistoryJpaRepository, times(1)).findLineageOf("CHILD");
+            verify(morphHistoryJpaRepository, never()).findAll();
+        }
+
+        @Test
+        @DisplayName("should serve reads from memory once loaded")
+        void loadedGraphNeedsNoQueries() {
+            MorphHistoryEntity parentLink = buildEntity(
+                    1L,
+                    "PARENT",
+                    "CHILD",
+                    StrategyType.IRON_CONDOR,
+                    StrategyType.BULL_PUT_SPREAD,
+                    new BigDecimal("5000"));
+            loadGraph(parentLink);
+
+            strategyLineageService.getLineageTree("CHILD");
+            strategyLineageService.getCumulativePnl("CHILD");
+
+            verify(morphHistoryJpaRepository, never()).findLineageOf(any());
+            verify(morphHistoryJpaRepository, never()).findByParentStrategyId(any());
+        }
+
+        @Test
+        @DisplayName("should add links recorded by a morph and extend descendants' cumulative P&L")
+        void morphEventAddsLinks() {
+            MorphHistoryEntity parentLink = buildEntity(
+                    1L,
+                    "PARENT",
+                    "CHILD",
+                    StrategyType.IRON_CONDOR,
+                    StrategyType.BULL_PUT_SPREAD,
+                    new BigDecimal("5000"));
+            loadGraph(parentLink);
+            MorphHistoryEntity grandchildLink = buildEntity(
+                    2L,
+                    "CHILD",
+                    "GRANDCHILD",
+                    StrategyType.BULL_PUT_SPREAD,
+                    StrategyType.STRADDLE,
+                    new BigDecimal("750"));
+            when(morphHistoryJpaRepository.findByParentStrategyId("CHILD")).thenReturn(List.of(grandchildLink));
+
+            strategyLineageService.onMorph(new MorphEvent(this, "CHILD", List.of("GRANDCHILD")));
+
+            assertThat(strategyLineageService.getLineageTree("PARENT").getDescendants())
+                    .extracting(StrategyLineage::getChildStrategyId)
+                    .containsExactly("CHILD", "GRANDCHILD");
+            assertThat(strategyLineageService.getCumulativePnl("GRANDCHILD")).isEqualByComparingTo("5750");
+        }
+    }
+
     // ========================
     // HELPERS
     // ========================
 
+    private void loadGraph(MorphHistoryEntity... links) {
+        when(morphHistoryJpaRepository.findAll()).thenReturn(List.of(links));
+        strategyLineageService.loadGraph();
+    }
+
     private MorphHistoryEntity buildEntity(
             Long id,
             String parentId,
@@ -1,6 +1,8 @@
 package com.algotrader.unit.notification;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.domain.enums.AlertSeverity;
@@ -20,7 +22,7 @@ import org.mockito.MockitoAnnotations;
  * Unit tests for AlertSeverityRouter (Task 20.1).
  *
  * <p>Verifies: default severity routing, user preference overrides,
- * disabled alert types, and fallback behavior.
+ * disabled alert types, fallback behavior, and the cached routing table.
  */
 class AlertSeverityRouterTest {
 
@@ -96,4 +98,38 @@ class AlertSeverityRouterTest {
 
         assertThat(channels).isEmpty();
     }
+
+    @Test
+    void preferences_loadedOncePerAlertType() {
+        when(notificationPreferenceJpaRepository.findByAlertType("RISK")).thenReturn(Optional.empty());
+
+        alertSeverityRouter.resolveChannels(AlertType.RISK, AlertSeverity.CRITICAL);
+        Set<NotificationChannel> channels = alertSeverityRouter.resolveChannels(AlertType.RISK, AlertSeverity.INFO);
+
+        // Cached "no preference" still falls back to the severity of each alert
+        assertThat(channels).containsExactly(NotificationChannel.WEBSOCKET);
+        verify(notificationPreferenceJpaRepository, times(1)).findByAlertType("RISK");
+    }
+
+    @Test
+    void invalidate_reloadsEditedPreference() {
+        NotificationPreferenceEntity telegramOnly = NotificationPreferenceEntity.builder()
+                .alertType("ORDER_FILL")
+                .enabledChannels("TELEGRAM")
+                .enabled(true)
+                .build();
+        when(notificationPreferenceJpaRepository.findByAlertType("ORDER_FILL"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(telegramOnly));
+
+        assertThat(alertSeverityRouter.resolveChannels(AlertType.ORDER_FILL, AlertSeverity.INFO))
+                .containsExactly(NotificationChannel.WEBSOCKET);
+        assertThat(alertSeverityRouter.resolveChannels(AlertType.ORDER_FILL, AlertSeverity.INFO))
+                .containsExactly(NotificationChannel.WEBSOCKET);
+
+        alertSeverityRouter.invalidate();
+
+        assertThat(alertSeverityRouter.resolveChannels(AlertType.ORDER_FILL, AlertSeverity.INFO))
+                .containsExactly(NotificationChannel.TELEGRAM);
+    }
 }
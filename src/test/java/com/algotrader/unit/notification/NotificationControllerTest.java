@@ -1,6 +1,7 @@
 package com.algotrader.unit.notification;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -12,6 +13,7 @@ import com.algotrader.domain.model.NotificationPreference;
 import com.algotrader.entity.NotificationPreferenceEntity;
 import com.algotrader.exception.GlobalExceptionHandler;
 import com.algotrader.mapper.NotificationPreferenceMapper;
+import com.algotrader.notification.AlertSeverityRouter;
 import com.algotrader.notification.NotificationService;
 import com.algotrader.repository.jpa.NotificationPreferenceJpaRepository;
 import java.util.List;
@@ -41,11 +43,17 @@ class NotificationControllerTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private AlertSeverityRouter alertSeverityRouter;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         NotificationController controller = new NotificationController(
-                notificationPreferenceJpaRepository, notificationPreferenceMapper, notificationService);
+                notificationPreferenceJpaRepository,
+                notificationPreferenceMapper,
+                notificationService,
+                alertSeverityRouter);
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -103,6 +111,8 @@ class NotificationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.alertType").value("ORDER_FILL"))
                 .andExpect(jsonPath("$.enabled").value(true));
+
+        verify(alertSeverityRouter).invalidate();
     }
 
     @Test
@@ -2,6 +2,7 @@ package com.algotrader.unit.notification;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -61,7 +62,7 @@ class NotificationServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         notificationService = new NotificationService(
-                alertSeverityRouter, telegramNotifier, webSocketNotifier, notificationTemplateEngine);
+                alertSeverityRouter, telegramNotifier, webSocketNotifier, notificationTemplateEngine, 5000);
     }
 
     @Test
@@ -240,4 +241,55 @@ class NotificationServiceTest {
 
         verify(webSocketNotifier, never()).send(any());
     }
+
+    @Test
+    void notify_identicalAlertsWithinWindow_sentToTelegramOnce() {
+        when(alertSeverityRouter.resolveChannels(AlertType.RISK, AlertSeverity.WARNING))
+                .thenReturn(Set.of(NotificationChannel.WEBSOCKET, NotificationChannel.TELEGRAM));
+        when(notificationTemplateEngine.render(any())).thenReturn("margin warning");
+
+        for (int i = 0; i < 3; i++) {
+            notificationService.notify(riskAlert("Margin utilization 85%"));
+        }
+
+        verify(telegramNotifier, times(1)).send("margin warning", AlertSeverity.WARNING);
+        verify(notificationTemplateEngine, times(1)).render(any());
+        verify(webSocketNotifier, times(3)).send(any());
+    }
+
+    @Test
+    void notify_differentMessages_notCoalesced() {
+        when(alertSeverityRouter.resolveChannels(AlertType.RISK, AlertSeverity.WARNING))
+                .thenReturn(Set.of(NotificationChannel.TELEGRAM));
+        when(notificationTemplateEngine.render(any())).thenReturn("margin warning");
+
+        notificationService.notify(riskAlert("Margin utilization 85%"));
+        notificationService.notify(riskAlert("Margin utilization 90%"));
+
+        verify(telegramNotifier, times(2)).send("margin warning", AlertSeverity.WARNING);
+    }
+
+    @Test
+    void notify_zeroWindow_disablesCoalescing() {
+        notificationService = new NotificationService(
+                alertSeverityRouter, telegramNotifier, webSocketNotifier, notificationTemplateEngine, 0);
+        when(alertSeverityRouter.resolveChannels(AlertType.RISK, AlertSeverity.WARNING))
+                .thenReturn(Set.of(NotificationChannel.TELEGRAM));
+        when(notificationTemplateEngine.render(any())).thenReturn("margin warning");
+
+        notificationService.notify(riskAlert("Margin utilization 85%"));
+        notificationService.notify(riskAlert("Margin utilization 85%"));
+
+        verify(telegramNotifier, times(2)).send("margin warning", AlertSeverity.WARNING);
+    }
+
+    private Alert riskAlert(String message) {
+        return Alert.builder()
+                .type(AlertType.RISK)
+                .severity(AlertSeverity.WARNING)
+                .title("MARGIN_WARNING")
+                .message(message)
+                .timestamp(java.time.LocalDateTime.now())
+                .build();
+    }
 }
@@ -125,4 +125,33 @@ class NotificationTemplateEngineTest {
         assertThat(result).contains("<b>KILL SWITCH ACTIVATED</b>");
         assertThat(result).contains("All orders cancelled, positions being closed");
     }
+
+    @Test
+    void riskAlert_rendersExactLayout() {
+        Alert alert = Alert.builder()
+                .type(AlertType.RISK)
+                .severity(AlertSeverity.WARNING)
+                .title("MARGIN_WARNING")
+                .message("Margin utilization 85%")
+                .timestamp(LocalDateTime.of(2025, 1, 15, 9, 5, 7))
+                .build();
+
+        assertThat(notificationTemplateEngine.render(alert))
+                .isEqualTo("<b>RISK ALERT</b>\n<b>Type:</b> MARGIN_WARNING\n<b>Severity:</b> WARNING\n"
+                        + "<b>Message:</b> Margin utilization 85%\n<b>Time:</b> 09:05:07");
+    }
+
+    @Test
+    void systemAlert_usesTitleAsHeading() {
+        Alert alert = Alert.builder()
+                .type(AlertType.SYSTEM)
+                .severity(AlertSeverity.INFO)
+                .title("Test Message")
+                .message("hello")
+                .timestamp(LocalDateTime.of(2025, 1, 15, 23, 59, 0))
+                .build();
+
+        assertThat(notificationTemplateEngine.render(alert))
+                .isEqualTo("<b>Test Message</b>\nhello\n<b>Time:</b> 23:59:00");
+    }
 }
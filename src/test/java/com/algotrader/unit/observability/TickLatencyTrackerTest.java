@@ -0,0 +1,123 @@
+package com.algotrader.unit.observability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.algotrader.observability.LatencyStage;
+import com.algotrader.observability.TickLatencyTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TickLatencyTracker verifying stage timer registration, per-strategy
+ * timer lifecycle and tick-to-order recording.
+ */
+class TickLatencyTrackerTest {
+
+    private MeterRegistry meterRegistry;
+    private TickLatencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new TickLatencyTracker(meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Stage timers")
+    class StageTimers {
+
+        @Test
+        @DisplayName("Every stage is registered up front with its tag")
+        void allStagesRegistered() {
+            for (LatencyStage stage : LatencyStage.values()) {
+                Timer timer = meterRegistry
+                        .find("tick.stage.latency")
+                        .tag("stage", stage.getTagValue())
+                        .timer();
+                assertThat(timer).isNotNull();
+                assertThat(timer.count()).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("record adds the duration to the stage timer")
+        void recordAddsDuration() {
+            tracker.record(LatencyStage.TICK_MAPPING, 1_500);
+
+            Timer timer = tracker.getStageTimer(LatencyStage.TICK_MAPPING);
+            assertThat(timer.count()).isEqualTo(1);
+            assertThat(timer.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(1_500);
+        }
+    }
+
+    @Nested
+    @DisplayName("Strategy timers")
+    class StrategyTimers {
+
+        @Test
+        @DisplayName("Registered strategy records into its own timer and the evaluate stage")
+        void registeredStrategyRecords() {
+            tracker.registerStrategy("STR-1");
+
+            tracker.recordStrategyEvaluation("STR-1", 2_000);
+
+            assertThat(tracker.getStrategyTimer("STR-1").count()).isEqualTo(1);
+            assertThat(tracker.getStageTimer(LatencyStage.STRATEGY_EVALUATE).count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Unregistered strategy only feeds the evaluate stage")
+        void unregisteredStrategyOnlyFeedsStage() {
+            tracker.recordStrategyEvaluation("STR-X", 2_000);
+
+            assertThat(tracker.getStrategyTimer("STR-X")).isNull();
+            assertThat(tracker.getStageTimer(LatencyStage.STRATEGY_EVALUATE).count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("unregisterStrategy removes the meter from the registry")
+        void unregisterRemovesMeter() {
+            tracker.registerStrategy("STR-1");
+            tracker.unregisterStrategy("STR-1");
+
+            assertThat(tracker.getStrategyTimer("STR-1")).isNull();
+            assertThat(meterRegistry
+                            .find("strategy.evaluate.latency")
+                            .tag("strategyId", "STR-1")
+                            .timer())
+                    .isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tick-to-order")
+    class TickToOrder {
+
+        @Test
+        @DisplayName("Records elapsed time since the tick receipt")
+        void recordsElapsed() {
+            tracker.recordTickToOrder(System.nanoTime() - 1_000_000);
+
+            Timer timer = tracker.getStageTimer(LatencyStage.TICK_TO_ORDER);
+            assertThat(timer.count()).isEqualTo(1);
+            assertThat(timer.totalTime(TimeUnit.NANOSECONDS)).isGreaterThanOrEqualTo(1_000_000);
+        }
+
+        @Test
+        @DisplayName("Zero receipt time (non-tick order) is ignored")
+        void zeroIgnored() {
+            tracker.recordTickToOrder(0);
+
+            assertThat(tracker.getStageTimer(LatencyStage.TICK_TO_ORDER).count())
+                    .isZero();
+        }
+    }
+}
@@ -8,9 +8,13 @@ import com.algotrader.domain.model.Order;
 import com.algotrader.event.OrderEvent;
 import com.algotrader.event.OrderEventType;
 import com.algotrader.oms.OrderFillTracker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,6 +32,11 @@ class OrderFillTrackerTest {
         orderFillTracker = new OrderFillTracker();
     }
 
+    @AfterEach
+    void tearDown() {
+        orderFillTracker.shutdown();
+    }
+
     @Test
     @DisplayName("Future completes when all expected fills arrive")
     void awaitFills_completesOnAllFills() throws Exception {
@@ -82,6 +91,19 @@ class OrderFillTrackerTest {
         assertThat(orderFillTracker.getPendingCount()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("Placed, modified and cancelled events do not affect awaits")
+    void onOrderEvent_ignoresNonFillEventTypes() {
+        CompletableFuture<Void> future = orderFillTracker.awaitFills("group-6", 1);
+
+        publishEvent("group-6", "NIFTY25FEB24500CE", 0, 75, OrderEventType.PLACED);
+        publishEvent("group-6", "NIFTY25FEB24500CE", 0, 75, OrderEventType.MODIFIED);
+        publishEvent("group-6", "NIFTY25FEB24500CE", 0, 75, OrderEventType.CANCELLED);
+
+        assertThat(future).isNotDone();
+        assertThat(orderFillTracker.getPendingCount()).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("Events with null order or null correlationId are ignored")
     void onOrderEvent_ignoresNullFields() {
@@ -153,8 +175,81 @@ class OrderFillTrackerTest {
         assertThat(orderFillTracker.getPendingCount()).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("Await times out on the shared timer without a caller-side timeout")
+    void awaitFills_timesOutOnSharedTimer() {
+        CompletableFuture<Void> future = orderFillTracker.awaitFills("group-T", 2, Duration.ofMillis(50));
+
+        publishFillEvent("group-T", "NIFTY25FEB24500CE");
+
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(OrderFillTracker.OrderFillTimeoutException.class)
+                .hasMessageContaining("remaining: 1");
+        assertThat(orderFillTracker.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Completed await is not timed out later")
+    void awaitFills_completedAwaitDoesNotExpire() throws Exception {
+        CompletableFuture<Void> future = orderFillTracker.awaitFills("group-C", 1, Duration.ofMillis(50));
+        publishFillEvent("group-C", "NIFTY25FEB24500CE");
+
+        // Re-register the same id; the first await's timer must not fail the new one early
+        CompletableFuture<Void> second = orderFillTracker.awaitFills("group-C", 1, Duration.ofSeconds(5));
+        Thread.sleep(150);
+
+        assertThat(future).isCompleted();
+        assertThat(future.isCompletedExceptionally()).isFalse();
+        assertThat(second).isNotDone();
+    }
+
+    @Test
+    @DisplayName("Progress listener sees partial and complete fills")
+    void awaitFills_reportsProgress() throws Exception {
+        List<String> progress = new ArrayList<>();
+        CompletableFuture<Void> future = orderFillTracker.awaitFills(
+                "group-P",
+                2,
+                Duration.ofSeconds(5),
+                (correlationId, symbol, filled, quantity, remaining) ->
+                        progress.add(symbol + " " + filled + "/" + quantity + " remaining=" + remaining));
+
+        publishEvent("group-P", "NIFTY25FEB24500CE", 25, 75, OrderEventType.PARTIALLY_FILLED);
+        publishEvent("group-P", "NIFTY25FEB24500CE", 75, 75, OrderEventType.FILLED);
+        publishEvent("group-P", "NIFTY25FEB24500PE", 75, 75, OrderEventType.FILLED);
+
+        future.get(1, TimeUnit.SECONDS);
+        assertThat(progress)
+                .containsExactly(
+                        "NIFTY25FEB24500CE 25/75 remaining=2",
+                        "NIFTY25FEB24500CE 75/75 remaining=1",
+                        "NIFTY25FEB24500PE 75/75 remaining=0");
+    }
+
+    @Test
+    @DisplayName("Partial fills do not count towards completion")
+    void onOrderEvent_partialFillDoesNotComplete() {
+        CompletableFuture<Void> future = orderFillTracker.awaitFills("group-Q", 1);
+
+        publishEvent("group-Q", "NIFTY25FEB24500CE", 25, 75, OrderEventType.PARTIALLY_FILLED);
+
+        assertThat(future).isNotDone();
+    }
+
     // ---- Helpers ----
 
+    private void publishEvent(
+            String correlationId, String symbol, int filledQuantity, int quantity, OrderEventType eventType) {
+        Order order = Order.builder()
+                .correlationId(correlationId)
+                .tradingSymbol(symbol)
+                .quantity(quantity)
+                .filledQuantity(filledQuantity)
+                .build();
+        orderFillTracker.onOrderEvent(new OrderEvent(this, order, eventType));
+    }
+
     private void publishFillEvent(String correlationId, String symbol) {
         Order order = Order.builder()
                 .correlationId(correlationId)
@@ -5,9 +5,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.algotrader.domain.enums.OrderPriority;
 import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.OrderType;
+import com.algotrader.observability.TickLatencyTracker;
 import com.algotrader.oms.OrderQueue;
 import com.algotrader.oms.OrderRequest;
 import com.algotrader.oms.PrioritizedOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -28,7 +30,7 @@ class OrderQueueTest {
 
     @BeforeEach
     void setUp() {
-        orderQueue = new OrderQueue();
+        orderQueue = new OrderQueue(new TickLatencyTracker(new SimpleMeterRegistry()));
     }
 
     private OrderRequest requestForSymbol(String symbol) {
@@ -4,9 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,6 +20,8 @@ import com.algotrader.domain.enums.OrderStatus;
 import com.algotrader.domain.enums.OrderType;
 import com.algotrader.domain.model.Order;
 import com.algotrader.event.EventPublisherHelper;
+import com.algotrader.event.OrderEvent;
+import com.algotrader.event.OrderEventType;
 import com.algotrader.exception.BrokerException;
 import com.algotrader.oms.OrderTimeoutMonitor;
 import com.algotrader.repository.redis.OrderRedisRepository;
@@ -26,6 +31,8 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -33,7 +40,8 @@ import org.junit.jupiter.api.Test;
 
 /**
  * Unit tests for OrderTimeoutMonitor covering timeout detection per order type,
- * SL session-end alignment, and timeout handling (cancel + events).
+ * SL session-end alignment, timeout handling (cancel + events), startup recovery,
+ * and event-driven deadline registration on the timer wheel.
  */
 class OrderTimeoutMonitorTest {
 
@@ -57,6 +65,11 @@ class OrderTimeoutMonitorTest {
         when(tradingCalendarService.getMinutesToClose()).thenReturn(120L);
     }
 
+    @AfterEach
+    void tearDown() {
+        orderTimeoutMonitor.shutdown();
+    }
+
     private Order orderOfType(OrderType type, LocalDateTime placedAt) {
         return Order.builder()
                 .id("ORD-1")
@@ -183,7 +196,7 @@ class OrderTimeoutMonitorTest {
 
             when(orderRedisRepository.findPending()).thenReturn(List.of(order));
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             verify(brokerGateway).cancelOrder("KT-001");
         }
@@ -196,7 +209,7 @@ class OrderTimeoutMonitorTest {
 
             when(orderRedisRepository.findPending()).thenReturn(List.of(order));
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
             verify(orderRedisRepository).save(order);
@@ -210,7 +223,7 @@ class OrderTimeoutMonitorTest {
 
             when(orderRedisRepository.findPending()).thenReturn(List.of(order));
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             verify(eventPublisherHelper).publishOrderCancelled(any(), eq(order), eq(OrderStatus.OPEN));
         }
@@ -223,7 +236,7 @@ class OrderTimeoutMonitorTest {
 
             when(orderRedisRepository.findPending()).thenReturn(List.of(order));
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             verify(brokerGateway, never()).cancelOrder(anyString());
         }
@@ -233,7 +246,7 @@ class OrderTimeoutMonitorTest {
         void emptyPendingListDoesNothing() {
             when(orderRedisRepository.findPending()).thenReturn(Collections.emptyList());
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             verify(brokerGateway, never()).cancelOrder(anyString());
         }
@@ -246,7 +259,7 @@ class OrderTimeoutMonitorTest {
 
             when(orderRedisRepository.findPending()).thenReturn(List.of(order));
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             verify(eventPublisherHelper).publishDecision(any(), eq("ORDER"), anyString(), eq("STR1"), any(Map.class));
         }
@@ -267,7 +280,7 @@ class OrderTimeoutMonitorTest {
                     .when(brokerGateway)
                     .cancelOrder("KT-001");
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
             verify(orderRedisRepository).save(order);
@@ -283,7 +296,7 @@ class OrderTimeoutMonitorTest {
             when(orderRedisRepository.findPending()).thenReturn(List.of(order));
             doThrow(mock(CallNotPermittedException.class)).when(brokerGateway).cancelOrder("KT-001");
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
             verify(orderRedisRepository).save(order);
@@ -299,7 +312,7 @@ class OrderTimeoutMonitorTest {
             when(orderRedisRepository.findPending()).thenReturn(List.of(order));
             doThrow(new BrokerException("Network timeout")).when(brokerGateway).cancelOrder("KT-001");
 
-            orderTimeoutMonitor.checkTimeouts();
+            orderTimeoutMonitor.recoverPendingOrders();
 
             // Order should remain OPEN — not cancelled locally for transient errors
             assertThat(order.getStatus()).isEqualTo(OrderStatus.OPEN);
@@ -307,6 +320,90 @@ class OrderTimeoutMonitorTest {
         }
     }
 
+    @Nested
+    @DisplayName("Event-Driven Deadlines")
+    class EventDrivenDeadlines {
+
+        @Test
+        @DisplayName("Placed order is cancelled shortly after its deadline without reading Redis")
+        void placedOrderCancelledAtDeadline() {
+            Order order = orderOfType(
+                    OrderType.MARKET, LocalDateTime.now().minusSeconds(9).minusNanos(800_000_000));
+
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.PLACED));
+
+            verify(brokerGateway, timeout(1_000)).cancelOrder("KT-001");
+            verify(orderRedisRepository, never()).findPending();
+        }
+
+        @Test
+        @DisplayName("Filled order's deadline is cancelled")
+        void filledOrderNotTimedOut() {
+            Order order = orderOfType(
+                    OrderType.MARKET, LocalDateTime.now().minusSeconds(9).minusNanos(800_000_000));
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.PLACED));
+
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.FILLED));
+
+            verify(brokerGateway, after(500).never()).cancelOrder(anyString());
+            assertThat(orderTimeoutMonitor.getTrackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("A PLACED event arriving after the order's fill does not register it")
+        void filledBeforePlacedNotRegistered() {
+            Order order = orderOfType(
+                    OrderType.MARKET, LocalDateTime.now().minusSeconds(9).minusNanos(800_000_000));
+
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.FILLED));
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.PLACED));
+
+            assertThat(orderTimeoutMonitor.getTrackedCount()).isZero();
+            verify(brokerGateway, after(500).never()).cancelOrder(anyString());
+        }
+
+        @Test
+        @DisplayName("A timed-out order that Redis shows as filled is dropped without a cancel")
+        void finishedInRedisNotCancelled() {
+            Order order = orderOfType(
+                    OrderType.MARKET, LocalDateTime.now().minusSeconds(9).minusNanos(800_000_000));
+            Order filled = orderOfType(OrderType.MARKET, order.getPlacedAt());
+            filled.setStatus(OrderStatus.COMPLETE);
+            when(orderRedisRepository.findById("ORD-1")).thenReturn(Optional.of(filled));
+
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.PLACED));
+
+            verify(orderRedisRepository, timeout(1_000)).findById("ORD-1");
+            verify(brokerGateway, after(500).never()).cancelOrder(anyString());
+            assertThat(orderTimeoutMonitor.getTrackedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Recovery registers pending orders that have not timed out yet")
+        void recoveryRegistersPendingOrders() {
+            Order order = orderOfType(OrderType.LIMIT, LocalDateTime.now().minusSeconds(5));
+            when(orderRedisRepository.findPending()).thenReturn(List.of(order));
+
+            orderTimeoutMonitor.recoverPendingOrders();
+
+            assertThat(orderTimeoutMonitor.getTrackedCount()).isEqualTo(1);
+            verify(orderRedisRepository, times(1)).findPending();
+            verify(brokerGateway, never()).cancelOrder(anyString());
+        }
+
+        @Test
+        @DisplayName("Rejected order's deadline is cancelled")
+        void rejectedOrderUnregistered() {
+            Order order = orderOfType(OrderType.LIMIT, LocalDateTime.now());
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.PLACED));
+            assertThat(orderTimeoutMonitor.getTrackedCount()).isEqualTo(1);
+
+            orderTimeoutMonitor.onOrderEvent(new OrderEvent(this, order, OrderEventType.REJECTED));
+
+            assertThat(orderTimeoutMonitor.getTrackedCount()).isZero();
+        }
+    }
+
     @Nested
     @DisplayName("Edge Cases")
     class EdgeCases {
@@ -18,6 +18,7 @@ import com.algotrader.mapper.TradeMapper;
 import com.algotrader.pnl.ChargeCalculator;
 import com.algotrader.pnl.DailyPnLAggregator;
 import com.algotrader.pnl.PnLCalculationService;
+import com.algotrader.reporting.ReportingRollupService;
 import com.algotrader.repository.jpa.DailyPnlJpaRepository;
 import com.algotrader.repository.jpa.TradeJpaRepository;
 import java.math.BigDecimal;
@@ -67,6 +68,9 @@ class DailyPnLAggregatorTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private ReportingRollupService reportingRollupService;
+
     private DailyPnLAggregator dailyPnLAggregator;
 
     @BeforeEach
@@ -77,7 +81,8 @@ class DailyPnLAggregatorTest {
                 chargeCalculator,
                 dailyPnlJpaRepository,
                 pnLCalculationService,
-                redisTemplate);
+                redisTemplate,
+                reportingRollupService);
     }
 
     // ==============================
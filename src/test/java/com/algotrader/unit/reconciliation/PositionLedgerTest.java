@@ -0,0 +1,157 @@
+package com.algotrader.unit.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.algotrader.domain.model.Position;
+import com.algotrader.reconciliation.PositionLedger;
+import com.algotrader.reconciliation.PositionLedger.Confirmation;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for PositionLedger covering fill accounting, dirty tracking, confirmation
+ * outcomes and the incremental checksum.
+ */
+class PositionLedgerTest {
+
+    private PositionLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new PositionLedger();
+    }
+
+    private static PositionLedger.Key key(long token) {
+        return PositionLedger.Key.of(token, null);
+    }
+
+    private Position position(long token, int quantity) {
+        return Position.builder()
+                .id("NFO:" + token)
+                .instrumentToken(token)
+                .quantity(quantity)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Fills accumulate into the expected quantity and mark the instrument dirty")
+    void fillsMarkDirty() {
+        ledger.recordFill(key(1L), -50);
+        ledger.recordFill(key(1L), -25);
+
+        assertThat(ledger.getExpectedQuantity(key(1L))).isEqualTo(-75);
+        assertThat(ledger.hasDirty()).isTrue();
+        assertThat(ledger.drainDirty()).containsExactly(key(1L));
+        assertThat(ledger.hasDirty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Broker quantity equal to expected is MATCHED")
+    void matched() {
+        ledger.recordFill(key(1L), 50);
+        ledger.drainDirty();
+
+        assertThat(ledger.confirm(key(1L), 50, "NFO:1")).isEqualTo(Confirmation.MATCHED);
+        assertThat(ledger.getConfirmedQuantity(key(1L))).isEqualTo(50);
+        assertThat(ledger.getPositionId(key(1L))).isEqualTo("NFO:1");
+        assertThat(ledger.hasDirty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Lagging broker is retried, then adopted as DRIFT")
+    void pendingThenDrift() {
+        ledger.recordFill(key(1L), 50);
+
+        for (int i = 0; i < 2; i++) {
+            ledger.drainDirty();
+            assertThat(ledger.confirm(key(1L), 0, null)).isEqualTo(Confirmation.PENDING);
+            assertThat(ledger.hasDirty()).isTrue();
+        }
+        ledger.drainDirty();
+
+        assertThat(ledger.confirm(key(1L), 0, null)).isEqualTo(Confirmation.DRIFT);
+        assertThat(ledger.getExpectedQuantity(key(1L))).isZero();
+        assertThat(ledger.hasDirty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Rebuild seeds expected and confirmed quantities and keeps dirty instruments")
+    void rebuild() {
+        ledger.recordFill(key(2L), 10);
+        assertThat(ledger.isSeeded()).isFalse();
+
+        ledger.rebuild(List.of(position(1L, -50), position(2L, 10)));
+
+        assertThat(ledger.isSeeded()).isTrue();
+        assertThat(ledger.getExpectedQuantity(key(1L))).isEqualTo(-50);
+        assertThat(ledger.getConfirmedQuantity(key(2L))).isEqualTo(10);
+        assertThat(ledger.drainDirty()).containsExactly(key(2L));
+    }
+
+    @Test
+    @DisplayName("Rebuild keeps the expected quantity of instruments with fills still to be checked")
+    void rebuildKeepsPendingFills() {
+        ledger.rebuild(List.of(position(1L, -50)));
+        ledger.recordFill(key(1L), -25);
+
+        // Broker snapshot taken before the fill landed
+        ledger.rebuild(List.of(position(1L, -50)));
+
+        assertThat(ledger.getExpectedQuantity(key(1L))).isEqualTo(-75);
+        assertThat(ledger.getConfirmedQuantity(key(1L))).isEqualTo(-50);
+        ledger.drainDirty();
+        assertThat(ledger.confirm(key(1L), -75, "NFO:1")).isEqualTo(Confirmation.MATCHED);
+    }
+
+    @Test
+    @DisplayName("Rebuild drops clean instruments the broker no longer holds")
+    void rebuildDropsClosedInstruments() {
+        ledger.rebuild(List.of(position(1L, -50), position(2L, 10)));
+
+        ledger.rebuild(List.of(position(2L, 10)));
+
+        assertThat(ledger.getExpectedQuantity(key(1L))).isZero();
+        assertThat(ledger.getPositionId(key(1L))).isNull();
+        assertThat(ledger.getConfirmedChecksum()).isEqualTo(PositionLedger.checksum(List.of(position(2L, 10))));
+    }
+
+    @Test
+    @DisplayName("The same instrument in MIS and NRML is tracked separately")
+    void productsTrackedSeparately() {
+        PositionLedger.Key nrml = PositionLedger.Key.of(1L, "NRML");
+        PositionLedger.Key mis = PositionLedger.Key.of(1L, "MIS");
+        Position misPosition = Position.builder()
+                .id("NFO:1")
+                .instrumentToken(1L)
+                .product("MIS")
+                .quantity(25)
+                .build();
+
+        ledger.rebuild(List.of(position(1L, -50), misPosition));
+        ledger.recordFill(mis, 25);
+
+        assertThat(ledger.getExpectedQuantity(nrml)).isEqualTo(-50);
+        assertThat(ledger.getExpectedQuantity(mis)).isEqualTo(50);
+        assertThat(ledger.drainDirty()).containsExactly(mis);
+        assertThat(PositionLedger.checksum(List.of(position(1L, 25))))
+                .isNotEqualTo(PositionLedger.checksum(List.of(misPosition)));
+    }
+
+    @Test
+    @DisplayName("Incremental checksum equals the checksum of the broker book, in any order")
+    void checksumTracksConfirmations() {
+        ledger.rebuild(List.of(position(1L, -50), position(2L, 10)));
+
+        ledger.recordFill(key(3L), 25);
+        ledger.confirm(key(3L), 25, "NFO:3");
+        ledger.recordFill(key(1L), 50);
+        ledger.confirm(key(1L), 0, null);
+
+        assertThat(ledger.getConfirmedChecksum())
+                .isEqualTo(PositionLedger.checksum(List.of(position(3L, 25), position(2L, 10))));
+        assertThat(ledger.getConfirmedChecksum())
+                .isNotEqualTo(PositionLedger.checksum(List.of(position(3L, 25), position(2L, 11))));
+    }
+}
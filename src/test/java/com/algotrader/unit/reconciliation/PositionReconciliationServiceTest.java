@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -11,7 +12,9 @@ import com.algotrader.broker.BrokerGateway;
 import com.algotrader.calendar.TradingCalendarService;
 import com.algotrader.core.engine.StrategyEngine;
 import com.algotrader.domain.enums.MismatchType;
+import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.domain.enums.ResolutionStrategy;
+import com.algotrader.domain.model.Order;
 import com.algotrader.domain.model.Position;
 import com.algotrader.domain.model.PositionMismatch;
 import com.algotrader.domain.model.ReconciliationResult;
@@ -21,6 +24,7 @@ import com.algotrader.repository.redis.PositionRedisRepository;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,7 +36,8 @@ import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * Tests for PositionReconciliationService covering mismatch detection,
- * resolution strategies, scheduled gating, and event publishing.
+ * resolution strategies, fill-driven incremental checks, the checksum safety net,
+ * scheduled gating, and event publishing.
  */
 @ExtendWith(MockitoExtension.class)
 class PositionReconciliationServiceTest {
@@ -332,4 +337,118 @@ class PositionReconciliationServiceTest {
 
         assertThat(result.getTrigger()).isEqualTo("MANUAL");
     }
+
+    private Position position(long token, int quantity) {
+        return Position.builder()
+                .id("NFO:" + token)
+                .instrumentToken(token)
+                .tradingSymbol("SYM" + token)
+                .quantity(quantity)
+                .averagePrice(BigDecimal.valueOf(100))
+                .build();
+    }
+
+    private Order sellOrder(long token) {
+        return Order.builder().instrumentToken(token).side(OrderSide.SELL).build();
+    }
+
+    /** Seeds the ledger with a full reconciliation against the given broker book. */
+    private void seed(Position... brokerPositions) {
+        when(brokerGateway.getPositions()).thenReturn(Map.of("net", List.of(brokerPositions)));
+        when(positionRedisRepository.findAll()).thenReturn(List.of(brokerPositions));
+        positionReconciliationService.reconcile("STARTUP");
+        reset(brokerGateway, positionRedisRepository, applicationEventPublisher, decisionLogger);
+    }
+
+    @Test
+    @DisplayName("Incremental check does nothing without fills")
+    void incremental_noFills_noBrokerCall() {
+        positionReconciliationService.incrementalReconciliation();
+
+        verify(brokerGateway, never()).getPositions();
+    }
+
+    @Test
+    @DisplayName("Incremental check reads only filled instruments and syncs them silently")
+    void incremental_syncsExpectedFill() {
+        seed(position(1L, -50));
+        Position filled = position(2L, -75);
+        when(brokerGateway.getPositions()).thenReturn(Map.of("net", List.of(position(1L, -50), filled)));
+        when(positionRedisRepository.findById("NFO:2")).thenReturn(Optional.empty());
+
+        positionReconciliationService.onFill(sellOrder(2L), 75);
+        positionReconciliationService.incrementalReconciliation();
+
+        verify(positionRedisRepository, never()).findAll();
+        verify(positionRedisRepository, never()).findById("NFO:1");
+        verify(positionRedisRepository).save(filled);
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Incremental check removes a position closed by a fill")
+    void incremental_deletesClosedPosition() {
+        Position open = position(1L, -50);
+        seed(open);
+        when(brokerGateway.getPositions()).thenReturn(Map.of("net", List.of()));
+        when(positionRedisRepository.findById("NFO:1")).thenReturn(Optional.of(open));
+
+        positionReconciliationService.onFill(
+                Order.builder().instrumentToken(1L).side(OrderSide.BUY).build(), 50);
+        positionReconciliationService.incrementalReconciliation();
+
+        verify(positionRedisRepository).delete("NFO:1");
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Broker still differing from fills after retries is reported as a mismatch")
+    void incremental_driftReported() {
+        seed();
+        when(brokerGateway.getPositions()).thenReturn(Map.of("net", List.of(position(2L, -50))));
+        when(positionRedisRepository.findById("NFO:2")).thenReturn(Optional.empty());
+
+        positionReconciliationService.onFill(sellOrder(2L), 75);
+        for (int i = 0; i < 3; i++) {
+            positionReconciliationService.incrementalReconciliation();
+        }
+
+        ArgumentCaptor<ReconciliationEvent> captor = ArgumentCaptor.forClass(ReconciliationEvent.class);
+        verify(applicationEventPublisher).publishEvent(captor.capture());
+        ReconciliationResult result = captor.getValue().getResult();
+        assertThat(result.getTrigger()).isEqualTo("INCREMENTAL");
+        assertThat(result.getMismatches().get(0).getType()).isEqualTo(MismatchType.MISSING_LOCAL);
+        verify(positionRedisRepository).save(any());
+    }
+
+    @Test
+    @DisplayName("Matching checksum skips the full reconciliation")
+    void checksum_matchSkipsFullReconcile() {
+        seed(position(1L, -50));
+        when(tradingCalendarService.isMarketOpen()).thenReturn(true);
+        when(brokerGateway.getPositions()).thenReturn(Map.of("net", List.of(position(1L, -50))));
+
+        positionReconciliationService.scheduledReconciliation();
+
+        verify(positionRedisRepository, never()).findAll();
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Checksum mismatch runs a full reconciliation with the fetched positions")
+    void checksum_mismatchRunsFullReconcile() {
+        seed(position(1L, -50));
+        when(tradingCalendarService.isMarketOpen()).thenReturn(true);
+        when(brokerGateway.getPositions()).thenReturn(Map.of("net", List.of(position(1L, -100))));
+        when(positionRedisRepository.findAll()).thenReturn(List.of(position(1L, -50)));
+
+        positionReconciliationService.scheduledReconciliation();
+
+        verify(brokerGateway).getPositions();
+        ArgumentCaptor<ReconciliationEvent> captor = ArgumentCaptor.forClass(ReconciliationEvent.class);
+        verify(applicationEventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getResult().getTrigger()).isEqualTo("CHECKSUM_MISMATCH");
+        assertThat(captor.getValue().getResult().getMismatches().get(0).getType())
+                .isEqualTo(MismatchType.QUANTITY_MISMATCH);
+    }
 }
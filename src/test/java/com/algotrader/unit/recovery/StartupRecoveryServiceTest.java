@@ -1,8 +1,10 @@
 package com.algotrader.unit.recovery;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,8 +13,12 @@ import com.algotrader.core.engine.StrategyEngine;
 import com.algotrader.domain.enums.DecisionSource;
 import com.algotrader.domain.enums.DecisionType;
 import com.algotrader.domain.enums.JournalStatus;
+import com.algotrader.domain.enums.StrategyStatus;
+import com.algotrader.domain.enums.StrategyType;
 import com.algotrader.domain.model.Position;
 import com.algotrader.entity.ExecutionJournalEntity;
+import com.algotrader.entity.StrategyEntity;
+import com.algotrader.entity.StrategyLegEntity;
 import com.algotrader.event.SystemEvent;
 import com.algotrader.observability.DecisionLogger;
 import com.algotrader.reconciliation.PositionReconciliationService;
@@ -25,12 +31,16 @@ import com.algotrader.risk.AccountRiskChecker;
 import com.algotrader.risk.KillSwitchService;
 import com.algotrader.strategy.StrategyFactory;
 import com.algotrader.strategy.adoption.PositionAdoptionService;
+import com.algotrader.strategy.base.BaseStrategy;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
@@ -157,7 +167,7 @@ class StartupRecoveryServiceTest {
 
         startupRecoveryService.runRecovery();
 
-        verify(executionJournalJpaRepository).save(journal);
+        verify(executionJournalJpaRepository).saveAll(List.of(journal));
         // After save, the status should have been changed
         org.assertj.core.api.Assertions.assertThat(journal.getStatus()).isEqualTo(JournalStatus.REQUIRES_RECOVERY);
     }
@@ -179,7 +189,7 @@ class StartupRecoveryServiceTest {
         startupRecoveryService.runRecovery();
 
         // Should not be saved again since it's already REQUIRES_RECOVERY
-        verify(executionJournalJpaRepository, never()).save(journal);
+        verify(executionJournalJpaRepository, never()).saveAll(any());
     }
 
     @Test
@@ -269,4 +279,99 @@ class StartupRecoveryServiceTest {
         // No error, positions counted
         verify(positionRedisRepository).findAll();
     }
+
+    @Test
+    @DisplayName("Strategies are restored from bulk-loaded legs and positions with one status update")
+    @SuppressWarnings("unchecked")
+    void restoresStrategiesFromBulkLoads() {
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(executionJournalJpaRepository.findByStatusIn(any())).thenReturn(List.of());
+
+        String config = "{\"@type\":\"STRADDLE\",\"underlying\":\"NIFTY\"}";
+        when(strategyJpaRepository.findRestorableStrategies())
+                .thenReturn(List.of(
+                        StrategyEntity.builder()
+                                .id("STR-1")
+                                .type(StrategyType.STRADDLE)
+                                .config(config)
+                                .build(),
+                        StrategyEntity.builder()
+                                .id("STR-2")
+                                .type(StrategyType.STRADDLE)
+                                .config(config)
+                                .build()));
+        when(strategyLegJpaRepository.findByStrategyIdIn(any()))
+                .thenReturn(List.of(
+                        StrategyLegEntity.builder()
+                                .id("LEG-1")
+                                .strategyId("STR-1")
+                                .positionId("NFO:A")
+                                .build(),
+                        StrategyLegEntity.builder()
+                                .id("LEG-2")
+                                .strategyId("STR-2")
+                                .positionId("NFO:B")
+                                .build()));
+        Position positionA = Position.builder().id("NFO:A").quantity(-50).build();
+        Position positionB = Position.builder().id("NFO:B").quantity(-75).build();
+        when(positionRedisRepository.findAll()).thenReturn(List.of(positionA, positionB));
+
+        BaseStrategy strategy1 = mock(BaseStrategy.class);
+        BaseStrategy strategy2 = mock(BaseStrategy.class);
+        when(strategyFactory.restore(eq("STR-1"), any(), any(), any())).thenReturn(strategy1);
+        when(strategyFactory.restore(eq("STR-2"), any(), any(), any())).thenReturn(strategy2);
+
+        startupRecoveryService.runRecovery();
+
+        verify(strategy1).addPosition(positionA);
+        verify(strategy2).addPosition(positionB);
+        verify(strategy1).pause();
+        verify(strategyEngine).registerRestoredStrategy(strategy2);
+        verify(strategyLegJpaRepository, never()).findByStrategyId(anyString());
+        verify(positionRedisRepository, never()).findById(anyString());
+
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(strategyJpaRepository).updateStatusIn(ids.capture(), eq(StrategyStatus.PAUSED));
+        assertThat(ids.getValue()).containsExactlyInAnyOrder("STR-1", "STR-2");
+        verify(positionAdoptionService).populatePositionIndexOnStartup();
+    }
+
+    @Test
+    @DisplayName("A strategy that fails to restore is skipped without failing the others")
+    void failedStrategyRestoreIsIsolated() {
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(executionJournalJpaRepository.findByStatusIn(any())).thenReturn(List.of());
+        when(positionRedisRepository.findAll()).thenReturn(List.of());
+        when(strategyJpaRepository.findRestorableStrategies())
+                .thenReturn(List.of(
+                        StrategyEntity.builder().id("BAD").config("not json").build(),
+                        StrategyEntity.builder()
+                                .id("STR-1")
+                                .type(StrategyType.STRADDLE)
+                                .config("{\"@type\":\"STRADDLE\"}")
+                                .build()));
+        when(strategyLegJpaRepository.findByStrategyIdIn(any())).thenReturn(List.of());
+        when(strategyFactory.restore(eq("STR-1"), any(), any(), any())).thenReturn(mock(BaseStrategy.class));
+
+        startupRecoveryService.runRecovery();
+
+        verify(strategyJpaRepository).updateStatusIn(List.of("STR-1"), StrategyStatus.PAUSED);
+    }
+
+    @Test
+    @DisplayName("Phase durations are recorded in the recovery decision log")
+    @SuppressWarnings("unchecked")
+    void recordsPhaseDurations() {
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(executionJournalJpaRepository.findByStatusIn(any())).thenReturn(List.of());
+        when(positionRedisRepository.findAll()).thenReturn(List.of());
+
+        startupRecoveryService.runRecovery();
+
+        ArgumentCaptor<Map<String, Object>> metadata = ArgumentCaptor.forClass(Map.class);
+        verify(decisionLogger)
+                .log(any(), any(), eq(DecisionType.STARTUP_RECOVERY), any(), anyString(), metadata.capture(), any());
+        assertThat((Map<String, Long>) metadata.getValue().get("phaseDurationsMs"))
+                .containsKeys("restoreState", "journals", "loadStrategies", "reconcilePositions", "resumeStrategies");
+    }
 }
@@ -1,6 +1,8 @@
 package com.algotrader.unit.reporting;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.domain.enums.GroupBy;
@@ -9,6 +11,7 @@ import com.algotrader.entity.DailyPnlEntity;
 import com.algotrader.entity.TradeEntity;
 import com.algotrader.reporting.ChargeReport;
 import com.algotrader.reporting.PnLReport;
+import com.algotrader.reporting.ReportingRollupService;
 import com.algotrader.reporting.ReportingService;
 import com.algotrader.reporting.StrategyPerformanceCalculator;
 import com.algotrader.repository.jpa.DailyPnlJpaRepository;
@@ -39,13 +42,14 @@ class ReportingServiceTest {
     @Mock
     private StrategyPerformanceCalculator strategyPerformanceCalculator;
 
+    private ReportingRollupService reportingRollupService;
     private ReportingService reportingService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        reportingService =
-                new ReportingService(dailyPnlJpaRepository, tradeJpaRepository, strategyPerformanceCalculator);
+        reportingRollupService = new ReportingRollupService(dailyPnlJpaRepository, tradeJpaRepository);
+        reportingService = new ReportingService(reportingRollupService, strategyPerformanceCalculator);
     }
 
     @Test
@@ -57,7 +61,7 @@ class ReportingServiceTest {
                 createDailyPnl(LocalDate.of(2025, 1, 1), new BigDecimal("500"), 10, 7, 3),
                 createDailyPnl(LocalDate.of(2025, 1, 2), new BigDecimal("-200"), 5, 2, 3),
                 createDailyPnl(LocalDate.of(2025, 1, 3), new BigDecimal("300"), 8, 5, 3));
-        when(dailyPnlJpaRepository.findByDateRange(from, to)).thenReturn(records);
+        when(dailyPnlJpaRepository.findAll()).thenReturn(records);
 
         PnLReport report = reportingService.getPnLReport(from, to, GroupBy.DAILY);
 
@@ -79,7 +83,7 @@ class ReportingServiceTest {
                 // Week 2: Jan 13-17
                 createDailyPnl(LocalDate.of(2025, 1, 13), new BigDecimal("-50"), 3, 1, 2),
                 createDailyPnl(LocalDate.of(2025, 1, 14), new BigDecimal("150"), 4, 3, 1));
-        when(dailyPnlJpaRepository.findByDateRange(from, to)).thenReturn(records);
+        when(dailyPnlJpaRepository.findAll()).thenReturn(records);
 
         PnLReport report = reportingService.getPnLReport(from, to, GroupBy.WEEKLY);
 
@@ -97,7 +101,7 @@ class ReportingServiceTest {
                 createDailyPnl(LocalDate.of(2025, 1, 15), new BigDecimal("500"), 10, 7, 3),
                 createDailyPnl(LocalDate.of(2025, 1, 16), new BigDecimal("300"), 8, 6, 2),
                 createDailyPnl(LocalDate.of(2025, 2, 5), new BigDecimal("-100"), 4, 1, 3));
-        when(dailyPnlJpaRepository.findByDateRange(from, to)).thenReturn(records);
+        when(dailyPnlJpaRepository.findAll()).thenReturn(records);
 
         PnLReport report = reportingService.getPnLReport(from, to, GroupBy.MONTHLY);
 
@@ -113,7 +117,7 @@ class ReportingServiceTest {
     void pnlReport_emptyRecords_returnsEmptyReport() {
         LocalDate from = LocalDate.of(2025, 1, 1);
         LocalDate to = LocalDate.of(2025, 1, 31);
-        when(dailyPnlJpaRepository.findByDateRange(from, to)).thenReturn(List.of());
+        when(dailyPnlJpaRepository.findAll()).thenReturn(List.of());
 
         PnLReport report = reportingService.getPnLReport(from, to, GroupBy.DAILY);
 
@@ -144,9 +148,7 @@ class ReportingServiceTest {
                         new BigDecimal("2"),
                         new BigDecimal("4.35"),
                         LocalDateTime.of(2025, 1, 16, 11, 0)));
-        when(tradeJpaRepository.findByDateRange(
-                        from.atStartOfDay(), to.plusDays(1).atStartOfDay()))
-                .thenReturn(trades);
+        when(tradeJpaRepository.findAll()).thenReturn(trades);
 
         ChargeReport report = reportingService.getChargeReport(from, to);
 
@@ -164,9 +166,7 @@ class ReportingServiceTest {
     void chargeReport_emptyTrades_returnsZeroCharges() {
         LocalDate from = LocalDate.of(2025, 1, 1);
         LocalDate to = LocalDate.of(2025, 1, 31);
-        when(tradeJpaRepository.findByDateRange(
-                        from.atStartOfDay(), to.plusDays(1).atStartOfDay()))
-                .thenReturn(List.of());
+        when(tradeJpaRepository.findAll()).thenReturn(List.of());
 
         ChargeReport report = reportingService.getChargeReport(from, to);
 
@@ -174,6 +174,128 @@ class ReportingServiceTest {
         assertThat(report.getTotalTrades()).isEqualTo(0);
     }
 
+    @Test
+    void pnlReport_partialMonthsAtEdges_onlyCountDaysInRange() {
+        List<DailyPnlEntity> records = List.of(
+                createDailyPnl(LocalDate.of(2025, 1, 10), new BigDecimal("100"), 2, 1, 1),
+                createDailyPnl(LocalDate.of(2025, 1, 20), new BigDecimal("200"), 2, 2, 0),
+                createDailyPnl(LocalDate.of(2025, 2, 10), new BigDecimal("300"), 2, 2, 0),
+                createDailyPnl(LocalDate.of(2025, 3, 5), new BigDecimal("400"), 2, 2, 0),
+                createDailyPnl(LocalDate.of(2025, 3, 25), new BigDecimal("500"), 2, 2, 0));
+        when(dailyPnlJpaRepository.findAll()).thenReturn(records);
+
+        PnLReport report =
+                reportingService.getPnLReport(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 10), GroupBy.MONTHLY);
+
+        assertThat(report.getEntries()).hasSize(3);
+        assertThat(report.getEntries().get(0).getRealizedPnl()).isEqualByComparingTo(new BigDecimal("200"));
+        assertThat(report.getEntries().get(2).getRealizedPnl()).isEqualByComparingTo(new BigDecimal("400"));
+        assertThat(report.getTotalRealizedPnl()).isEqualByComparingTo(new BigDecimal("900"));
+        assertThat(report.getTradingDays()).isEqualTo(3);
+    }
+
+    @Test
+    void pnlReport_recordedDay_replacesSeededValue() {
+        LocalDate day = LocalDate.of(2025, 1, 15);
+        when(dailyPnlJpaRepository.findAll()).thenReturn(List.of(createDailyPnl(day, new BigDecimal("100"), 2, 1, 1)));
+        reportingService.getPnLReport(day, day, GroupBy.MONTHLY);
+
+        reportingRollupService.recordDailyPnl(createDailyPnl(day, new BigDecimal("250"), 4, 3, 1));
+        PnLReport report =
+                reportingService.getPnLReport(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), GroupBy.MONTHLY);
+
+        assertThat(report.getTotalRealizedPnl()).isEqualByComparingTo(new BigDecimal("250"));
+        assertThat(report.getTotalTrades()).isEqualTo(4);
+        assertThat(report.getTradingDays()).isEqualTo(1);
+        verify(dailyPnlJpaRepository, times(1)).findAll();
+    }
+
+    @Test
+    void chargeReport_recordedTrades_addedOnceAfterSeed() {
+        LocalDateTime now = LocalDateTime.now();
+        TradeEntity seeded = createTradeWithCharges(
+                new BigDecimal("20"),
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                now);
+        TradeEntity later = createTradeWithCharges(
+                new BigDecimal("20"),
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                now);
+        when(tradeJpaRepository.findAll()).thenReturn(List.of(seeded));
+        reportingService.getChargeReport(now.toLocalDate(), now.toLocalDate());
+
+        // The seeded trade is reported again by the writer and must not double count
+        reportingRollupService.recordTrades(List.of(seeded, later));
+        ChargeReport report = reportingService.getChargeReport(now.toLocalDate(), now.toLocalDate());
+
+        assertThat(report.getTotalBrokerage()).isEqualByComparingTo(new BigDecimal("40"));
+        assertThat(report.getTotalTrades()).isEqualTo(2);
+        assertThat(report.getTradingDays()).isEqualTo(1);
+        verify(tradeJpaRepository, times(1)).findAll();
+    }
+
+    @Test
+    void chargeReport_repersistedPastTrade_notCountedTwice() {
+        LocalDateTime lastMonth = LocalDateTime.now().minusMonths(1);
+        TradeEntity trade = createTradeWithCharges(
+                new BigDecimal("20"),
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                lastMonth);
+        when(tradeJpaRepository.findAll()).thenReturn(List.of(trade));
+        reportingService.getChargeReport(lastMonth.toLocalDate(), lastMonth.toLocalDate());
+
+        // e.g. a spill replay re-persisting a trade from an earlier day
+        reportingRollupService.recordTrades(List.of(trade));
+        reportingRollupService.recordTrades(List.of(trade));
+        ChargeReport report = reportingService.getChargeReport(lastMonth.toLocalDate(), lastMonth.toLocalDate());
+
+        assertThat(report.getTotalBrokerage()).isEqualByComparingTo(new BigDecimal("20"));
+        assertThat(report.getTotalTrades()).isEqualTo(1);
+    }
+
+    @Test
+    void chargeReport_tradesRecordedWhileSeeding_applied() {
+        LocalDateTime now = LocalDateTime.now();
+        TradeEntity seeded = createTradeWithCharges(
+                new BigDecimal("20"),
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                now);
+        TradeEntity during = createTradeWithCharges(
+                new BigDecimal("30"),
+                BigDecimal.ONE,
+                BigDecimal.ONE,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                now);
+        when(tradeJpaRepository.findAll()).thenAnswer(invocation -> {
+            // Persisted after the seed's read began: the seed does not see it
+            reportingRollupService.recordTrades(List.of(seeded, during));
+            return List.of(seeded);
+        });
+
+        ChargeReport report = reportingService.getChargeReport(now.toLocalDate(), now.toLocalDate());
+
+        assertThat(report.getTotalBrokerage()).isEqualByComparingTo(new BigDecimal("50"));
+        assertThat(report.getTotalTrades()).isEqualTo(2);
+    }
+
     // ---- Helpers ----
 
     private DailyPnlEntity createDailyPnl(
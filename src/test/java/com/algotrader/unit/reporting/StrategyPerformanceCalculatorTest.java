@@ -114,6 +114,22 @@ class StrategyPerformanceCalculatorTest {
         assertThat(report.getMaxDrawdown()).isEqualByComparingTo(new BigDecimal("800"));
     }
 
+    @Test
+    void maxDrawdown_ordersRunsByFullEntryTime() {
+        // Repository order differs from entry order, years apart and within the same second.
+        // In entry order: -800 (2020), +500 (2025 .100), -300 (2025 .900) -> peak 0, trough -800
+        LocalDateTime second = LocalDateTime.of(2025, 1, 1, 9, 30, 0);
+        List<StrategyRun> runs = List.of(
+                createRunWithTime("r1", new BigDecimal("-300"), second.plusNanos(900_000_000)),
+                createRunWithTime("r2", new BigDecimal("500"), second.plusNanos(100_000_000)),
+                createRunWithTime("r3", new BigDecimal("-800"), LocalDateTime.of(2020, 1, 1, 9, 30)));
+        mockRuns("STR-1", runs);
+
+        StrategyPerformanceReport report = calculator.calculate("STR-1");
+
+        assertThat(report.getMaxDrawdown()).isEqualByComparingTo(new BigDecimal("800"));
+    }
+
     @Test
     void sharpeRatio_calculatedCorrectly() {
         // Runs: +100, +100 (identical returns -> stdDev = 0 -> Sharpe = 0)
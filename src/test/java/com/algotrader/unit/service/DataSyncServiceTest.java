@@ -7,65 +7,76 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.config.RedisConfig;
+import com.algotrader.domain.enums.OrderSide;
 import com.algotrader.entity.AuditLogEntity;
 import com.algotrader.entity.DeadLetterEventEntity;
 import com.algotrader.entity.TradeEntity;
-import com.algotrader.repository.jpa.AuditLogJpaRepository;
+import com.algotrader.reporting.ReportingRollupService;
+import com.algotrader.repository.jdbc.BatchInsertJdbcRepository;
 import com.algotrader.repository.jpa.DeadLetterEventJpaRepository;
-import com.algotrader.repository.jpa.TradeJpaRepository;
 import com.algotrader.service.DataSyncService;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import tools.jackson.databind.ObjectMapper;
 
 /**
- * Unit tests for DataSyncService covering write-behind batching, queue overflow,
- * dead letter queue ordering, daily P&L persistence, and flush-all behavior.
+ * Unit tests for DataSyncService covering write-behind batching, queue overflow spill and
+ * replay, dead letter queue ordering, daily P&L persistence, and flush-all behavior.
  */
 class DataSyncServiceTest {
 
-    private TradeJpaRepository tradeJpaRepository;
-    private AuditLogJpaRepository auditLogJpaRepository;
+    @TempDir
+    Path spillDir;
+
+    private BatchInsertJdbcRepository batchInsertJdbcRepository;
     private DeadLetterEventJpaRepository deadLetterEventJpaRepository;
     private RedisTemplate<String, Object> redisTemplate;
+    private ReportingRollupService reportingRollupService;
     private ValueOperations<String, Object> valueOperations;
     private DataSyncService dataSyncService;
 
     @SuppressWarnings("unchecked")
     @BeforeEach
     void setUp() {
-        tradeJpaRepository = mock(TradeJpaRepository.class);
-        auditLogJpaRepository = mock(AuditLogJpaRepository.class);
+        batchInsertJdbcRepository = mock(BatchInsertJdbcRepository.class);
         deadLetterEventJpaRepository = mock(DeadLetterEventJpaRepository.class);
         redisTemplate = mock(RedisTemplate.class);
+        reportingRollupService = mock(ReportingRollupService.class);
         valueOperations = mock(ValueOperations.class);
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // Default: normal capacity queues
-        dataSyncService = new DataSyncService(
-                tradeJpaRepository, auditLogJpaRepository, deadLetterEventJpaRepository, redisTemplate);
+        dataSyncService = createWithSmallQueues(10_000, 50_000);
     }
 
-    /** Creates a DataSyncService with small queue capacity for overflow testing. */
+    /** Creates a DataSyncService with the given queue capacities, spilling to the temp directory. */
     private DataSyncService createWithSmallQueues(int tradeCapacity, int auditCapacity) {
         return new DataSyncService(
-                tradeJpaRepository,
-                auditLogJpaRepository,
+                batchInsertJdbcRepository,
                 deadLetterEventJpaRepository,
                 redisTemplate,
+                reportingRollupService,
+                new ObjectMapper(),
+                spillDir.toString(),
                 tradeCapacity,
                 auditCapacity);
     }
@@ -83,17 +94,17 @@ class DataSyncServiceTest {
 
             @SuppressWarnings("unchecked")
             ArgumentCaptor<List<TradeEntity>> captor = ArgumentCaptor.forClass(List.class);
-            verify(tradeJpaRepository).saveAll(captor.capture());
+            verify(batchInsertJdbcRepository).upsertTrades(captor.capture());
             assertThat(captor.getValue()).hasSize(1);
             assertThat(captor.getValue().get(0).getId()).isEqualTo("T1");
         }
 
         @Test
-        @DisplayName("Empty queue does not trigger saveAll")
+        @DisplayName("Empty queue does not trigger a batch write")
         void emptyQueueNoSave() {
             dataSyncService.flushTrades();
 
-            verify(tradeJpaRepository, never()).saveAll(any());
+            verify(batchInsertJdbcRepository, never()).upsertTrades(any());
         }
 
         @Test
@@ -107,7 +118,7 @@ class DataSyncServiceTest {
 
             @SuppressWarnings("unchecked")
             ArgumentCaptor<List<TradeEntity>> captor = ArgumentCaptor.forClass(List.class);
-            verify(tradeJpaRepository).saveAll(captor.capture());
+            verify(batchInsertJdbcRepository).upsertTrades(captor.capture());
             assertThat(captor.getValue()).hasSize(3);
         }
 
@@ -115,7 +126,9 @@ class DataSyncServiceTest {
         @DisplayName("Flush failure sends entries to dead letter queue")
         void flushFailureSendsToDeadLetter() {
             dataSyncService.queueTrade(TradeEntity.builder().id("T1").build());
-            doThrow(new RuntimeException("DB down")).when(tradeJpaRepository).saveAll(any());
+            doThrow(new RuntimeException("DB down"))
+                    .when(batchInsertJdbcRepository)
+                    .upsertTrades(any());
 
             dataSyncService.flushTrades();
 
@@ -123,15 +136,17 @@ class DataSyncServiceTest {
         }
 
         @Test
-        @DisplayName("Queue overflow triggers synchronous write")
-        void queueOverflowTriggersSynchronousWrite() {
+        @DisplayName("Queue overflow spills to disk without writing on the caller")
+        void queueOverflowSpillsToDisk() {
             DataSyncService smallQueue = createWithSmallQueues(1, 100);
             smallQueue.queueTrade(TradeEntity.builder().id("T1").build()); // fills the queue
 
-            // This one should overflow to synchronous write
+            // This one should overflow to the spill file
             smallQueue.queueTrade(TradeEntity.builder().id("T2").build());
 
-            verify(tradeJpaRepository).save(any(TradeEntity.class));
+            verify(batchInsertJdbcRepository, never()).upsertTrades(any());
+            assertThat(Files.exists(spillDir.resolve("trades.spill"))).isTrue();
+            assertThat(smallQueue.getTradeQueueSize()).isEqualTo(1);
         }
     }
 
@@ -153,21 +168,21 @@ class DataSyncServiceTest {
 
             @SuppressWarnings("unchecked")
             ArgumentCaptor<List<AuditLogEntity>> captor = ArgumentCaptor.forClass(List.class);
-            verify(auditLogJpaRepository).saveAll(captor.capture());
+            verify(batchInsertJdbcRepository).insertAuditLogs(captor.capture());
             assertThat(captor.getValue()).hasSize(1);
         }
 
         @Test
-        @DisplayName("Empty audit queue does not trigger saveAll")
+        @DisplayName("Empty audit queue does not trigger a batch write")
         void emptyAuditQueueNoSave() {
             dataSyncService.flushAuditLogs();
 
-            verify(auditLogJpaRepository, never()).saveAll(any());
+            verify(batchInsertJdbcRepository, never()).insertAuditLogs(any());
         }
 
         @Test
-        @DisplayName("Audit queue overflow triggers synchronous write")
-        void auditQueueOverflowTriggersSynchronousWrite() {
+        @DisplayName("Audit queue overflow spills to disk without writing on the caller")
+        void auditQueueOverflowSpillsToDisk() {
             DataSyncService smallQueue = createWithSmallQueues(100, 1);
             smallQueue.queueAuditLog(AuditLogEntity.builder()
                     .eventType("E1")
@@ -182,7 +197,8 @@ class DataSyncServiceTest {
                     .entityId("ID2")
                     .build());
 
-            verify(auditLogJpaRepository).save(any(AuditLogEntity.class));
+            verify(batchInsertJdbcRepository, never()).insertAuditLogs(any());
+            assertThat(Files.exists(spillDir.resolve("audit-logs.spill"))).isTrue();
         }
     }
 
@@ -193,12 +209,16 @@ class DataSyncServiceTest {
         @Test
         @DisplayName("Dead letter entries have monotonically increasing sequence numbers")
         void deadLetterSequenceIncreases() {
-            doThrow(new RuntimeException("DB down")).when(tradeJpaRepository).saveAll(any());
+            doThrow(new RuntimeException("DB down"))
+                    .when(batchInsertJdbcRepository)
+                    .upsertTrades(any());
 
             dataSyncService.queueTrade(TradeEntity.builder().id("T1").build());
             dataSyncService.flushTrades();
-            reset(tradeJpaRepository);
-            doThrow(new RuntimeException("DB down")).when(tradeJpaRepository).saveAll(any());
+            reset(batchInsertJdbcRepository);
+            doThrow(new RuntimeException("DB down"))
+                    .when(batchInsertJdbcRepository)
+                    .upsertTrades(any());
 
             dataSyncService.queueTrade(TradeEntity.builder().id("T2").build());
             dataSyncService.flushTrades();
@@ -215,7 +235,9 @@ class DataSyncServiceTest {
         @Test
         @DisplayName("Dead letter entry has correct event type and status PENDING")
         void deadLetterEntryCorrectFields() {
-            doThrow(new RuntimeException("DB down")).when(tradeJpaRepository).saveAll(any());
+            doThrow(new RuntimeException("DB down"))
+                    .when(batchInsertJdbcRepository)
+                    .upsertTrades(any());
 
             dataSyncService.queueTrade(TradeEntity.builder().id("T1").build());
             dataSyncService.flushTrades();
@@ -231,6 +253,20 @@ class DataSyncServiceTest {
             assertThat(entry.getErrorMessage()).isEqualTo("DB down");
             assertThat(entry.getStackTrace()).contains("RuntimeException");
         }
+
+        @Test
+        @DisplayName("A rollup failure after a successful write does not dead-letter the trades")
+        void rollupFailureNotDeadLettered() {
+            doThrow(new RuntimeException("rollup broken"))
+                    .when(reportingRollupService)
+                    .recordTrades(any());
+
+            dataSyncService.queueTrade(TradeEntity.builder().id("T1").build());
+            assertThat(dataSyncService.flushTrades()).isEqualTo(1);
+
+            verify(batchInsertJdbcRepository).upsertTrades(any());
+            verify(deadLetterEventJpaRepository, never()).save(any(DeadLetterEventEntity.class));
+        }
     }
 
     @Nested
@@ -287,17 +323,17 @@ class DataSyncServiceTest {
 
             dataSyncService.flushAll();
 
-            verify(tradeJpaRepository).saveAll(any());
-            verify(auditLogJpaRepository).saveAll(any());
+            verify(batchInsertJdbcRepository).upsertTrades(any());
+            verify(batchInsertJdbcRepository).insertAuditLogs(any());
         }
 
         @Test
-        @DisplayName("flushAll with empty queues does not call saveAll")
+        @DisplayName("flushAll with empty queues does not write")
         void flushAllEmptyQueuesNoSave() {
             dataSyncService.flushAll();
 
-            verify(tradeJpaRepository, never()).saveAll(any());
-            verify(auditLogJpaRepository, never()).saveAll(any());
+            verify(batchInsertJdbcRepository, never()).upsertTrades(any());
+            verify(batchInsertJdbcRepository, never()).insertAuditLogs(any());
         }
     }
 
@@ -334,44 +370,111 @@ class DataSyncServiceTest {
     }
 
     @Nested
-    @DisplayName("Synchronous Write Fallback")
-    class SynchronousWriteFallback {
+    @DisplayName("Spill Replay")
+    class SpillReplay {
+
+        @Test
+        @DisplayName("Spilled trades are replayed with all fields and the spill file is removed")
+        void spilledTradesReplayed() {
+            DataSyncService smallQueue = createWithSmallQueues(1, 100);
+            smallQueue.queueTrade(TradeEntity.builder().id("T1").build());
+            LocalDateTime executedAt = LocalDateTime.of(2025, 2, 10, 10, 15, 30);
+            smallQueue.queueTrade(TradeEntity.builder()
+                    .id("T2")
+                    .side(OrderSide.SELL)
+                    .quantity(50)
+                    .price(new BigDecimal("101.25"))
+                    .executedAt(executedAt)
+                    .build());
+
+            smallQueue.replaySpillFiles();
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<TradeEntity>> captor = ArgumentCaptor.forClass(List.class);
+            verify(batchInsertJdbcRepository).upsertTrades(captor.capture());
+            TradeEntity replayed = captor.getValue().get(0);
+            assertThat(replayed.getId()).isEqualTo("T2");
+            assertThat(replayed.getSide()).isEqualTo(OrderSide.SELL);
+            assertThat(replayed.getQuantity()).isEqualTo(50);
+            assertThat(replayed.getPrice()).isEqualByComparingTo("101.25");
+            assertThat(replayed.getExecutedAt()).isEqualTo(executedAt);
+            verify(reportingRollupService).recordTrades(captor.getValue());
+            assertThat(Files.exists(spillDir.resolve("trades.spill"))).isFalse();
+            assertThat(Files.exists(spillDir.resolve("trades.replay"))).isFalse();
+        }
 
         @Test
-        @DisplayName("Synchronous trade write failure goes to dead letter queue")
-        void syncTradeWriteFailureGoesToDeadLetter() {
+        @DisplayName("Failed replay keeps the entries and retries them on the next replay")
+        void failedReplayRetried() {
             DataSyncService smallQueue = createWithSmallQueues(1, 100);
-            smallQueue.queueTrade(TradeEntity.builder().id("T1").build()); // fills queue
+            smallQueue.queueTrade(TradeEntity.builder().id("T1").build());
+            smallQueue.queueTrade(TradeEntity.builder().id("T2").build());
+            doThrow(new RuntimeException("DB down"))
+                    .when(batchInsertJdbcRepository)
+                    .upsertTrades(any());
 
-            // Synchronous save fails too
-            doThrow(new RuntimeException("Disk full")).when(tradeJpaRepository).save(any(TradeEntity.class));
+            assertThat(smallQueue.replaySpillFiles()).isZero();
+            verify(reportingRollupService, never()).recordTrades(any());
 
-            smallQueue.queueTrade(TradeEntity.builder().id("T2").build()); // overflow + sync fail
+            reset(batchInsertJdbcRepository);
+            smallQueue.queueTrade(TradeEntity.builder().id("T3").build()); // spills to a fresh file
 
-            verify(deadLetterEventJpaRepository).save(any(DeadLetterEventEntity.class));
+            assertThat(smallQueue.replaySpillFiles()).isEqualTo(1); // the unfinished replay goes first
+            assertThat(smallQueue.replaySpillFiles()).isEqualTo(1);
+            verify(batchInsertJdbcRepository, times(2)).upsertTrades(any());
+            verify(deadLetterEventJpaRepository, never()).save(any(DeadLetterEventEntity.class));
         }
 
         @Test
-        @DisplayName("Synchronous audit write failure goes to dead letter queue")
-        void syncAuditWriteFailureGoesToDeadLetter() {
-            DataSyncService smallQueue = createWithSmallQueues(100, 1);
-            smallQueue.queueAuditLog(AuditLogEntity.builder()
+        @DisplayName("flushAll spills entries it cannot write, and a restarted service replays them")
+        void flushAllFailureSpillsForNextRun() {
+            dataSyncService.queueTrade(TradeEntity.builder().id("T1").build());
+            dataSyncService.queueAuditLog(AuditLogEntity.builder()
                     .eventType("E1")
                     .entityType("T1")
                     .entityId("ID1")
                     .build());
+            doThrow(new RuntimeException("DB down"))
+                    .when(batchInsertJdbcRepository)
+                    .upsertTrades(any());
+            doThrow(new RuntimeException("DB down"))
+                    .when(batchInsertJdbcRepository)
+                    .insertAuditLogs(any());
 
-            doThrow(new RuntimeException("Disk full"))
-                    .when(auditLogJpaRepository)
-                    .save(any(AuditLogEntity.class));
+            dataSyncService.flushAll();
 
-            smallQueue.queueAuditLog(AuditLogEntity.builder()
-                    .eventType("E2")
-                    .entityType("T2")
-                    .entityId("ID2")
-                    .build());
+            reset(batchInsertJdbcRepository);
+            DataSyncService restarted = createWithSmallQueues(10_000, 50_000);
+            assertThat(restarted.replaySpillFiles()).isEqualTo(2);
+        }
 
-            verify(deadLetterEventJpaRepository).save(any(DeadLetterEventEntity.class));
+        @Test
+        @DisplayName("shutdown spills queued entries without writing to H2")
+        void shutdownSpillsQueuedEntries() {
+            dataSyncService.queueTrade(TradeEntity.builder().id("T1").build());
+
+            dataSyncService.shutdown();
+
+            verify(batchInsertJdbcRepository, never()).upsertTrades(any());
+            assertThat(createWithSmallQueues(10_000, 50_000).replaySpillFiles()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Writer Thread")
+    class WriterThread {
+
+        @Test
+        @DisplayName("Queued trade is written by the writer thread without a scheduled flush")
+        void writerThreadWritesTrade() {
+            dataSyncService.start();
+            try {
+                dataSyncService.queueTrade(TradeEntity.builder().id("T1").build());
+
+                verify(batchInsertJdbcRepository, timeout(2_000)).upsertTrades(any());
+            } finally {
+                dataSyncService.shutdown();
+            }
         }
     }
 }
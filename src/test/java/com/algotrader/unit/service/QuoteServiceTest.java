@@ -0,0 +1,234 @@
+package com.algotrader.unit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.algotrader.broker.InstrumentSubscriptionManager;
+import com.algotrader.core.processor.TickProcessor;
+import com.algotrader.domain.enums.FeedMode;
+import com.algotrader.domain.enums.SubscriptionPriority;
+import com.algotrader.domain.model.Instrument;
+import com.algotrader.domain.model.Tick;
+import com.algotrader.event.TickEvent;
+import com.algotrader.service.InstrumentService;
+import com.algotrader.service.QuoteService;
+import com.zerodhatech.kiteconnect.KiteConnect;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Quote;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Unit tests for {@link QuoteService}.
+ *
+ * <p>Verifies serving subscribed tokens from the live tick cache, coalescing of concurrent
+ * requests for the same symbols, and partial results when a Kite batch fails. KiteConnect
+ * and InstrumentService are mocked; TickProcessor and InstrumentSubscriptionManager are real.
+ */
+@ExtendWith(MockitoExtension.class)
+class QuoteServiceTest {
+
+    private static final long NIFTY_CE = 1001L;
+    private static final long NIFTY_PE = 1002L;
+
+    @Mock
+    private KiteConnect kiteConnect;
+
+    @Mock
+    private InstrumentService instrumentService;
+
+    private TickProcessor tickProcessor;
+    private InstrumentSubscriptionManager instrumentSubscriptionManager;
+    private QuoteService quoteService;
+
+    @BeforeEach
+    void setUp() {
+        tickProcessor = new TickProcessor();
+        instrumentSubscriptionManager = new InstrumentSubscriptionManager();
+        quoteService = new QuoteService(
+                kiteConnect,
+                instrumentService,
+                tickProcessor,
+                instrumentSubscriptionManager,
+                RateLimiterRegistry.ofDefaults(),
+                2000,
+                2000);
+
+        lenient()
+                .when(instrumentService.findByToken(NIFTY_CE))
+                .thenReturn(Optional.of(instrument(NIFTY_CE, "NIFTYCE")));
+        lenient()
+                .when(instrumentService.findByToken(NIFTY_PE))
+                .thenReturn(Optional.of(instrument(NIFTY_PE, "NIFTYPE")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        quoteService.shutdown();
+    }
+
+    @Test
+    @DisplayName("getQuotes: fetches unsubscribed tokens from Kite")
+    void fetchesFromKite() throws Throwable {
+        when(kiteConnect.getQuote(any(String[].class)))
+                .thenReturn(Map.of("NFO:NIFTYCE", quote(NIFTY_CE, 120.5), "NFO:NIFTYPE", quote(NIFTY_PE, 98.0)));
+
+        List<Tick> ticks = quoteService.getQuotes(List.of(NIFTY_CE, NIFTY_PE));
+
+        assertThat(ticks).extracting(Tick::getInstrumentToken).containsExactlyInAnyOrder(NIFTY_CE, NIFTY_PE);
+        verify(kiteConnect, times(1)).getQuote(any(String[].class));
+    }
+
+    @Test
+    @DisplayName("getQuotes: serves subscribed tokens with a fresh tick from the tick cache")
+    void servesFreshTickFromCache() throws Throwable {
+        instrumentSubscriptionManager.subscribe(
+                "watchlist", List.of(NIFTY_CE), SubscriptionPriority.MANUAL, FeedMode.FULL);
+        tickProcessor.onTick(new TickEvent(this, tick(NIFTY_CE, "121.00")));
+
+        List<Tick> ticks = quoteService.getQuotes(List.of(NIFTY_CE));
+
+        assertThat(ticks).hasSize(1);
+        assertThat(ticks.get(0).getLastPrice()).isEqualByComparingTo("121.00");
+        verify(kiteConnect, never()).getQuote(any(String[].class));
+    }
+
+    @Test
+    @DisplayName("getQuotes: LTP-mode subscriptions still go to Kite for OHLC and volume")
+    void ltpSubscriptionFetchesFromKite() throws Throwable {
+        instrumentSubscriptionManager.subscribe(
+                "watchlist", List.of(NIFTY_CE), SubscriptionPriority.MANUAL, FeedMode.LTP);
+        tickProcessor.onTick(new TickEvent(this, tick(NIFTY_CE, "121.00")));
+        when(kiteConnect.getQuote(any(String[].class))).thenReturn(Map.of("NFO:NIFTYCE", quote(NIFTY_CE, 120.5)));
+
+        List<Tick> ticks = quoteService.getQuotes(List.of(NIFTY_CE));
+
+        assertThat(ticks.get(0).getLastPrice()).isEqualByComparingTo("120.5");
+    }
+
+    @Test
+    @DisplayName("getQuotes: QUOTE-mode subscriptions still go to Kite for depth and OI")
+    void quoteSubscriptionFetchesFromKite() throws Throwable {
+        instrumentSubscriptionManager.subscribe(
+                "watchlist", List.of(NIFTY_CE), SubscriptionPriority.MANUAL, FeedMode.QUOTE);
+        tickProcessor.onTick(new TickEvent(this, tick(NIFTY_CE, "121.00")));
+        when(kiteConnect.getQuote(any(String[].class))).thenReturn(Map.of("NFO:NIFTYCE", quote(NIFTY_CE, 120.5)));
+
+        List<Tick> ticks = quoteService.getQuotes(List.of(NIFTY_CE));
+
+        assertThat(ticks.get(0).getLastPrice()).isEqualByComparingTo("120.5");
+    }
+
+    @Test
+    @DisplayName("getQuotes: concurrent requests for the same symbol share one Kite call")
+    void coalescesConcurrentRequests() throws Throwable {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        AtomicReference<Thread> secondCaller = new AtomicReference<>();
+        when(instrumentService.findByToken(NIFTY_CE)).thenReturn(Optional.of(instrument(NIFTY_CE, "NIFTYCE")));
+        when(kiteConnect.getQuote(any(String[].class))).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            // Hold the batch until the second caller is parked on the in-flight future, which it
+            // only reaches after joining; resolving the token alone is not enough.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (System.nanoTime() < deadline
+                    && (secondCaller.get() == null || secondCaller.get().getState() != Thread.State.TIMED_WAITING)) {
+                Thread.onSpinWait();
+            }
+            return Map.of("NFO:NIFTYCE", quote(NIFTY_CE, 120.5));
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Tick>> first = callers.submit(() -> quoteService.getQuotes(List.of(NIFTY_CE)));
+            assertThat(fetchStarted.await(2, TimeUnit.SECONDS)).isTrue();
+            Future<List<Tick>> second = callers.submit(() -> {
+                secondCaller.set(Thread.currentThread());
+                return quoteService.getQuotes(List.of(NIFTY_CE));
+            });
+
+            assertThat(first.get(3, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(second.get(3, TimeUnit.SECONDS)).hasSize(1);
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(kiteConnect, times(1)).getQuote(any(String[].class));
+    }
+
+    @Test
+    @DisplayName("getQuotes: returns cached and other results when the Kite call fails")
+    void partialResultsOnKiteFailure() throws Throwable {
+        instrumentSubscriptionManager.subscribe("watchlist", List.of(NIFTY_CE), SubscriptionPriority.MANUAL);
+        tickProcessor.onTick(new TickEvent(this, tick(NIFTY_CE, "121.00")));
+        when(kiteConnect.getQuote(any(String[].class))).thenThrow(new KiteException("Too many requests", 429));
+
+        List<Tick> ticks = quoteService.getQuotes(List.of(NIFTY_CE, NIFTY_PE));
+
+        assertThat(ticks).extracting(Tick::getInstrumentToken).containsExactly(NIFTY_CE);
+    }
+
+    @Test
+    @DisplayName("getQuotes: a batch rejected after shutdown releases its symbols instead of waiting")
+    void rejectedBatchReleasesSymbols() throws Throwable {
+        quoteService.shutdown();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            assertThat(quoteService.getQuotes(List.of(NIFTY_CE))).isEmpty();
+            assertThat(quoteService.getQuotes(List.of(NIFTY_CE))).isEmpty();
+        });
+        verify(kiteConnect, never()).getQuote(any(String[].class));
+    }
+
+    @Test
+    @DisplayName("getQuotes: skips unknown tokens")
+    void skipsUnknownTokens() throws Throwable {
+        when(instrumentService.findByToken(9999L)).thenReturn(Optional.empty());
+
+        assertThat(quoteService.getQuotes(List.of(9999L))).isEmpty();
+        verify(kiteConnect, never()).getQuote(any(String[].class));
+    }
+
+    private static Instrument instrument(long token, String symbol) {
+        return Instrument.builder()
+                .token(token)
+                .tradingSymbol(symbol)
+                .exchange("NFO")
+                .build();
+    }
+
+    private static Quote quote(long token, double lastPrice) {
+        Quote quote = new Quote();
+        quote.instrumentToken = token;
+        quote.lastPrice = lastPrice;
+        return quote;
+    }
+
+    private static Tick tick(long token, String lastPrice) {
+        return Tick.builder()
+                .instrumentToken(token)
+                .lastPrice(new BigDecimal(lastPrice))
+                .build();
+    }
+}
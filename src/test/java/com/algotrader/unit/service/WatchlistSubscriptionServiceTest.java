@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 import com.algotrader.broker.InstrumentSubscriptionManager;
 import com.algotrader.broker.KiteMarketDataService;
 import com.algotrader.domain.enums.ExpiryType;
+import com.algotrader.domain.enums.FeedMode;
 import com.algotrader.domain.enums.InstrumentType;
 import com.algotrader.domain.enums.SubscriptionPriority;
 import com.algotrader.domain.model.Instrument;
@@ -93,13 +94,14 @@ class WatchlistSubscriptionServiceTest {
         // Subscription manager returns the tokens as new
         List<Long> expectedTokens = List.of(256265L, 9001L);
         when(instrumentSubscriptionManager.subscribe(
-                        eq("watchlist:NIFTY"), eq(expectedTokens), eq(SubscriptionPriority.MANUAL)))
+                        eq("watchlist:NIFTY"), eq(expectedTokens), eq(SubscriptionPriority.MANUAL), eq(FeedMode.QUOTE)))
                 .thenReturn(expectedTokens);
 
         watchlistSubscriptionService.subscribeAll();
 
         // Verify subscription manager was called with spot + FUT tokens
-        verify(instrumentSubscriptionManager).subscribe("watchlist:NIFTY", expectedTokens, SubscriptionPriority.MANUAL);
+        verify(instrumentSubscriptionManager)
+                .subscribe("watchlist:NIFTY", expectedTokens, SubscriptionPriority.MANUAL, FeedMode.QUOTE);
 
         // Verify actual WebSocket subscription
         verify(kiteMarketDataService).subscribe(expectedTokens);
@@ -112,7 +114,7 @@ class WatchlistSubscriptionServiceTest {
 
         watchlistSubscriptionService.subscribeAll();
 
-        verify(instrumentSubscriptionManager, never()).subscribe(any(), any(), any());
+        verify(instrumentSubscriptionManager, never()).subscribe(any(), any(), any(), any());
         verify(kiteMarketDataService, never()).subscribe(any());
     }
 
@@ -173,7 +175,7 @@ class WatchlistSubscriptionServiceTest {
         // Expect only spot token (no FUT found for monthly expiry)
         List<Long> expectedTokens = List.of(256265L);
         when(instrumentSubscriptionManager.subscribe(
-                        eq("watchlist:NIFTY"), eq(expectedTokens), eq(SubscriptionPriority.MANUAL)))
+                        eq("watchlist:NIFTY"), eq(expectedTokens), eq(SubscriptionPriority.MANUAL), eq(FeedMode.QUOTE)))
                 .thenReturn(expectedTokens);
 
         watchlistSubscriptionService.subscribeAll();
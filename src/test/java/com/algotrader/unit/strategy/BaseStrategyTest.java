@@ -1,6 +1,7 @@
 package com.algotrader.unit.strategy;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -25,6 +26,7 @@ import com.algotrader.service.InstrumentService;
 import com.algotrader.strategy.base.BaseStrategy;
 import com.algotrader.strategy.base.BaseStrategyConfig;
 import com.algotrader.strategy.base.MarketSnapshot;
+import com.algotrader.strategy.base.PositionTotals;
 import com.algotrader.strategy.base.PositionalStrategyConfig;
 import java.math.BigDecimal;
 import java.time.Duration;
@@ -399,6 +401,42 @@ class BaseStrategyTest {
         }
     }
 
+    // ========================
+    // EVALUATION DECISION LOGGING
+    // ========================
+
+    @Nested
+    @DisplayName("Evaluation Decision Logging")
+    class EvaluationDecisionLogging {
+
+        @Test
+        @DisplayName("Repeated 'entry not met' is published once, then suppressed")
+        void repeatedNoEntrySuppressed() {
+            strategy.arm();
+            for (int i = 0; i < 5; i++) {
+                strategy.forceLastEvaluationToNull();
+                strategy.evaluate(snapshot());
+            }
+
+            assertThat(strategy.shouldEnterCallCount.get()).isEqualTo(5);
+            verify(eventPublisherHelper, times(1))
+                    .publishDecision(any(), eq("ENTRY_EVAL"), anyString(), eq("STR-1"), any(Map.class));
+        }
+
+        @Test
+        @DisplayName("Outcome change to triggered is always published")
+        void triggeredOutcomePublished() {
+            strategy.arm();
+            strategy.evaluate(snapshot());
+            strategy.forceLastEvaluationToNull();
+            strategy.setShouldEnter(true);
+            strategy.evaluate(snapshot());
+
+            verify(eventPublisherHelper)
+                    .publishDecision(any(), eq("ENTRY_EVAL"), eq("Entry conditions met"), eq("STR-1"), any(Map.class));
+        }
+    }
+
     // ========================
     // STALE DATA GUARD
     // ========================
@@ -659,6 +697,42 @@ class BaseStrategyTest {
 
             assertThat(strategy.callCalculatePositionDelta()).isEqualByComparingTo(BigDecimal.valueOf(-5.0));
         }
+
+        @Test
+        @DisplayName("position totals follow adds, updates and removals")
+        void positionTotalsFollowChanges() {
+            strategy.addPosition(buildPositionWithGreeks(
+                    "P1", "NIFTY24FEB22000CE", -50, BigDecimal.valueOf(120.25), BigDecimal.valueOf(0.5)));
+            strategy.addPosition(buildPositionWithGreeks(
+                    "P2", "NIFTY24FEB21800PE", -50, BigDecimal.valueOf(-20.10), BigDecimal.valueOf(-0.4)));
+
+            PositionTotals totals = strategy.getPositionTotals();
+            assertThat(totals.positionCount()).isEqualTo(2);
+            assertThat(totals.totalPnl()).isEqualByComparingTo("100.15");
+            assertThat(totals.delta()).isCloseTo(-5.0, within(1e-9));
+            assertThat(totals.absQuantity()).isEqualTo(100);
+
+            strategy.updatePosition(buildPositionWithGreeks(
+                    "P2", "NIFTY24FEB21800PE", -50, BigDecimal.valueOf(30), BigDecimal.valueOf(-0.2)));
+            assertThat(strategy.calculateTotalPnl()).isEqualByComparingTo("150.25");
+            assertThat(strategy.getPositionTotals().delta()).isCloseTo(-15.0, within(1e-9));
+
+            strategy.removePosition("P1");
+            assertThat(strategy.getPositionTotals().positionCount()).isEqualTo(1);
+            assertThat(strategy.calculateTotalPnl()).isEqualByComparingTo("30");
+            assertThat(strategy.getPositionTotals().delta()).isCloseTo(10.0, within(1e-9));
+        }
+
+        @Test
+        @DisplayName("unchanged position update keeps the published totals")
+        void unchangedUpdateKeepsTotals() {
+            strategy.addPosition(buildPosition("P1", "NIFTY24FEB22000CE", -50, BigDecimal.valueOf(500)));
+            PositionTotals before = strategy.getPositionTotals();
+
+            strategy.updatePosition(buildPosition("P1", "NIFTY24FEB22000CE", -50, BigDecimal.valueOf(500)));
+
+            assertThat(strategy.getPositionTotals()).isSameAs(before);
+        }
     }
 
     // ========================
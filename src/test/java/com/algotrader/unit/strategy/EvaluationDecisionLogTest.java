@@ -0,0 +1,106 @@
+package com.algotrader.unit.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.algotrader.strategy.base.EvaluationDecisionLog;
+import com.algotrader.strategy.base.EvaluationDecisionLog.EvaluationPoint;
+import com.algotrader.strategy.base.EvaluationDecisionLog.EvaluationRecord;
+import java.math.BigDecimal;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for EvaluationDecisionLog covering suppression of repeated outcomes, sampling,
+ * transitions, and deferred context formatting.
+ */
+class EvaluationDecisionLogTest {
+
+    private static final long SAMPLE_INTERVAL = 1_000L;
+    private static final BigDecimal SPOT = BigDecimal.valueOf(22000);
+
+    private EvaluationDecisionLog log;
+
+    @BeforeEach
+    void setUp() {
+        log = new EvaluationDecisionLog(SAMPLE_INTERVAL);
+    }
+
+    private EvaluationRecord recordAndPublish(boolean triggered, long now) {
+        EvaluationRecord record = log.record(EvaluationPoint.ENTRY_EVAL, triggered, SPOT, null, now);
+        if (record != null) {
+            record.toContext();
+            log.published(record);
+        }
+        return record;
+    }
+
+    @Test
+    @DisplayName("First outcome is emitted")
+    void firstOutcomeEmitted() {
+        EvaluationRecord record = log.record(EvaluationPoint.ENTRY_EVAL, false, SPOT, null, 0);
+
+        assertThat(record).isNotNull();
+        assertThat(record.getCategory()).isEqualTo("ENTRY_EVAL");
+        assertThat(record.getMessage()).isEqualTo("Entry conditions not met");
+    }
+
+    @Test
+    @DisplayName("Repeated non-triggered outcome is suppressed within the sample interval")
+    void repeatSuppressed() {
+        recordAndPublish(false, 0);
+
+        assertThat(recordAndPublish(false, 10)).isNull();
+        assertThat(recordAndPublish(false, 20)).isNull();
+    }
+
+    @Test
+    @DisplayName("Repeat after the sample interval is emitted with the suppressed count")
+    void repeatSampledAfterInterval() {
+        recordAndPublish(false, 0);
+        recordAndPublish(false, 10);
+        recordAndPublish(false, 20);
+
+        EvaluationRecord sample = log.record(EvaluationPoint.ENTRY_EVAL, false, SPOT, null, SAMPLE_INTERVAL + 1);
+
+        assertThat(sample).isNotNull();
+        assertThat(sample.getRepeats()).isEqualTo(2);
+        assertThat(sample.toContext()).containsEntry("repeats", 2L);
+    }
+
+    @Test
+    @DisplayName("Triggered outcome is always emitted, even repeatedly")
+    void triggeredAlwaysEmitted() {
+        recordAndPublish(false, 0);
+
+        assertThat(recordAndPublish(true, 1)).isNotNull();
+        assertThat(recordAndPublish(true, 2)).isNotNull();
+        assertThat(recordAndPublish(false, 3)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Evaluation points are tracked independently")
+    void pointsIndependent() {
+        recordAndPublish(false, 0);
+
+        EvaluationRecord exit = log.record(EvaluationPoint.EXIT_EVAL, false, BigDecimal.ONE, null, 1);
+
+        assertThat(exit).isNotNull();
+        assertThat(exit.getMessage()).isEqualTo("No exit");
+    }
+
+    @Test
+    @DisplayName("Context formats the latest values and N/A for missing ones")
+    void contextFormatting() {
+        EvaluationRecord record = log.record(EvaluationPoint.EXIT_EVAL, true, BigDecimal.valueOf(-1500), null, 0);
+
+        Map<String, Object> context = record.toContext();
+
+        assertThat(context)
+                .containsEntry("currentPnl", "-1500")
+                .containsEntry("entryPremium", "N/A")
+                .containsEntry("decision", true)
+                .doesNotContainKey("repeats");
+    }
+}
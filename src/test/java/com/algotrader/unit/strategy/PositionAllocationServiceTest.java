@@ -1,9 +1,12 @@
 package com.algotrader.unit.strategy;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.algotrader.entity.StrategyLegEntity;
+import com.algotrader.event.StrategyLegChangedEvent;
 import com.algotrader.repository.jpa.StrategyLegJpaRepository;
 import com.algotrader.strategy.adoption.PositionAllocationService;
 import java.util.List;
@@ -19,7 +22,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 /**
  * Tests for {@link PositionAllocationService} — verifies allocation quantity computation
- * across fully unmanaged, partially managed, fully managed, and over-allocated scenarios.
+ * across fully unmanaged, partially managed, fully managed, and over-allocated scenarios,
+ * and that the in-memory allocation ledger follows leg changes without re-querying.
  */
 @ExtendWith(MockitoExtension.class)
 class PositionAllocationServiceTest {
@@ -41,14 +45,14 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("returns 0 when no legs reference the position")
         void fullyUnmanaged() {
-            when(strategyLegJpaRepository.findByPositionId("P1")).thenReturn(List.of());
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull()).thenReturn(List.of());
             assertThat(positionAllocationService.getAllocatedQuantity("P1")).isZero();
         }
 
         @Test
         @DisplayName("sums leg quantities for a single strategy")
         void singleStrategy() {
-            when(strategyLegJpaRepository.findByPositionId("P1"))
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
                     .thenReturn(List.of(legEntity("L1", "S1", "P1", -300)));
 
             assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-300);
@@ -57,7 +61,7 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("sums leg quantities across multiple strategies")
         void multipleStrategies() {
-            when(strategyLegJpaRepository.findByPositionId("P1"))
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
                     .thenReturn(List.of(legEntity("L1", "S1", "P1", -300), legEntity("L2", "S2", "P1", -450)));
 
             assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-750);
@@ -75,7 +79,7 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("fully unmanaged — returns full position quantity")
         void fullyUnmanaged() {
-            when(strategyLegJpaRepository.findByPositionId("P1")).thenReturn(List.of());
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull()).thenReturn(List.of());
             assertThat(positionAllocationService.getUnmanagedQuantity("P1", -750))
                     .isEqualTo(750);
         }
@@ -83,7 +87,7 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("partially managed — returns remainder")
         void partiallyManaged() {
-            when(strategyLegJpaRepository.findByPositionId("P1"))
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
                     .thenReturn(List.of(legEntity("L1", "S1", "P1", -300)));
 
             assertThat(positionAllocationService.getUnmanagedQuantity("P1", -750))
@@ -93,7 +97,7 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("fully managed — returns 0")
         void fullyManaged() {
-            when(strategyLegJpaRepository.findByPositionId("P1"))
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
                     .thenReturn(List.of(legEntity("L1", "S1", "P1", -300), legEntity("L2", "S2", "P1", -450)));
 
             assertThat(positionAllocationService.getUnmanagedQuantity("P1", -750))
@@ -104,7 +108,7 @@ class PositionAllocationServiceTest {
         @DisplayName("over-allocated — returns negative value")
         void overAllocated() {
             // Position shrank from -750 to -500 but allocations still total 750
-            when(strategyLegJpaRepository.findByPositionId("P1"))
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
                     .thenReturn(List.of(legEntity("L1", "S1", "P1", -300), legEntity("L2", "S2", "P1", -450)));
 
             assertThat(positionAllocationService.getUnmanagedQuantity("P1", -500))
@@ -114,7 +118,8 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("long position — uses absolute values")
         void longPosition() {
-            when(strategyLegJpaRepository.findByPositionId("P1")).thenReturn(List.of(legEntity("L1", "S1", "P1", 150)));
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
+                    .thenReturn(List.of(legEntity("L1", "S1", "P1", 150)));
 
             assertThat(positionAllocationService.getUnmanagedQuantity("P1", 300))
                     .isEqualTo(150);
@@ -138,7 +143,7 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("returns allocations grouped by positionId")
         void groupedByPosition() {
-            when(strategyLegJpaRepository.findByPositionIdIn(Set.of("P1", "P2")))
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
                     .thenReturn(List.of(
                             legEntity("L1", "S1", "P1", -300),
                             legEntity("L2", "S2", "P1", -150),
@@ -154,7 +159,7 @@ class PositionAllocationServiceTest {
         @Test
         @DisplayName("positions without allocations are absent from the map")
         void noAllocationsAbsent() {
-            when(strategyLegJpaRepository.findByPositionIdIn(Set.of("P1", "P2")))
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
                     .thenReturn(List.of(legEntity("L1", "S1", "P1", -300)));
 
             Map<String, Integer> result = positionAllocationService.getAllocationMap(Set.of("P1", "P2"));
@@ -196,10 +201,113 @@ class PositionAllocationServiceTest {
         }
     }
 
+    // ========================
+    // Allocation ledger
+    // ========================
+
+    @Nested
+    @DisplayName("Allocation ledger")
+    class AllocationLedger {
+
+        @Test
+        @DisplayName("loads linked legs once and serves every read from memory")
+        void loadsOnce() {
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
+                    .thenReturn(List.of(legEntity("L1", "S1", "P1", -300), legEntity("L2", "S2", "P2", -75)));
+
+            positionAllocationService.loadLedger();
+            positionAllocationService.getAllocatedQuantity("P1");
+            positionAllocationService.getUnmanagedQuantity("P2", -75);
+            positionAllocationService.getAllocationMap(Set.of("P1", "P2"));
+            positionAllocationService.getAllAllocations();
+
+            verify(strategyLegJpaRepository, times(1)).findByPositionIdIsNotNull();
+        }
+
+        @Test
+        @DisplayName("applies created, adjusted, unlinked and deleted legs")
+        void followsLegChanges() {
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
+                    .thenReturn(List.of(legEntity("L1", "S1", "P1", -300)));
+            positionAllocationService.loadLedger();
+
+            // New leg linked to the same position
+            positionAllocationService.onLegChanged(changed("L2", "S2", "P1", -450, false));
+            assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-750);
+
+            // Leg quantity adjusted
+            positionAllocationService.onLegChanged(changed("L2", "S2", "P1", -150, false));
+            assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-450);
+
+            // Leg closed: position link cleared
+            positionAllocationService.onLegChanged(changed("L1", "S1", null, -300, false));
+            assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-150);
+
+            // Leg row deleted
+            positionAllocationService.onLegChanged(changed("L2", "S2", "P1", -150, true));
+            assertThat(positionAllocationService.getAllocatedQuantity("P1")).isZero();
+            assertThat(positionAllocationService.getAllAllocations()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("leg moved to another position leaves the old one")
+        void legRelinked() {
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
+                    .thenReturn(List.of(legEntity("L1", "S1", "P1", -300)));
+            positionAllocationService.loadLedger();
+
+            positionAllocationService.onLegChanged(changed("L1", "S1", "P2", -300, false));
+
+            assertThat(positionAllocationService.getAllAllocations()).containsOnlyKeys("P2");
+        }
+
+        @Test
+        @DisplayName("reports allocation per strategy")
+        void perStrategy() {
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
+                    .thenReturn(List.of(
+                            legEntity("L1", "S1", "P1", -300),
+                            legEntity("L2", "S1", "P1", 100),
+                            legEntity("L3", "S2", "P1", -450)));
+
+            assertThat(positionAllocationService.getStrategyAllocations("P1"))
+                    .containsExactlyInAnyOrderEntriesOf(Map.of("S1", -200, "S2", -450));
+            assertThat(positionAllocationService.getStrategyAllocations("P9")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("changes before the ledger is loaded are picked up by the load")
+        void changeBeforeLoad() {
+            positionAllocationService.onLegChanged(changed("L1", "S1", "P1", -300, false));
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
+                    .thenReturn(List.of(legEntity("L1", "S1", "P1", -300)));
+
+            assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-300);
+        }
+
+        @Test
+        @DisplayName("invalidateLedger reloads from the database")
+        void invalidateReloads() {
+            when(strategyLegJpaRepository.findByPositionIdIsNotNull())
+                    .thenReturn(List.of(legEntity("L1", "S1", "P1", -300)))
+                    .thenReturn(List.of(legEntity("L1", "S1", "P1", -150)));
+            assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-300);
+
+            positionAllocationService.invalidateLedger();
+
+            assertThat(positionAllocationService.getAllocatedQuantity("P1")).isEqualTo(-150);
+        }
+    }
+
     // ========================
     // Helpers
     // ========================
 
+    private StrategyLegChangedEvent changed(
+            String legId, String strategyId, String positionId, int quantity, boolean removed) {
+        return new StrategyLegChangedEvent(this, legId, strategyId, positionId, quantity, removed);
+    }
+
     private static StrategyLegEntity legEntity(String id, String strategyId, String positionId, int quantity) {
         return StrategyLegEntity.builder()
                 .id(id)
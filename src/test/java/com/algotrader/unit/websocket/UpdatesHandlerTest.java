@@ -3,6 +3,8 @@ package com.algotrader.unit.websocket;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.algotrader.api.websocket.UpdatesHandler;
@@ -27,7 +29,9 @@ import com.algotrader.event.StrategyEventType;
 import com.algotrader.event.SystemEvent;
 import com.algotrader.event.SystemEventType;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -52,7 +56,8 @@ class UpdatesHandlerTest {
 
     @BeforeEach
     void setUp() {
-        updatesHandler = new UpdatesHandler(simpMessagingTemplate);
+        // Coalescing disabled: each event is its own frame
+        updatesHandler = new UpdatesHandler(simpMessagingTemplate, 0);
     }
 
     @Nested
@@ -258,8 +263,103 @@ class UpdatesHandlerTest {
             updatesHandler.onSystemEvent(new SystemEvent(this, SystemEventType.BROKER_CONNECTED, "Broker connected"));
 
             // All 5 events should go to /topic/updates
-            verify(simpMessagingTemplate, org.mockito.Mockito.times(5))
-                    .convertAndSend(eq("/topic/updates"), any(WebSocketMessage.class));
+            verify(simpMessagingTemplate, times(5)).convertAndSend(eq("/topic/updates"), any(WebSocketMessage.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Coalescing")
+    class Coalescing {
+
+        private UpdatesHandler coalescingHandler;
+
+        @BeforeEach
+        void setUp() {
+            // Window long enough that only the explicit flush() sends
+            coalescingHandler = new UpdatesHandler(simpMessagingTemplate, 60_000);
+        }
+
+        @AfterEach
+        void tearDown() {
+            coalescingHandler.shutdown();
+        }
+
+        @Test
+        @DisplayName("holds updates until the window flushes")
+        void holdsUntilFlush() {
+            coalescingHandler.onPositionEvent(
+                    new PositionEvent(this, position("POS-1", 50), PositionEventType.UPDATED));
+
+            verify(simpMessagingTemplate, never()).convertAndSend(eq("/topic/updates"), any(WebSocketMessage.class));
+        }
+
+        @Test
+        @DisplayName("merges updates per entity, last state wins, in one batched frame")
+        @SuppressWarnings("unchecked")
+        void mergesPerEntityIntoOneBatch() {
+            Order placed = Order.builder()
+                    .id("ORD-1")
+                    .status(OrderStatus.OPEN)
+                    .filledQuantity(0)
+                    .build();
+            Order filled = Order.builder()
+                    .id("ORD-1")
+                    .status(OrderStatus.COMPLETE)
+                    .filledQuantity(50)
+                    .build();
+
+            coalescingHandler.onOrderEvent(new OrderEvent(this, placed, OrderEventType.PLACED));
+            coalescingHandler.onPositionEvent(
+                    new PositionEvent(this, position("POS-1", 25), PositionEventType.UPDATED));
+            coalescingHandler.onOrderEvent(new OrderEvent(this, filled, OrderEventType.FILLED));
+            coalescingHandler.onPositionEvent(
+                    new PositionEvent(this, position("POS-1", 50), PositionEventType.UPDATED));
+            coalescingHandler.onRiskEvent(
+                    new RiskEvent(this, RiskEventType.MARGIN_UTILIZATION_HIGH, RiskLevel.WARNING, "High margin"));
+            coalescingHandler.flush();
+
+            ArgumentCaptor<WebSocketMessage> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+            verify(simpMessagingTemplate).convertAndSend(eq("/topic/updates"), captor.capture());
+            assertThat(captor.getValue().getType()).isEqualTo("BATCH");
+
+            List<WebSocketMessage> batch =
+                    (List<WebSocketMessage>) captor.getValue().getData();
+            assertThat(batch).extracting(WebSocketMessage::getType).containsExactly("ORDER", "POSITION", "RISK");
+
+            Map<String, Object> order = (Map<String, Object>) batch.get(0).getData();
+            Map<String, Object> position = (Map<String, Object>) batch.get(1).getData();
+            Map<String, Object> risk = (Map<String, Object>) batch.get(2).getData();
+            assertThat(order).containsEntry("eventType", "FILLED").containsEntry("seq", 3L);
+            assertThat(position).containsEntry("quantity", 50).containsEntry("seq", 4L);
+            assertThat(risk).containsEntry("seq", 5L);
+        }
+
+        @Test
+        @DisplayName("keeps sequence numbers increasing across flushes")
+        @SuppressWarnings("unchecked")
+        void sequenceContinuesAcrossFlushes() {
+            coalescingHandler.onPositionEvent(
+                    new PositionEvent(this, position("POS-1", 25), PositionEventType.UPDATED));
+            coalescingHandler.flush();
+            coalescingHandler.onPositionEvent(
+                    new PositionEvent(this, position("POS-1", 50), PositionEventType.UPDATED));
+            coalescingHandler.flush();
+            coalescingHandler.flush();
+
+            ArgumentCaptor<WebSocketMessage> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+            verify(simpMessagingTemplate, times(2)).convertAndSend(eq("/topic/updates"), captor.capture());
+            List<WebSocketMessage> second =
+                    (List<WebSocketMessage>) captor.getAllValues().get(1).getData();
+            assertThat((Map<String, Object>) second.get(0).getData()).containsEntry("seq", 2L);
+        }
+
+        private Position position(String id, int quantity) {
+            return Position.builder()
+                    .id(id)
+                    .tradingSymbol("NIFTY24FEB22000CE")
+                    .exchange("NFO")
+                    .quantity(quantity)
+                    .build();
         }
     }
 }